@@ -31,6 +31,7 @@ import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 
 import org.eclipse.jdt.internal.core.manipulation.JavaManipulationPlugin;
+import org.eclipse.jdt.internal.core.manipulation.RecentASTCache;
 import org.eclipse.jdt.internal.corext.dom.ASTNodes;
 import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
 
@@ -38,6 +39,9 @@ import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
  * The {@link CoreASTProvider} provides access to the {@link CompilationUnit AST root} used by
  * the current active Java editor.
  *
+ * The ASTs of recently active Java elements are kept in a bounded cache and are reused while
+ * their content did not change.
+ *
  * The {@link CoreASTProvider} contains all methods/functionality that are
  * not dependent on the UI, from org.eclipse.jdt.internal.ui.javaeditor.ASTProvider
  * for the purpose of reuse by non-UI bundles.
@@ -152,6 +156,16 @@ public final class CoreASTProvider {
 			}
 		}
 
+		if (!isActiveElement) {
+			CompilationUnit recentAST= RecentASTCache.getDefault().get(input);
+			if (recentAST != null) {
+				if (JavaManipulationPlugin.DEBUG_AST_PROVIDER)
+					System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "returning recent AST:" + toString(recentAST) + " for: " + input.getElementName()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+				return recentAST;
+			}
+		}
+
 		final boolean canReturnNull= waitFlag == CoreASTProvider.WAIT_NO || (waitFlag == CoreASTProvider.WAIT_ACTIVE_ONLY && (!isActiveElement || fAST != null));
 		boolean isReconciling= false;
 		final ITypeRoot activeElement;
@@ -255,6 +269,7 @@ public final class CoreASTProvider {
 			fIsReconciling= true;
 			this.fFinishReconciling = finishReconciling;
 		}
+		RecentASTCache.getDefault().remove(javaElement);
 		cache(null, javaElement);
 	}
 
@@ -492,9 +507,23 @@ public final class CoreASTProvider {
 
 	/**
 	 * Set the active java element that is currently active.
+	 * <p>
+	 * The AST of the previously active java element is moved to the cache of recent ASTs, and the
+	 * cached AST of the new active java element is restored from it, if still valid.
+	 * </p>
 	 * @param activeJavaElement the java element.
 	 */
-	public void setActiveJavaElement (ITypeRoot activeJavaElement) {
+	public synchronized void setActiveJavaElement (ITypeRoot activeJavaElement) {
+		if (fActiveJavaElement != null && !fActiveJavaElement.equals(activeJavaElement)) {
+			if (fAST != null && !isReconciling(fActiveJavaElement))
+				RecentASTCache.getDefault().put(fActiveJavaElement, fAST);
+			fAST= null;
+			if (activeJavaElement != null) {
+				fAST= RecentASTCache.getDefault().take(activeJavaElement);
+				if (JavaManipulationPlugin.DEBUG_AST_PROVIDER && fAST != null)
+					System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "restored recent AST: " + toString(fAST) + " for: " + toString(activeJavaElement)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+		}
 		fActiveJavaElement = activeJavaElement;
 	}
 
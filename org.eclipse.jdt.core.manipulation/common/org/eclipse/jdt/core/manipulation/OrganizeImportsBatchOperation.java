@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.manipulation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
+
+import org.eclipse.core.resources.IWorkspaceRunnable;
+
+import org.eclipse.text.edits.TextEdit;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.manipulation.OrganizeImportsOperation.CollectedReferences;
+import org.eclipse.jdt.core.manipulation.OrganizeImportsOperation.IChooseImportQuery;
+import org.eclipse.jdt.core.manipulation.OrganizeImportsOperation.TypeNameResolver;
+
+import org.eclipse.jdt.internal.core.manipulation.JavaManipulationMessages;
+import org.eclipse.jdt.internal.core.manipulation.Messages;
+import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
+import org.eclipse.jdt.internal.corext.util.WorkerPool;
+
+/**
+ * Organizes the imports of many compilation units.
+ * <p>
+ * The compilation units are processed in chunks. The type references of the units of a chunk are
+ * collected in parallel, the simple names left unresolved are searched with one search per
+ * project, and the imports are rewritten in parallel again. The found types are shared by all
+ * chunks, so every name is searched only once. The resulting edits are the same as those of
+ * {@link OrganizeImportsOperation}s run one by one.
+ * </p>
+ *
+ * @since 1.17
+ */
+public class OrganizeImportsBatchOperation implements IWorkspaceRunnable {
+
+	private interface UnitTask {
+		void run(int index, IProgressMonitor monitor) throws CoreException;
+	}
+
+	/** The number of units whose ASTs are kept at the same time */
+	private static final int CHUNK_SIZE= 200;
+
+	/** The maximum number of units processed concurrently */
+	private static final int MAX_PARALLELISM= 8;
+
+	private static final String THREAD_NAME= "Organize Imports"; //$NON-NLS-1$
+
+	private final ICompilationUnit[] fCompilationUnits;
+
+	private final OrganizeImportsOperation[] fOperations;
+
+	private final TypeNameResolver fTypeNameResolver;
+
+	private final boolean fDoSave;
+
+	private int fParallelism;
+
+	/**
+	 * Creates a new operation organizing the imports of the given compilation units.
+	 *
+	 * @param cus the compilation units
+	 * @param ignoreLowerCaseNames when true, type names starting with a lower case are ignored
+	 * @param save If set, the results will be saved
+	 * @param allowSyntaxErrors If set, the operation will only proceed on compilation units without syntax errors
+	 * @param chooseImportQuery Query element to be used for UI interaction or <code>null</code> to
+	 *            not select anything. The query may be called concurrently for different units.
+	 */
+	public OrganizeImportsBatchOperation(ICompilationUnit[] cus, boolean ignoreLowerCaseNames, boolean save, boolean allowSyntaxErrors, IChooseImportQuery chooseImportQuery) {
+		this(cus, ignoreLowerCaseNames, save, allowSyntaxErrors, cu -> chooseImportQuery);
+	}
+
+	/**
+	 * Creates a new operation organizing the imports of the given compilation units, with a query
+	 * for each unit.
+	 *
+	 * @param cus the compilation units
+	 * @param ignoreLowerCaseNames when true, type names starting with a lower case are ignored
+	 * @param save If set, the results will be saved
+	 * @param allowSyntaxErrors If set, the operation will only proceed on compilation units without syntax errors
+	 * @param chooseImportQueries Returns the query element to be used for UI interaction with a
+	 *            unit, or <code>null</code> to not select anything. The queries may be called
+	 *            concurrently for different units.
+	 * @return the new operation
+	 */
+	public static OrganizeImportsBatchOperation createWithQueries(ICompilationUnit[] cus, boolean ignoreLowerCaseNames, boolean save, boolean allowSyntaxErrors, Function<ICompilationUnit, IChooseImportQuery> chooseImportQueries) {
+		return new OrganizeImportsBatchOperation(cus, ignoreLowerCaseNames, save, allowSyntaxErrors, chooseImportQueries);
+	}
+
+	private OrganizeImportsBatchOperation(ICompilationUnit[] cus, boolean ignoreLowerCaseNames, boolean save, boolean allowSyntaxErrors, Function<ICompilationUnit, IChooseImportQuery> chooseImportQueries) {
+		fCompilationUnits= cus.clone();
+		fDoSave= save;
+		fTypeNameResolver= new TypeNameResolver();
+		fOperations= new OrganizeImportsOperation[cus.length];
+		for (int i= 0; i < cus.length; i++) {
+			fOperations[i]= new OrganizeImportsOperation(cus[i], null, ignoreLowerCaseNames, save, allowSyntaxErrors, chooseImportQueries.apply(cus[i]));
+			fOperations[i].setTypeNameResolver(fTypeNameResolver);
+		}
+		fParallelism= WorkerPool.getDefaultParallelism(MAX_PARALLELISM);
+	}
+
+	/**
+	 * Sets the number of compilation units processed concurrently.
+	 *
+	 * @param parallelism the number of units, <code>1</code> processes them on the calling thread
+	 */
+	public void setParallelism(int parallelism) {
+		fParallelism= Math.max(1, parallelism);
+	}
+
+	/**
+	 * Returns the operations of the compilation units, in the order of the units. After running
+	 * the batch they report the parse errors and the numbers of added and removed imports.
+	 *
+	 * @return the operations of the compilation units
+	 */
+	public OrganizeImportsOperation[] getOperations() {
+		return fOperations.clone();
+	}
+
+	/**
+	 * Runs the operation.
+	 * @param monitor the progress monitor
+	 * @throws CoreException thrown when the operation failed
+	 * @throws OperationCanceledException Runtime error thrown when operation is canceled.
+	 */
+	@Override
+	public void run(IProgressMonitor monitor) throws CoreException, OperationCanceledException {
+		SubMonitor subMonitor= SubMonitor.convert(monitor, getDescription(), 10);
+		TextEdit[] edits= createTextEdits(subMonitor.split(8));
+		SubMonitor applyMonitor= subMonitor.split(2).setWorkRemaining(edits.length);
+		for (int i= 0; i < edits.length; i++) {
+			if (edits[i] != null) {
+				JavaModelUtil.applyEdit(fCompilationUnits[i], edits[i], fDoSave, applyMonitor.split(1));
+			} else {
+				applyMonitor.worked(1);
+			}
+		}
+	}
+
+	/**
+	 * Creates the edits of the imports of all compilation units.
+	 *
+	 * @param monitor the progress monitor
+	 * @return the edits in the order of the compilation units, <code>null</code> entries for units
+	 *         with syntax errors
+	 * @throws CoreException thrown when the operation failed
+	 * @throws OperationCanceledException Runtime error thrown when operation is canceled.
+	 */
+	public TextEdit[] createTextEdits(IProgressMonitor monitor) throws CoreException, OperationCanceledException {
+		int count= fOperations.length;
+		SubMonitor subMonitor= SubMonitor.convert(monitor, getDescription(), 3 * count);
+		TextEdit[] result= new TextEdit[count];
+		try (WorkerPool pool= new WorkerPool(THREAD_NAME, fParallelism, subMonitor)) {
+			for (int start= 0; start < count; start+= CHUNK_SIZE) {
+				int end= Math.min(count, start + CHUNK_SIZE);
+				int offset= start;
+				CollectedReferences[] references= new CollectedReferences[end - start];
+
+				runAll(pool, start, end, subMonitor,
+						(index, m) -> references[index - offset]= fOperations[index].collectReferences(m));
+				resolve(references, pool, subMonitor.split(end - start));
+				runAll(pool, start, end, subMonitor, (index, m) -> {
+					if (references[index - offset] != null)
+						result[index]= fOperations[index].createTextEdit(references[index - offset], m);
+				});
+			}
+			return result;
+		} finally {
+			subMonitor.done();
+		}
+	}
+
+	/**
+	 * Searches the unresolved names of the collected references with one search per project and
+	 * test code visibility.
+	 *
+	 * @param references the collected references, <code>null</code> entries are skipped
+	 * @param pool the pool whose monitor is passed to the searches
+	 * @param monitor the progress monitor
+	 * @throws CoreException if a search fails
+	 */
+	private void resolve(CollectedReferences[] references, WorkerPool pool, IProgressMonitor monitor) throws CoreException {
+		Map<IJavaProject, Set<String>> mainNames= new LinkedHashMap<>();
+		Map<IJavaProject, Set<String>> testNames= new LinkedHashMap<>();
+		for (CollectedReferences curr : references) {
+			if (curr == null || curr.getUnresolvedTypeNames().isEmpty())
+				continue;
+			Map<IJavaProject, Set<String>> names= curr.isExcludeTestCode() ? mainNames : testNames;
+			names.computeIfAbsent(curr.getProject(), project -> new LinkedHashSet<>()).addAll(curr.getUnresolvedTypeNames());
+		}
+		SubMonitor subMonitor= SubMonitor.convert(monitor, mainNames.size() + testNames.size());
+		IProgressMonitor unitMonitor= pool.getTaskMonitor();
+		for (Map.Entry<IJavaProject, Set<String>> entry : mainNames.entrySet()) {
+			fTypeNameResolver.resolve(entry.getKey(), true, entry.getValue(), unitMonitor);
+			subMonitor.worked(1);
+		}
+		for (Map.Entry<IJavaProject, Set<String>> entry : testNames.entrySet()) {
+			fTypeNameResolver.resolve(entry.getKey(), false, entry.getValue(), unitMonitor);
+			subMonitor.worked(1);
+		}
+		pool.checkCanceled();
+	}
+
+	/**
+	 * Runs the task for the units in the given range.
+	 *
+	 * @param pool the pool running the tasks
+	 * @param start the index of the first unit
+	 * @param end the index after the last unit
+	 * @param monitor the progress monitor of the operation, one tick per unit
+	 * @param task the task to run
+	 * @throws CoreException if a task failed
+	 */
+	private static void runAll(WorkerPool pool, int start, int end, SubMonitor monitor, UnitTask task) throws CoreException {
+		List<WorkerPool.Task<Void>> tasks= new ArrayList<>(end - start);
+		for (int i= start; i < end; i++) {
+			int index= i;
+			tasks.add(m -> {
+				task.run(index, m);
+				return null;
+			});
+		}
+		pool.runAll(tasks, monitor);
+	}
+
+	private String getDescription() {
+		return Messages.format(JavaManipulationMessages.OrganizeImportsBatchOperation_description, Integer.valueOf(fCompilationUnits.length));
+	}
+
+	/**
+	 * @return Returns the scheduling rule for this operation
+	 */
+	public ISchedulingRule getScheduleRule() {
+		ISchedulingRule[] rules= new ISchedulingRule[fCompilationUnits.length];
+		for (int i= 0; i < rules.length; i++) {
+			rules[i]= fCompilationUnits[i].getResource();
+		}
+		return MultiRule.combine(rules);
+	}
+}
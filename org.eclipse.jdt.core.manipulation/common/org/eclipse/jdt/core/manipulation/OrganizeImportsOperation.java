@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -229,6 +229,8 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 
 		private final UnresolvableImportMatcher fUnresolvableImportMatcher;
 
+		private final TypeNameResolver fTypeNameResolver;
+
 		private IPackageFragment fCurrPackage;
 
 		private ScopeAnalyzer fAnalyzer;
@@ -240,12 +242,13 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 		private SourceRange[] fSourceRanges;
 
 
-		public TypeReferenceProcessor(Set<String> oldSingleImports, Set<String> oldDemandImports, CompilationUnit root, ImportRewrite impStructure, boolean ignoreLowerCaseNames, UnresolvableImportMatcher unresolvableImportMatcher) {
+		public TypeReferenceProcessor(Set<String> oldSingleImports, Set<String> oldDemandImports, CompilationUnit root, ImportRewrite impStructure, boolean ignoreLowerCaseNames, UnresolvableImportMatcher unresolvableImportMatcher, TypeNameResolver typeNameResolver) {
 			fOldSingleImports= oldSingleImports;
 			fOldDemandImports= oldDemandImports;
 			fImpStructure= impStructure;
 			fDoIgnoreLowerCaseNames= ignoreLowerCaseNames;
 			fUnresolvableImportMatcher= unresolvableImportMatcher;
+			fTypeNameResolver= typeNameResolver;
 
 			ICompilationUnit cu= impStructure.getCompilationUnit();
 
@@ -345,23 +348,32 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 			fUnresolvedTypes.put(typeName, new UnresolvedTypeData(ref));
 		}
 
+		public Set<String> getUnresolvedTypeNames() {
+			return fUnresolvedTypes.keySet();
+		}
+
+		public IJavaProject getProject() {
+			return fCurrPackage.getJavaProject();
+		}
+
+		public boolean isExcludeTestCode() throws JavaModelException {
+			return !((IPackageFragmentRoot)fCurrPackage.getParent()).getResolvedClasspathEntry().isTest();
+		}
+
 		public boolean process(IProgressMonitor monitor) throws JavaModelException {
 			try {
 				int nUnresolved= fUnresolvedTypes.size();
 				if (nUnresolved == 0) {
 					return false;
 				}
-				char[][] allTypes= new char[nUnresolved][];
-				int i= 0;
-				for (String string : fUnresolvedTypes.keySet()) {
-					allTypes[i++]= string.toCharArray();
+				final IJavaProject project= getProject();
+				boolean excludeTestCode= isExcludeTestCode();
+				List<TypeNameMatch> typesFound;
+				if (fTypeNameResolver != null) {
+					typesFound= fTypeNameResolver.findTypes(project, excludeTestCode, fUnresolvedTypes.keySet(), monitor);
+				} else {
+					typesFound= searchTypes(project, excludeTestCode, fUnresolvedTypes.keySet(), monitor);
 				}
-				final ArrayList<TypeNameMatch> typesFound= new ArrayList<>();
-				final IJavaProject project= fCurrPackage.getJavaProject();
-				boolean excludeTestCode= !((IPackageFragmentRoot)fCurrPackage.getParent()).getResolvedClasspathEntry().isTest();
-				IJavaSearchScope scope= SearchEngine.createJavaSearchScope(excludeTestCode, new IJavaElement[] { project }, true);
-				TypeNameMatchCollector collector= new TypeNameMatchCollector(typesFound);
-				new SearchEngine().searchAllTypeNames(null, allTypes, scope, collector, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
 
 				boolean is50OrHigher= JavaModelUtil.is50OrHigher(project);
 
@@ -486,6 +498,131 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 		}
 	}
 
+	/**
+	 * Resolves the simple names of unresolved types for several organize imports operations. Every
+	 * name is searched only once per project and test code visibility, later requests for the same
+	 * name are answered from the remembered matches. The results are the same as those of the
+	 * searches of the individual operations.
+	 * <p>
+	 * The names of many compilation units can be resolved up front with a single search by
+	 * {@link #resolve(IJavaProject, boolean, Collection, IProgressMonitor)}. Instances are thread
+	 * safe and should not be kept beyond a single batch of operations, since the remembered matches
+	 * are not updated when types change.
+	 * </p>
+	 *
+	 * @see OrganizeImportsOperation#setTypeNameResolver(TypeNameResolver)
+	 * @since 1.17
+	 */
+	public static final class TypeNameResolver {
+
+		/** The matches by simple name, by search scope */
+		private final Map<String, Map<String, List<TypeNameMatch>>> fMatches= new HashMap<>();
+
+		/**
+		 * Searches the given names that have not been searched yet with one search.
+		 *
+		 * @param project the project to search in
+		 * @param excludeTestCode whether test code is invisible for the searching compilation units
+		 * @param names the simple type names
+		 * @param monitor the progress monitor, or <code>null</code>
+		 * @throws JavaModelException if the search fails
+		 */
+		public void resolve(IJavaProject project, boolean excludeTestCode, Collection<String> names, IProgressMonitor monitor) throws JavaModelException {
+			String scopeKey= getScopeKey(project, excludeTestCode);
+			List<String> missing= new ArrayList<>();
+			synchronized (fMatches) {
+				Map<String, List<TypeNameMatch>> known= fMatches.get(scopeKey);
+				for (String name : names) {
+					if (known == null || !known.containsKey(name))
+						missing.add(name);
+				}
+			}
+			if (missing.isEmpty())
+				return;
+
+			Map<String, List<TypeNameMatch>> found= new HashMap<>();
+			for (String name : missing) {
+				found.put(name, new ArrayList<>(3));
+			}
+			for (TypeNameMatch match : searchTypes(project, excludeTestCode, missing, monitor)) {
+				List<TypeNameMatch> matches= found.get(match.getSimpleTypeName());
+				if (matches != null)
+					matches.add(match);
+			}
+			synchronized (fMatches) {
+				Map<String, List<TypeNameMatch>> known= fMatches.computeIfAbsent(scopeKey, key -> new HashMap<>());
+				for (Entry<String, List<TypeNameMatch>> entry : found.entrySet()) {
+					known.putIfAbsent(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+
+		List<TypeNameMatch> findTypes(IJavaProject project, boolean excludeTestCode, Collection<String> names, IProgressMonitor monitor) throws JavaModelException {
+			resolve(project, excludeTestCode, names, monitor);
+			List<TypeNameMatch> result= new ArrayList<>();
+			synchronized (fMatches) {
+				Map<String, List<TypeNameMatch>> known= fMatches.get(getScopeKey(project, excludeTestCode));
+				for (String name : names) {
+					result.addAll(known.get(name));
+				}
+			}
+			return result;
+		}
+
+		private static String getScopeKey(IJavaProject project, boolean excludeTestCode) {
+			return project.getHandleIdentifier() + (excludeTestCode ? "/main" : "/test"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	private static List<TypeNameMatch> searchTypes(IJavaProject project, boolean excludeTestCode, Collection<String> names, IProgressMonitor monitor) throws JavaModelException {
+		char[][] allTypes= new char[names.size()][];
+		int i= 0;
+		for (String string : names) {
+			allTypes[i++]= string.toCharArray();
+		}
+		final ArrayList<TypeNameMatch> typesFound= new ArrayList<>();
+		IJavaSearchScope scope= SearchEngine.createJavaSearchScope(excludeTestCode, new IJavaElement[] { project }, true);
+		TypeNameMatchCollector collector= new TypeNameMatchCollector(typesFound);
+		new SearchEngine().searchAllTypeNames(null, allTypes, scope, collector, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+		return typesFound;
+	}
+
+	/**
+	 * The state of an operation after the type references have been collected and before the
+	 * unresolved ones are resolved.
+	 */
+	static final class CollectedReferences {
+
+		final ImportRewrite fImportsRewrite;
+		final Set<String> fOldSingleImports;
+		final Set<String> fOldDemandImports;
+		final List<SimpleName> fStaticReferences;
+		final UnresolvableImportMatcher fUnresolvableImportMatcher;
+		final TypeReferenceProcessor fProcessor;
+
+		CollectedReferences(ImportRewrite importsRewrite, Set<String> oldSingleImports, Set<String> oldDemandImports,
+				List<SimpleName> staticReferences, UnresolvableImportMatcher unresolvableImportMatcher, TypeReferenceProcessor processor) {
+			fImportsRewrite= importsRewrite;
+			fOldSingleImports= oldSingleImports;
+			fOldDemandImports= oldDemandImports;
+			fStaticReferences= staticReferences;
+			fUnresolvableImportMatcher= unresolvableImportMatcher;
+			fProcessor= processor;
+		}
+
+		Set<String> getUnresolvedTypeNames() {
+			return fProcessor.getUnresolvedTypeNames();
+		}
+
+		IJavaProject getProject() {
+			return fProcessor.getProject();
+		}
+
+		boolean isExcludeTestCode() throws JavaModelException {
+			return fProcessor.isExcludeTestCode();
+		}
+	}
+
 	/**
 	 * Used to ensure that unresolvable imports don't get reduced into on-demand imports.
 	 */
@@ -512,6 +649,8 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 
 	private final boolean fAllowSyntaxErrors;
 
+	private TypeNameResolver fTypeNameResolver;
+
 	/**
 	 * Creates a new OrganizeImportsOperation operation.
 	 *
@@ -553,8 +692,36 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 		JavaModelUtil.applyEdit(fCompilationUnit, edit, fDoSave, subMonitor.split(1));
 	}
 
+	/**
+	 * Sets the resolver to find the types of unresolved simple names with. Operations sharing a
+	 * resolver search every name only once.
+	 *
+	 * @param resolver the resolver, or <code>null</code> to search the names of this operation
+	 * @since 1.17
+	 */
+	public void setTypeNameResolver(TypeNameResolver resolver) {
+		fTypeNameResolver= resolver;
+	}
+
 	public TextEdit createTextEdit(IProgressMonitor m) throws CoreException, OperationCanceledException {
 		SubMonitor subMonitor= SubMonitor.convert(m, Messages.format(JavaManipulationMessages.OrganizeImportsOperation_description, BasicElementLabels.getFileName(fCompilationUnit)), 9);
+		CollectedReferences references= collectReferences(subMonitor.split(3));
+		if (references == null)
+			return null;
+		return createTextEdit(references, subMonitor.split(6));
+	}
+
+	/**
+	 * Collects the type references of the compilation unit and resolves those that are resolved
+	 * by the AST.
+	 *
+	 * @param m the progress monitor
+	 * @return the collected references, or <code>null</code> if the compilation unit has syntax
+	 *         errors
+	 * @throws CoreException if the AST cannot be created
+	 */
+	CollectedReferences collectReferences(IProgressMonitor m) throws CoreException {
+		SubMonitor subMonitor= SubMonitor.convert(m, 3);
 		fNumberOfImportsAdded= 0;
 		fNumberOfImportsRemoved= 0;
 
@@ -562,7 +729,7 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 		if (astRoot == null) {
 			astRoot= CoreASTProvider.getInstance().getAST(fCompilationUnit, CoreASTProvider.WAIT_YES, subMonitor.split(2));
 		}
-		subMonitor.setWorkRemaining(7);
+		subMonitor.setWorkRemaining(1);
 
 		ImportRewrite importsRewrite= CodeStyleConfiguration.createImportRewrite(astRoot, false);
 		if (astRoot.getAST().hasResolvedBindings()) {
@@ -587,7 +754,8 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 				astRoot,
 				importsRewrite,
 				fIgnoreLowerCaseNames,
-				unresolvableImportMatcher);
+				unresolvableImportMatcher,
+				fTypeNameResolver);
 
 		Iterator<SimpleName> refIterator= typeReferences.iterator();
 		while (refIterator.hasNext()) {
@@ -595,6 +763,27 @@ public class OrganizeImportsOperation implements IWorkspaceRunnable {
 			processor.add(typeRef);
 		}
 
+		return new CollectedReferences(importsRewrite, oldSingleImports, oldDemandImports, staticReferences, unresolvableImportMatcher, processor);
+	}
+
+	/**
+	 * Resolves the collected type references and creates the edit of the imports.
+	 *
+	 * @param references the collected references
+	 * @param m the progress monitor
+	 * @return the edit of the imports
+	 * @throws CoreException if the search or the rewrite fails
+	 * @throws OperationCanceledException if the operation has been canceled
+	 */
+	TextEdit createTextEdit(CollectedReferences references, IProgressMonitor m) throws CoreException, OperationCanceledException {
+		SubMonitor subMonitor= SubMonitor.convert(m, 6);
+		ImportRewrite importsRewrite= references.fImportsRewrite;
+		Set<String> oldSingleImports= references.fOldSingleImports;
+		Set<String> oldDemandImports= references.fOldDemandImports;
+		List<SimpleName> staticReferences= references.fStaticReferences;
+		UnresolvableImportMatcher unresolvableImportMatcher= references.fUnresolvableImportMatcher;
+		TypeReferenceProcessor processor= references.fProcessor;
+
 		boolean hasOpenChoices= processor.process(subMonitor.split(3));
 		addStaticImports(staticReferences, importsRewrite, unresolvableImportMatcher);
 
@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.common;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
+
+/**
+ * Visits an AST once and fans every node out to all registered {@link HelperVisitor}s that
+ * registered a predicate or consumer for its node type. This allows to run the visitors of several
+ * clean ups with a single traversal instead of one traversal per clean up.
+ * <p>
+ * Each registered HelperVisitor behaves as if it was built on its own: a predicate returning
+ * <code>false</code> only hides the subtree from the HelperVisitor that returned it. The subtree is
+ * pruned from the traversal only when all registered HelperVisitors skip it.
+ * </p>
+ */
+public class FusedHelperVisitor {
+
+	private static final class Participant {
+
+		private final HelperVisitor<?, ?, ?> fHelperVisitor;
+
+		/**
+		 * The root of the subtree skipped by this participant, or <code>null</code>
+		 */
+		private ASTNode fSkippedSubtree;
+
+		private Participant(HelperVisitor<?, ?, ?> helperVisitor) {
+			fHelperVisitor= helperVisitor;
+		}
+
+		@SuppressWarnings("unchecked")
+		private boolean test(VisitorEnum kind, ASTNode node) {
+			BiPredicate<ASTNode, Object> predicate= (BiPredicate<ASTNode, Object>) fHelperVisitor.predicatemap.get(kind);
+			if (predicate == null || !accepts(kind, node, fHelperVisitor.getSupplierData().get(kind)))
+				return true;
+			return predicate.test(node, fHelperVisitor.dataholder);
+		}
+
+		@SuppressWarnings("unchecked")
+		private void accept(VisitorEnum kind, ASTNode node) {
+			BiConsumer<ASTNode, Object> consumer= (BiConsumer<ASTNode, Object>) fHelperVisitor.consumermap.get(kind);
+			if (consumer == null || !accepts(kind, node, fHelperVisitor.getConsumerData().get(kind)))
+				return;
+			consumer.accept(node, fHelperVisitor.dataholder);
+		}
+	}
+
+	private final List<Participant> fParticipants= new ArrayList<>();
+
+	private Map<VisitorEnum, List<Participant>> fPredicateInterests;
+
+	private Map<VisitorEnum, List<Participant>> fConsumerInterests;
+
+	private int fSkipping;
+
+	/**
+	 * Registers a HelperVisitor which is called by the next {@link #build(ASTNode)} instead of being
+	 * built on its own.
+	 *
+	 * @param helperVisitor - HelperVisitor with the predicates and consumers to call
+	 * @return - this FusedHelperVisitor
+	 */
+	public FusedHelperVisitor register(HelperVisitor<?, ?, ?> helperVisitor) {
+		fParticipants.add(new Participant(helperVisitor));
+		return this;
+	}
+
+	/**
+	 *
+	 * @return - number of registered HelperVisitors
+	 */
+	public int size() {
+		return fParticipants.size();
+	}
+
+	/**
+	 *
+	 * @param node - ASTNode
+	 * @return - FusedHelperVisitor
+	 */
+	public FusedHelperVisitor build(ASTNode node) {
+		return build(node, false);
+	}
+
+	/**
+	 *
+	 * @param node - ASTNode
+	 * @param visitjavadoc - true if Javadoc comments should be visited
+	 * @return - FusedHelperVisitor
+	 */
+	public FusedHelperVisitor build(ASTNode node, boolean visitjavadoc) {
+		if (fParticipants.isEmpty())
+			return this;
+
+		// the maps of a HelperVisitor may change between builds, collect the interests per build,
+		// visitors removed while visiting are skipped by the participants
+		fPredicateInterests= new EnumMap<>(VisitorEnum.class);
+		fConsumerInterests= new EnumMap<>(VisitorEnum.class);
+		for (Participant participant : fParticipants) {
+			participant.fSkippedSubtree= null;
+			for (VisitorEnum kind : participant.fHelperVisitor.predicatemap.keySet()) {
+				fPredicateInterests.computeIfAbsent(kind, k -> new ArrayList<>()).add(participant);
+			}
+			for (VisitorEnum kind : participant.fHelperVisitor.consumermap.keySet()) {
+				fConsumerInterests.computeIfAbsent(kind, k -> new ArrayList<>()).add(participant);
+			}
+		}
+		fSkipping= 0;
+
+		node.accept(new ASTVisitor(visitjavadoc) {
+			@Override
+			public boolean preVisit2(ASTNode visited) {
+				return FusedHelperVisitor.this.preVisit(visited);
+			}
+
+			@Override
+			public void postVisit(ASTNode visited) {
+				FusedHelperVisitor.this.postVisit(visited);
+			}
+		});
+		return this;
+	}
+
+	private boolean preVisit(ASTNode node) {
+		VisitorEnum kind= VisitorEnum.fromNode(node);
+		List<Participant> interested= fPredicateInterests.get(kind);
+		if (interested != null) {
+			for (Participant participant : interested) {
+				if (participant.fSkippedSubtree == null && !participant.test(kind, node)) {
+					participant.fSkippedSubtree= node;
+					fSkipping++;
+				}
+			}
+		}
+		return fSkipping < fParticipants.size();
+	}
+
+	private void postVisit(ASTNode node) {
+		VisitorEnum kind= VisitorEnum.fromNode(node);
+		List<Participant> interested= fConsumerInterests.get(kind);
+		if (interested != null) {
+			for (Participant participant : interested) {
+				// like endVisit, the consumer is called for the root of a skipped subtree
+				if (participant.fSkippedSubtree == null || participant.fSkippedSubtree == node) {
+					participant.accept(kind, node);
+				}
+			}
+		}
+		for (Participant participant : fParticipants) {
+			if (participant.fSkippedSubtree == node) {
+				participant.fSkippedSubtree= null;
+				fSkipping--;
+			}
+		}
+	}
+
+	/**
+	 * Applies the additional filters supported by the convenience methods of
+	 * {@link HelperVisitor}, in the same way as {@link LambdaASTVisitor} does.
+	 *
+	 * @param kind - visitor kind
+	 * @param node - visited ASTNode
+	 * @param data - additional data registered for the visitor kind or <code>null</code>
+	 * @return - true if the predicate or consumer should be called for the node
+	 */
+	private static boolean accepts(VisitorEnum kind, ASTNode node, Object data) {
+		if (data == null)
+			return true;
+		switch (kind) {
+			case MethodInvocation:
+				return ((MethodInvocation) node).getName().getIdentifier().equals(data);
+			case VariableDeclarationStatement:
+				VariableDeclarationFragment fragment= (VariableDeclarationFragment) ((VariableDeclarationStatement) node).fragments().get(0);
+				IVariableBinding binding= fragment.resolveBinding();
+				return binding == null || ((Class<?>) data).getCanonicalName().equals(binding.getType().getErasure().getQualifiedName());
+			default:
+				return true;
+		}
+	}
+}
@@ -31,6 +31,7 @@ public class JavaManipulationMessages extends NLS {
 	public static String UndoCompilationUnitChange_no_file;
 
 	public static String OrganizeImportsOperation_description;
+	public static String OrganizeImportsBatchOperation_description;
 	public static String JavaModelUtil_applyedit_operation;
 	public static String Resources_fileModified;
 	public static String Resources_modifiedResources;
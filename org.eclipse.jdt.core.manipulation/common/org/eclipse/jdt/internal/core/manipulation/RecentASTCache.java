@@ -0,0 +1,292 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.manipulation;
+
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IResource;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+/**
+ * Bounded least recently used cache for the shared ASTs of recently active Java elements, used by
+ * {@link org.eclipse.jdt.core.manipulation.CoreASTProvider} to avoid re-creating the AST when the
+ * user switches back to a recently active editor.
+ * <p>
+ * The ASTs are only softly referenced. An entry is only returned while the Java element is
+ * consistent and has not been modified on disk since the AST was created. The bindings of an AST
+ * also depend on other elements, so all entries are invalidated when a Java element delta reports
+ * a change that is not local to the body of a compilation unit, e.g. a changed supertype, a new
+ * method or a classpath change.
+ * </p>
+ */
+public final class RecentASTCache {
+
+	/**
+	 * Default number of cached ASTs, can be changed with the <code>jdt.recentASTCacheSize</code>
+	 * system property.
+	 */
+	public static final int DEFAULT_SIZE= Integer.getInteger("jdt.recentASTCacheSize", 4).intValue(); //$NON-NLS-1$
+
+	private static final class Entry {
+
+		private final SoftReference<CompilationUnit> fAST;
+		private final long fStamp;
+		private final long fGeneration;
+
+		private Entry(CompilationUnit ast, long stamp, long generation) {
+			fAST= new SoftReference<>(ast);
+			fStamp= stamp;
+			fGeneration= generation;
+		}
+	}
+
+	private final class DeltaListener implements IElementChangedListener {
+
+		@Override
+		public void elementChanged(ElementChangedEvent event) {
+			IJavaElementDelta delta= event.getDelta();
+			if (event.getType() == ElementChangedEvent.POST_RECONCILE) {
+				// the reconciled working copy has a new AST, other ASTs are affected by structural changes only
+				remove((ITypeRoot) delta.getElement());
+				if (isStructural(delta))
+					invalidateAll();
+			} else if (!isLocal(delta)) {
+				invalidateAll();
+			}
+		}
+
+		/**
+		 * Tells whether the given reconcile delta changes more than the bodies of the members.
+		 *
+		 * @param delta the delta of a compilation unit
+		 * @return <code>true</code> if the structure of the compilation unit changed
+		 */
+		private boolean isStructural(IJavaElementDelta delta) {
+			return delta.getAffectedChildren().length > 0 || delta.getKind() != IJavaElementDelta.CHANGED
+					|| (delta.getFlags() & ~(IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_FINE_GRAINED | IJavaElementDelta.F_AST_AFFECTED)) != 0;
+		}
+
+		/**
+		 * Tells whether the given delta only reports working copies becoming primary or being
+		 * discarded, which happens when editors are opened or closed.
+		 *
+		 * @param delta the delta
+		 * @return <code>true</code> if the delta does not affect the bindings of any AST
+		 */
+		private boolean isLocal(IJavaElementDelta delta) {
+			if (delta.getKind() != IJavaElementDelta.CHANGED || delta.getResourceDeltas() != null)
+				return false;
+			if (delta.getElement().getElementType() == IJavaElement.COMPILATION_UNIT)
+				return delta.getFlags() == IJavaElementDelta.F_PRIMARY_WORKING_COPY;
+			if ((delta.getFlags() & ~IJavaElementDelta.F_CHILDREN) != 0)
+				return false;
+			for (IJavaElementDelta child : delta.getAffectedChildren()) {
+				if (!isLocal(child))
+					return false;
+			}
+			return true;
+		}
+	}
+
+	private static final long NO_STAMP= -1;
+
+	private static final RecentASTCache fgDefault= new RecentASTCache();
+
+	private final Map<ITypeRoot, Entry> fEntries= new LinkedHashMap<>(16, 0.75f, true);
+
+	/** Incremented whenever a change may have invalidated the bindings of all cached ASTs */
+	private long fGeneration;
+
+	private int fMaxSize= DEFAULT_SIZE;
+
+	private long fHits;
+
+	private long fMisses;
+
+	/**
+	 * @return the cache used by the shared AST provider
+	 */
+	public static RecentASTCache getDefault() {
+		return fgDefault;
+	}
+
+	private RecentASTCache() {
+		JavaCore.addElementChangedListener(new DeltaListener(), ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+	}
+
+	/**
+	 * Adds the AST of the given Java element. Nothing is cached if the Java element has pending
+	 * changes, in that case the AST may already be out-dated.
+	 *
+	 * @param javaElement the Java element
+	 * @param ast the AST of the Java element
+	 */
+	public synchronized void put(ITypeRoot javaElement, CompilationUnit ast) {
+		if (fMaxSize <= 0)
+			return;
+
+		long stamp= getStamp(javaElement);
+		if (stamp == NO_STAMP) {
+			fEntries.remove(javaElement);
+			return;
+		}
+		fEntries.put(javaElement, new Entry(ast, stamp, fGeneration));
+
+		Iterator<Entry> iter= fEntries.values().iterator();
+		while (fEntries.size() > fMaxSize) {
+			iter.next();
+			iter.remove();
+		}
+	}
+
+	/**
+	 * Returns the AST of the given Java element.
+	 *
+	 * @param javaElement the Java element
+	 * @return the AST or <code>null</code> if no valid AST is cached for the Java element
+	 */
+	public synchronized CompilationUnit get(ITypeRoot javaElement) {
+		return lookup(javaElement, false);
+	}
+
+	/**
+	 * Removes and returns the AST of the given Java element, e.g. because the Java element becomes
+	 * the active one.
+	 *
+	 * @param javaElement the Java element
+	 * @return the AST or <code>null</code> if no valid AST is cached for the Java element
+	 */
+	public synchronized CompilationUnit take(ITypeRoot javaElement) {
+		return lookup(javaElement, true);
+	}
+
+	private CompilationUnit lookup(ITypeRoot javaElement, boolean remove) {
+		Entry entry= remove ? fEntries.remove(javaElement) : fEntries.get(javaElement);
+		CompilationUnit ast= null;
+		if (entry != null && entry.fGeneration == fGeneration && entry.fStamp == getStamp(javaElement))
+			ast= entry.fAST.get();
+
+		if (ast != null) {
+			fHits++;
+		} else {
+			fMisses++;
+			if (entry != null && !remove)
+				fEntries.remove(javaElement);
+		}
+		return ast;
+	}
+
+	/**
+	 * Removes the AST of the given Java element, e.g. because the Java element is about to be
+	 * reconciled.
+	 *
+	 * @param javaElement the Java element
+	 */
+	public synchronized void remove(ITypeRoot javaElement) {
+		fEntries.remove(javaElement);
+	}
+
+	private synchronized void invalidateAll() {
+		fGeneration++;
+		fEntries.clear();
+	}
+
+	/**
+	 * Removes all cached ASTs.
+	 */
+	public synchronized void clear() {
+		fEntries.clear();
+	}
+
+	/**
+	 * Sets the maximum number of cached ASTs.
+	 *
+	 * @param maxSize the maximum number of cached ASTs, <code>0</code> disables the cache
+	 */
+	public synchronized void setMaxSize(int maxSize) {
+		fMaxSize= Math.max(0, maxSize);
+		Iterator<Entry> iter= fEntries.values().iterator();
+		while (fEntries.size() > fMaxSize) {
+			iter.next();
+			iter.remove();
+		}
+	}
+
+	/**
+	 * @return the maximum number of cached ASTs
+	 */
+	public synchronized int getMaxSize() {
+		return fMaxSize;
+	}
+
+	/**
+	 * @return the number of cached ASTs, including the ones which have been garbage collected
+	 */
+	public synchronized int size() {
+		return fEntries.size();
+	}
+
+	/**
+	 * @return the number of requests served from this cache
+	 */
+	public synchronized long getHitCount() {
+		return fHits;
+	}
+
+	/**
+	 * @return the number of requests which could not be served from this cache
+	 */
+	public synchronized long getMissCount() {
+		return fMisses;
+	}
+
+	/**
+	 * Resets the hit and miss counters.
+	 */
+	public synchronized void resetCounters() {
+		fHits= 0;
+		fMisses= 0;
+	}
+
+	/**
+	 * Returns a stamp for the given Java element. A working copy with changes that have not been
+	 * reconciled yet does not have a stamp, reconciled changes evict the entry of the working copy.
+	 *
+	 * @param javaElement the Java element
+	 * @return the modification stamp of the underlying resource, <code>0</code> if there is none,
+	 *         or {@link #NO_STAMP}
+	 */
+	private static long getStamp(ITypeRoot javaElement) {
+		try {
+			if (!javaElement.exists() || !javaElement.isConsistent())
+				return NO_STAMP;
+		} catch (JavaModelException e) {
+			return NO_STAMP;
+		}
+		IResource resource= javaElement instanceof ICompilationUnit ? javaElement.getResource() : null;
+		return resource != null ? resource.getModificationStamp() : 0;
+	}
+}
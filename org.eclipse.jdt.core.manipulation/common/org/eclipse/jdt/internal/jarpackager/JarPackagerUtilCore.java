@@ -208,6 +208,11 @@ public class JarPackagerUtilCore {
 		// Set modification time
 		newEntry.setTime(lastModified);
 
+		if (isCompressed && jarOutputStream instanceof PipelinedJarOutputStream) {
+			// copy the compressed data as is
+			((PipelinedJarOutputStream) jarOutputStream).putRawEntry(newEntry, zipFile, zipEntry);
+			return;
+		}
 		addEntry(newEntry, zipFile.getInputStream(zipEntry), jarOutputStream);
 	}
 
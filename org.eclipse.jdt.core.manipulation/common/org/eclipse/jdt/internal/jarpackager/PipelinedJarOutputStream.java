@@ -0,0 +1,699 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.jarpackager;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * A {@link JarOutputStream} which deflates the entries on a pool of worker threads while the
+ * thread writing to the stream emits the finished entries into the archive in the order in which
+ * they have been put.
+ * <p>
+ * The content of an entry is buffered until the entry is closed, then its CRC is computed and it
+ * is compressed by a worker. The entries are written with known sizes, so the archive needs no
+ * data descriptors. Deflated entries of a source archive can be copied without inflating and
+ * deflating them again, see {@link #putRawEntry(JarEntry, ZipFile, ZipEntry)}.
+ * </p>
+ * <p>
+ * Like its super class, this stream is not thread safe; all methods must be called by the same
+ * thread. The methods of {@link JarOutputStream} which write to the underlying stream directly
+ * are all overridden, the super class only ever sees an empty archive.
+ * </p>
+ */
+public class PipelinedJarOutputStream extends JarOutputStream {
+
+	/**
+	 * The system property holding the number of workers used to compress the entries of exported
+	 * JAR files. Values lower than 2 export on the calling thread only, <code>0</code> uses one
+	 * worker per processor.
+	 */
+	public static final String WORKERS_PROPERTY= "jdt.jarExportWorkers"; //$NON-NLS-1$
+
+	private static final int LOCAL_HEADER_SIGNATURE= 0x04034b50;
+	private static final int CENTRAL_HEADER_SIGNATURE= 0x02014b50;
+	private static final int END_SIGNATURE= 0x06054b50;
+	private static final int ZIP64_END_SIGNATURE= 0x06064b50;
+	private static final int ZIP64_LOCATOR_SIGNATURE= 0x07064b50;
+
+	private static final int JAR_MAGIC= 0xCAFE;
+	private static final int ZIP64_EXTRA_ID= 0x0001;
+	private static final int FLAG_UTF8= 0x0800;
+	private static final int FLAG_ENCRYPTED= 0x0001;
+
+	private static final long ZIP64_MAGIC= 0xFFFFFFFFL;
+	private static final int ZIP64_MAGIC_COUNT= 0xFFFF;
+
+	/**
+	 * The maximum number of bytes of entry content waiting to be compressed or written. The
+	 * writing thread blocks on the oldest entry when this limit is exceeded.
+	 */
+	private static final long MAX_PENDING_BYTES= 64L * 1024 * 1024;
+
+	/**
+	 * An entry whose data has been compressed and which is ready to be written.
+	 */
+	private static final class CompressedEntry {
+		final ZipEntry fEntry;
+		final byte[] fData;
+		final int fLength;
+		final long fCrc;
+		final long fSize;
+		final int fMethod;
+
+		CompressedEntry(ZipEntry entry, int method, byte[] data, int length, long crc, long size) {
+			fEntry= entry;
+			fMethod= method;
+			fData= data;
+			fLength= length;
+			fCrc= crc;
+			fSize= size;
+		}
+	}
+
+	/**
+	 * The header information of a written entry, needed for the central directory.
+	 */
+	private static final class CentralEntry {
+		final byte[] fName;
+		final byte[] fComment;
+		final int fMethod;
+		final long fDosTime;
+		final long fCrc;
+		final long fCompressedSize;
+		final long fSize;
+		final long fOffset;
+		final boolean fJarMagic;
+
+		CentralEntry(byte[] name, byte[] comment, int method, long dosTime, long crc, long compressedSize, long size, long offset, boolean jarMagic) {
+			fName= name;
+			fComment= comment;
+			fMethod= method;
+			fDosTime= dosTime;
+			fCrc= crc;
+			fCompressedSize= compressedSize;
+			fSize= size;
+			fOffset= offset;
+			fJarMagic= jarMagic;
+		}
+	}
+
+	/**
+	 * The location of a deflated entry's data inside a source archive.
+	 */
+	private static final class RawLocation {
+		final long fHeaderOffset;
+		final long fCompressedSize;
+		final long fSize;
+		final long fCrc;
+
+		RawLocation(long headerOffset, long compressedSize, long size, long crc) {
+			fHeaderOffset= headerOffset;
+			fCompressedSize= compressedSize;
+			fSize= size;
+			fCrc= crc;
+		}
+	}
+
+	/**
+	 * Collects the content of the current entry. Gives access to the internal buffer to avoid a copy.
+	 */
+	private static final class EntryBuffer extends ByteArrayOutputStream {
+		EntryBuffer() {
+			super(8192);
+		}
+
+		byte[] getBuffer() {
+			return buf;
+		}
+	}
+
+	private static final OutputStream NULL_OUTPUT= new OutputStream() {
+		@Override
+		public void write(int b) {
+			// the super class never writes an entry
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			// the super class never writes an entry
+		}
+	};
+
+	/**
+	 * Returns the number of workers configured by the {@link #WORKERS_PROPERTY} system property.
+	 *
+	 * @return the number of workers, at least 1
+	 */
+	public static int getConfiguredWorkerCount() {
+		int workers= Integer.getInteger(WORKERS_PROPERTY, 1).intValue();
+		if (workers == 0)
+			return Runtime.getRuntime().availableProcessors();
+		return Math.max(1, workers);
+	}
+
+	private final OutputStream fOut;
+	private final ExecutorService fExecutor;
+	private final ArrayDeque<Future<CompressedEntry>> fPending= new ArrayDeque<>();
+	private final List<CentralEntry> fCentralEntries= new ArrayList<>();
+	private final Set<String> fNames= new HashSet<>();
+
+	private long fWritten;
+	private long fPendingBytes;
+	private int fDefaultMethod= DEFLATED;
+	private int fLevel= Deflater.DEFAULT_COMPRESSION;
+	private byte[] fComment;
+
+	private ZipEntry fCurrentEntry;
+	private EntryBuffer fCurrentBuffer;
+
+	private String fRawArchiveName;
+	private RandomAccessFile fRawArchive;
+	private Map<String, RawLocation> fRawLocations;
+
+	private boolean fFinished;
+	private boolean fClosed;
+
+	/**
+	 * Creates a new pipelined JAR output stream.
+	 *
+	 * @param out the actual output stream
+	 * @param manifest the manifest written as first entry, or <code>null</code>
+	 * @param workers the number of threads compressing the entries, at least 1
+	 * @throws IOException if an I/O error has occurred
+	 */
+	public PipelinedJarOutputStream(OutputStream out, Manifest manifest, int workers) throws IOException {
+		super(NULL_OUTPUT);
+		fOut= new BufferedOutputStream(out, 64 * 1024);
+		fExecutor= Executors.newFixedThreadPool(Math.max(1, workers), new ThreadFactory() {
+			private final AtomicInteger fCount= new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread= new Thread(runnable, "JAR Export Worker " + fCount.incrementAndGet()); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		if (manifest != null) {
+			// same as JarOutputStream(OutputStream, Manifest)
+			putNextEntry(new ZipEntry(JarFile.MANIFEST_NAME));
+			manifest.write(new BufferedOutputStream(this));
+			closeEntry();
+		}
+	}
+
+	@Override
+	public void setComment(String comment) {
+		fComment= comment != null ? comment.getBytes(StandardCharsets.UTF_8) : null;
+		if (fComment != null && fComment.length > 0xFFFF)
+			throw new IllegalArgumentException("ZIP file comment too long."); //$NON-NLS-1$
+	}
+
+	@Override
+	public void setMethod(int method) {
+		if (method != DEFLATED && method != STORED)
+			throw new IllegalArgumentException("invalid compression method"); //$NON-NLS-1$
+		fDefaultMethod= method;
+	}
+
+	@Override
+	public void setLevel(int level) {
+		if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION)
+			throw new IllegalArgumentException("invalid compression level"); //$NON-NLS-1$
+		fLevel= level;
+	}
+
+	@Override
+	public void putNextEntry(ZipEntry entry) throws IOException {
+		ensureOpen();
+		closeEntry();
+		checkName(entry.getName());
+		fCurrentEntry= entry;
+		fCurrentBuffer= new EntryBuffer();
+	}
+
+	/**
+	 * Copies a deflated entry of a source archive without inflating and deflating its data again.
+	 * Falls back to a regular copy when the data of the entry cannot be located in the archive.
+	 *
+	 * @param entry the entry to write
+	 * @param zipFile the source archive
+	 * @param sourceEntry the entry of the source archive to copy
+	 * @throws IOException if an I/O error has occurred
+	 */
+	public void putRawEntry(JarEntry entry, ZipFile zipFile, ZipEntry sourceEntry) throws IOException {
+		ensureOpen();
+		RawLocation location= null;
+		if (sourceEntry.getMethod() == DEFLATED && getEntryMethod(entry) == DEFLATED)
+			location= getRawLocation(zipFile, sourceEntry.getName());
+		if (location == null) {
+			JarPackagerUtilCore.addEntry(entry, zipFile.getInputStream(sourceEntry), this);
+			return;
+		}
+
+		closeEntry();
+		checkName(entry.getName());
+		byte[] data= readRawData(location);
+		fPending.add(CompletableFuture.completedFuture(new CompressedEntry(entry, DEFLATED, data, data.length, location.fCrc, location.fSize)));
+		fPendingBytes+= location.fSize;
+		drain(false);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		write(new byte[] { (byte) b }, 0, 1);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		if (fCurrentEntry == null)
+			throw new ZipException("no current ZIP entry"); //$NON-NLS-1$
+		fCurrentBuffer.write(b, off, len);
+	}
+
+	@Override
+	public void closeEntry() throws IOException {
+		ensureOpen();
+		if (fCurrentEntry == null)
+			return;
+
+		final ZipEntry entry= fCurrentEntry;
+		final int method= getEntryMethod(entry);
+		final byte[] data= fCurrentBuffer.getBuffer();
+		final int length= fCurrentBuffer.size();
+		final int level= fLevel;
+		fCurrentEntry= null;
+		fCurrentBuffer= null;
+
+		if (length == 0) {
+			// directories and empty files, nothing to compress
+			fPending.add(CompletableFuture.completedFuture(compress(entry, method, level, data, 0)));
+		} else {
+			fPending.add(fExecutor.submit(() -> compress(entry, method, level, data, length)));
+			fPendingBytes+= length;
+		}
+		drain(false);
+	}
+
+	@Override
+	public void flush() throws IOException {
+		fOut.flush();
+	}
+
+	@Override
+	public void finish() throws IOException {
+		if (fFinished)
+			return;
+		ensureOpen();
+		closeEntry();
+		drain(true);
+		fFinished= true;
+		writeCentralDirectory();
+		fOut.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (fClosed)
+			return;
+		try {
+			finish();
+		} finally {
+			fFinished= true;
+			fClosed= true;
+			fExecutor.shutdownNow();
+			closeRawArchive();
+			try {
+				super.close();
+			} finally {
+				fOut.close();
+			}
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if (fClosed)
+			throw new IOException("Stream closed"); //$NON-NLS-1$
+	}
+
+	private void checkName(String name) throws ZipException {
+		// same message as ZipOutputStream, the JAR exporter reports duplicates as warnings
+		if (!fNames.add(name))
+			throw new ZipException("duplicate entry: " + name); //$NON-NLS-1$
+	}
+
+	private int getEntryMethod(ZipEntry entry) {
+		return entry.getMethod() != -1 ? entry.getMethod() : fDefaultMethod;
+	}
+
+	/**
+	 * Writes the finished entries at the head of the queue. Blocks on the oldest entry if
+	 * <code>all</code> is set or too much data is pending.
+	 *
+	 * @param all <code>true</code> to write all pending entries
+	 * @throws IOException if an I/O error has occurred
+	 */
+	private void drain(boolean all) throws IOException {
+		while (!fPending.isEmpty()) {
+			Future<CompressedEntry> head= fPending.peek();
+			if (!all && !head.isDone() && fPendingBytes <= MAX_PENDING_BYTES)
+				return;
+			fPending.poll();
+			CompressedEntry entry;
+			try {
+				entry= head.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			} catch (ExecutionException e) {
+				Throwable cause= e.getCause();
+				if (cause instanceof IOException)
+					throw (IOException) cause;
+				throw new IOException(cause);
+			}
+			fPendingBytes-= entry.fSize;
+			writeEntry(entry);
+		}
+	}
+
+	private static CompressedEntry compress(ZipEntry entry, int method, int level, byte[] data, int length) {
+		CRC32 crc= new CRC32();
+		crc.update(data, 0, length);
+		if (method == STORED)
+			return new CompressedEntry(entry, STORED, data, length, crc.getValue(), length);
+
+		Deflater deflater= new Deflater(level, true);
+		try {
+			deflater.setInput(data, 0, length);
+			deflater.finish();
+			byte[] out= new byte[Math.max(64, length / 2)];
+			int count= 0;
+			while (!deflater.finished()) {
+				if (count == out.length) {
+					byte[] larger= new byte[out.length * 2];
+					System.arraycopy(out, 0, larger, 0, count);
+					out= larger;
+				}
+				count+= deflater.deflate(out, count, out.length - count);
+			}
+			return new CompressedEntry(entry, DEFLATED, out, count, crc.getValue(), length);
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private void writeEntry(CompressedEntry compressed) throws IOException {
+		ZipEntry entry= compressed.fEntry;
+		byte[] name= entry.getName().getBytes(StandardCharsets.UTF_8);
+		String entryComment= entry.getComment();
+		byte[] comment= entryComment != null ? entryComment.getBytes(StandardCharsets.UTF_8) : null;
+		long dosTime= toDosTime(entry.getTime() != -1 ? entry.getTime() : System.currentTimeMillis());
+		boolean jarMagic= fCentralEntries.isEmpty();
+		long offset= fWritten;
+
+		// buffered entries are always smaller than 4GB, only the offset may need ZIP64
+		writeInt(LOCAL_HEADER_SIGNATURE);
+		writeShort(versionNeeded(compressed.fMethod, false));
+		writeShort(FLAG_UTF8);
+		writeShort(compressed.fMethod);
+		writeInt(dosTime);
+		writeInt(compressed.fCrc);
+		writeInt(compressed.fLength);
+		writeInt(compressed.fSize);
+		writeShort(name.length);
+		writeShort(jarMagic ? 4 : 0);
+		writeBytes(name, 0, name.length);
+		if (jarMagic) {
+			writeShort(JAR_MAGIC);
+			writeShort(0);
+		}
+		writeBytes(compressed.fData, 0, compressed.fLength);
+
+		fCentralEntries.add(new CentralEntry(name, comment, compressed.fMethod, dosTime, compressed.fCrc, compressed.fLength, compressed.fSize, offset, jarMagic));
+	}
+
+	private void writeCentralDirectory() throws IOException {
+		long centralOffset= fWritten;
+		for (CentralEntry entry : fCentralEntries) {
+			boolean zip64= entry.fOffset >= ZIP64_MAGIC;
+			int extraLength= (entry.fJarMagic ? 4 : 0) + (zip64 ? 12 : 0);
+			writeInt(CENTRAL_HEADER_SIGNATURE);
+			writeShort(versionNeeded(entry.fMethod, zip64));
+			writeShort(versionNeeded(entry.fMethod, zip64));
+			writeShort(FLAG_UTF8);
+			writeShort(entry.fMethod);
+			writeInt(entry.fDosTime);
+			writeInt(entry.fCrc);
+			writeInt(entry.fCompressedSize);
+			writeInt(entry.fSize);
+			writeShort(entry.fName.length);
+			writeShort(extraLength);
+			writeShort(entry.fComment != null ? entry.fComment.length : 0);
+			writeShort(0); // disk number start
+			writeShort(0); // internal attributes
+			writeInt(0); // external attributes
+			writeInt(zip64 ? ZIP64_MAGIC : entry.fOffset);
+			writeBytes(entry.fName, 0, entry.fName.length);
+			if (entry.fJarMagic) {
+				writeShort(JAR_MAGIC);
+				writeShort(0);
+			}
+			if (zip64) {
+				writeShort(ZIP64_EXTRA_ID);
+				writeShort(8);
+				writeLong(entry.fOffset);
+			}
+			if (entry.fComment != null)
+				writeBytes(entry.fComment, 0, entry.fComment.length);
+		}
+		long centralSize= fWritten - centralOffset;
+		int count= fCentralEntries.size();
+
+		if (count >= ZIP64_MAGIC_COUNT || centralOffset >= ZIP64_MAGIC || centralSize >= ZIP64_MAGIC) {
+			long zip64EndOffset= fWritten;
+			writeInt(ZIP64_END_SIGNATURE);
+			writeLong(44); // size of the remaining record
+			writeShort(45); // version made by
+			writeShort(45); // version needed
+			writeInt(0); // number of this disk
+			writeInt(0); // disk with the central directory
+			writeLong(count);
+			writeLong(count);
+			writeLong(centralSize);
+			writeLong(centralOffset);
+
+			writeInt(ZIP64_LOCATOR_SIGNATURE);
+			writeInt(0); // disk with the ZIP64 end record
+			writeLong(zip64EndOffset);
+			writeInt(1); // total number of disks
+		}
+
+		writeInt(END_SIGNATURE);
+		writeShort(0); // number of this disk
+		writeShort(0); // disk with the central directory
+		writeShort(Math.min(count, ZIP64_MAGIC_COUNT));
+		writeShort(Math.min(count, ZIP64_MAGIC_COUNT));
+		writeInt(Math.min(centralSize, ZIP64_MAGIC));
+		writeInt(Math.min(centralOffset, ZIP64_MAGIC));
+		writeShort(fComment != null ? fComment.length : 0);
+		if (fComment != null)
+			writeBytes(fComment, 0, fComment.length);
+	}
+
+	private static int versionNeeded(int method, boolean zip64) {
+		if (zip64)
+			return 45;
+		return method == DEFLATED ? 20 : 10;
+	}
+
+	private static long toDosTime(long time) {
+		LocalDateTime date= LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault());
+		int year= date.getYear();
+		if (year < 1980)
+			return (1 << 21) | (1 << 16);
+		if (year > 2107)
+			year= 2107;
+		return (long) (year - 1980) << 25 | date.getMonthValue() << 21 | date.getDayOfMonth() << 16
+				| date.getHour() << 11 | date.getMinute() << 5 | date.getSecond() >> 1;
+	}
+
+	private void writeShort(int value) throws IOException {
+		fOut.write(value & 0xFF);
+		fOut.write((value >>> 8) & 0xFF);
+		fWritten+= 2;
+	}
+
+	private void writeInt(long value) throws IOException {
+		writeShort((int) (value & 0xFFFF));
+		writeShort((int) ((value >>> 16) & 0xFFFF));
+	}
+
+	private void writeLong(long value) throws IOException {
+		writeInt(value & 0xFFFFFFFFL);
+		writeInt(value >>> 32);
+	}
+
+	private void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+		fOut.write(bytes, offset, length);
+		fWritten+= length;
+	}
+
+	/**
+	 * Returns the location of the data of the given entry in the given archive. The central
+	 * directory of the most recently used archive is kept until a different archive is copied.
+	 *
+	 * @param zipFile the source archive
+	 * @param name the name of the entry
+	 * @return the location or <code>null</code> if it cannot be determined
+	 */
+	private RawLocation getRawLocation(ZipFile zipFile, String name) {
+		String archiveName= zipFile.getName();
+		if (!archiveName.equals(fRawArchiveName)) {
+			closeRawArchive();
+			fRawArchiveName= archiveName;
+			try {
+				fRawArchive= new RandomAccessFile(new File(archiveName), "r"); //$NON-NLS-1$
+				fRawLocations= readCentralDirectory(fRawArchive);
+			} catch (IOException e) {
+				fRawLocations= null;
+			}
+		}
+		return fRawLocations != null ? fRawLocations.get(name) : null;
+	}
+
+	private void closeRawArchive() {
+		if (fRawArchive != null) {
+			try {
+				fRawArchive.close();
+			} catch (IOException e) {
+				// ignore, the archive has only been read
+			}
+		}
+		fRawArchive= null;
+		fRawArchiveName= null;
+		fRawLocations= null;
+	}
+
+	/**
+	 * Reads the locations of the deflated entries from the central directory of an archive.
+	 *
+	 * @param archive the archive
+	 * @return the locations by entry name, or <code>null</code> if the archive uses ZIP64 or
+	 *         cannot be read
+	 * @throws IOException if an I/O error has occurred
+	 */
+	private static Map<String, RawLocation> readCentralDirectory(RandomAccessFile archive) throws IOException {
+		long length= archive.length();
+		int tail= (int) Math.min(length, 0xFFFF + 22);
+		byte[] buffer= new byte[tail];
+		archive.seek(length - tail);
+		archive.readFully(buffer);
+		int end= -1;
+		for (int i= tail - 22; i >= 0; i--) {
+			if (getInt(buffer, i) == END_SIGNATURE) {
+				end= i;
+				break;
+			}
+		}
+		if (end == -1)
+			return null;
+
+		int count= getShort(buffer, end + 10);
+		long centralSize= getInt(buffer, end + 12);
+		long centralOffset= getInt(buffer, end + 16);
+		if (count == ZIP64_MAGIC_COUNT || centralSize == ZIP64_MAGIC || centralOffset == ZIP64_MAGIC || centralOffset + centralSize > length)
+			return null;
+
+		byte[] central= new byte[(int) centralSize];
+		archive.seek(centralOffset);
+		archive.readFully(central);
+		Map<String, RawLocation> locations= new HashMap<>(count * 2);
+		int position= 0;
+		for (int i= 0; i < count; i++) {
+			if (position + 46 > central.length || getInt(central, position) != CENTRAL_HEADER_SIGNATURE)
+				return null;
+			int flags= getShort(central, position + 8);
+			int method= getShort(central, position + 10);
+			long crc= getInt(central, position + 16);
+			long compressedSize= getInt(central, position + 20);
+			long size= getInt(central, position + 24);
+			int nameLength= getShort(central, position + 28);
+			int extraLength= getShort(central, position + 30);
+			int commentLength= getShort(central, position + 32);
+			long headerOffset= getInt(central, position + 42);
+			if (position + 46 + nameLength > central.length)
+				return null;
+			String name= new String(central, position + 46, nameLength, StandardCharsets.UTF_8);
+			if (method == DEFLATED && (flags & FLAG_ENCRYPTED) == 0
+					&& compressedSize != ZIP64_MAGIC && size != ZIP64_MAGIC && headerOffset != ZIP64_MAGIC)
+				locations.put(name, new RawLocation(headerOffset, compressedSize, size, crc));
+			position+= 46 + nameLength + extraLength + commentLength;
+		}
+		return locations;
+	}
+
+	private byte[] readRawData(RawLocation location) throws IOException {
+		byte[] header= new byte[30];
+		fRawArchive.seek(location.fHeaderOffset);
+		fRawArchive.readFully(header);
+		if (getInt(header, 0) != LOCAL_HEADER_SIGNATURE)
+			throw new ZipException("invalid local header in " + fRawArchiveName); //$NON-NLS-1$
+		long dataOffset= location.fHeaderOffset + 30 + getShort(header, 26) + getShort(header, 28);
+		byte[] data= new byte[(int) location.fCompressedSize];
+		fRawArchive.seek(dataOffset);
+		fRawArchive.readFully(data);
+		return data;
+	}
+
+	private static int getShort(byte[] bytes, int offset) {
+		return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+	}
+
+	private static long getInt(byte[] bytes, int offset) {
+		return (getShort(bytes, offset) | (long) getShort(bytes, offset + 2) << 16) & 0xFFFFFFFFL;
+	}
+}
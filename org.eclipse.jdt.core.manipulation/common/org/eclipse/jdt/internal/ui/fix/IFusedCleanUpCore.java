@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.fix;
+
+import java.util.function.Supplier;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.manipulation.CleanUpContextCore;
+import org.eclipse.jdt.core.manipulation.ICleanUpFixCore;
+
+import org.eclipse.jdt.internal.common.FusedHelperVisitor;
+import org.eclipse.jdt.internal.common.HelperVisitor;
+
+/**
+ * A clean up which finds its operations with {@link HelperVisitor}s. The visitors of all such clean
+ * ups run on the same AST are called in one traversal by a {@link FusedHelperVisitor}, instead of
+ * one traversal per clean up.
+ */
+public interface IFusedCleanUpCore {
+
+	/**
+	 * Registers the visitors which find the operations of this clean up in the AST of the context.
+	 * The returned fix must only be requested after the fused visitor has been built on the AST.
+	 *
+	 * @param context the context, its AST may be <code>null</code>
+	 * @param fusedVisitor the visitor traversing the AST for all registered clean ups
+	 * @return the fix, or <code>null</code> if the clean up does not apply to the context
+	 * @throws CoreException if the clean up cannot be applied
+	 */
+	Supplier<ICleanUpFixCore> registerVisitors(CleanUpContextCore context, FusedHelperVisitor fusedVisitor) throws CoreException;
+
+	/**
+	 * Creates the fix of a clean up with a traversal of its own.
+	 *
+	 * @param cleanUp the clean up
+	 * @param context the context
+	 * @return the fix, or <code>null</code> if the clean up does not apply to the context
+	 * @throws CoreException if the clean up cannot be applied
+	 */
+	static ICleanUpFixCore createFixCore(IFusedCleanUpCore cleanUp, CleanUpContextCore context) throws CoreException {
+		FusedHelperVisitor fusedVisitor= new FusedHelperVisitor();
+		Supplier<ICleanUpFixCore> fix= cleanUp.registerVisitors(context, fusedVisitor);
+		if (fix == null) {
+			return null;
+		}
+		CompilationUnit compilationUnit= context.getAST();
+		fusedVisitor.build(compilationUnit);
+		return fix.get();
+	}
+}
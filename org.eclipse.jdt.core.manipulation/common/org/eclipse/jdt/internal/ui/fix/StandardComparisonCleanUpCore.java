@@ -16,6 +16,7 @@ package org.eclipse.jdt.internal.ui.fix;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.eclipse.core.runtime.CoreException;
 
@@ -24,10 +25,11 @@ import org.eclipse.jdt.core.manipulation.CleanUpContextCore;
 import org.eclipse.jdt.core.manipulation.CleanUpRequirementsCore;
 import org.eclipse.jdt.core.manipulation.ICleanUpFixCore;
 
+import org.eclipse.jdt.internal.common.FusedHelperVisitor;
 import org.eclipse.jdt.internal.corext.fix.CleanUpConstants;
 import org.eclipse.jdt.internal.corext.fix.StandardComparisonFixCore;
 
-public class StandardComparisonCleanUpCore extends AbstractCleanUpCore {
+public class StandardComparisonCleanUpCore extends AbstractCleanUpCore implements IFusedCleanUpCore {
 	public StandardComparisonCleanUpCore(final Map<String, String> options) {
 		super(options);
 	}
@@ -46,13 +48,18 @@ public class StandardComparisonCleanUpCore extends AbstractCleanUpCore {
 
 	@Override
 	public ICleanUpFixCore createFixCore(final CleanUpContextCore context) throws CoreException {
+		return IFusedCleanUpCore.createFixCore(this, context);
+	}
+
+	@Override
+	public Supplier<ICleanUpFixCore> registerVisitors(final CleanUpContextCore context, final FusedHelperVisitor fusedVisitor) throws CoreException {
 		CompilationUnit compilationUnit= context.getAST();
 
 		if (compilationUnit == null || !isEnabled(CleanUpConstants.STANDARD_COMPARISON)) {
 			return null;
 		}
 
-		return StandardComparisonFixCore.createCleanUp(compilationUnit);
+		return StandardComparisonFixCore.registerCleanUp(compilationUnit, fusedVisitor);
 	}
 
 	@Override
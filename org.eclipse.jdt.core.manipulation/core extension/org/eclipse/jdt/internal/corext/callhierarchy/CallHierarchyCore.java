@@ -50,6 +50,7 @@ public class CallHierarchyCore {
     private static final String PREF_USE_FILTERS= "PREF_USE_FILTERS"; //$NON-NLS-1$
     private static final String PREF_FILTERS_LIST= "PREF_FILTERS_LIST"; //$NON-NLS-1$
     private static final String PREF_FILTER_TESTCODE= "PREF_FILTER_TESTCODE"; //$NON-NLS-1$
+    private static final String PREF_USE_CALLER_INDEX= "PREF_USE_CALLER_INDEX"; //$NON-NLS-1$
 
     private String defaultIgnoreFilters= "java.*,javax.*"; //$NON-NLS-1$
 
@@ -73,6 +74,27 @@ public class CallHierarchyCore {
         return Boolean.parseBoolean(JavaManipulation.getPreference(PREF_FILTER_TESTCODE, null));
     }
 
+    /**
+     * Tells whether callers in the workspace scope are searched with the persistent caller index.
+     * Enabled unless the preference is set to <code>false</code>.
+     *
+     * @return <code>true</code> if the caller index is used
+     * @since 1.17
+     */
+    public boolean isCallerIndexEnabled() {
+        return !Boolean.FALSE.toString().equals(JavaManipulation.getPreference(PREF_USE_CALLER_INDEX, null));
+    }
+
+    /**
+     * Stops the caller index, which then no longer listens to changes of the workspace. Called
+     * when the plug-in is stopped.
+     *
+     * @since 1.17
+     */
+    public static void shutdown() {
+        CallerIndex.shutdown();
+    }
+
     public Collection<IJavaElement> getImplementingMethods(IMethod method) {
         if (isSearchUsingImplementorsEnabled()) {
             IJavaElement[] result= Implementors.getInstance().searchForImplementors(new IJavaElement[] {
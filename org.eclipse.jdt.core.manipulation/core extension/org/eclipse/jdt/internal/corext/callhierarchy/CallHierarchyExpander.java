@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.callhierarchy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import org.eclipse.jdt.internal.corext.util.WorkerPool;
+
+/**
+ * Expands a call hierarchy level by level.
+ * <p>
+ * The calls of all members of a level are searched concurrently by a bounded pool of threads.
+ * Every member is searched only once per hierarchy: the results end up in the method cache shared
+ * by all wrappers of the hierarchy, and other occurrences of the member are expanded from there.
+ * Recursive calls are not expanded, and the expansion stops at a given depth below the root.
+ * </p>
+ *
+ * @since 1.17
+ */
+public class CallHierarchyExpander {
+
+	/** The maximum number of concurrent searches */
+	private static final int MAX_PARALLELISM= 8;
+
+	private static final String THREAD_NAME= "Call Hierarchy Search"; //$NON-NLS-1$
+
+	private final int fParallelism;
+
+	private final int fMaxDepth;
+
+	/**
+	 * Creates a new expander.
+	 *
+	 * @param parallelism the maximum number of concurrent searches, <code>1</code> searches on
+	 *            the calling thread
+	 * @param maxDepth the number of levels below the root to expand
+	 */
+	public CallHierarchyExpander(int parallelism, int maxDepth) {
+		fParallelism= Math.max(1, parallelism);
+		fMaxDepth= maxDepth;
+	}
+
+	/**
+	 * Returns the number of concurrent searches to use on this machine.
+	 *
+	 * @return the default parallelism
+	 */
+	public static int getDefaultParallelism() {
+		return WorkerPool.getDefaultParallelism(MAX_PARALLELISM);
+	}
+
+	/**
+	 * Expands the hierarchy below the given root. Afterwards {@link MethodWrapper#getCalls(IProgressMonitor)}
+	 * answers from the cache for all expanded wrappers and for all wrappers of the same members.
+	 *
+	 * @param root the root of the hierarchy to expand
+	 * @param monitor the progress monitor, or <code>null</code>
+	 * @return the number of wrappers in the expanded hierarchy, including the root
+	 * @throws OperationCanceledException if the expansion has been canceled
+	 */
+	public int expand(MethodWrapper root, IProgressMonitor monitor) throws OperationCanceledException {
+		if (monitor == null)
+			monitor= new NullProgressMonitor();
+		monitor.beginTask(CallHierarchyMessages.CallHierarchyExpander_taskname, IProgressMonitor.UNKNOWN);
+
+		try (WorkerPool pool= new WorkerPool(THREAD_NAME, fParallelism, monitor)) {
+			IProgressMonitor searchMonitor= pool.getTaskMonitor();
+			Set<String> searched= new HashSet<>();
+			int count= 1;
+			List<MethodWrapper> level= new ArrayList<>();
+			level.add(root);
+			while (!level.isEmpty()) {
+				pool.checkCanceled();
+
+				List<WorkerPool.Task<MethodWrapper[]>> searches= new ArrayList<>();
+				for (MethodWrapper wrapper : level) {
+					if (isExpandable(root, wrapper) && searched.add(wrapper.getMethodCall().getKey()))
+						searches.add(wrapper::getCalls);
+				}
+				pool.runAll(searches, monitor);
+
+				List<MethodWrapper> next= new ArrayList<>();
+				for (MethodWrapper wrapper : level) {
+					if (isExpandable(root, wrapper)) {
+						for (MethodWrapper call : wrapper.getCalls(searchMonitor)) {
+							next.add(call);
+						}
+					}
+				}
+				count+= next.size();
+				level= next;
+			}
+			return count;
+		} catch (CoreException e) {
+			// the searches report their failures as runtime exceptions
+			throw new IllegalStateException(e);
+		} finally {
+			monitor.done();
+		}
+	}
+
+	private boolean isExpandable(MethodWrapper root, MethodWrapper wrapper) {
+		return wrapper.getLevel() - root.getLevel() < fMaxDepth && wrapper.canHaveChildren() && !wrapper.isRecursive();
+	}
+}
@@ -0,0 +1,589 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.callhierarchy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISaveParticipant;
+import org.eclipse.core.resources.ISavedState;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.manipulation.JavaManipulation;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+
+import org.eclipse.jdt.internal.core.manipulation.JavaManipulationPlugin;
+import org.eclipse.jdt.internal.corext.util.SearchResultDeltas;
+import org.eclipse.jdt.internal.corext.util.SearchUtils;
+
+/**
+ * Index of the references to members, used to find the callers in the workspace scope.
+ * <p>
+ * The first query for a member runs a workspace search and stores the raw references. Later
+ * queries reuse them and only search the compilation units whose bodies changed since, which are
+ * known from Java element deltas, and the units with unsaved changes. Structural changes, e.g. an
+ * added overload or a changed super type, can change the callers in other units and clear the
+ * index, see {@link SearchResultDeltas}. The index is saved with the workspace. If a Java file or
+ * the classpath changed while the workbench was not running, the saved index is discarded.
+ * </p>
+ * <p>
+ * When callers are found, the callers of these callers are searched by a background job, so that
+ * expanding the next level of the call hierarchy is answered from the index.
+ * </p>
+ *
+ * @since 1.17
+ */
+final class CallerIndex implements IElementChangedListener, ISaveParticipant {
+
+	/**
+	 * A reference found by the search engine.
+	 */
+	private static final class Reference {
+
+		final String fCaller;
+
+		/** Handle of the primary compilation unit or class file of the caller */
+		final String fUnit;
+
+		final int fStart;
+
+		final int fEnd;
+
+		Reference(String caller, String unit, int start, int end) {
+			fCaller= caller;
+			fUnit= unit;
+			fStart= start;
+			fEnd= end;
+		}
+	}
+
+	/**
+	 * The references to one member. Entries are immutable.
+	 */
+	private static final class Entry {
+
+		/** Generation of the index when the search started */
+		final long fGeneration;
+
+		/** Units with unsaved changes when the search started, these are searched again */
+		final Set<String> fVolatileUnits;
+
+		final List<Reference> fReferences;
+
+		Entry(long generation, Set<String> volatileUnits, List<Reference> references) {
+			fGeneration= generation;
+			fVolatileUnits= volatileUnits;
+			fReferences= references;
+		}
+	}
+
+	/**
+	 * Collects the references with the filters of {@link MethodReferencesSearchRequestor}.
+	 */
+	private static final class ReferenceRequestor extends MethodReferencesSearchRequestor {
+
+		final List<Reference> fReferences= new ArrayList<>();
+
+		@Override
+		protected void acceptReference(IMember member, int start, int end) {
+			ICompilationUnit unit= member.getCompilationUnit();
+			String unitHandle= unit != null ? unit.getPrimary().getHandleIdentifier() : member.getTypeRoot().getHandleIdentifier();
+			fReferences.add(new Reference(member.getHandleIdentifier(), unitHandle, start, end));
+		}
+	}
+
+	/**
+	 * Searches the callers of the callers which have been found.
+	 */
+	private final class PrefetchJob extends Job {
+
+		private final Set<IMethod> fQueue= new LinkedHashSet<>();
+
+		PrefetchJob() {
+			super(CallHierarchyMessages.CallerIndex_prefetch_job);
+			setSystem(true);
+			setPriority(Job.DECORATE);
+		}
+
+		synchronized void add(IMethod method) {
+			if (fQueue.size() < MAX_PREFETCH_QUEUE)
+				fQueue.add(method);
+		}
+
+		private synchronized IMethod poll() {
+			Iterator<IMethod> iterator= fQueue.iterator();
+			if (!iterator.hasNext())
+				return null;
+			IMethod method= iterator.next();
+			iterator.remove();
+			return method;
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			for (IMethod method= poll(); method != null; method= poll()) {
+				if (monitor.isCanceled())
+					return Status.CANCEL_STATUS;
+				String key= getKey(REFERENCES, method);
+				synchronized (CallerIndex.this) {
+					if (fEntries.containsKey(key))
+						continue;
+				}
+				try {
+					SearchPattern pattern= SearchPattern.createPattern(method, IJavaSearchConstants.REFERENCES, SearchUtils.GENERICS_AGNOSTIC_MATCH_RULE);
+					if (pattern != null && method.exists())
+						getReferences(key, pattern, CallerMethodWrapper.getAccurateSearchScope(SearchEngine.createWorkspaceScope(), method), monitor);
+				} catch (CoreException e) {
+					// the callers will be searched when requested
+				}
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	/** Kind of the references of constructors and fields */
+	static final String REFERENCES= "R"; //$NON-NLS-1$
+
+	/** Kind of the references of the constructors of a type */
+	static final String CONSTRUCTOR_REFERENCES= "C"; //$NON-NLS-1$
+
+	/** Kind of the instance creations of a local type */
+	static final String INSTANCE_CREATIONS= "L"; //$NON-NLS-1$
+
+	/** Kind of the read accesses to fields */
+	static final String READ_ACCESSES= "r"; //$NON-NLS-1$
+
+	/** Kind of the write accesses to fields */
+	static final String WRITE_ACCESSES= "w"; //$NON-NLS-1$
+
+	private static final int MAGIC= 0x43414C4C;
+
+	private static final int VERSION= 2;
+
+	private static final String INDEX_FILE= "callers.index"; //$NON-NLS-1$
+
+	/** The maximum number of indexed members */
+	private static final int MAX_ENTRIES= 5000;
+
+	/** The maximum number of callers whose callers are searched in the background */
+	private static final int MAX_PREFETCH_QUEUE= 20;
+
+	private static CallerIndex fgInstance;
+
+	/** The entries by kind and member handle, in access order */
+	private final Map<String, Entry> fEntries= new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+		private static final long serialVersionUID= 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/** The generation of the last change by the handle of the primary compilation unit */
+	private final Map<String, Long> fChangedUnits= new HashMap<>();
+
+	private final PrefetchJob fPrefetchJob= new PrefetchJob();
+
+	/** Incremented for each change */
+	private long fGeneration;
+
+	/** The generation of the last clear, searches started before must not be stored */
+	private long fClearedGeneration;
+
+	/** Tells whether the index changed since it was read or written */
+	private boolean fDirty;
+
+	private CallerIndex() {
+	}
+
+	static synchronized CallerIndex getDefault() {
+		if (fgInstance == null) {
+			fgInstance= new CallerIndex();
+			fgInstance.start();
+		}
+		return fgInstance;
+	}
+
+	static synchronized void shutdown() {
+		if (fgInstance != null) {
+			fgInstance.stop();
+			fgInstance= null;
+		}
+	}
+
+	static String getKey(String kind, IMember member) {
+		return kind + member.getHandleIdentifier();
+	}
+
+	private void start() {
+		JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+		if (JavaManipulationPlugin.getDefault() == null)
+			return;
+
+		try {
+			ISavedState savedState= ResourcesPlugin.getWorkspace().addSaveParticipant(JavaManipulation.ID_PLUGIN, this);
+			// without the resource deltas since the last save the saved index may be stale
+			if (savedState != null && read()) {
+				savedState.processResourceChangeEvents(event -> {
+					synchronized (CallerIndex.this) {
+						processResourceDelta(event.getDelta());
+					}
+				});
+			}
+		} catch (CoreException e) {
+			JavaManipulationPlugin.log(e);
+		}
+	}
+
+	private void stop() {
+		fPrefetchJob.cancel();
+		JavaCore.removeElementChangedListener(this);
+		if (JavaManipulationPlugin.getDefault() != null)
+			ResourcesPlugin.getWorkspace().removeSaveParticipant(JavaManipulation.ID_PLUGIN);
+	}
+
+	/**
+	 * Returns the callers of a member.
+	 *
+	 * @param kind the kind of the references
+	 * @param member the member
+	 * @param pattern the search pattern for the references to the member
+	 * @param scope the scope for the first search, must include all references to the member in
+	 *            the workspace
+	 * @param monitor the progress monitor
+	 * @return a map from handle identifier to {@link MethodCall}
+	 * @throws CoreException if the search fails
+	 */
+	Map<String, MethodCall> getCallers(String kind, IMember member, SearchPattern pattern, IJavaSearchScope scope, IProgressMonitor monitor) throws CoreException {
+		List<Reference> references= getReferences(getKey(kind, member), pattern, scope, monitor);
+
+		CallSearchResultCollector collector= new CallSearchResultCollector();
+		for (Reference reference : references) {
+			IJavaElement caller= JavaCore.create(reference.fCaller);
+			if (caller instanceof IMember) {
+				collector.addMember((IMember) caller, (IMember) caller, reference.fStart, reference.fEnd);
+				if (caller instanceof IMethod && !kind.equals(INSTANCE_CREATIONS))
+					fPrefetchJob.add((IMethod) caller);
+			}
+		}
+		fPrefetchJob.schedule();
+		return collector.getCallers();
+	}
+
+	private List<Reference> getReferences(String key, SearchPattern pattern, IJavaSearchScope scope, IProgressMonitor monitor) throws CoreException {
+		Entry entry;
+		long generation;
+		Set<String> changedUnits= new HashSet<>();
+		synchronized (this) {
+			entry= fEntries.get(key);
+			generation= fGeneration;
+			if (entry != null) {
+				for (Map.Entry<String, Long> changedUnit : fChangedUnits.entrySet()) {
+					if (changedUnit.getValue().longValue() > entry.fGeneration)
+						changedUnits.add(changedUnit.getKey());
+				}
+				changedUnits.addAll(entry.fVolatileUnits);
+			}
+		}
+
+		Set<String> unsavedUnits= new HashSet<>();
+		for (ICompilationUnit workingCopy : JavaCore.getWorkingCopies(null)) {
+			if (workingCopy.hasUnsavedChanges())
+				unsavedUnits.add(workingCopy.getPrimary().getHandleIdentifier());
+		}
+
+		List<Reference> references;
+		if (entry == null) {
+			references= search(pattern, scope, monitor);
+		} else {
+			changedUnits.addAll(unsavedUnits);
+			references= new ArrayList<>(entry.fReferences.size());
+			for (Reference reference : entry.fReferences) {
+				if (!changedUnits.contains(reference.fUnit))
+					references.add(reference);
+			}
+			List<IJavaElement> units= new ArrayList<>(changedUnits.size());
+			for (String handle : changedUnits) {
+				IJavaElement unit= JavaCore.create(handle);
+				if (unit != null && unit.exists())
+					units.add(unit);
+			}
+			if (!units.isEmpty())
+				references.addAll(search(pattern, SearchEngine.createJavaSearchScope(units.toArray(new IJavaElement[units.size()])), monitor));
+		}
+
+		references= Collections.unmodifiableList(references);
+		synchronized (this) {
+			Entry current= fEntries.get(key);
+			if (generation >= fClearedGeneration && (current == null || current.fGeneration <= generation)) {
+				fEntries.put(key, new Entry(generation, unsavedUnits, references));
+				fDirty= true;
+			}
+		}
+		return references;
+	}
+
+	private static List<Reference> search(SearchPattern pattern, IJavaSearchScope scope, IProgressMonitor monitor) throws CoreException {
+		ReferenceRequestor requestor= new ReferenceRequestor();
+		new SearchEngine().search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, scope, requestor, monitor);
+		return requestor.fReferences;
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		Set<String> changedUnits= new HashSet<>();
+		boolean local= SearchResultDeltas.collectChangedUnits(event.getDelta(), changedUnits);
+		synchronized (this) {
+			if (!local) {
+				clear();
+				return;
+			}
+			for (String unit : changedUnits)
+				markChanged(unit);
+		}
+	}
+
+	/**
+	 * Clears the index if Java files or the classpath changed since the last save.
+	 *
+	 * @param delta the delta, may be <code>null</code>
+	 */
+	private void processResourceDelta(IResourceDelta delta) {
+		if (delta == null)
+			return;
+		boolean[] cleared= { false };
+		try {
+			delta.accept(child -> {
+				if (cleared[0])
+					return false;
+				IResource resource= child.getResource();
+				switch (resource.getType()) {
+					case IResource.PROJECT:
+						if (child.getKind() != IResourceDelta.CHANGED || (child.getFlags() & (IResourceDelta.OPEN | IResourceDelta.DESCRIPTION)) != 0) {
+							clear();
+							cleared[0]= true;
+							return false;
+						}
+						return true;
+					case IResource.FILE:
+						// the structure of changed Java files is unknown
+						String name= resource.getName();
+						if (JavaCore.isJavaLikeFileName(name) || ".classpath".equals(name) || name.endsWith(".jar") || name.endsWith(".zip")) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+							clear();
+							cleared[0]= true;
+						}
+						return false;
+					default:
+						return true;
+				}
+			});
+		} catch (CoreException e) {
+			JavaManipulationPlugin.log(e);
+			clear();
+		}
+	}
+
+	private void markChanged(String unit) {
+		fChangedUnits.put(unit, Long.valueOf(++fGeneration));
+		fDirty= true;
+	}
+
+	private void clear() {
+		fEntries.clear();
+		fChangedUnits.clear();
+		fClearedGeneration= ++fGeneration;
+		fDirty= true;
+	}
+
+	@Override
+	public void prepareToSave(ISaveContext context) throws CoreException {
+		// nothing to prepare
+	}
+
+	@Override
+	public void saving(ISaveContext context) throws CoreException {
+		if (context.getKind() != ISaveContext.FULL_SAVE)
+			return;
+		context.needDelta();
+		synchronized (this) {
+			if (fDirty) {
+				pruneChangedUnits();
+				write();
+				fDirty= false;
+			}
+		}
+	}
+
+	@Override
+	public void doneSaving(ISaveContext context) {
+		// nothing to clean up
+	}
+
+	@Override
+	public void rollback(ISaveContext context) {
+		// the index is newer than the rolled back state, the deltas only invalidate more units
+	}
+
+	/**
+	 * Removes the changed units which are older than all entries.
+	 */
+	private void pruneChangedUnits() {
+		long oldest= fGeneration;
+		for (Entry entry : fEntries.values())
+			oldest= Math.min(oldest, entry.fGeneration);
+		for (Iterator<Long> iterator= fChangedUnits.values().iterator(); iterator.hasNext();) {
+			if (iterator.next().longValue() <= oldest)
+				iterator.remove();
+		}
+	}
+
+	private static File getIndexFile() {
+		return JavaManipulationPlugin.getDefault().getStateLocation().append(INDEX_FILE).toFile();
+	}
+
+	/**
+	 * Reads the index saved with the workspace.
+	 *
+	 * @return <code>true</code> if the index has been read
+	 */
+	private synchronized boolean read() {
+		File file= getIndexFile();
+		if (!file.isFile())
+			return false;
+
+		try (DataInputStream in= new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION)
+				return false;
+			String[] strings= new String[in.readInt()];
+			for (int i= 0; i < strings.length; i++)
+				strings[i]= in.readUTF();
+
+			fGeneration= in.readLong();
+			for (int i= in.readInt(); i > 0; i--)
+				fChangedUnits.put(strings[in.readInt()], Long.valueOf(in.readLong()));
+			for (int i= in.readInt(); i > 0; i--) {
+				String key= strings[in.readInt()];
+				long generation= in.readLong();
+				Set<String> volatileUnits= new HashSet<>();
+				for (int j= in.readInt(); j > 0; j--)
+					volatileUnits.add(strings[in.readInt()]);
+				List<Reference> references= new ArrayList<>();
+				for (int j= in.readInt(); j > 0; j--)
+					references.add(new Reference(strings[in.readInt()], strings[in.readInt()], in.readInt(), in.readInt()));
+				fEntries.put(key, new Entry(generation, volatileUnits, Collections.unmodifiableList(references)));
+			}
+			return true;
+		} catch (IOException | RuntimeException e) {
+			fEntries.clear();
+			fChangedUnits.clear();
+			return false;
+		}
+	}
+
+	private void write() {
+		Map<String, Integer> strings= new LinkedHashMap<>();
+		for (Map.Entry<String, Entry> entry : fEntries.entrySet()) {
+			addString(strings, entry.getKey());
+			for (String unit : entry.getValue().fVolatileUnits)
+				addString(strings, unit);
+			for (Reference reference : entry.getValue().fReferences) {
+				addString(strings, reference.fCaller);
+				addString(strings, reference.fUnit);
+			}
+		}
+		for (String unit : fChangedUnits.keySet())
+			addString(strings, unit);
+
+		File file= getIndexFile();
+		File temporary= new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+		try {
+			try (DataOutputStream out= new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary.toPath())))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(strings.size());
+				for (String string : strings.keySet())
+					out.writeUTF(string);
+
+				out.writeLong(fGeneration);
+				out.writeInt(fChangedUnits.size());
+				for (Map.Entry<String, Long> changedUnit : fChangedUnits.entrySet()) {
+					out.writeInt(strings.get(changedUnit.getKey()).intValue());
+					out.writeLong(changedUnit.getValue().longValue());
+				}
+				out.writeInt(fEntries.size());
+				for (Map.Entry<String, Entry> mapEntry : fEntries.entrySet()) {
+					Entry entry= mapEntry.getValue();
+					out.writeInt(strings.get(mapEntry.getKey()).intValue());
+					out.writeLong(entry.fGeneration);
+					out.writeInt(entry.fVolatileUnits.size());
+					for (String unit : entry.fVolatileUnits)
+						out.writeInt(strings.get(unit).intValue());
+					out.writeInt(entry.fReferences.size());
+					for (Reference reference : entry.fReferences) {
+						out.writeInt(strings.get(reference.fCaller).intValue());
+						out.writeInt(strings.get(reference.fUnit).intValue());
+						out.writeInt(reference.fStart);
+						out.writeInt(reference.fEnd);
+					}
+				}
+			}
+			Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			JavaManipulationPlugin.log(e);
+			file.delete();
+		}
+	}
+
+	private static void addString(Map<String, Integer> strings, String string) {
+		if (!strings.containsKey(string))
+			strings.put(string, Integer.valueOf(strings.size()));
+	}
+}
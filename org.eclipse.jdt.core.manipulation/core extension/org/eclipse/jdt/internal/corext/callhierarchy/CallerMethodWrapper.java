@@ -106,6 +106,7 @@ public class CallerMethodWrapper extends MethodWrapper {
 
 			IMember member= getMember();
 			SearchPattern pattern= null;
+			String kind= null;
 			IType type= null;
 			if (member instanceof IType) {
 				type= (IType) member;
@@ -130,11 +131,13 @@ public class CallerMethodWrapper extends MethodWrapper {
 					pattern= SearchPattern.createPattern(type,
 							IJavaSearchConstants.CLASS_INSTANCE_CREATION_TYPE_REFERENCE,
 							SearchUtils.GENERICS_AGNOSTIC_MATCH_RULE);
+					kind= CallerIndex.INSTANCE_CREATIONS;
 				} else {
 					pattern= SearchPattern.createPattern(type.getFullyQualifiedName('.'),
 							IJavaSearchConstants.CONSTRUCTOR,
 							IJavaSearchConstants.REFERENCES,
 							SearchUtils.GENERICS_AGNOSTIC_MATCH_RULE);
+					kind= CallerIndex.CONSTRUCTOR_REFERENCES;
 				}
 			}
 			if (pattern == null) {
@@ -142,6 +145,12 @@ public class CallerMethodWrapper extends MethodWrapper {
 				if (member.getElementType() == IJavaElement.FIELD)
 					limitTo= getFieldSearchMode();
 				pattern= SearchPattern.createPattern(member, limitTo, SearchUtils.GENERICS_AGNOSTIC_MATCH_RULE);
+				if (limitTo == IJavaSearchConstants.READ_ACCESSES)
+					kind= CallerIndex.READ_ACCESSES;
+				else if (limitTo == IJavaSearchConstants.WRITE_ACCESSES)
+					kind= CallerIndex.WRITE_ACCESSES;
+				else
+					kind= CallerIndex.REFERENCES;
 			}
 			if (pattern == null) { // e.g. for initializers
 				return new HashMap<>(0);
@@ -152,6 +161,8 @@ public class CallerMethodWrapper extends MethodWrapper {
 			IJavaSearchScope defaultSearchScope= getSearchScope();
 			boolean isWorkspaceScope= SearchEngine.createWorkspaceScope().equals(defaultSearchScope);
 			IJavaSearchScope searchScope= isWorkspaceScope ? getAccurateSearchScope(defaultSearchScope, member) : defaultSearchScope;
+			if (isWorkspaceScope && CallHierarchyCore.getDefault().isCallerIndexEnabled())
+				return CallerIndex.getDefault().getCallers(kind, member, pattern, searchScope, monitor);
 			searchEngine.search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, searchScope, searchRequestor,
 					monitor);
 			return searchRequestor.getCallers();
@@ -162,7 +173,7 @@ public class CallerMethodWrapper extends MethodWrapper {
 		}
 	}
 
-	private IJavaSearchScope getAccurateSearchScope(IJavaSearchScope defaultSearchScope, IMember member) throws JavaModelException {
+	static IJavaSearchScope getAccurateSearchScope(IJavaSearchScope defaultSearchScope, IMember member) throws JavaModelException {
 		if (! JdtFlags.isPrivate(member))
 			return defaultSearchScope;
 
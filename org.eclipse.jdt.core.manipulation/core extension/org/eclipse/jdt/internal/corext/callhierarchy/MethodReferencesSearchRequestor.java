@@ -50,9 +50,20 @@ class MethodReferencesSearchRequestor extends SearchRequestor {
                 case IJavaElement.TYPE:
                 case IJavaElement.FIELD:
                 case IJavaElement.INITIALIZER:
-                    fSearchResults.addMember(member, member, match.getOffset(), match.getOffset()+match.getLength());
+                    acceptReference(member, match.getOffset(), match.getOffset()+match.getLength());
                     break;
             }
         }
     }
+
+    /**
+     * Called for each accurate reference outside of doc comments.
+     *
+     * @param member the referencing member
+     * @param start the start offset of the reference
+     * @param end the end offset of the reference
+     */
+    protected void acceptReference(IMember member, int start, int end) {
+        fSearchResults.addMember(member, member, start, end);
+    }
 }
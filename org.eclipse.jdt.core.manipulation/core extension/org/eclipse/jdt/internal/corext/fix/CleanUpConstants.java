@@ -2296,6 +2296,20 @@ public class CleanUpConstants {
 	 */
 	public final static String SAVE_PARTICIPANT_PROFILE= "org.eclipse.jdt.ui.default.save_participant_clean_up_profile"; //$NON-NLS-1$
 
+	/**
+	 * The number of worker threads used to compute the fixes of a clean up run. ASTs are created
+	 * and fixes are computed concurrently for disjoint partitions of the compilation units of a
+	 * project, only the resulting changes are assembled serially.<br>
+	 * <br>
+	 * Possible values: Integer value, <code>0</code> to use one worker per available processor,
+	 * <code>1</code> to compute all fixes on the calling thread<br>
+	 * Default value: <code><b>1</b></code><br>
+	 * <br>
+	 *
+	 * @since 4.26
+	 */
+	public static final String CLEANUP_PARALLEL_WORKERS= "cleanup.parallel_workers"; //$NON-NLS-1$
+
 	public static final String CLEANUP_ON_SAVE_ADDITIONAL_OPTIONS= "cleanup.on_save_use_additional_actions"; //$NON-NLS-1$
 
 	/**
@@ -39,6 +39,7 @@ public final class FixMessages extends NLS {
 	public static String CleanUpRefactoring_Parser_Startup_message;
 	public static String CleanUpRefactoring_Refactoring_name;
 	public static String CleanUpRefactoring_ProcessingCompilationUnit_message;
+	public static String CleanUpRefactoring_ProcessingCompilationUnit_worker_message;
 	public static String CleanUpRefactoring_Initialize_message;
 	public static String CleanUpRefactoring_exception;
 
@@ -16,7 +16,9 @@ package org.eclipse.jdt.internal.corext.fix;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.eclipse.core.runtime.CoreException;
 
@@ -34,6 +36,9 @@ import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
 import org.eclipse.jdt.core.dom.rewrite.TargetSourceRangeComputer;
 import org.eclipse.jdt.core.manipulation.ICleanUpFixCore;
 
+import org.eclipse.jdt.internal.common.FusedHelperVisitor;
+import org.eclipse.jdt.internal.common.HelperVisitor;
+import org.eclipse.jdt.internal.common.ReferenceHolder;
 import org.eclipse.jdt.internal.corext.dom.ASTNodes;
 import org.eclipse.jdt.internal.corext.dom.OrderedInfixExpression;
 import org.eclipse.jdt.internal.corext.refactoring.structure.CompilationUnitRewrite;
@@ -124,16 +129,38 @@ public class StandardComparisonFixCore extends CompilationUnitRewriteOperationsF
 
 
 	public static ICleanUpFixCore createCleanUp(final CompilationUnit compilationUnit) {
+		FusedHelperVisitor fusedVisitor= new FusedHelperVisitor();
+		Supplier<ICleanUpFixCore> fix= registerCleanUp(compilationUnit, fusedVisitor);
+		fusedVisitor.build(compilationUnit);
+		return fix.get();
+	}
+
+	/**
+	 * Registers the visitor finding the comparisons to replace. The fix is available once the fused
+	 * visitor has been built on the compilation unit.
+	 *
+	 * @param compilationUnit the compilation unit
+	 * @param fusedVisitor the visitor traversing the compilation unit
+	 * @return the fix, which is <code>null</code> if no comparison has been found
+	 */
+	public static Supplier<ICleanUpFixCore> registerCleanUp(final CompilationUnit compilationUnit, final FusedHelperVisitor fusedVisitor) {
 		List<StandardComparisonFixOperation> operations= new ArrayList<>();
 		StandardComparisonFinder finder= new StandardComparisonFinder(operations);
-		compilationUnit.accept(finder);
-
-		if (operations.isEmpty()) {
-			return null;
-		}
+		ReferenceHolder<ASTNode, Object> dataholder= new ReferenceHolder<>();
+		HelperVisitor<ReferenceHolder<ASTNode, Object>, ASTNode, Object> helperVisitor= new HelperVisitor<>(new HashSet<>(), dataholder);
+		helperVisitor.addInfixExpression((visited, holder) -> {
+			return finder.visit(visited);
+		});
+		fusedVisitor.register(helperVisitor);
+
+		return () -> {
+			if (operations.isEmpty()) {
+				return null;
+			}
 
-		CompilationUnitRewriteOperationsFixCore.CompilationUnitRewriteOperation[] ops= operations.toArray(new CompilationUnitRewriteOperationsFixCore.CompilationUnitRewriteOperation[0]);
-		return new StandardComparisonFixCore(FixMessages.StandardComparisonFix_compare_to_zero, compilationUnit, ops);
+			CompilationUnitRewriteOperationsFixCore.CompilationUnitRewriteOperation[] ops= operations.toArray(new CompilationUnitRewriteOperationsFixCore.CompilationUnitRewriteOperation[0]);
+			return new StandardComparisonFixCore(FixMessages.StandardComparisonFix_compare_to_zero, compilationUnit, ops);
+		};
 	}
 
 	protected StandardComparisonFixCore(final String name, final CompilationUnit compilationUnit, final CompilationUnitRewriteOperationsFixCore.CompilationUnitRewriteOperation[] fixRewriteOperations) {
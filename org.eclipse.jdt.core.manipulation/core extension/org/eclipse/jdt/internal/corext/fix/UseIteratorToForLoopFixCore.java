@@ -23,6 +23,7 @@ import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
 
+import org.eclipse.jdt.internal.common.FusedHelperVisitor;
 import org.eclipse.jdt.internal.corext.fix.CompilationUnitRewriteOperationsFixCore.CompilationUnitRewriteOperation;
 import org.eclipse.jdt.internal.corext.fix.helper.AbstractTool;
 import org.eclipse.jdt.internal.corext.fix.helper.WhileLoopToChangeHit;
@@ -48,16 +49,19 @@ public enum UseIteratorToForLoopFixCore {
 	}
 
 	/**
-	 * Compute set of CompilationUnitRewriteOperation to refactor supported situations
+	 * Compute set of CompilationUnitRewriteOperation to refactor supported situations. The
+	 * operations are added by the returned completion after the fused visitor has been built.
 	 *
 	 * @param compilationUnit unit to search in
 	 * @param operations set of all CompilationUnitRewriteOperations created already
 	 * @param nodesprocessed list to remember nodes already processed
 	 * @param createForOnlyIfVarUsed true if for loop should be created only only if loop var used within
+	 * @param fusedVisitor visitor traversing the unit for all registered visitors
+	 * @return the completion adding the operations
 	 */
-	public void findOperations(final CompilationUnit compilationUnit, final Set<CompilationUnitRewriteOperation> operations,
-			final Set<ASTNode> nodesprocessed, boolean createForOnlyIfVarUsed) {
-		iteratortofor.find(this, compilationUnit, operations, nodesprocessed, createForOnlyIfVarUsed);
+	public Runnable findOperations(final CompilationUnit compilationUnit, final Set<CompilationUnitRewriteOperation> operations,
+			final Set<ASTNode> nodesprocessed, boolean createForOnlyIfVarUsed, FusedHelperVisitor fusedVisitor) {
+		return iteratortofor.find(this, compilationUnit, operations, nodesprocessed, createForOnlyIfVarUsed, fusedVisitor);
 	}
 
 	public CompilationUnitRewriteOperation rewrite(final WhileLoopToChangeHit hit) {
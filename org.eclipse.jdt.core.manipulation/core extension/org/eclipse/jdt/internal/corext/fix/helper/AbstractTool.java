@@ -24,6 +24,7 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.core.dom.Name;
 
+import org.eclipse.jdt.internal.common.FusedHelperVisitor;
 import org.eclipse.jdt.internal.corext.dom.AbortSearchException;
 import org.eclipse.jdt.internal.corext.dom.ScopeAnalyzer;
 import org.eclipse.jdt.internal.corext.fix.CompilationUnitRewriteOperationsFixCore.CompilationUnitRewriteOperation;
@@ -45,8 +46,20 @@ public abstract class AbstractTool<T> {
 		return typeBinding.getQualifiedName().equals(typename);
 	}
 
-	public abstract void find(UseIteratorToForLoopFixCore fixcore, CompilationUnit compilationUnit, Set<CompilationUnitRewriteOperation> operations,
-			Set<ASTNode> nodesprocessed, boolean createForIfVarNotUsed);
+	/**
+	 * Registers the visitors finding the situations to refactor. The operations are added by the
+	 * returned completion, which must be run after the fused visitor has been built.
+	 *
+	 * @param fixcore fix core creating the operations
+	 * @param compilationUnit unit to search in
+	 * @param operations set of all CompilationUnitRewriteOperations created already
+	 * @param nodesprocessed list to remember nodes already processed
+	 * @param createForIfVarNotUsed true if for loop should be created only only if loop var used within
+	 * @param fusedVisitor visitor traversing the unit for all registered visitors
+	 * @return the completion adding the operations
+	 */
+	public abstract Runnable find(UseIteratorToForLoopFixCore fixcore, CompilationUnit compilationUnit, Set<CompilationUnitRewriteOperation> operations,
+			Set<ASTNode> nodesprocessed, boolean createForIfVarNotUsed, FusedHelperVisitor fusedVisitor);
 
 	public abstract void rewrite(UseIteratorToForLoopFixCore useExplicitEncodingFixCore, T holder, CompilationUnitRewrite cuRewrite,
 			TextEditGroup group);
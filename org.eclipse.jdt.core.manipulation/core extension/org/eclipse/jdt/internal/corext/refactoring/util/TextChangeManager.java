@@ -64,13 +64,26 @@ public class TextChangeManager {
 	public TextChange get(ICompilationUnit cu) {
 		TextChange result= fMap.get(cu);
 		if (result == null) {
-			result= new CompilationUnitChange(cu.getElementName(), cu);
-			result.setKeepPreviewEdits(fKeepExecutedTextEdits);
+			result= create(cu);
 			fMap.put(cu, result);
 		}
 		return result;
 	}
 
+	/**
+	 * Creates a <code>TextChange</code> for the given compilation unit like
+	 * {@link #get(ICompilationUnit)}, but does not associate it with the compilation unit. Unlike
+	 * the other methods of this manager, this method can be called from any thread.
+	 *
+	 * @param cu the compilation unit for which the text buffer change is requested
+	 * @return the new text change, to be added with {@link #manage(ICompilationUnit, TextChange)}
+	 */
+	public TextChange create(ICompilationUnit cu) {
+		TextChange result= new CompilationUnitChange(cu.getElementName(), cu);
+		result.setKeepPreviewEdits(fKeepExecutedTextEdits);
+		return result;
+	}
+
 	/**
 	 * Removes the <tt>TextChange</tt> managed under the given key
 	 * <code>unit<code>.
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.util;
+
+import java.util.Set;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+
+/**
+ * Tells which cached search results a Java element delta invalidates, for caches which keep the
+ * matches per compilation unit.
+ * <p>
+ * Only a change inside the bodies of a compilation unit is local to that unit. Any other change,
+ * e.g. an added overload, a changed super type, a closed project or a changed classpath, can change
+ * the matches in units which did not change and invalidates all cached results.
+ * </p>
+ * <p>
+ * The caches listen to {@link ElementChangedEvent#POST_CHANGE} and
+ * {@link ElementChangedEvent#POST_RECONCILE}, since the searches see the structure of the working
+ * copies.
+ * </p>
+ *
+ * @since 1.17
+ */
+public final class SearchResultDeltas {
+
+	/** The flags of containers whose children changed, but which did not change themselves */
+	private static final int CHILDREN_CHANGED= IJavaElementDelta.F_CHILDREN | IJavaElementDelta.F_CONTENT;
+
+	/** The flags of compilation units whose bodies changed, but not their structure */
+	private static final int BODIES_CHANGED= IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_FINE_GRAINED | IJavaElementDelta.F_AST_AFFECTED
+			| IJavaElementDelta.F_PRIMARY_RESOURCE | IJavaElementDelta.F_PRIMARY_WORKING_COPY;
+
+	private SearchResultDeltas() {
+	}
+
+	/**
+	 * Collects the compilation units whose bodies changed.
+	 *
+	 * @param delta the delta of a {@link ElementChangedEvent#POST_CHANGE} or
+	 *            {@link ElementChangedEvent#POST_RECONCILE} event
+	 * @param changedUnits collects the handle identifiers of the primary compilation units whose
+	 *            bodies changed
+	 * @return <code>true</code> if the delta only changed bodies, <code>false</code> if all cached
+	 *         results have to be discarded
+	 */
+	public static boolean collectChangedUnits(IJavaElementDelta delta, Set<String> changedUnits) {
+		IJavaElement element= delta.getElement();
+		int kind= delta.getKind();
+		int flags= delta.getFlags();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				break;
+			case IJavaElement.JAVA_PROJECT:
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (kind != IJavaElementDelta.CHANGED || (flags & ~CHILDREN_CHANGED) != 0)
+					return false;
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+				if (kind != IJavaElementDelta.CHANGED || (flags & ~BODIES_CHANGED) != 0)
+					return false;
+				// without a fine-grained delta the structure may have changed, children are structural changes
+				if ((flags & IJavaElementDelta.F_CONTENT) != 0
+						&& ((flags & IJavaElementDelta.F_FINE_GRAINED) == 0 || delta.getAffectedChildren().length != 0))
+					return false;
+				// a working copy which is discarded reverts the unit to its saved contents
+				changedUnits.add(((ICompilationUnit) element).getPrimary().getHandleIdentifier());
+				return true;
+			default:
+				return false;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (!collectChangedUnits(child, changedUnits))
+				return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.ITypeHierarchyChangedListener;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.WorkingCopyOwner;
+
+/**
+ * A thread-safe cache for complete type hierarchies of primary types, shared by the refactoring
+ * processors. In contrast to {@link SuperTypeHierarchyCache}, the hierarchies also contain all
+ * subtypes of their focus type.
+ * <p>
+ * An entry is removed as soon as its hierarchy reports a change. Type hierarchies only report
+ * changes that affect the hierarchy, so renaming a method and undoing the rename keeps the
+ * hierarchies of the involved types cached. Hierarchies requested for a working copy owner other
+ * than the primary one are never cached.
+ * </p>
+ * <p>
+ * The cache is bounded by the number of hierarchies and by the total number of types in the
+ * cached hierarchies. The least recently used hierarchies are evicted first. The limits default to
+ * the <code>jdt.typeHierarchyCacheSize</code> and <code>jdt.typeHierarchyCacheTypes</code> system
+ * properties.
+ * </p>
+ * <p>
+ * Clients must not call {@link ITypeHierarchy#refresh(IProgressMonitor)} on cached hierarchies.
+ * </p>
+ */
+// @see JDTUIHelperClasses
+public class TypeHierarchyCache {
+
+	/**
+	 * The default maximum number of cached hierarchies.
+	 */
+	public static final int DEFAULT_MAX_HIERARCHIES= Integer.getInteger("jdt.typeHierarchyCacheSize", 32).intValue(); //$NON-NLS-1$
+
+	/**
+	 * The default maximum number of types in all cached hierarchies together.
+	 */
+	public static final int DEFAULT_MAX_TYPES= Integer.getInteger("jdt.typeHierarchyCacheTypes", 100000).intValue(); //$NON-NLS-1$
+
+	private static class HierarchyCacheEntry implements ITypeHierarchyChangedListener {
+
+		private ITypeHierarchy fTypeHierarchy;
+		private final int fTypeCount;
+
+		public HierarchyCacheEntry(ITypeHierarchy hierarchy) {
+			fTypeHierarchy= hierarchy;
+			fTypeCount= hierarchy.getAllTypes().length;
+			fTypeHierarchy.addTypeHierarchyChangedListener(this);
+		}
+
+		@Override
+		public void typeHierarchyChanged(ITypeHierarchy typeHierarchy) {
+			synchronized (fgHierarchyCache) {
+				if (fgHierarchyCache.get(typeHierarchy.getType()) == this) {
+					fgInvalidations++;
+					removeHierarchyEntryFromCache(typeHierarchy.getType());
+				}
+			}
+		}
+
+		public ITypeHierarchy getTypeHierarchy() {
+			return fTypeHierarchy;
+		}
+
+		public int getTypeCount() {
+			return fTypeCount;
+		}
+
+		public void dispose() {
+			if (fTypeHierarchy != null) {
+				fTypeHierarchy.removeTypeHierarchyChangedListener(this);
+				fTypeHierarchy= null;
+			}
+		}
+
+		@Override
+		public String toString() {
+			return "Hierarchy of: " + fTypeHierarchy.getType().getElementName(); //$NON-NLS-1$
+		}
+	}
+
+	private static final LinkedHashMap<IType, HierarchyCacheEntry> fgHierarchyCache= new LinkedHashMap<>(16, 0.75f, true);
+
+	private static int fgMaxHierarchies= DEFAULT_MAX_HIERARCHIES;
+	private static int fgMaxTypes= DEFAULT_MAX_TYPES;
+	private static int fgCachedTypes= 0;
+
+	private static int fgCacheHits= 0;
+	private static int fgCacheMisses= 0;
+	private static int fgEvictions= 0;
+	private static int fgInvalidations= 0;
+
+	/**
+	 * Returns the type hierarchy of the given type, containing all its supertypes and subtypes in
+	 * the workspace.
+	 *
+	 * @param type the focus type
+	 * @param owner the owner of the working copies to consider, or <code>null</code> for the
+	 *            primary working copies. Hierarchies are only cached for <code>null</code>.
+	 * @param progressMonitor progress monitor
+	 * @return the type hierarchy of <code>type</code>
+	 * @throws JavaModelException if a problem occurs
+	 */
+	public static ITypeHierarchy getTypeHierarchy(IType type, WorkingCopyOwner owner, IProgressMonitor progressMonitor) throws JavaModelException {
+		if (owner != null || fgMaxHierarchies <= 0)
+			return type.newTypeHierarchy(owner, progressMonitor);
+
+		ITypeHierarchy hierarchy= findTypeHierarchyInCache(type);
+		if (hierarchy == null) {
+			synchronized (fgHierarchyCache) {
+				fgCacheMisses++;
+			}
+			hierarchy= type.newTypeHierarchy(progressMonitor); // don't hold the lock while building
+			addTypeHierarchyToCache(hierarchy);
+		} else {
+			synchronized (fgHierarchyCache) {
+				fgCacheHits++;
+			}
+		}
+		return hierarchy;
+	}
+
+	/**
+	 * Returns the type hierarchy of the given type, containing all its supertypes and subtypes in
+	 * the workspace.
+	 *
+	 * @param type the focus type
+	 * @param progressMonitor progress monitor
+	 * @return the type hierarchy of <code>type</code>
+	 * @throws JavaModelException if a problem occurs
+	 */
+	public static ITypeHierarchy getTypeHierarchy(IType type, IProgressMonitor progressMonitor) throws JavaModelException {
+		return getTypeHierarchy(type, null, progressMonitor);
+	}
+
+	/**
+	 * Check if the given type is in the hierarchy cache.
+	 * @param type a type
+	 * @return <code>true</code> if a hierarchy for the given type is cached
+	 */
+	public static boolean hasInCache(IType type) {
+		synchronized (fgHierarchyCache) {
+			return fgHierarchyCache.containsKey(type);
+		}
+	}
+
+	private static ITypeHierarchy findTypeHierarchyInCache(IType type) {
+		synchronized (fgHierarchyCache) {
+			HierarchyCacheEntry entry= fgHierarchyCache.get(type);
+			if (entry == null)
+				return null;
+			ITypeHierarchy hierarchy= entry.getTypeHierarchy();
+			if (!hierarchy.exists()) {
+				removeHierarchyEntryFromCache(type);
+				return null;
+			}
+			return hierarchy;
+		}
+	}
+
+	private static void addTypeHierarchyToCache(ITypeHierarchy hierarchy) {
+		HierarchyCacheEntry newEntry= new HierarchyCacheEntry(hierarchy);
+		if (newEntry.getTypeCount() > fgMaxTypes) {
+			// would evict everything else
+			newEntry.dispose();
+			return;
+		}
+		synchronized (fgHierarchyCache) {
+			IType type= hierarchy.getType();
+			if (fgHierarchyCache.containsKey(type))
+				removeHierarchyEntryFromCache(type); // built concurrently, keep the newer one
+			fgHierarchyCache.put(type, newEntry);
+			fgCachedTypes+= newEntry.getTypeCount();
+			evict();
+		}
+	}
+
+	private static void evict() {
+		Iterator<IType> iter= fgHierarchyCache.keySet().iterator();
+		List<IType> evicted= new ArrayList<>();
+		int size= fgHierarchyCache.size();
+		int cachedTypes= fgCachedTypes;
+		// the last entry is the most recently used one
+		while (iter.hasNext() && size > 1 && (size > fgMaxHierarchies || cachedTypes > fgMaxTypes)) {
+			IType type= iter.next();
+			evicted.add(type);
+			size--;
+			cachedTypes-= fgHierarchyCache.get(type).getTypeCount();
+		}
+		for (IType type : evicted) {
+			fgEvictions++;
+			removeHierarchyEntryFromCache(type);
+		}
+	}
+
+	private static void removeHierarchyEntryFromCache(IType type) {
+		synchronized (fgHierarchyCache) {
+			HierarchyCacheEntry entry= fgHierarchyCache.remove(type);
+			if (entry != null) {
+				fgCachedTypes-= entry.getTypeCount();
+				entry.dispose();
+			}
+		}
+	}
+
+	/**
+	 * Sets the limits of the cache and evicts hierarchies exceeding them.
+	 *
+	 * @param maxHierarchies the maximum number of cached hierarchies, <code>0</code> disables the
+	 *            cache
+	 * @param maxTypes the maximum number of types in all cached hierarchies together
+	 */
+	public static void setLimits(int maxHierarchies, int maxTypes) {
+		synchronized (fgHierarchyCache) {
+			fgMaxHierarchies= maxHierarchies;
+			fgMaxTypes= maxTypes;
+			if (maxHierarchies <= 0)
+				clear();
+			else
+				evict();
+		}
+	}
+
+	/**
+	 * Removes all hierarchies from the cache and resets the statistics.
+	 */
+	public static void clear() {
+		synchronized (fgHierarchyCache) {
+			for (IType type : new ArrayList<>(fgHierarchyCache.keySet()))
+				removeHierarchyEntryFromCache(type);
+			fgCacheHits= 0;
+			fgCacheMisses= 0;
+			fgEvictions= 0;
+			fgInvalidations= 0;
+		}
+	}
+
+	/**
+	 * Gets the number of times the hierarchy could be taken from the cache.
+	 * @return Returns a int
+	 */
+	public static int getCacheHits() {
+		return fgCacheHits;
+	}
+
+	/**
+	 * Gets the number of times the hierarchy was built.
+	 * @return Returns a int
+	 */
+	public static int getCacheMisses() {
+		return fgCacheMisses;
+	}
+
+	/**
+	 * Gets the number of hierarchies removed to stay within the limits.
+	 * @return Returns a int
+	 */
+	public static int getEvictions() {
+		return fgEvictions;
+	}
+
+	/**
+	 * Gets the number of hierarchies removed because they changed.
+	 * @return Returns a int
+	 */
+	public static int getInvalidations() {
+		return fgInvalidations;
+	}
+
+	/**
+	 * Gets the ratio of cache hits to all cached requests.
+	 * @return the hit rate between 0 and 1, or 0 if there were no requests
+	 */
+	public static double getHitRate() {
+		synchronized (fgHierarchyCache) {
+			int requests= fgCacheHits + fgCacheMisses;
+			return requests == 0 ? 0 : (double) fgCacheHits / requests;
+		}
+	}
+
+	/**
+	 * Gets the number of types in all cached hierarchies together.
+	 * @return Returns a int
+	 */
+	public static int getCachedTypeCount() {
+		synchronized (fgHierarchyCache) {
+			return fgCachedTypes;
+		}
+	}
+
+	private TypeHierarchyCache() {
+	}
+}
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * A bounded pool of daemon threads which runs batches of tasks.
+ * <p>
+ * The tasks are passed a monitor which is canceled when the monitor of the pool is canceled, when
+ * a task of the batch failed, or when the pool is closed. Running tasks are never interrupted,
+ * they have to poll the monitor. With a parallelism of <code>1</code> the tasks run on the calling
+ * thread.
+ * </p>
+ */
+public final class WorkerPool implements AutoCloseable {
+
+	/**
+	 * A task of a batch.
+	 *
+	 * @param <T> the type of the result
+	 */
+	public interface Task<T> {
+
+		/**
+		 * Runs the task.
+		 *
+		 * @param monitor the monitor of the pool, to be polled for cancellation
+		 * @return the result
+		 * @throws CoreException if the task failed
+		 */
+		T run(IProgressMonitor monitor) throws CoreException;
+	}
+
+	/**
+	 * The monitor passed to the tasks.
+	 */
+	private static final class TaskMonitor extends NullProgressMonitor {
+
+		private final IProgressMonitor fMonitor;
+
+		TaskMonitor(IProgressMonitor monitor) {
+			fMonitor= monitor;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return super.isCanceled() || fMonitor.isCanceled();
+		}
+	}
+
+	private final String fThreadName;
+
+	private final int fParallelism;
+
+	private final TaskMonitor fTaskMonitor;
+
+	private ExecutorService fExecutor;
+
+	/**
+	 * Creates a pool. The threads are started when a batch of more than one task is run.
+	 *
+	 * @param threadName the name of the threads
+	 * @param parallelism the maximum number of concurrent tasks
+	 * @param monitor the monitor whose cancellation cancels the tasks
+	 */
+	public WorkerPool(String threadName, int parallelism, IProgressMonitor monitor) {
+		fThreadName= threadName;
+		fParallelism= Math.max(1, parallelism);
+		fTaskMonitor= new TaskMonitor(monitor);
+	}
+
+	/**
+	 * Returns the number of concurrent tasks to use on this machine.
+	 *
+	 * @param maxParallelism the upper bound
+	 * @return the number of available processors, at most <code>maxParallelism</code>
+	 */
+	public static int getDefaultParallelism(int maxParallelism) {
+		return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), maxParallelism));
+	}
+
+	/**
+	 * Returns the monitor passed to the tasks.
+	 *
+	 * @return the monitor of the tasks
+	 */
+	public IProgressMonitor getTaskMonitor() {
+		return fTaskMonitor;
+	}
+
+	/**
+	 * Runs a batch of tasks and waits for their results. If a task fails, the other tasks of the
+	 * batch are canceled before the failure is rethrown.
+	 *
+	 * @param <T> the type of the results
+	 * @param tasks the tasks
+	 * @param monitor the progress monitor, one tick per task
+	 * @return the results in the order of the tasks
+	 * @throws CoreException if a task failed
+	 * @throws OperationCanceledException if the batch has been canceled
+	 */
+	public <T> List<T> runAll(List<? extends Task<T>> tasks, IProgressMonitor monitor) throws CoreException, OperationCanceledException {
+		List<T> results= new ArrayList<>(tasks.size());
+		if (fParallelism == 1 || tasks.size() <= 1) {
+			for (Task<T> task : tasks) {
+				checkCanceled();
+				results.add(task.run(fTaskMonitor));
+				monitor.worked(1);
+			}
+			return results;
+		}
+
+		if (fExecutor == null) {
+			fExecutor= Executors.newFixedThreadPool(fParallelism, runnable -> {
+				Thread thread= new Thread(runnable, fThreadName);
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		List<Future<T>> futures= new ArrayList<>(tasks.size());
+		for (Task<T> task : tasks) {
+			futures.add(fExecutor.submit(() -> {
+				checkCanceled();
+				return task.run(fTaskMonitor);
+			}));
+		}
+		boolean done= false;
+		try {
+			for (Future<T> future : futures) {
+				results.add(future.get());
+				monitor.worked(1);
+			}
+			done= true;
+			return results;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause= e.getCause();
+			if (cause instanceof CoreException)
+				throw (CoreException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IllegalStateException(cause);
+		} finally {
+			if (!done) {
+				// stop the other tasks before the caller continues
+				fTaskMonitor.setCanceled(true);
+				for (Future<T> future : futures)
+					future.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * Throws an {@link OperationCanceledException} if the tasks are canceled.
+	 *
+	 * @throws OperationCanceledException if the tasks are canceled
+	 */
+	public void checkCanceled() throws OperationCanceledException {
+		if (fTaskMonitor.isCanceled())
+			throw new OperationCanceledException();
+	}
+
+	/**
+	 * Cancels the running tasks and waits until they have finished.
+	 */
+	@Override
+	public void close() {
+		fTaskMonitor.setCanceled(true);
+		if (fExecutor == null)
+			return;
+		fExecutor.shutdown();
+		try {
+			// running tasks poll the canceled monitor, don't interrupt them in the middle of I/O
+			fExecutor.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -15,8 +15,12 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.junit.model;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
@@ -25,11 +29,14 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.SafeRunner;
 
 import org.eclipse.jdt.internal.junit.JUnitCorePlugin;
+import org.eclipse.jdt.internal.junit.runner.BinaryMessageIds;
 import org.eclipse.jdt.internal.junit.runner.MessageIds;
 import org.eclipse.jdt.internal.junit.runner.RemoteTestRunner;
 
@@ -228,6 +235,18 @@ public class RemoteTestRunnerClient {
 	private int fPort= -1;
 	private PrintWriter fWriter;
 	private PushbackReader fPushbackReader;
+	/**
+	 * The input stream if the binary protocol is used
+	 */
+	private DataInputStream fBinaryInput;
+	/**
+	 * The strings interned by the binary protocol
+	 */
+	private final List<String> fInternedStrings= new ArrayList<>();
+	/**
+	 * The test ids and names extracted from the interned strings, or <code>null</code> if not extracted yet
+	 */
+	private final List<String[]> fInternedTestIds= new ArrayList<>();
 	private String fLastLineDelimiter;
 	/**
 	 * The protocol version
@@ -266,11 +285,19 @@ public class RemoteTestRunnerClient {
 					System.out.println("Creating server socket "+fServerPort); //$NON-NLS-1$
 				fServerSocket= new ServerSocket(fServerPort);
 				fSocket= fServerSocket.accept();
-				fPushbackReader= new PushbackReader(new BufferedReader(new InputStreamReader(fSocket.getInputStream(), StandardCharsets.UTF_8)));
+				InputStream in= new BufferedInputStream(fSocket.getInputStream());
 				fWriter= new PrintWriter(new OutputStreamWriter(fSocket.getOutputStream(), StandardCharsets.UTF_8), true);
-				String message;
-				while(fPushbackReader != null && (message= readMessage(fPushbackReader)) != null)
-					receiveMessage(message);
+				if (readBinaryHandshake(in)) {
+					if (fDebug)
+						System.out.println("Using binary protocol"); //$NON-NLS-1$
+					fBinaryInput= new DataInputStream(in);
+					readBinaryMessages(fBinaryInput);
+				} else {
+					fPushbackReader= new PushbackReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+					String message;
+					while(fPushbackReader != null && (message= readMessage(fPushbackReader)) != null)
+						receiveMessage(message);
+				}
 			} catch (SocketException e) {
 				notifyTestRunTerminated();
 			} catch (IOException e) {
@@ -326,6 +353,13 @@ public class RemoteTestRunnerClient {
 			}
 		} catch(IOException e) {
 		}
+		try {
+			if (fBinaryInput != null) {
+				fBinaryInput.close();
+				fBinaryInput= null;
+			}
+		} catch(IOException e) {
+		}
 		try {
 			if (fSocket != null) {
 				fSocket.close();
@@ -378,6 +412,144 @@ public class RemoteTestRunnerClient {
 	    fCurrentState= fCurrentState.readMessage(message);
 	}
 
+	/**
+	 * Reads the handshake of the binary protocol. The stream is reset if the
+	 * RemoteTestRunner uses the text protocol.
+	 *
+	 * @param in the stream from the RemoteTestRunner, must support mark
+	 * @return <code>true</code> if the binary protocol is used
+	 * @throws IOException if reading fails
+	 */
+	private static boolean readBinaryHandshake(InputStream in) throws IOException {
+		byte[] handshake= (MessageIds.PROTOCOL + BinaryMessageIds.PROTOCOL_NAME + '\n').getBytes(StandardCharsets.US_ASCII);
+		in.mark(handshake.length);
+		for (byte b : handshake) {
+			// stop at the first difference, a text message may be shorter than the handshake
+			if (in.read() != b) {
+				in.reset();
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the frames of the binary protocol until the stream ends or the test run is stopped.
+	 *
+	 * @param in the stream from the RemoteTestRunner
+	 * @throws IOException if reading fails
+	 * @see BinaryMessageIds
+	 */
+	private void readBinaryMessages(DataInputStream in) throws IOException {
+		while (true) {
+			int length;
+			try {
+				length= in.readInt();
+			} catch (EOFException e) {
+				return;
+			}
+			byte type= in.readByte();
+			switch (type) {
+				case BinaryMessageIds.HELLO:
+					in.readInt(); // version, all versions are compatible so far
+					fLastLineDelimiter= readString(in);
+					break;
+				case BinaryMessageIds.TEXT:
+					receiveMessage(readString(in));
+					break;
+				case BinaryMessageIds.TEST_RUN_START:
+					receiveMessage(MessageIds.TEST_RUN_START + readString(in));
+					break;
+				case BinaryMessageIds.TEST_START: {
+					String[] test= readTestId(in);
+					notifyTestStarted(test[0], test[1]);
+					break;
+				}
+				case BinaryMessageIds.TEST_END: {
+					String[] test= readTestId(in);
+					notifyTestEnded(test[0], test[1]);
+					break;
+				}
+				case BinaryMessageIds.TEST_ERROR:
+				case BinaryMessageIds.TEST_FAILED: {
+					String[] test= readTestId(in);
+					fFailedTestId= test[0];
+					fFailedTest= test[1];
+					fFailureKind= type == BinaryMessageIds.TEST_ERROR ? ITestRunListener2.STATUS_ERROR : ITestRunListener2.STATUS_FAILURE;
+					break;
+				}
+				case BinaryMessageIds.TEST_RUN_END:
+					testRunEnded(in.readLong());
+					break;
+				case BinaryMessageIds.TEST_STOPPED:
+					notifyTestRunStopped(in.readLong());
+					shutDown();
+					return;
+				case BinaryMessageIds.TEST_RERAN:
+					receiveMessage(MessageIds.TEST_RERAN + readString(in));
+					break;
+				case BinaryMessageIds.TRACE:
+					fFailedTrace.setLength(0);
+					fFailedTrace.append(readString(in));
+					notifyTestFailed();
+					fFailedTrace.setLength(0);
+					fActualResult.setLength(0);
+					fExpectedResult.setLength(0);
+					break;
+				case BinaryMessageIds.EXPECTED:
+					fExpectedResult.setLength(0);
+					fExpectedResult.append(readString(in));
+					break;
+				case BinaryMessageIds.ACTUAL:
+					fActualResult.setLength(0);
+					fActualResult.append(readString(in));
+					break;
+				case BinaryMessageIds.RTRACE:
+					fFailedRerunTrace.setLength(0);
+					fFailedRerunTrace.append(readString(in));
+					break;
+				case BinaryMessageIds.TEST_TREE:
+					for (int i= in.readInt(); i > 0; i--)
+						notifyTestTreeEntry(readInterned(in));
+					break;
+				default:
+					// frame of a newer protocol version
+					in.readFully(new byte[length - 1]);
+					break;
+			}
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes= new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private String readInterned(DataInputStream in) throws IOException {
+		return fInternedStrings.get(readInternedIndex(in));
+	}
+
+	private int readInternedIndex(DataInputStream in) throws IOException {
+		int index= in.readInt();
+		if (index != -1)
+			return index;
+
+		fInternedStrings.add(readString(in));
+		fInternedTestIds.add(null);
+		return fInternedStrings.size() - 1;
+	}
+
+	private String[] readTestId(DataInputStream in) throws IOException {
+		int index= readInternedIndex(in);
+		String[] testId= fInternedTestIds.get(index);
+		if (testId == null) {
+			testId= extractTestId(fInternedStrings.get(index));
+			fInternedTestIds.set(index, testId);
+		}
+		return testId;
+	}
+
 	private void scanOldReranMessage(String arg) {
 		// OLD V1 format
 		// format: className" "testName" "status
@@ -513,28 +685,36 @@ public class RemoteTestRunnerClient {
 	}
 
 	private void notifyTestEnded(final String test) {
+		String s[]= extractTestId(test);
+		notifyTestEnded(s[0], s[1]);
+	}
+
+	private void notifyTestEnded(final String testId, final String testName) {
 		if (JUnitCorePlugin.isStopped())
 			return;
 		for (ITestRunListener2 listener : fListeners) {
 			SafeRunner.run(new ListenerSafeRunnable() {
 				@Override
 				public void run() {
-					String s[]= extractTestId(test);
-					listener.testEnded(s[0], s[1]);
+					listener.testEnded(testId, testName);
 				}
 			});
 		}
 	}
 
 	private void notifyTestStarted(final String test) {
+		String s[]= extractTestId(test);
+		notifyTestStarted(s[0], s[1]);
+	}
+
+	private void notifyTestStarted(final String testId, final String testName) {
 		if (JUnitCorePlugin.isStopped())
 			return;
 		for (ITestRunListener2 listener : fListeners) {
 			SafeRunner.run(new ListenerSafeRunnable() {
 				@Override
 				public void run() {
-					String s[]= extractTestId(test);
-					listener.testStarted(s[0], s[1]);
+					listener.testStarted(testId, testName);
 				}
 			});
 		}
@@ -110,7 +110,7 @@ public abstract class TestElement implements ITestElement {
 				return OK;
 		}
 
-		private static Status combineProgressAndErrorStatus(Status progress, Status error) {
+		static Status combineProgressAndErrorStatus(Status progress, Status error) {
 			if (progress.isDone()) {
 				if (error.isError())
 					return ERROR;
@@ -196,6 +196,12 @@ public abstract class TestElement implements ITestElement {
 
 	private boolean fAssumptionFailed;
 
+	/**
+	 * The status that the parent has last been notified of, see
+	 * {@link TestSuiteElement#childChangedStatus(TestElement, Status)}.
+	 */
+	/* default */ Status fReportedStatus= Status.NOT_RUN;
+
 	/**
 	 * Running time in seconds. Contents depend on the current {@link #getProgressState()}:
 	 * <ul>
@@ -315,6 +321,26 @@ public abstract class TestElement implements ITestElement {
 		setStatus(status);
 	}
 
+	/**
+	 * Restores the status of a test element read from a swap file. The status is counted by the
+	 * parent, but the cumulated status of the parent's children is not changed, since it is
+	 * restored from the swap file as well.
+	 *
+	 * @param status the status
+	 * @param trace the failure trace, or <code>null</code>
+	 * @param expected the expected result, or <code>null</code>
+	 * @param actual the actual result, or <code>null</code>
+	 * @see TestRunSessionSwapFile
+	 */
+	void restoreStatus(Status status, String trace, String expected, String actual) {
+		fStatus= status;
+		fTrace= trace;
+		fExpected= expected;
+		fActual= actual;
+		if (fParent != null)
+			fParent.childRestoredStatus(this);
+	}
+
 	public Status getStatus() {
 		return fStatus;
 	}
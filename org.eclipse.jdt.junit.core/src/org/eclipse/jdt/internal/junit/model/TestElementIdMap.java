@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Map from test id to test element.
+ * <p>
+ * The test runners assign consecutive integer ids, which are stored as primitive keys of an open
+ * addressing table without an entry object per test. Other ids are stored in a hash map.
+ * </p>
+ * <p>
+ * The map is not synchronized. It is only modified by the thread that receives the events of the
+ * test run.
+ * </p>
+ *
+ * @param <T> the type of the test elements
+ */
+final class TestElementIdMap<T extends TestElement> {
+
+	/**
+	 * Key of ids which are not integers in canonical form, cannot be the result of
+	 * {@link #toKey(String)} for an integer id.
+	 */
+	private static final int NO_KEY= Integer.MIN_VALUE;
+
+	private static final int INITIAL_CAPACITY= 64;
+
+	private int[] fKeys;
+
+	/**
+	 * The elements, <code>null</code> for free slots.
+	 */
+	private TestElement[] fValues;
+
+	private int fSize;
+
+	private Map<String, T> fOtherIds;
+
+	TestElementIdMap() {
+		fKeys= new int[INITIAL_CAPACITY];
+		fValues= new TestElement[INITIAL_CAPACITY];
+	}
+
+	@SuppressWarnings("unchecked")
+	T get(String id) {
+		int key= toKey(id);
+		if (key == NO_KEY)
+			return fOtherIds == null ? null : fOtherIds.get(id);
+
+		int mask= fKeys.length - 1;
+		for (int i= hash(key) & mask; fValues[i] != null; i= (i + 1) & mask) {
+			if (fKeys[i] == key)
+				return (T) fValues[i];
+		}
+		return null;
+	}
+
+	void put(String id, T testElement) {
+		int key= toKey(id);
+		if (key == NO_KEY) {
+			if (fOtherIds == null)
+				fOtherIds= new HashMap<>();
+			fOtherIds.put(id, testElement);
+			return;
+		}
+
+		if ((fSize + 1) * 4 > fKeys.length * 3)
+			rehash(fKeys.length * 2);
+		if (insert(fKeys, fValues, key, testElement))
+			fSize++;
+	}
+
+	private void rehash(int capacity) {
+		int[] keys= new int[capacity];
+		TestElement[] values= new TestElement[capacity];
+		for (int i= 0; i < fKeys.length; i++) {
+			if (fValues[i] != null)
+				insert(keys, values, fKeys[i], fValues[i]);
+		}
+		fKeys= keys;
+		fValues= values;
+	}
+
+	/**
+	 * @return <code>true</code> if the key has been added, <code>false</code> if the element of an
+	 *         existing key has been replaced
+	 */
+	private static boolean insert(int[] keys, TestElement[] values, int key, TestElement value) {
+		int mask= keys.length - 1;
+		int i= hash(key) & mask;
+		for (; values[i] != null; i= (i + 1) & mask) {
+			if (keys[i] == key) {
+				values[i]= value;
+				return false;
+			}
+		}
+		keys[i]= key;
+		values[i]= value;
+		return true;
+	}
+
+	private static int hash(int key) {
+		int h= key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Returns the integer value of an id in canonical form, i.e. an optional minus sign followed by at
+	 * most 9 digits without leading zeros. Negative ids like the one of the unrooted tests suite are
+	 * in canonical form, but "-0" is not.
+	 *
+	 * @param id the test id
+	 * @return the integer value or {@link #NO_KEY}
+	 */
+	private static int toKey(String id) {
+		int length= id.length();
+		int start= length > 0 && id.charAt(0) == '-' ? 1 : 0;
+		int digits= length - start;
+		if (digits == 0 || digits > 9 || (digits > 1 && id.charAt(start) == '0'))
+			return NO_KEY;
+
+		int value= 0;
+		for (int i= start; i < length; i++) {
+			char c= id.charAt(i);
+			if (c < '0' || c > '9')
+				return NO_KEY;
+			value= value * 10 + c - '0';
+		}
+		if (start == 1) {
+			if (value == 0) // "-0"
+				return NO_KEY;
+			return -value;
+		}
+		return value;
+	}
+}
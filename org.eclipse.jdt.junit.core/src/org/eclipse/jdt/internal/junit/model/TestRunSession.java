@@ -21,7 +21,6 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 
 import org.eclipse.jdt.junit.model.ITestElement;
@@ -76,7 +75,7 @@ public class TestRunSession implements ITestRunSession {
 	/**
 	 * The model root, or <code>null</code> if swapped to disk.
 	 */
-	private TestRoot fTestRoot;
+	private volatile TestRoot fTestRoot;
 
 	/**
 	 * The test run session's cached result, or <code>null</code> if <code>fTestRoot != null</code>.
@@ -86,20 +85,29 @@ public class TestRunSession implements ITestRunSession {
 	/**
 	 * Map from testId to testElement.
 	 */
-	private HashMap<String, TestElement> fIdToTest;
+	private TestElementIdMap<TestElement> fIdToTest;
 
 	/**
 	 * The TestSuites for which additional children are expected.
 	 */
 	private List<IncompleteTestSuite> fIncompleteTestSuites;
 
-	private List<IncompleteTestSuite> fFactoryTestSuites;
+	/**
+	 * Map from testId to the TestSuites which can have dynamic tests.
+	 */
+	private TestElementIdMap<TestSuiteElement> fFactoryTestSuites;
 
 	/**
 	 * Suite for unrooted test case elements, or <code>null</code>.
 	 */
 	private TestSuiteElement fUnrootedSuite;
 
+	/**
+	 * <code>true</code> iff the swap file contains the current test tree. The swap file stays valid
+	 * after a swap in until the test tree changes again, e.g. when a test is added or rerun.
+	 */
+	private boolean fSwapFileValid;
+
 	private static final String EMPTY_STRING= ""; //$NON-NLS-1$
 
 	/**
@@ -167,7 +175,7 @@ public class TestRunSession implements ITestRunSession {
 		fTestRunnerKind= ITestKind.NULL; //TODO
 
 		fTestRoot= new TestRoot(this);
-		fIdToTest= new HashMap<>();
+		fIdToTest= new TestElementIdMap<>();
 
 		fTestRunnerClient= null;
 
@@ -191,7 +199,7 @@ public class TestRunSession implements ITestRunSession {
 		}
 
 		fTestRoot= new TestRoot(this);
-		fIdToTest= new HashMap<>();
+		fIdToTest= new TestElementIdMap<>();
 
 		fTestRunnerClient= new RemoteTestRunnerClient();
 		fTestRunnerClient.startListening(new ITestRunListener2[] { new TestSessionNotifier() }, port);
@@ -238,7 +246,7 @@ public class TestRunSession implements ITestRunSession {
 
 		fTestRoot= new TestRoot(this);
 		fTestResult= null;
-		fIdToTest= new HashMap<>();
+		fIdToTest= new TestElementIdMap<>();
 	}
 
 	@Override
@@ -282,9 +290,14 @@ public class TestRunSession implements ITestRunSession {
 	}
 
 
-	public synchronized TestRoot getTestRoot() {
-		swapIn(); //TODO: TestRoot should stay (e.g. for getTestRoot().getStatus())
-		return fTestRoot;
+	public TestRoot getTestRoot() {
+		TestRoot testRoot= fTestRoot;
+		if (testRoot != null)
+			return testRoot; // no need to lock the session while the test run is reporting events
+		synchronized (this) {
+			swapIn(); //TODO: TestRoot should stay (e.g. for getTestRoot().getStatus())
+			return fTestRoot;
+		}
 	}
 
 	/*
@@ -370,11 +383,14 @@ public class TestRunSession implements ITestRunSession {
 		try {
 			File swapFile= getSwapFile();
 
-			JUnitModel.exportTestRunSession(this, swapFile);
+			if (! fSwapFileValid || ! swapFile.exists()) {
+				TestRunSessionSwapFile.write(this, swapFile);
+				fSwapFileValid= true;
+			}
 			fTestResult= fTestRoot.getTestResult(true);
 			fTestRoot= null;
 			fTestRunnerClient= null;
-			fIdToTest= new HashMap<>();
+			fIdToTest= new TestElementIdMap<>();
 			fIncompleteTestSuites= null;
 			fFactoryTestSuites= null;
 			fUnrootedSuite= null;
@@ -390,6 +406,7 @@ public class TestRunSession implements ITestRunSession {
 
 
 	public void removeSwapFile() {
+		fSwapFileValid= false;
 		File swapFile= getSwapFile();
 		if (swapFile.exists())
 			swapFile.delete();
@@ -398,7 +415,7 @@ public class TestRunSession implements ITestRunSession {
 	private File getSwapFile() throws IllegalStateException {
 		File historyDir= JUnitCorePlugin.getHistoryDirectory();
 		String isoTime= new SimpleDateFormat("yyyyMMdd-HHmmss.SSS").format(new Date(getStartTime())); //$NON-NLS-1$
-		String swapFileName= isoTime + ".xml"; //$NON-NLS-1$
+		String swapFileName= isoTime + ".bin"; //$NON-NLS-1$
 		return new File(historyDir, swapFileName);
 	}
 
@@ -408,9 +425,11 @@ public class TestRunSession implements ITestRunSession {
 			return;
 
 		try {
-			JUnitModel.importIntoTestRunSession(getSwapFile(), this);
+			fTestRoot= TestRunSessionSwapFile.read(getSwapFile(), this);
+			fTestResult= null;
 		} catch (IllegalStateException | CoreException e) {
 			JUnitCorePlugin.log(e);
+			fSwapFileValid= false;
 			fTestRoot= new TestRoot(this);
 			fTestResult= null;
 		}
@@ -467,6 +486,7 @@ public class TestRunSession implements ITestRunSession {
 			} else if (status == Status.FAILURE) {
 				fFailureCount--;
 			}
+			fSwapFileValid= false;
 			fTestRunnerClient.rerunTest(testId, className, testName);
 			return true;
 		}
@@ -542,10 +562,9 @@ public class TestRunSession implements ITestRunSession {
 
 		if (isDynamicTest) {
 			if (parentId != null) {
-				for (IncompleteTestSuite suite : fFactoryTestSuites) {
-					if (parentId.equals(suite.fTestSuiteElement.getId())) {
-						return createTestElement(suite.fTestSuiteElement, id, testName, isSuite, testCount, isDynamicTest, displayName, parameterTypes, uniqueId);
-					}
+				TestSuiteElement factoryTestSuite= fFactoryTestSuites.get(parentId);
+				if (factoryTestSuite != null) {
+					return createTestElement(factoryTestSuite, id, testName, isSuite, testCount, isDynamicTest, displayName, parameterTypes, uniqueId);
 				}
 			}
 			return createTestElement(getUnrootedSuite(), id, testName, isSuite, testCount, isDynamicTest, displayName, parameterTypes, uniqueId); // should not reach here
@@ -574,12 +593,13 @@ public class TestRunSession implements ITestRunSession {
 			if (testCount > 0) {
 				fIncompleteTestSuites.add(new IncompleteTestSuite(testSuiteElement, testCount));
 			} else if (fFactoryTestSuites != null) {
-				fFactoryTestSuites.add(new IncompleteTestSuite(testSuiteElement, testCount));
+				fFactoryTestSuites.put(id, testSuiteElement);
 			}
 		} else {
 			testElement= new TestCaseElement(parent, id, testName, displayName, isDynamicTest, parameterTypes, uniqueId);
 		}
 		fIdToTest.put(id, testElement);
+		fSwapFileValid= false;
 		return testElement;
 	}
 
@@ -614,6 +634,9 @@ public class TestRunSession implements ITestRunSession {
 	private TestSuiteElement getUnrootedSuite() {
 		if (fUnrootedSuite == null) {
 			fUnrootedSuite= (TestSuiteElement) createTestElement(fTestRoot, "-2", JUnitMessages.TestRunSession_unrootedTests, true, 0, false, JUnitMessages.TestRunSession_unrootedTests, null, null); //$NON-NLS-1$
+			for (ITestSessionListener listener : fSessionListeners) {
+				listener.testAdded(fUnrootedSuite);
+			}
 		}
 		return fUnrootedSuite;
 	}
@@ -628,7 +651,7 @@ public class TestRunSession implements ITestRunSession {
 		@Override
 		public void testRunStarted(int testCount) {
 			fIncompleteTestSuites= new ArrayList<>();
-			fFactoryTestSuites= new ArrayList<>();
+			fFactoryTestSuites= new TestElementIdMap<>();
 
 			fStartedCount= 0;
 			fIgnoredCount= 0;
@@ -814,6 +837,7 @@ public class TestRunSession implements ITestRunSession {
 
 	public void registerTestFailureStatus(TestElement testElement, Status status, String trace, String expected, String actual) {
 		testElement.setStatus(status, trace, expected, actual);
+		fSwapFileValid= false;
 		if (!testElement.isAssumptionFailure()) {
 			if (status.isError()) {
 				fErrorCount++;
@@ -844,6 +868,7 @@ public class TestRunSession implements ITestRunSession {
 
 	private void setStatus(TestElement testElement, Status status) {
 		testElement.setStatus(status);
+		fSwapFileValid= false;
 	}
 
 	public TestElement[] getAllFailedTestElements() {
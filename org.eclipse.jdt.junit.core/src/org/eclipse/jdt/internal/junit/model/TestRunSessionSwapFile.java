@@ -0,0 +1,496 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.model;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.eclipse.jdt.junit.model.ITestElement;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.jdt.internal.junit.JUnitCorePlugin;
+import org.eclipse.jdt.internal.junit.model.TestElement.Status;
+
+/**
+ * Compact binary format of the swap files of finished test run sessions.
+ * <p>
+ * The children of each suite are stored in a chunk of their own, which is only read when the
+ * children are requested for the first time. Large chunks are compressed. Test names are split into
+ * method and class name, which are stored as indices into a string table together with display
+ * names and parameter types. The XML format of {@link TestRunSessionSerializer} is only used for
+ * explicit import and export.
+ * </p>
+ * <pre>
+ * file     := MAGIC:int VERSION:int chunk* index:chunk indexOffset:long MAGIC:int
+ * chunk    := compressed:byte rawLength:int length:int data:byte[length]
+ * index    := counts:int[6] includeTags:string excludeTags:string root:status[2] time:double
+ *             rootChildren:long count:int string[count]
+ * children := count:int element[count]
+ * element  := kind:byte id:string method:index class:index displayName:index
+ *             parameterTypeCount:int index[parameterTypeCount] uniqueId:string status:byte
+ *             flags:byte time:double trace:string expected:string actual:string
+ *             (childrenStatus:byte children:long)                  (suites only)
+ * string   := -1:int | length:int utf8:byte[length]
+ * index    := -1:int | index into the string table
+ * </pre>
+ * The offset of a <code>children</code> chunk is <code>-1</code> if a suite has no children.
+ */
+public final class TestRunSessionSwapFile {
+
+	private static final int MAGIC= 0x4A545253;
+
+	private static final int VERSION= 1;
+
+	/**
+	 * Chunks of at least this size are compressed.
+	 */
+	private static final int COMPRESSION_THRESHOLD= 1024;
+
+	private static final int HEADER_SIZE= 8;
+
+	private static final int TRAILER_SIZE= 12;
+
+	private static final int CHUNK_HEADER_SIZE= 9;
+
+	private static final byte KIND_TEST_CASE= 0;
+
+	private static final byte KIND_TEST_SUITE= 1;
+
+	private static final int FLAG_ASSUMPTION_FAILED= 1;
+
+	private static final int FLAG_IGNORED= 2;
+
+	private static final int FLAG_DYNAMIC_TEST= 4;
+
+	/**
+	 * Status by {@link Status#getOldCode()}.
+	 */
+	private static final Status[] STATUS= { Status.OK, Status.ERROR, Status.FAILURE, Status.RUNNING, Status.NOT_RUN, Status.RUNNING_ERROR, Status.RUNNING_FAILURE };
+
+	private TestRunSessionSwapFile() {
+	}
+
+	/**
+	 * Writes the test tree and the counters of the given test run session.
+	 *
+	 * @param testRunSession the test run session
+	 * @param file the swap file
+	 * @throws CoreException if the swap file could not be written
+	 */
+	public static void write(TestRunSession testRunSession, File file) throws CoreException {
+		try (Writer writer= new Writer(file)) {
+			writer.writeSession(testRunSession);
+		} catch (IOException e) {
+			JUnitModel.throwExportError(file, e);
+		}
+	}
+
+	/**
+	 * Reads the counters and the top level elements of a test run session. The children of suites
+	 * are read when they are requested for the first time.
+	 *
+	 * @param file the swap file
+	 * @param testRunSession the test run session to restore
+	 * @return the restored test root
+	 * @throws CoreException if the swap file could not be read
+	 */
+	public static TestRoot read(File file, TestRunSession testRunSession) throws CoreException {
+		try (RandomAccessFile in= new RandomAccessFile(file, "r")) { //$NON-NLS-1$
+			long length= in.length();
+			if (length < HEADER_SIZE + TRAILER_SIZE || in.readInt() != MAGIC || in.readInt() != VERSION)
+				throw new IOException("Not a test run swap file"); //$NON-NLS-1$
+			in.seek(length - TRAILER_SIZE);
+			long indexOffset= in.readLong();
+			if (in.readInt() != MAGIC)
+				throw new IOException("Truncated test run swap file"); //$NON-NLS-1$
+
+			DataInputStream index= readChunk(in, indexOffset);
+			testRunSession.fTotalCount= index.readInt();
+			testRunSession.fStartedCount= index.readInt();
+			testRunSession.fFailureCount= index.readInt();
+			testRunSession.fErrorCount= index.readInt();
+			testRunSession.fIgnoredCount= index.readInt();
+			testRunSession.fAssumptionFailureCount= index.readInt();
+			testRunSession.setIncludeTags(readString(index));
+			testRunSession.setExcludeTags(readString(index));
+
+			TestRoot root= new TestRoot(testRunSession);
+			Status status= STATUS[index.readByte()];
+			byte childrenStatus= index.readByte();
+			root.restoreStatus(status, null, null, null);
+			root.restoreChildrenStatus(childrenStatus == -1 ? null : STATUS[childrenStatus]);
+			root.setElapsedTimeInSeconds(index.readDouble());
+			long childrenOffset= index.readLong();
+
+			String[] strings= new String[index.readInt()];
+			for (int i= 0; i < strings.length; i++) {
+				strings[i]= readString(index);
+			}
+
+			if (childrenOffset != -1)
+				new Reader(file, strings).readChildren(in, root, childrenOffset);
+			return root;
+		} catch (IOException | RuntimeException e) {
+			JUnitModel.throwImportError(file, e);
+			return null; // does not happen
+		}
+	}
+
+	/**
+	 * The children of a suite that have not been read from the swap file yet.
+	 */
+	static final class LazyChildren {
+
+		private final Reader fReader;
+		private final long fOffset;
+
+		private LazyChildren(Reader reader, long offset) {
+			fReader= reader;
+			fOffset= offset;
+		}
+
+		/**
+		 * Reads the children and adds them to the given suite. Errors are logged.
+		 *
+		 * @param suite the suite
+		 */
+		void load(TestSuiteElement suite) {
+			try (RandomAccessFile in= new RandomAccessFile(fReader.fFile, "r")) { //$NON-NLS-1$
+				fReader.readChildren(in, suite, fOffset);
+			} catch (IOException | RuntimeException e) {
+				try {
+					JUnitModel.throwImportError(fReader.fFile, e);
+				} catch (CoreException e2) {
+					JUnitCorePlugin.log(e2);
+				}
+			}
+		}
+	}
+
+	private static final class Reader {
+
+		private final File fFile;
+		private final String[] fStrings;
+
+		Reader(File file, String[] strings) {
+			fFile= file;
+			fStrings= strings;
+		}
+
+		void readChildren(RandomAccessFile in, TestSuiteElement parent, long offset) throws IOException {
+			DataInputStream data= readChunk(in, offset);
+			int count= data.readInt();
+			for (int i= 0; i < count; i++) {
+				readElement(data, parent);
+			}
+		}
+
+		private void readElement(DataInputStream data, TestSuiteElement parent) throws IOException {
+			byte kind= data.readByte();
+			String id= readString(data);
+			String testName= readTestName(data);
+			String displayName= readIndex(data);
+			String[] parameterTypes= null;
+			int parameterTypeCount= data.readInt();
+			if (parameterTypeCount != -1) {
+				parameterTypes= new String[parameterTypeCount];
+				for (int i= 0; i < parameterTypeCount; i++) {
+					parameterTypes[i]= readIndex(data);
+				}
+			}
+			String uniqueId= readString(data);
+			Status status= STATUS[data.readByte()];
+			int flags= data.readByte();
+			double time= data.readDouble();
+			String trace= readString(data);
+			String expected= readString(data);
+			String actual= readString(data);
+
+			TestElement testElement;
+			if (kind == KIND_TEST_SUITE) {
+				TestSuiteElement testSuiteElement= new TestSuiteElement(parent, id, testName, 0, displayName, parameterTypes, uniqueId);
+				byte childrenStatus= data.readByte();
+				testSuiteElement.restoreChildrenStatus(childrenStatus == -1 ? null : STATUS[childrenStatus]);
+				long childrenOffset= data.readLong();
+				if (childrenOffset != -1)
+					testSuiteElement.setLazyChildren(new LazyChildren(this, childrenOffset));
+				testElement= testSuiteElement;
+			} else {
+				TestCaseElement testCaseElement= new TestCaseElement(parent, id, testName, displayName, (flags & FLAG_DYNAMIC_TEST) != 0, parameterTypes, uniqueId);
+				testCaseElement.setIgnored((flags & FLAG_IGNORED) != 0);
+				testElement= testCaseElement;
+			}
+			testElement.restoreStatus(status, trace, expected, actual);
+			testElement.setAssumptionFailed((flags & FLAG_ASSUMPTION_FAILED) != 0);
+			testElement.setElapsedTimeInSeconds(time);
+		}
+
+		private String readTestName(DataInputStream data) throws IOException {
+			String methodName= readIndex(data);
+			String className= readIndex(data);
+			if (className == null)
+				return methodName;
+			return methodName + '(' + className + ')';
+		}
+
+		private String readIndex(DataInputStream data) throws IOException {
+			int index= data.readInt();
+			return index == -1 ? null : fStrings[index];
+		}
+	}
+
+	private static final class Writer implements AutoCloseable {
+
+		private final DataOutputStream fOut;
+		private long fOffset;
+		private final Deflater fDeflater= new Deflater(Deflater.BEST_SPEED);
+		private final byte[] fDeflateBuffer= new byte[8192];
+		private final Map<String, Integer> fIndices= new HashMap<>();
+		private final List<String> fStrings= new ArrayList<>();
+
+		Writer(File file) throws IOException {
+			fOut= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 64 * 1024));
+			fOut.writeInt(MAGIC);
+			fOut.writeInt(VERSION);
+			fOffset= HEADER_SIZE;
+		}
+
+		void writeSession(TestRunSession testRunSession) throws IOException {
+			TestRoot root= testRunSession.getTestRoot();
+			long childrenOffset= writeChildren(root);
+
+			ByteArrayOutputStream bytes= new ByteArrayOutputStream();
+			DataOutputStream index= new DataOutputStream(bytes);
+			index.writeInt(testRunSession.getTotalCount());
+			index.writeInt(testRunSession.getStartedCount());
+			index.writeInt(testRunSession.getFailureCount());
+			index.writeInt(testRunSession.getErrorCount());
+			index.writeInt(testRunSession.getIgnoredCount());
+			index.writeInt(testRunSession.getAssumptionFailureCount());
+			writeString(index, testRunSession.getIncludeTags());
+			writeString(index, testRunSession.getExcludeTags());
+			index.writeByte(root.getSuiteStatus().getOldCode());
+			writeStatus(index, root.getChildrenStatus());
+			index.writeDouble(root.fTime);
+			index.writeLong(childrenOffset);
+			index.writeInt(fStrings.size());
+			for (String string : fStrings) {
+				writeString(index, string);
+			}
+			long indexOffset= writeChunk(bytes.toByteArray());
+
+			fOut.writeLong(indexOffset);
+			fOut.writeInt(MAGIC);
+		}
+
+		/**
+		 * Writes the chunks of the descendants of the given suite and then the chunk with its
+		 * children, so that the offsets of the descendants are known.
+		 *
+		 * @param suite the suite
+		 * @return the offset of the chunk, or <code>-1</code> if the suite has no children
+		 * @throws IOException if writing fails
+		 */
+		private long writeChildren(TestSuiteElement suite) throws IOException {
+			ITestElement[] children= suite.getChildren();
+			if (children.length == 0)
+				return -1;
+
+			long[] childrenOffsets= new long[children.length];
+			for (int i= 0; i < children.length; i++) {
+				if (children[i] instanceof TestSuiteElement)
+					childrenOffsets[i]= writeChildren((TestSuiteElement) children[i]);
+			}
+
+			ByteArrayOutputStream bytes= new ByteArrayOutputStream();
+			DataOutputStream data= new DataOutputStream(bytes);
+			data.writeInt(children.length);
+			for (int i= 0; i < children.length; i++) {
+				writeElement(data, (TestElement) children[i], childrenOffsets[i]);
+			}
+			return writeChunk(bytes.toByteArray());
+		}
+
+		private void writeElement(DataOutputStream data, TestElement testElement, long childrenOffset) throws IOException {
+			boolean isSuite= testElement instanceof TestSuiteElement;
+			data.writeByte(isSuite ? KIND_TEST_SUITE : KIND_TEST_CASE);
+			writeString(data, testElement.getId());
+			writeTestName(data, testElement.getTestName());
+			writeIndex(data, testElement.getDisplayName());
+			String[] parameterTypes= testElement.getParameterTypes();
+			if (parameterTypes == null) {
+				data.writeInt(-1);
+			} else {
+				data.writeInt(parameterTypes.length);
+				for (String parameterType : parameterTypes) {
+					writeIndex(data, parameterType);
+				}
+			}
+			writeString(data, testElement.getUniqueId());
+
+			Status status= isSuite ? ((TestSuiteElement) testElement).getSuiteStatus() : testElement.getStatus();
+			data.writeByte(status.getOldCode());
+			int flags= 0;
+			if (testElement.isAssumptionFailure())
+				flags|= FLAG_ASSUMPTION_FAILED;
+			if (testElement instanceof TestCaseElement) {
+				TestCaseElement testCaseElement= (TestCaseElement) testElement;
+				if (testCaseElement.isIgnored())
+					flags|= FLAG_IGNORED;
+				if (testCaseElement.isDynamicTest())
+					flags|= FLAG_DYNAMIC_TEST;
+			}
+			data.writeByte(flags);
+			data.writeDouble(testElement.fTime);
+			writeString(data, testElement.getTrace());
+			writeString(data, testElement.getExpected());
+			writeString(data, testElement.getActual());
+
+			if (isSuite) {
+				writeStatus(data, ((TestSuiteElement) testElement).getChildrenStatus());
+				data.writeLong(childrenOffset);
+			}
+		}
+
+		private void writeTestName(DataOutputStream data, String testName) throws IOException {
+			// see TestElement#extractRawClassName(String)
+			int index= testName.lastIndexOf('(');
+			if (index != -1 && testName.endsWith(")")) { //$NON-NLS-1$
+				writeIndex(data, testName.substring(0, index));
+				writeIndex(data, testName.substring(index + 1, testName.length() - 1));
+			} else {
+				writeIndex(data, testName);
+				data.writeInt(-1);
+			}
+		}
+
+		private void writeIndex(DataOutputStream data, String string) throws IOException {
+			if (string == null) {
+				data.writeInt(-1);
+				return;
+			}
+			Integer index= fIndices.get(string);
+			if (index == null) {
+				index= Integer.valueOf(fStrings.size());
+				fIndices.put(string, index);
+				fStrings.add(string);
+			}
+			data.writeInt(index.intValue());
+		}
+
+		private static void writeStatus(DataOutputStream data, Status status) throws IOException {
+			data.writeByte(status == null ? -1 : status.getOldCode());
+		}
+
+		private long writeChunk(byte[] bytes) throws IOException {
+			long offset= fOffset;
+			int rawLength= bytes.length;
+			boolean compressed= rawLength >= COMPRESSION_THRESHOLD;
+			if (compressed)
+				bytes= deflate(bytes);
+
+			fOut.writeByte(compressed ? 1 : 0);
+			fOut.writeInt(rawLength);
+			fOut.writeInt(bytes.length);
+			fOut.write(bytes);
+			fOffset+= CHUNK_HEADER_SIZE + bytes.length;
+			return offset;
+		}
+
+		private byte[] deflate(byte[] bytes) {
+			fDeflater.reset();
+			fDeflater.setInput(bytes);
+			fDeflater.finish();
+			ByteArrayOutputStream out= new ByteArrayOutputStream(bytes.length / 4);
+			while (!fDeflater.finished()) {
+				int length= fDeflater.deflate(fDeflateBuffer);
+				out.write(fDeflateBuffer, 0, length);
+			}
+			return out.toByteArray();
+		}
+
+		@Override
+		public void close() throws IOException {
+			fDeflater.end();
+			fOut.close();
+		}
+	}
+
+	private static DataInputStream readChunk(RandomAccessFile in, long offset) throws IOException {
+		in.seek(offset);
+		byte[] header= new byte[CHUNK_HEADER_SIZE];
+		in.readFully(header);
+		DataInputStream headerData= new DataInputStream(new ByteArrayInputStream(header));
+		boolean compressed= headerData.readByte() != 0;
+		int rawLength= headerData.readInt();
+		byte[] bytes= new byte[headerData.readInt()];
+		in.readFully(bytes);
+
+		if (compressed) {
+			Inflater inflater= new Inflater();
+			try {
+				inflater.setInput(bytes);
+				byte[] raw= new byte[rawLength];
+				int length= 0;
+				while (length < rawLength) {
+					int inflated= inflater.inflate(raw, length, rawLength - length);
+					if (inflated == 0 && (inflater.finished() || inflater.needsInput()))
+						throw new IOException("Corrupt chunk in test run swap file"); //$NON-NLS-1$
+					length+= inflated;
+				}
+				bytes= raw;
+			} catch (DataFormatException e) {
+				throw new IOException(e);
+			} finally {
+				inflater.end();
+			}
+		}
+		return new DataInputStream(new ByteArrayInputStream(bytes));
+	}
+
+	private static void writeString(DataOutputStream data, String string) throws IOException {
+		if (string == null) {
+			data.writeInt(-1);
+			return;
+		}
+		byte[] bytes= string.getBytes(StandardCharsets.UTF_8);
+		data.writeInt(bytes.length);
+		data.write(bytes);
+	}
+
+	private static String readString(DataInputStream data) throws IOException {
+		int length= data.readInt();
+		if (length == -1)
+			return null;
+		byte[] bytes= new byte[length];
+		data.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
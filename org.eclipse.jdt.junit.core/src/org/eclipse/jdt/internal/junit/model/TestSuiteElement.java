@@ -26,6 +26,21 @@ public class TestSuiteElement extends TestElement implements ITestSuiteElement {
 	private List<TestElement> fChildren;
 	private Status fChildrenStatus;
 
+	/*
+	 * Number of children by the status they last reported, so that the cumulated status of the
+	 * children can be computed without visiting them. Only changed by the thread that reports the
+	 * test events.
+	 */
+	private int fNotRunChildren;
+	private int fRunningChildren;
+	private int fErrorChildren;
+	private int fFailureChildren;
+
+	/**
+	 * The children that have not been read from the swap file yet, or <code>null</code>.
+	 */
+	private volatile TestRunSessionSwapFile.LazyChildren fLazyChildren;
+
 	public TestSuiteElement(TestSuiteElement parent, String id, String testName, int childrenCount, String displayName, String[] parameterTypes, String uniqueId) {
 		super(parent, id, testName, displayName, parameterTypes, uniqueId);
 		fChildren= new ArrayList<>(childrenCount);
@@ -47,15 +62,53 @@ public class TestSuiteElement extends TestElement implements ITestSuiteElement {
 
 	@Override
 	public ITestElement[] getChildren() {
+		loadLazyChildren();
 		return fChildren.toArray(new ITestElement[fChildren.size()]);
 	}
 
+	/**
+	 * @return <code>true</code> if this suite has children; does neither copy nor load the children
+	 */
+	public boolean hasChildren() {
+		return fLazyChildren != null || ! fChildren.isEmpty();
+	}
+
 	public void addChild(TestElement child) {
 		fChildren.add(child);
+		countChild(child.fReportedStatus, 1);
 	}
 
 	public void removeChild(TestElement child) {
-		fChildren.remove(child);
+		loadLazyChildren();
+		if (fChildren.remove(child))
+			countChild(child.fReportedStatus, -1);
+	}
+
+	private void countChild(Status status, int delta) {
+		if (status.isNotRun())
+			fNotRunChildren+= delta;
+		if (status.isRunning())
+			fRunningChildren+= delta;
+		if (status.isError())
+			fErrorChildren+= delta;
+		else if (status.isFailure())
+			fFailureChildren+= delta;
+	}
+
+	void setLazyChildren(TestRunSessionSwapFile.LazyChildren lazyChildren) {
+		fLazyChildren= lazyChildren;
+	}
+
+	private void loadLazyChildren() {
+		if (fLazyChildren == null)
+			return;
+		synchronized (this) {
+			TestRunSessionSwapFile.LazyChildren lazyChildren= fLazyChildren;
+			if (lazyChildren != null) {
+				lazyChildren.load(this);
+				fLazyChildren= null;
+			}
+		}
 	}
 
 	@Override
@@ -69,28 +122,73 @@ public class TestSuiteElement extends TestElement implements ITestSuiteElement {
 		}
 	}
 
+	/**
+	 * Returns the status of all children combined by {@link Status#combineStatus(Status, Status)},
+	 * computed from the number of children by status.
+	 *
+	 * @return the cumulated status of the children
+	 */
 	private Status getCumulatedStatus() {
-		TestElement[] children= fChildren.toArray(new TestElement[fChildren.size()]); // copy list to avoid concurreny problems
-		if (children.length == 0)
+		int childCount= fChildren.size();
+		if (childCount == 0)
 			return getSuiteStatus();
 
-		Status cumulated= children[0].getStatus();
+		Status progress;
+		if (fRunningChildren > 0)
+			progress= Status.RUNNING;
+		else if (fNotRunChildren == childCount)
+			progress= Status.NOT_RUN;
+		else
+			progress= Status.OK; // One done, one not-run -> a parent failed and its children are not run
 
-		for (int i= 1; i < children.length; i++) {
-			Status childStatus= children[i].getStatus();
-			cumulated= Status.combineStatus(cumulated, childStatus);
-		}
+		Status error;
+		if (fErrorChildren > 0)
+			error= Status.ERROR;
+		else if (fFailureChildren > 0)
+			error= Status.FAILURE;
+		else
+			error= Status.OK;
 		// not necessary, see special code in Status.combineProgress()
 //		if (suiteStatus.isErrorOrFailure() && cumulated.isNotRun())
 //			return suiteStatus; //progress is Done if error in Suite and no children run
-		return cumulated;
+		return Status.combineProgressAndErrorStatus(progress, error);
 	}
 
 	public Status getSuiteStatus() {
 		return super.getStatus();
 	}
 
+	/**
+	 * @return the cumulated status of the children, or <code>null</code> if no child changed its
+	 *         status yet
+	 */
+	Status getChildrenStatus() {
+		return fChildrenStatus;
+	}
+
+	/**
+	 * Restores the cumulated status of the children read from a swap file, without notifying the
+	 * parent.
+	 *
+	 * @param childrenStatus the cumulated status of the children, or <code>null</code>
+	 */
+	void restoreChildrenStatus(Status childrenStatus) {
+		fChildrenStatus= childrenStatus;
+	}
+
+	/**
+	 * Counts the status of a child read from a swap file, without changing the cumulated status of
+	 * the children, which is restored separately.
+	 *
+	 * @param child the child whose status has been restored
+	 */
+	void childRestoredStatus(TestElement child) {
+		updateReportedStatus(child);
+	}
+
 	public void childChangedStatus(TestElement child, Status childStatus) {
+		updateReportedStatus(child);
+
 		int childCount= fChildren.size();
 		if (child == fChildren.get(0) && childStatus.isRunning()) {
 			// is first child, and is running -> copy status
@@ -126,6 +224,13 @@ public class TestSuiteElement extends TestElement implements ITestSuiteElement {
 		}
 	}
 
+	private void updateReportedStatus(TestElement child) {
+		Status reportedStatus= child.getStatus();
+		countChild(child.fReportedStatus, -1);
+		countChild(reportedStatus, 1);
+		child.fReportedStatus= reportedStatus;
+	}
+
 	private void internalSetChildrenStatus(Status status) {
 		if (fChildrenStatus == status)
 			return;
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.runner;
+
+/**
+ * Frame types of the binary protocol sent by the RemoteTestRunner.
+ * <p>
+ * The binary protocol is only used if the client requested it with the
+ * <code>-protocol binary</code> argument. The runner then sends the
+ * {@link MessageIds#PROTOCOL} handshake line and continues with length
+ * prefixed frames:
+ * </p>
+ * <pre>
+ * frame   := length:int type:byte payload      (length counts type and payload)
+ * string  := length:int utf8:byte[length]
+ * interned:= index:int                          (string sent before)
+ *          | -1:int string                      (new string, gets the next index)
+ * </pre>
+ * Clients skip frames of unknown types.
+ *
+ * @see MessageIds
+ * @see BinaryMessageWriter
+ */
+public class BinaryMessageIds {
+
+	/**
+	 * Name of the binary protocol, value of the <code>-protocol</code> argument.
+	 */
+	public static final String PROTOCOL_NAME= "binary"; //$NON-NLS-1$
+
+	/**
+	 * Version of the binary protocol.
+	 */
+	public static final int PROTOCOL_VERSION= 1;
+
+	/**
+	 * First frame after the handshake.
+	 * version:int lineDelimiter:string
+	 */
+	public static final byte HELLO= 0;
+	/**
+	 * A message of the text protocol which has no frame type of its own.
+	 * message:string
+	 */
+	public static final byte TEXT= 1;
+	/**
+	 * See {@link MessageIds#TEST_RUN_START}.
+	 * argument:string
+	 */
+	public static final byte TEST_RUN_START= 2;
+	/**
+	 * See {@link MessageIds#TEST_START}.
+	 * testIdAndName:interned
+	 */
+	public static final byte TEST_START= 3;
+	/**
+	 * See {@link MessageIds#TEST_END}.
+	 * testIdAndName:interned
+	 */
+	public static final byte TEST_END= 4;
+	/**
+	 * See {@link MessageIds#TEST_ERROR}.
+	 * testIdAndName:interned
+	 */
+	public static final byte TEST_ERROR= 5;
+	/**
+	 * See {@link MessageIds#TEST_FAILED}.
+	 * testIdAndName:interned
+	 */
+	public static final byte TEST_FAILED= 6;
+	/**
+	 * See {@link MessageIds#TEST_RUN_END}.
+	 * elapsedTime:long
+	 */
+	public static final byte TEST_RUN_END= 7;
+	/**
+	 * See {@link MessageIds#TEST_STOPPED}.
+	 * elapsedTime:long
+	 */
+	public static final byte TEST_STOPPED= 8;
+	/**
+	 * See {@link MessageIds#TEST_RERAN}.
+	 * argument:string
+	 */
+	public static final byte TEST_RERAN= 9;
+	/**
+	 * The lines between {@link MessageIds#TRACE_START} and {@link MessageIds#TRACE_END}, each
+	 * line terminated by the line delimiter.
+	 * trace:string
+	 */
+	public static final byte TRACE= 10;
+	/**
+	 * The lines between {@link MessageIds#EXPECTED_START} and {@link MessageIds#EXPECTED_END}.
+	 * expected:string
+	 */
+	public static final byte EXPECTED= 11;
+	/**
+	 * The lines between {@link MessageIds#ACTUAL_START} and {@link MessageIds#ACTUAL_END}.
+	 * actual:string
+	 */
+	public static final byte ACTUAL= 12;
+	/**
+	 * The lines between {@link MessageIds#RTRACE_START} and {@link MessageIds#RTRACE_END}.
+	 * trace:string
+	 */
+	public static final byte RTRACE= 13;
+	/**
+	 * Consecutive {@link MessageIds#TEST_TREE} entries.
+	 * count:int treeEntry:interned[count]
+	 */
+	public static final byte TEST_TREE= 14;
+
+	private BinaryMessageIds() {
+	}
+}
@@ -0,0 +1,297 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.runner;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Sends the messages of the text protocol as frames of the binary protocol.
+ * <p>
+ * Test identifiers and tree entries are interned, the lines of traces and comparison results are
+ * sent as one frame, consecutive tree entries are sent in bulk and flushes between tests are
+ * batched. The end of a test run and reran tests are flushed immediately. A batched flush is
+ * scheduled only when messages are pending, and the timer is stopped at the end of a test run.
+ * </p>
+ *
+ * @see BinaryMessageIds
+ */
+public class BinaryMessageWriter implements MessageSender {
+
+	/**
+	 * Minimal time between two flushes of test events.
+	 */
+	private static final long FLUSH_INTERVAL= 50;
+
+	private static final int BUFFER_SIZE= 64 * 1024;
+
+	private final DataOutputStream fOut;
+
+	private final String fLineDelimiter;
+
+	private final ByteArrayOutputStream fFrame= new ByteArrayOutputStream(256);
+
+	private final DataOutputStream fFrameOut= new DataOutputStream(fFrame);
+
+	private final Map<String, Integer> fInternedStrings= new HashMap<>();
+
+	private final List<String> fPendingTreeEntries= new ArrayList<>();
+
+	/**
+	 * The type of the block that is currently sent or <code>-1</code>
+	 */
+	private byte fBlockType= -1;
+
+	private String fBlockEnd;
+
+	private final StringBuilder fBlock= new StringBuilder();
+
+	private long fLastFlush;
+
+	private Timer fFlushTimer;
+
+	/**
+	 * The scheduled flush of the pending messages or <code>null</code>
+	 */
+	private TimerTask fScheduledFlush;
+
+	private IOException fException;
+
+	/**
+	 * Creates a writer and sends the handshake.
+	 *
+	 * @param out the stream to the client
+	 * @throws IOException if the handshake cannot be sent
+	 */
+	public BinaryMessageWriter(OutputStream out) throws IOException {
+		this(out, System.lineSeparator());
+	}
+
+	/**
+	 * Creates a writer and sends the handshake.
+	 *
+	 * @param out the stream to the client
+	 * @param lineDelimiter the line delimiter that terminates the lines of traces
+	 * @throws IOException if the handshake cannot be sent
+	 */
+	public BinaryMessageWriter(OutputStream out, String lineDelimiter) throws IOException {
+		fOut= new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+		fLineDelimiter= lineDelimiter;
+		fOut.write((MessageIds.PROTOCOL + BinaryMessageIds.PROTOCOL_NAME + '\n').getBytes(StandardCharsets.US_ASCII));
+
+		fFrameOut.writeInt(BinaryMessageIds.PROTOCOL_VERSION);
+		writeString(fLineDelimiter);
+		writeFrame(BinaryMessageIds.HELLO);
+		fOut.flush();
+		fLastFlush= System.currentTimeMillis();
+	}
+
+	@Override
+	public synchronized void sendMessage(String msg) {
+		try {
+			if (fBlockType != -1) {
+				if (msg.startsWith(fBlockEnd)) {
+					writeString(fBlock.toString());
+					writeFrame(fBlockType);
+					fBlock.setLength(0);
+					fBlockType= -1;
+				} else {
+					fBlock.append(msg).append(fLineDelimiter);
+				}
+				return;
+			}
+
+			if (msg.startsWith(MessageIds.TEST_TREE)) {
+				fPendingTreeEntries.add(msg.substring(MessageIds.MSG_HEADER_LENGTH));
+				return;
+			}
+			writePendingTreeEntries();
+
+			if (msg.startsWith(MessageIds.TRACE_START)) {
+				startBlock(BinaryMessageIds.TRACE, MessageIds.TRACE_END);
+			} else if (msg.startsWith(MessageIds.EXPECTED_START)) {
+				startBlock(BinaryMessageIds.EXPECTED, MessageIds.EXPECTED_END);
+			} else if (msg.startsWith(MessageIds.ACTUAL_START)) {
+				startBlock(BinaryMessageIds.ACTUAL, MessageIds.ACTUAL_END);
+			} else if (msg.startsWith(MessageIds.RTRACE_START)) {
+				startBlock(BinaryMessageIds.RTRACE, MessageIds.RTRACE_END);
+			} else if (msg.startsWith(MessageIds.TEST_START)) {
+				writeTestFrame(BinaryMessageIds.TEST_START, msg);
+			} else if (msg.startsWith(MessageIds.TEST_END)) {
+				writeTestFrame(BinaryMessageIds.TEST_END, msg);
+			} else if (msg.startsWith(MessageIds.TEST_ERROR)) {
+				writeTestFrame(BinaryMessageIds.TEST_ERROR, msg);
+			} else if (msg.startsWith(MessageIds.TEST_FAILED)) {
+				writeTestFrame(BinaryMessageIds.TEST_FAILED, msg);
+			} else if (msg.startsWith(MessageIds.TEST_RUN_START)) {
+				writeString(msg.substring(MessageIds.MSG_HEADER_LENGTH));
+				writeFrame(BinaryMessageIds.TEST_RUN_START);
+			} else if (msg.startsWith(MessageIds.TEST_RUN_END)) {
+				fFrameOut.writeLong(Long.parseLong(msg.substring(MessageIds.MSG_HEADER_LENGTH)));
+				writeFrame(BinaryMessageIds.TEST_RUN_END);
+				flushNow();
+				stopTimer();
+			} else if (msg.startsWith(MessageIds.TEST_STOPPED)) {
+				fFrameOut.writeLong(Long.parseLong(msg.substring(MessageIds.MSG_HEADER_LENGTH)));
+				writeFrame(BinaryMessageIds.TEST_STOPPED);
+				flushNow();
+				stopTimer();
+			} else if (msg.startsWith(MessageIds.TEST_RERAN)) {
+				writeString(msg.substring(MessageIds.MSG_HEADER_LENGTH));
+				writeFrame(BinaryMessageIds.TEST_RERAN);
+				flushNow();
+			} else {
+				writeString(msg);
+				writeFrame(BinaryMessageIds.TEXT);
+			}
+		} catch (IOException e) {
+			fException= e;
+		}
+	}
+
+	/**
+	 * Flushes the messages sent so far. Flushes that follow each other within a short time are
+	 * batched, the messages are then flushed shortly after.
+	 */
+	@Override
+	public synchronized void flush() {
+		long elapsed= System.currentTimeMillis() - fLastFlush;
+		if (elapsed >= FLUSH_INTERVAL) {
+			flushNow();
+			return;
+		}
+
+		if (fScheduledFlush == null) {
+			if (fFlushTimer == null)
+				fFlushTimer= new Timer("BinaryMessageWriter", true); //$NON-NLS-1$
+			fScheduledFlush= new TimerTask() {
+				@Override
+				public void run() {
+					synchronized (BinaryMessageWriter.this) {
+						if (fScheduledFlush == this)
+							flushNow();
+					}
+				}
+			};
+			fFlushTimer.schedule(fScheduledFlush, FLUSH_INTERVAL - elapsed);
+		}
+	}
+
+	/**
+	 * Flushes the messages sent so far immediately, e.g. at the end of a test run.
+	 */
+	public synchronized void flushNow() {
+		try {
+			writePendingTreeEntries();
+			fOut.flush();
+		} catch (IOException e) {
+			fException= e;
+		}
+		fLastFlush= System.currentTimeMillis();
+		if (fScheduledFlush != null) {
+			fScheduledFlush.cancel();
+			fScheduledFlush= null;
+		}
+	}
+
+	/**
+	 * Flushes and closes the stream to the client.
+	 */
+	public synchronized void close() {
+		flushNow();
+		stopTimer();
+		try {
+			fOut.close();
+		} catch (IOException e) {
+			fException= e;
+		}
+	}
+
+	/**
+	 * @return the last exception while writing to the client or <code>null</code>
+	 */
+	public synchronized IOException getException() {
+		return fException;
+	}
+
+	private void stopTimer() {
+		if (fFlushTimer != null) {
+			fFlushTimer.cancel();
+			fFlushTimer= null;
+		}
+	}
+
+	private void startBlock(byte type, String end) {
+		fBlockType= type;
+		fBlockEnd= end;
+		fBlock.setLength(0);
+	}
+
+	private void writeTestFrame(byte type, String msg) throws IOException {
+		writeInterned(msg.substring(MessageIds.MSG_HEADER_LENGTH));
+		writeFrame(type);
+	}
+
+	private void writePendingTreeEntries() throws IOException {
+		if (fPendingTreeEntries.isEmpty())
+			return;
+		fFrameOut.writeInt(fPendingTreeEntries.size());
+		for (String treeEntry : fPendingTreeEntries) {
+			writeInterned(treeEntry);
+		}
+		fPendingTreeEntries.clear();
+		writeFrame(BinaryMessageIds.TEST_TREE);
+	}
+
+	private void writeInterned(String s) throws IOException {
+		Integer index= fInternedStrings.get(s);
+		if (index != null) {
+			fFrameOut.writeInt(index.intValue());
+		} else {
+			fInternedStrings.put(s, Integer.valueOf(fInternedStrings.size()));
+			fFrameOut.writeInt(-1);
+			writeString(s);
+		}
+	}
+
+	private void writeString(String s) throws IOException {
+		byte[] bytes= s.getBytes(StandardCharsets.UTF_8);
+		fFrameOut.writeInt(bytes.length);
+		fFrameOut.write(bytes);
+	}
+
+	/**
+	 * Writes the frame with the payload written to {@link #fFrameOut} so far.
+	 *
+	 * @param type the frame type
+	 * @throws IOException if writing fails
+	 */
+	private void writeFrame(byte type) throws IOException {
+		fFrameOut.flush();
+		fOut.writeInt(fFrame.size() + 1);
+		fOut.writeByte(type);
+		fFrame.writeTo(fOut);
+		fFrame.reset();
+	}
+}
@@ -124,6 +124,14 @@ public class MessageIds {
 	 *
 	 */
 	public static final String TEST_TREE= "%TSTTREE"; //$NON-NLS-1$
+	/**
+	 * Handshake sent as the first line if the client requested the binary
+	 * protocol with the <code>-protocol binary</code> argument.
+	 * PROTOCOL + protocolName.
+	 * All further messages are sent as frames of the binary protocol.
+	 * See {@link BinaryMessageIds}.
+	 */
+	public static final String PROTOCOL= "%PROTOCL"; //$NON-NLS-1$
 	/**
 	 * Request to stop the current test run.
 	 */
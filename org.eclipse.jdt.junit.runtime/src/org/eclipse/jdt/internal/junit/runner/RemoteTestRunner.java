@@ -90,6 +90,11 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 	 * Print writer for sending messages
 	 */
 	private PrintWriter fWriter;
+	/**
+	 * Writer for sending messages with the binary protocol, or <code>null</code>
+	 * if the text protocol is used
+	 */
+	private BinaryMessageWriter fBinaryWriter;
 	/**
 	 * Reader for incoming messages
 	 */
@@ -102,6 +107,10 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 	 * Port to connect to.
 	 */
 	private int fPort= -1;
+	/**
+	 * Has the client requested the binary protocol (argument -protocol binary)?
+	 */
+	private boolean fBinaryProtocol= false;
 	/**
 	 * Is the debug mode enabled?
 	 */
@@ -200,6 +209,7 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 	 * -packagenamefile: the name of a file containing package names of tests
 	 * -host: the host to connect to default local host
 	 * -port: the port to connect to, mandatory argument
+	 * -protocol binary: send the messages with the binary protocol, see BinaryMessageIds
 	 * -keepalive: keep the process alive after a test run
      * </pre>
      */
@@ -289,6 +299,10 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 				fPort= Integer.parseInt(args[i+1]);
 				i++;
 			}
+			else if("-protocol".equals(args[i].toLowerCase())) { //$NON-NLS-1$
+				fBinaryProtocol= BinaryMessageIds.PROTOCOL_NAME.equals(args[i+1]);
+				i++;
+			}
 			else if("-host".equals(args[i].toLowerCase())) { //$NON-NLS-1$
 				fHost= args[i+1];
 				i++;
@@ -647,6 +661,8 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 		for (int i= 1; i < 20; i++) {
 			try{
 				fClientSocket= new Socket(fHost, fPort);
+				if (fBinaryProtocol)
+					fBinaryWriter= new BinaryMessageWriter(fClientSocket.getOutputStream());
 				try {
 				    fWriter= new PrintWriter(new BufferedWriter(new OutputStreamWriter(fClientSocket.getOutputStream(), "UTF-8")), false/*true*/); //$NON-NLS-1$
 	            } catch (UnsupportedEncodingException e1) {
@@ -676,6 +692,10 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 	 * Shutsdown the connection to the remote test listener.
 	 */
 	private void shutDown() {
+		if (fBinaryWriter != null) {
+			fBinaryWriter.close();
+			fBinaryWriter= null;
+		}
 		if (fWriter != null) {
 			fWriter.close();
 			fWriter= null;
@@ -709,6 +729,10 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 
 	@Override
 	public void sendMessage(String msg) {
+		if (fBinaryWriter != null) {
+			fBinaryWriter.sendMessage(msg);
+			return;
+		}
 		if(fWriter == null)
 			return;
 		fWriter.println(msg);
@@ -749,6 +773,10 @@ public class RemoteTestRunner implements MessageSender, IVisitsTestTrees {
 
 	@Override
 	public void flush() {
+		if (fBinaryWriter != null) {
+			fBinaryWriter.flush();
+			return;
+		}
 	    fWriter.flush();
 	}
 
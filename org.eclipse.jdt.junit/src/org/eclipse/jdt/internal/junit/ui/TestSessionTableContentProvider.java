@@ -22,12 +22,24 @@ import org.eclipse.jface.viewers.IStructuredContentProvider;
 import org.eclipse.jface.viewers.Viewer;
 
 import org.eclipse.jdt.internal.junit.model.TestCaseElement;
+import org.eclipse.jdt.internal.junit.model.TestElement.Status;
 import org.eclipse.jdt.internal.junit.model.TestRoot;
+import org.eclipse.jdt.internal.junit.model.TestRunSession;
 import org.eclipse.jdt.internal.junit.model.TestSuiteElement;
 
 
 public class TestSessionTableContentProvider implements IStructuredContentProvider {
 
+	private boolean fFailuresOnly;
+
+	/**
+	 * @param failuresOnly whether the viewer only shows failures; the elements of suites without
+	 *            failures are skipped then
+	 */
+	public void setFailuresOnly(boolean failuresOnly) {
+		fFailuresOnly= failuresOnly;
+	}
+
 	@Override
 	public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
 	}
@@ -35,10 +47,35 @@ public class TestSessionTableContentProvider implements IStructuredContentProvid
 	@Override
 	public Object[] getElements(Object inputElement) {
 		ArrayList<ITestElement> all= new ArrayList<>();
-		addAll(all, (TestRoot) inputElement);
+		TestRoot testRoot= (TestRoot) inputElement;
+		if (fFailuresOnly)
+			addFailures(all, testRoot, ((TestRunSession) testRoot.getTestRunSession()).isRunning());
+		else
+			addAll(all, testRoot);
 		return all.toArray();
 	}
 
+	/*
+	 * The status of a suite is rolled up from its children, so suites which are neither failed
+	 * nor being rerun cannot contain elements accepted by the failures filter.
+	 */
+	private void addFailures(ArrayList<ITestElement> all, TestSuiteElement suite, boolean isRunning) {
+		ITestElement[] children= suite.getChildren();
+		for (ITestElement element : children) {
+			if (element instanceof TestSuiteElement) {
+				TestSuiteElement childSuite= (TestSuiteElement) element;
+				Status status= childSuite.getStatus();
+				if (! status.isErrorOrFailure() && (isRunning || status != Status.RUNNING))
+					continue;
+				if (childSuite.getSuiteStatus().isErrorOrFailure())
+					all.add(element);
+				addFailures(all, childSuite, isRunning);
+			} else if (element instanceof TestCaseElement) {
+				all.add(element);
+			}
+		}
+	}
+
 	private void addAll(ArrayList<ITestElement> all, TestSuiteElement suite) {
 		ITestElement[] children= suite.getChildren();
 		for (ITestElement element : children) {
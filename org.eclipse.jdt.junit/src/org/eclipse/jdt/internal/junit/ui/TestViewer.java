@@ -21,13 +21,16 @@
 package org.eclipse.jdt.internal.junit.ui;
 
 import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.junit.model.ITestElement;
@@ -195,6 +198,12 @@ public class TestViewer {
 		}
 	}
 
+	/**
+	 * Number of added and updated elements from which the redraw of the active viewer is suspended
+	 * while the changes are applied.
+	 */
+	private static final int REDRAW_THRESHOLD= 100;
+
 	private final FailuresOnlyFilter fFailuresOnlyFilter= new FailuresOnlyFilter();
 	private final IgnoredOnlyFilter fIgnoredOnlyFilter= new IgnoredOnlyFilter();
 
@@ -219,6 +228,7 @@ public class TestViewer {
 	private boolean fTreeNeedsRefresh;
 	private boolean fTableNeedsRefresh;
 	private HashSet<TestElement> fNeedUpdate;
+	private List<TestElement> fNeedAdd;
 	private TestCaseElement fAutoScrollTarget;
 
 	private LinkedList<TestSuiteElement> fAutoClose;
@@ -568,6 +578,7 @@ public class TestViewer {
 		 * Management of fTreeViewer and fTableViewer
 		 * ******************************************
 		 * - invisible viewer is updated on registerViewerUpdate unless its f*NeedsRefresh is true
+		 * - elements are added incrementally to the active viewer, the invisible viewer needs a refresh
 		 * - invisible viewer is not refreshed upfront
 		 * - on layout change, new viewer is refreshed if necessary
 		 * - filter only applies to "current" layout mode / viewer
@@ -607,6 +618,8 @@ public class TestViewer {
 					filter= fIgnoredOnlyFilter;
 				}
 				viewer.addFilter(filter);
+				if (viewer == fTableViewer)
+					fTableContentProvider.setFailuresOnly(filter == fFailuresOnlyFilter);
 				setActiveViewerNeedsRefresh(true);
 
 			} else {
@@ -616,6 +629,8 @@ public class TestViewer {
 					viewer.setInput(null);
 					viewer.removeFilter(fIgnoredOnlyFilter);
 					viewer.removeFilter(fFailuresOnlyFilter);
+					if (viewer == fTableViewer)
+						fTableContentProvider.setFailuresOnly(false);
 				}
 			}
 			processChangesInUI();
@@ -690,38 +705,89 @@ public class TestViewer {
 			viewer.setInput(testRoot);
 
 		} else {
+			Object[] toAdd;
 			Object[] toUpdate;
 			synchronized (this) {
+				toAdd= fNeedAdd.toArray();
+				fNeedAdd.clear();
 				toUpdate= fNeedUpdate.toArray();
 				fNeedUpdate.clear();
 			}
-			if (! fTreeNeedsRefresh && toUpdate.length > 0) {
-				if (fTreeHasFilter)
-					for (Object element : toUpdate)
-						updateElementInTree((TestElement) element);
-				else {
-					HashSet<Object> toUpdateWithParents= new HashSet<>(Arrays.asList(toUpdate));
-					for (Object element : toUpdate) {
-						TestElement parent= ((TestElement) element).getParent();
-						while (parent != null) {
-							toUpdateWithParents.add(parent);
-							parent= parent.getParent();
+			Control control= viewer.getControl();
+			boolean suspendRedraw= toAdd.length + toUpdate.length >= REDRAW_THRESHOLD;
+			if (suspendRedraw)
+				control.setRedraw(false);
+			try {
+				if (toAdd.length > 0)
+					addElementsInUI(viewer, toAdd);
+				if (! fTreeNeedsRefresh && toUpdate.length > 0) {
+					if (fTreeHasFilter)
+						for (Object element : toUpdate)
+							updateElementInTree((TestElement) element);
+					else {
+						HashSet<Object> toUpdateWithParents= new HashSet<>(Arrays.asList(toUpdate));
+						HashSet<TestElement> parents= new HashSet<>();
+						for (Object element : toUpdate) {
+							TestElement parent= ((TestElement) element).getParent();
+							while (parent != null && parents.add(parent)) { // ancestors of a known parent are known too
+								parent= parent.getParent();
+							}
 						}
+						toUpdateWithParents.addAll(parents);
+						fTreeViewer.update(toUpdateWithParents.toArray(), null);
 					}
-					fTreeViewer.update(toUpdateWithParents.toArray(), null);
 				}
-			}
-			if (! fTableNeedsRefresh && toUpdate.length > 0) {
-				if (fTableHasFilter)
-					for (Object element : toUpdate)
-						updateElementInTable((TestElement) element);
-				else
-					fTableViewer.update(toUpdate, null);
+				if (! fTableNeedsRefresh && toUpdate.length > 0) {
+					if (fTableHasFilter)
+						for (Object element : toUpdate)
+							updateElementInTable((TestElement) element);
+					else
+						fTableViewer.update(toUpdate, null);
+				}
+			} finally {
+				if (suspendRedraw)
+					control.setRedraw(true);
 			}
 		}
 		autoScrollInUI();
 	}
 
+	/**
+	 * Adds new elements to the active viewer. Filters and sorting are applied by the viewer, and
+	 * the tree viewer only creates items for the children of expanded suites.
+	 *
+	 * @param viewer the active viewer
+	 * @param toAdd the added elements, in the order in which they were added to the session
+	 */
+	private void addElementsInUI(StructuredViewer viewer, Object[] toAdd) {
+		if (viewer == fTreeViewer) {
+			// a parent is always added before its children, hence groups are in a valid order
+			Map<TestSuiteElement, List<Object>> childrenByParent= new LinkedHashMap<>();
+			for (Object element : toAdd) {
+				TestSuiteElement parent= ((TestElement) element).getParent();
+				childrenByParent.computeIfAbsent(parent, p -> new ArrayList<>()).add(element);
+			}
+			for (Map.Entry<TestSuiteElement, List<Object>> entry : childrenByParent.entrySet()) {
+				fTreeViewer.add(entry.getKey(), entry.getValue().toArray());
+			}
+
+		} else {
+			List<Object> testCases= new ArrayList<>(toAdd.length);
+			for (Object element : toAdd) {
+				if (element instanceof TestCaseElement) {
+					if (((TestCaseElement) element).isDynamicTest()) {
+						// dynamic tests are not appended to the end of the flat list
+						fTableViewer.refresh();
+						return;
+					}
+					testCases.add(element);
+				}
+				// new suites are not shown in the flat list
+			}
+			fTableViewer.add(testCases.toArray());
+		}
+	}
+
 	private void updateElementInTree(final TestElement testElement) {
 		if (isShown(testElement)) {
 			updateShownElementInTree(testElement);
@@ -921,6 +987,7 @@ public class TestViewer {
 
 	private void clearUpdateAndExpansion() {
 		fNeedUpdate= new LinkedHashSet<>();
+		fNeedAdd= new ArrayList<>();
 		fAutoClose= new LinkedList<>();
 		fAutoExpand= new HashSet<>();
 	}
@@ -929,9 +996,12 @@ public class TestViewer {
 	 * @param testElement the added test
 	 */
 	public synchronized void registerTestAdded(TestElement testElement) {
-		//TODO: performance: would only need to refresh parent of added element
-		fTreeNeedsRefresh= true;
-		fTableNeedsRefresh= true;
+		if (fLayoutMode == TestRunnerViewPart.LAYOUT_HIERARCHICAL)
+			fTableNeedsRefresh= true;
+		else
+			fTreeNeedsRefresh= true;
+		if (! getActiveViewerNeedsRefresh())
+			fNeedAdd.add(testElement);
 	}
 
 	public synchronized void registerViewerUpdate(final TestElement testElement) {
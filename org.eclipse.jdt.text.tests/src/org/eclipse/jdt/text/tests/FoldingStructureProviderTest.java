@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.jdt.text.tests.performance.EditorTestHelper;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.SourceViewer;
+import org.eclipse.jface.text.source.projection.ProjectionAnnotation;
+import org.eclipse.jface.text.source.projection.ProjectionAnnotationModel;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
+import org.eclipse.jdt.ui.JavaUI;
+import org.eclipse.jdt.ui.text.folding.IJavaFoldingStructureProvider;
+
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+
+/**
+ * Tests that the folding structure updated on reconcile equals the recomputed folding structure.
+ */
+public class FoldingStructureProviderTest {
+
+	private static final String SOURCE= "/*\n" +
+			" * Header\n" +
+			" */\n" +
+			"package p;\n" +
+			"\n" +
+			"import java.util.List;\n" +
+			"import java.util.Map;\n" +
+			"\n" +
+			"/**\n" +
+			" * Type\n" +
+			" */\n" +
+			"public class A {\n" +
+			"	/**\n" +
+			"	 * First\n" +
+			"	 */\n" +
+			"	void first(List<String> list) {\n" +
+			"		list.clear();\n" +
+			"	}\n" +
+			"\n" +
+			"	void second(Map<String, String> map) {\n" +
+			"		map.clear();\n" +
+			"		map.clear();\n" +
+			"	}\n" +
+			"\n" +
+			"	class Inner {\n" +
+			"		void inner() {\n" +
+			"		}\n" +
+			"	}\n" +
+			"\n" +
+			"	void third() {\n" +
+			"		new Runnable() {\n" +
+			"			public void run() {\n" +
+			"			}\n" +
+			"		};\n" +
+			"	}\n" +
+			"}\n";
+
+	private IJavaProject fJavaProject;
+
+	private boolean fFoldingEnabled;
+
+	private JavaEditor fEditor;
+
+	private SourceViewer fSourceViewer;
+
+	private IDocument fDocument;
+
+	@Before
+	public void setUp() throws Exception {
+		fFoldingEnabled= EditorTestHelper.enableFolding(true);
+		fJavaProject= JavaProjectHelper.createJavaProject(getClass().getName(), "bin");
+		assertNotNull(JavaProjectHelper.addRTJar(fJavaProject));
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJavaProject, "src");
+		IPackageFragment pack= root.createPackageFragment("p", true, null);
+		ICompilationUnit cu= pack.createCompilationUnit("A.java", SOURCE, true, null);
+
+		fEditor= (JavaEditor) JavaUI.openInEditor(cu);
+		fSourceViewer= EditorTestHelper.getSourceViewer(fEditor);
+		fDocument= EditorTestHelper.getDocument(fEditor);
+		joinReconciler();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		EditorTestHelper.closeEditor(fEditor);
+		fEditor= null;
+		JavaProjectHelper.delete(fJavaProject);
+		EditorTestHelper.enableFolding(fFoldingEnabled);
+	}
+
+	private void joinReconciler() {
+		assertTrue(EditorTestHelper.joinReconciler(fSourceViewer, 1000, 10000, 100));
+	}
+
+	private void replace(String text, String replacement) throws Exception {
+		int offset= fDocument.get().indexOf(text);
+		assertTrue(text, offset != -1);
+		fDocument.replace(offset, text.length(), replacement);
+		joinReconciler();
+	}
+
+	private List<String> getFoldingPositions() {
+		ProjectionAnnotationModel model= fEditor.getAdapter(ProjectionAnnotationModel.class);
+		List<String> positions= new ArrayList<>();
+		for (Iterator<Annotation> iter= model.getAnnotationIterator(); iter.hasNext();) {
+			Annotation annotation= iter.next();
+			if (annotation instanceof ProjectionAnnotation) {
+				Position position= model.getPosition(annotation);
+				positions.add(position.getOffset() + ":" + position.getLength());
+			}
+		}
+		Collections.sort(positions);
+		return positions;
+	}
+
+	private void assertRecomputedStructure() {
+		List<String> updated= getFoldingPositions();
+		fEditor.getAdapter(IJavaFoldingStructureProvider.class).initialize();
+		assertEquals(getFoldingPositions(), updated);
+	}
+
+	@Test
+	public void testChangeInsideMember() throws Exception {
+		replace("		list.clear();\n", "		list.clear();\n		list.add(\"a\");\n		list.add(\"b\");\n");
+		assertRecomputedStructure();
+
+		replace("		map.clear();\n		map.clear();\n", "		map.clear();\n");
+		assertRecomputedStructure();
+	}
+
+	@Test
+	public void testChangeMemberToSingleLine() throws Exception {
+		replace("	void second(Map<String, String> map) {\n		map.clear();\n		map.clear();\n	}\n", "	void second(Map<String, String> map) { map.clear(); }\n");
+		assertRecomputedStructure();
+	}
+
+	@Test
+	public void testChangeComments() throws Exception {
+		replace(" * Header\n", " * Header\n * more\n");
+		assertRecomputedStructure();
+
+		replace("	 * First\n", "	 * First\n	 * more\n");
+		assertRecomputedStructure();
+	}
+
+	@Test
+	public void testAddMember() throws Exception {
+		replace("	class Inner {\n", "	void added() {\n		first(null);\n	}\n\n	class Inner {\n");
+		assertRecomputedStructure();
+	}
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.eclipse.jdt.text.tests.performance.EditorTestHelper;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.text.tests.Accessor;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.manipulation.SharedASTProviderCore;
+
+import org.eclipse.jdt.ui.JavaUI;
+
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingManager;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightings;
+
+/**
+ * Tests that the semantic highlighting reconciled after an edit, which only re-colors the changed
+ * method or initializer body when possible, equals the highlighting of a full reconcile.
+ */
+public class IncrementalSemanticHighlightingTest extends AbstractSemanticHighlightingTest {
+
+	private static final String[] HIGHLIGHTINGS= {
+			SemanticHighlightings.STATIC_FIELD,
+			SemanticHighlightings.FIELD,
+			SemanticHighlightings.METHOD_DECLARATION,
+			SemanticHighlightings.METHOD,
+			SemanticHighlightings.LOCAL_VARIABLE_DECLARATION,
+			SemanticHighlightings.LOCAL_VARIABLE,
+			SemanticHighlightings.PARAMETER_VARIABLE,
+			SemanticHighlightings.DEPRECATED_MEMBER,
+			SemanticHighlightings.CLASS,
+			SemanticHighlightings.NUMBER,
+	};
+
+	@Rule
+	public SemanticHighlightingTestSetup shts= new SemanticHighlightingTestSetup("/SHTest/src/Incremental.java");
+
+	@Test
+	public void editInMethodBody() throws Exception {
+		setUpSemanticHighlightings();
+		insertBefore("\t\tfNames.add(String.valueOf(local));", "\t\tint other= local * fgCount;\n");
+		assertEqualToFullReconcile();
+
+		replace("String.valueOf(local)", "String.valueOf(parameter)");
+		assertEqualToFullReconcile();
+	}
+
+	@Test
+	public void editOnMemberLevel() throws Exception {
+		setUpSemanticHighlightings();
+		insertBefore("\tvoid first(int parameter) {", "\tstatic void added(int count) {\n\t\tfgCount+= count;\n\t}\n\n");
+		assertEqualToFullReconcile();
+
+		replace("static int fgCount;", "int fgCount;");
+		assertEqualToFullReconcile();
+	}
+
+	@Test
+	public void editAcrossTwoMethods() throws Exception {
+		setUpSemanticHighlightings();
+		// also removes the deprecation of the method called by the third method
+		replace("fNames.add(String.valueOf(local));\n\t}\n\n\t@Deprecated\n\tint second(String name) {\n\t\tString copy= name;",
+				"fNames.add(String.valueOf(local + 1));\n\t}\n\n\tint second(String name) {\n\t\tString copy= name + fgCount;");
+		assertEqualToFullReconcile();
+	}
+
+	@Test
+	public void editInInitializer() throws Exception {
+		setUpSemanticHighlightings();
+		replace("fNames.add(\"first\");", "fNames.add(String.valueOf(fgCount));");
+		assertEqualToFullReconcile();
+
+		insertBefore("\t\tfgCount= 1;", "\t\tint local= 2;\n");
+		assertEqualToFullReconcile();
+	}
+
+	private void setUpSemanticHighlightings() {
+		for (String highlighting : HIGHLIGHTINGS)
+			setUpSemanticHighlighting(highlighting);
+	}
+
+	private void insertBefore(String anchor, String text) throws Exception {
+		IDocument document= getDocument();
+		int offset= document.get().indexOf(anchor);
+		assertTrue(offset >= 0);
+		document.replace(offset, 0, text);
+	}
+
+	private void replace(String oldText, String newText) throws Exception {
+		IDocument document= getDocument();
+		int offset= document.get().indexOf(oldText);
+		assertTrue(offset >= 0);
+		document.replace(offset, oldText.length(), newText);
+	}
+
+	/**
+	 * Waits for the reconcile triggered by the last edit and compares its positions with those of
+	 * a full reconcile of the same document.
+	 *
+	 * @throws Exception if the positions cannot be read
+	 */
+	private void assertEqualToFullReconcile() throws Exception {
+		joinReconciler();
+		Position[] reconciled= copy(getSemanticHighlightingPositions());
+
+		JavaEditor editor= getEditor();
+		SemanticHighlightingManager manager= (SemanticHighlightingManager) new Accessor(editor, JavaEditor.class).get("fSemanticManager");
+		CompilationUnit ast= SharedASTProviderCore.getAST(JavaUI.getEditorInputTypeRoot(editor.getEditorInput()), SharedASTProviderCore.WAIT_YES, null);
+		manager.getReconciler().reconciled(ast, true, new NullProgressMonitor());
+		EditorTestHelper.runEventQueue(100);
+
+		assertEqualPositions(getSemanticHighlightingPositions(), reconciled);
+	}
+
+	private static Position[] copy(Position[] positions) {
+		Position[] copy= new Position[positions.length];
+		for (int i= 0; i < positions.length; i++)
+			copy[i]= new Position(positions[i].getOffset(), positions[i].getLength());
+		return copy;
+	}
+}
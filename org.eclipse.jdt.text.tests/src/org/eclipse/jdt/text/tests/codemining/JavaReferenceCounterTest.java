@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.codemining;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
+
+import org.eclipse.jdt.internal.ui.javaeditor.codemining.JavaReferenceCounter;
+
+public class JavaReferenceCounterTest {
+
+	private IJavaProject fJavaProject;
+
+	private IPackageFragment fPackage;
+
+	private IType fType;
+
+	@Before
+	public void setUp() throws CoreException {
+		fJavaProject= JavaProjectHelper.createJavaProject(getClass().getName(), "bin");
+		assertNotNull(JavaProjectHelper.addRTJar(fJavaProject));
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJavaProject, "src");
+		fPackage= root.createPackageFragment("p", true, null);
+		String a= "package p;\n" +
+				"public class A {\n" +
+				"	public int field;\n" +
+				"	public A() {}\n" +
+				"	public void foo() {}\n" +
+				"	public void bar(int i) {}\n" +
+				"	public void bar(String s) {}\n" +
+				"	public static class Inner {}\n" +
+				"}\n";
+		String b= "package p;\n" +
+				"public class B {\n" +
+				"	void m(A a) {\n" +
+				"		a.foo();\n" +
+				"		a.foo();\n" +
+				"		a.field= a.field + 1;\n" +
+				"		a.bar(1);\n" +
+				"		A.Inner inner= new A.Inner();\n" +
+				"		new A().foo();\n" +
+				"	}\n" +
+				"}\n";
+		fType= fPackage.createCompilationUnit("A.java", a, true, null).getType("A");
+		fPackage.createCompilationUnit("B.java", b, true, null);
+	}
+
+	@After
+	public void tearDown() throws CoreException {
+		JavaProjectHelper.delete(fJavaProject);
+	}
+
+	private IJavaElement[] getMembers() throws CoreException {
+		return new IJavaElement[] {
+				fType,
+				fType.getField("field"),
+				fType.getMethod("A", new String[0]),
+				fType.getMethod("foo", new String[0]),
+				fType.getMethod("bar", new String[] { "I" }),
+				fType.getMethod("bar", new String[] { "QString;" }),
+				fType.getType("Inner")
+		};
+	}
+
+	@Test
+	public void testBatchedCounts() throws Exception {
+		IJavaElement[] members= getMembers();
+		Map<IJavaElement, Long> counts= JavaReferenceCounter.getDefault().countReferences(members, new NullProgressMonitor());
+
+		assertEquals(Long.valueOf(3), counts.get(fType.getMethod("foo", new String[0])));
+		assertEquals(Long.valueOf(2), counts.get(fType.getField("field")));
+		assertEquals(Long.valueOf(2), counts.get(fType.getType("Inner")));
+		// overloaded methods and constructors are searched one by one
+		assertFalse(counts.containsKey(fType.getMethod("bar", new String[] { "I" })));
+		assertFalse(counts.containsKey(fType.getMethod("A", new String[0])));
+
+		for (Map.Entry<IJavaElement, Long> count : counts.entrySet()) {
+			assertEquals(count.getKey().getElementName(), countReferences(count.getKey()), count.getValue().longValue());
+		}
+	}
+
+	@Test
+	public void testCountsAfterChange() throws Exception {
+		IJavaElement foo= fType.getMethod("foo", new String[0]);
+		assertEquals(Long.valueOf(3), JavaReferenceCounter.getDefault().countReferences(getMembers(), null).get(foo));
+
+		ICompilationUnit c= fPackage.createCompilationUnit("C.java", "package p;\nclass C {\n	void m(A a) { a.foo(); }\n}\n", true, null);
+		assertEquals(Long.valueOf(4), JavaReferenceCounter.getDefault().countReferences(getMembers(), null).get(foo));
+
+		c.delete(true, null);
+		assertEquals(Long.valueOf(3), JavaReferenceCounter.getDefault().countReferences(getMembers(), null).get(foo));
+	}
+
+	private long countReferences(IJavaElement element) throws CoreException {
+		AtomicLong count= new AtomicLong();
+		SearchPattern pattern= SearchPattern.createPattern(element, IJavaSearchConstants.REFERENCES);
+		new SearchEngine().search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() },
+				SearchEngine.createJavaSearchScope(new IJavaElement[] { fJavaProject }), new SearchRequestor() {
+					@Override
+					public void acceptSearchMatch(SearchMatch match) {
+						count.incrementAndGet();
+					}
+				}, null);
+		return count.get();
+	}
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.performance;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.test.performance.PerformanceMeter;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.source.SourceViewer;
+
+import org.eclipse.ui.texteditor.AbstractTextEditor;
+
+/**
+ * Measures the time to reconcile a large generated compilation unit after an edit inside of a
+ * method body, which only re-colors the body, and after an edit on member level, which re-colors
+ * the whole compilation unit.
+ *
+ * @since 3.27
+ */
+public class SemanticHighlightingReconcileTest extends TextPerformanceTestCase {
+
+	private static final Class<SemanticHighlightingReconcileTest> THIS= SemanticHighlightingReconcileTest.class;
+
+	private static final String TYPE_NAME= "SemanticHighlightingGenerated";
+
+	private static final String FILE= "/" + PerformanceTestSetup.PROJECT + "/Eclipse SWT Custom Widgets/common/org/eclipse/swt/custom/" + TYPE_NAME + ".java";
+
+	private static final int METHODS= 1000;
+
+	private static final String BODY_MARKER= "int local500= field500;";
+
+	private static final String BODY_EDIT= "local500++;";
+
+	private static final String MEMBER_MARKER= "public int method500(";
+
+	private static final String MEMBER_EDIT= "int added;\n";
+
+	private static final int WARM_UP_RUNS= 3;
+
+	private static final int MEASURED_RUNS= 10;
+
+	private AbstractTextEditor fEditor;
+
+	public static Test suite() {
+		return new PerformanceTestSetup(new TestSuite(THIS));
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		ResourceTestHelper.write(FILE, createContent());
+		fEditor= (AbstractTextEditor) EditorTestHelper.openInEditor(ResourceTestHelper.findFile(FILE), EditorTestHelper.COMPILATION_UNIT_EDITOR_ID, true);
+		EditorTestHelper.joinBackgroundActivities(fEditor);
+		setWarmUpRuns(WARM_UP_RUNS);
+		setMeasuredRuns(MEASURED_RUNS);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		EditorTestHelper.revertEditor(fEditor, true);
+		EditorTestHelper.closeAllEditors();
+		ResourceTestHelper.delete(FILE);
+	}
+
+	/**
+	 * Measures the time to reconcile after an edit inside of a method body.
+	 *
+	 * @throws Exception if measure fails
+	 */
+	public void testEditInMethodBody() throws Exception {
+		measure(getNullPerformanceMeter(), BODY_MARKER, BODY_EDIT, getWarmUpRuns());
+		measure(createPerformanceMeter(), BODY_MARKER, BODY_EDIT, getMeasuredRuns());
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	/**
+	 * Measures the time to reconcile after an edit on member level.
+	 *
+	 * @throws Exception if measure fails
+	 */
+	public void testEditOnMemberLevel() throws Exception {
+		measure(getNullPerformanceMeter(), MEMBER_MARKER, MEMBER_EDIT, getWarmUpRuns());
+		measure(createPerformanceMeter(), MEMBER_MARKER, MEMBER_EDIT, getMeasuredRuns());
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	private void measure(PerformanceMeter performanceMeter, String marker, String edit, int runs) throws BadLocationException {
+		IDocument document= EditorTestHelper.getDocument(fEditor);
+		SourceViewer sourceViewer= EditorTestHelper.getSourceViewer(fEditor);
+		for (int i= 0; i < runs; i++) {
+			int offset= document.get().indexOf(marker);
+			assertTrue(offset != -1);
+
+			document.replace(offset, 0, edit);
+			performanceMeter.start();
+			assertTrue(EditorTestHelper.joinReconciler(sourceViewer, 0, 10000, 10));
+			performanceMeter.stop();
+
+			document.replace(offset, edit.length(), "");
+			assertTrue(EditorTestHelper.joinReconciler(sourceViewer, 0, 10000, 10));
+		}
+	}
+
+	private static String createContent() {
+		StringBuilder buf= new StringBuilder();
+		buf.append("package org.eclipse.swt.custom;\n\n");
+		buf.append("import java.util.ArrayList;\n");
+		buf.append("import java.util.List;\n\n");
+		buf.append("public class ").append(TYPE_NAME).append(" {\n\n");
+		for (int i= 0; i < METHODS; i++) {
+			buf.append("\tprivate static final String CONSTANT").append(i).append("= \"constant").append(i).append("\";\n");
+			buf.append("\tprivate int field").append(i).append(";\n\n");
+			buf.append("\tpublic int method").append(i).append("(int parameter, List<String> list) {\n");
+			buf.append("\t\tint local").append(i).append("= field").append(i).append(";\n");
+			buf.append("\t\tList<String> copy= new ArrayList<>(list);\n");
+			buf.append("\t\tfor (String element : copy) {\n");
+			buf.append("\t\t\tif (element.equals(CONSTANT").append(i).append("))\n");
+			buf.append("\t\t\t\tlocal").append(i).append("+= parameter;\n");
+			buf.append("\t\t}\n");
+			buf.append("\t\treturn local").append(i).append(" + copy.size();\n");
+			buf.append("\t}\n\n");
+		}
+		buf.append("}\n");
+		return buf.toString();
+	}
+}
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.performance;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Locale;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.test.performance.PerformanceMeter;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.jdt.ui.PreferenceConstants;
+
+import org.eclipse.jdt.internal.ui.text.spelling.SpellCheckEngine;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.CompactSpellDictionary;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.CompactWordIndex;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.DefaultPhoneticHashProvider;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellDictionary;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.LocaleSensitiveSpellDictionary;
+
+
+/**
+ * Compares the load time, the used heap and the time to compute proposals of the hash map based
+ * and the compact platform dictionary.
+ *
+ * @since 3.27
+ */
+public class SpellDictionaryPerformanceTest extends TextPerformanceTestCase {
+
+	private static final Class<SpellDictionaryPerformanceTest> THIS= SpellDictionaryPerformanceTest.class;
+
+	private static final int WARM_UP_RUNS= 2;
+
+	private static final int MEASURED_RUNS= 10;
+
+	private static final String[] MISSPELLED_WORDS= { "recieve", "seperate", "occured", "accomodate", "definately", "enviroment", "goverment", "neccessary", "paramater", "implmentation", "compatability", "visability", "dependancy", "refering", "excecute", "initialise", "sucess", "threshhold", "wierd", "untill" };
+
+	private URL fLocation;
+
+	private File fCacheDirectory;
+
+
+	public static Test suite() {
+		return new PerformanceTestSetup(new TestSuite(THIS));
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		setWarmUpRuns(WARM_UP_RUNS);
+		setMeasuredRuns(MEASURED_RUNS);
+		fLocation= SpellCheckEngine.getDictionaryLocations().nextElement();
+		fCacheDirectory= Files.createTempDirectory("spelling").toFile();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		File[] files= fCacheDirectory.listFiles();
+		if (files != null) {
+			for (File file : files)
+				file.delete();
+		}
+		fCacheDirectory.delete();
+	}
+
+	public void testLoadHashMapDictionary() throws Exception {
+		measureLoad(getNullPerformanceMeter(), getWarmUpRuns(), false);
+		PerformanceMeter performanceMeter= createPerformanceMeter("Spelling: load hash map dictionary");
+		measureLoad(performanceMeter, getMeasuredRuns(), false);
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	public void testLoadCompactDictionary() throws Exception {
+		// the first run builds the cache file, the others map it
+		measureLoad(getNullPerformanceMeter(), getWarmUpRuns(), true);
+		PerformanceMeter performanceMeter= createPerformanceMeter("Spelling: load compact dictionary");
+		measureLoad(performanceMeter, getMeasuredRuns(), true);
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	public void testProposalsHashMapDictionary() throws Exception {
+		ISpellDictionary dictionary= new LocaleSensitiveSpellDictionary(Locale.US, fLocation);
+		try {
+			measureProposals(dictionary, getNullPerformanceMeter(), getWarmUpRuns());
+			PerformanceMeter performanceMeter= createPerformanceMeter("Spelling: proposals of hash map dictionary");
+			measureProposals(dictionary, performanceMeter, getMeasuredRuns());
+			commitAllMeasurements();
+			assertAllPerformance();
+		} finally {
+			dictionary.unload();
+		}
+	}
+
+	public void testProposalsCompactDictionary() throws Exception {
+		ISpellDictionary dictionary= new CompactSpellDictionary(getWordListURL());
+		try {
+			measureProposals(dictionary, getNullPerformanceMeter(), getWarmUpRuns());
+			PerformanceMeter performanceMeter= createPerformanceMeter("Spelling: proposals of compact dictionary");
+			measureProposals(dictionary, performanceMeter, getMeasuredRuns());
+			commitAllMeasurements();
+			assertAllPerformance();
+		} finally {
+			dictionary.unload();
+		}
+	}
+
+	private URL getWordListURL() throws Exception {
+		return new URL(fLocation, Locale.US.toString() + ".dictionary");
+	}
+
+	private void measureLoad(PerformanceMeter performanceMeter, int runs, boolean compact) throws Exception {
+		String encoding= PreferenceConstants.getPreferenceStore().getString(PreferenceConstants.SPELLING_USER_DICTIONARY_ENCODING);
+		if (encoding == null || encoding.length() == 0)
+			encoding= ResourcesPlugin.getEncoding();
+
+		for (int i= 0; i < runs; i++) {
+			collectGarbage();
+			long usedBefore= getUsedMemory();
+			performanceMeter.start();
+			Object loaded;
+			if (compact) {
+				CompactWordIndex index= CompactWordIndex.load(getWordListURL(), encoding, new DefaultPhoneticHashProvider(), fCacheDirectory);
+				assertTrue(index.contains("receive"));
+				loaded= index;
+			} else {
+				ISpellDictionary dictionary= new LocaleSensitiveSpellDictionary(Locale.US, fLocation);
+				assertTrue(dictionary.isCorrect("receive"));
+				loaded= dictionary;
+			}
+			performanceMeter.stop();
+			collectGarbage();
+			long used= getUsedMemory() - usedBefore;
+			if (DEBUG)
+				System.out.println((compact ? "Compact" : "Hash map") + " dictionary heap: " + used / 1024 + " KB");
+			if (loaded instanceof ISpellDictionary)
+				((ISpellDictionary) loaded).unload();
+		}
+	}
+
+	private void measureProposals(ISpellDictionary dictionary, PerformanceMeter performanceMeter, int runs) {
+		assertTrue(dictionary.isCorrect("receive"));
+		for (int i= 0; i < runs; i++) {
+			performanceMeter.start();
+			for (String word : MISSPELLED_WORDS) {
+				assertFalse(dictionary.isCorrect(word));
+				dictionary.getProposals(word, false);
+			}
+			performanceMeter.stop();
+		}
+	}
+
+	private static void collectGarbage() {
+		for (int i= 0; i < 3; i++)
+			System.gc();
+	}
+
+	private static long getUsedMemory() {
+		Runtime runtime= Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
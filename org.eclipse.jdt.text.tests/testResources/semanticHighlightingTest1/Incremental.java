@@ -0,0 +1,30 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public class Incremental {
+	static int fgCount;
+	private List<String> fNames= new ArrayList<>();
+
+	static {
+		fgCount= 1;
+	}
+
+	{
+		fNames.add("first");
+	}
+
+	void first(int parameter) {
+		int local= parameter + fgCount;
+		fNames.add(String.valueOf(local));
+	}
+
+	@Deprecated
+	int second(String name) {
+		String copy= name;
+		return copy.length() + fNames.size();
+	}
+
+	void third() {
+		first(second("third"));
+	}
+}
@@ -37,9 +37,12 @@ import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
 import org.eclipse.ltk.core.refactoring.Refactoring;
 import org.eclipse.ltk.core.refactoring.RefactoringDescriptor;
 import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.ltk.core.refactoring.TextChange;
 import org.eclipse.ltk.core.refactoring.participants.RenameArguments;
 import org.eclipse.ltk.core.refactoring.participants.RenameRefactoring;
 
@@ -1383,6 +1386,56 @@ public class RenameTypeTests extends GenericRefactoringTest {
 		helperQualifiedName("Transient", "TransientEquipment", "mapping.hbm.xml", "*.xml");
 	}
 
+	@Test
+	public void testReferenceUpdatesConcurrently() throws Exception {
+		ICompilationUnit cu= createCU(getPackageP(), "A.java", "package p;\npublic class A {\n    public A() {\n    }\n}\n");
+		for (int i= 0; i < 50; i++) {
+			StringBuilder buf= new StringBuilder();
+			buf.append("package p;\n");
+			buf.append("public class Ref" + i + " extends A {\n");
+			for (int j= 0; j <= i % 7; j++)
+				buf.append("    A field" + j + "= new A();\n");
+			buf.append("    p.A m(A a) {\n");
+			buf.append("        return (A) a;\n");
+			buf.append("    }\n");
+			buf.append("}\n");
+			createCU(getPackageP(), "Ref" + i + ".java", buf.toString());
+		}
+		IType classA= getType(cu, "A");
+
+		List<String> serial= getPreviewContents(classA, "B", 1, false);
+		assertTrue(serial.size() >= 50);
+		assertEquals(serial, getPreviewContents(classA, "B", 4, false));
+		assertEquals(serial, getPreviewContents(classA, "B", 0, false));
+
+		// the parameters are renamed before, the reference updates are added to their changes
+		serial= getPreviewContents(classA, "B", 1, true);
+		assertTrue(serial.size() >= 50);
+		assertEquals(serial, getPreviewContents(classA, "B", 4, true));
+	}
+
+	private List<String> getPreviewContents(IType type, String newName, int workerCount, boolean updateSimilar) throws Exception {
+		RenameJavaElementDescriptor descriptor= createRefactoringDescriptor(type, newName);
+		descriptor.setUpdateSimilarDeclarations(updateSimilar);
+		descriptor.setMatchStrategy(RenamingNameSuggestor.STRATEGY_EXACT);
+		Refactoring refactoring= createRefactoring(descriptor);
+		((RenameTypeProcessor) ((RenameRefactoring) refactoring).getProcessor()).setReferenceUpdateWorkerCount(workerCount);
+		assertFalse(refactoring.checkAllConditions(new NullProgressMonitor()).hasError());
+		List<String> result= new ArrayList<>();
+		collectPreviewContents(refactoring.createChange(new NullProgressMonitor()), result);
+		return result;
+	}
+
+	private void collectPreviewContents(Change change, List<String> result) throws CoreException {
+		if (change instanceof CompositeChange) {
+			for (Change child : ((CompositeChange) change).getChildren())
+				collectPreviewContents(child, result);
+		} else if (change instanceof TextChange) {
+			TextChange textChange= (TextChange) change;
+			result.add(textChange.getName() + ": " + textChange.getTextEditChangeGroups().length + "\n" + textChange.getPreviewContent(new NullProgressMonitor()));
+		}
+	}
+
 	private void helperQualifiedName(String oldName, String newName, String textFileName, String filePatterns) throws Exception {
 		ICompilationUnit cu= createCUfromTestFile(getPackageP(), oldName);
 		IType classA= getType(cu, oldName);
@@ -24,10 +24,12 @@ import org.junit.runners.Suite;
 	RenameTypePerfAcceptanceTests.class,
 	RenameTypePerfTests1.class,
 	RenameTypePerfTests2.class,
+	QualifiedNameFinderPerfTests.class,
 
 	RenameMethodPerfTests1.class,
 	RenameMethodPerfTests2.class,
 	RenameMethodWithOverloadPerfTests.class,
+	RippleMethodFinderPerfTests.class,
 
 	MoveCompilationUnitPerfTests1.class,
 	MoveCompilationUnitPerfTests2.class,
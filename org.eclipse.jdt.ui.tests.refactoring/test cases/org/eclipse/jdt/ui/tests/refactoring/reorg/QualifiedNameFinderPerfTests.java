@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.refactoring.reorg;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.FixMethodOrder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import org.eclipse.test.performance.Dimension;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.ltk.core.refactoring.TextChange;
+
+import org.eclipse.jdt.internal.corext.refactoring.util.QualifiedNameFinder;
+import org.eclipse.jdt.internal.corext.refactoring.util.QualifiedNameIndex;
+import org.eclipse.jdt.internal.corext.refactoring.util.QualifiedNameSearchResult;
+
+import org.eclipse.jdt.ui.tests.refactoring.infra.RefactoringPerformanceTestCaseCommon;
+import org.eclipse.jdt.ui.tests.refactoring.rules.RefactoringPerformanceTestSetup;
+
+/**
+ * Compares searching qualified names in all non-Java files with searching only the candidate files
+ * of the {@link QualifiedNameIndex}.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class QualifiedNameFinderPerfTests extends RefactoringPerformanceTestCaseCommon {
+
+	private static final int FILES= 5000;
+
+	private static final int REFERENCING_FILES= FILES / 100;
+
+	private static final String FILE_PATTERNS= "*.xml, *.properties";
+
+	@Rule
+	public RefactoringPerformanceTestSetup rpts= new RefactoringPerformanceTestSetup();
+
+	private TestProject fTestProject;
+
+	@Before
+	public void setUp() throws Exception {
+		fTestProject= new TestProject();
+		generateFiles(fTestProject.getProject().getProject());
+		QualifiedNameIndex.getInstance().clear();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		QualifiedNameIndex.getInstance().clear();
+		fTestProject.delete();
+	}
+
+	@Test
+	public void testACold() throws Exception {
+		findQualifiedNames(null, false, 3, false);
+	}
+
+	@Test
+	public void testB_Scan() throws Exception {
+		findQualifiedNames(null, true, 10, false);
+	}
+
+	@Test
+	public void testC_IndexCold() throws Exception {
+		findQualifiedNames(QualifiedNameIndex.getInstance(), true, 10, true);
+	}
+
+	@Test
+	public void testD_Index() throws Exception {
+		tagAsSummary("Qualified names - " + FILES + " files, indexed", Dimension.ELAPSED_PROCESS);
+		findQualifiedNames(QualifiedNameIndex.getInstance(), true, 10, false);
+	}
+
+	private void findQualifiedNames(QualifiedNameIndex index, boolean measure, int sampleCount, boolean clearIndex) throws Exception {
+		IProject project= fTestProject.getProject().getProject();
+		joinBackgroudActivities();
+		if (index != null && !clearIndex) // warm up the index
+			QualifiedNameFinder.process(new QualifiedNameSearchResult(), "def.Target", "def.Renamed", FILE_PATTERNS, project, index, new NullProgressMonitor());
+		for (int i= 0; i < sampleCount; i++) {
+			if (clearIndex)
+				index.clear();
+			QualifiedNameSearchResult result= new QualifiedNameSearchResult();
+			if (measure)
+				startMeasuring();
+			QualifiedNameFinder.process(result, "def.Target", "def.Renamed", FILE_PATTERNS, project, index, new NullProgressMonitor());
+			if (measure)
+				stopMeasuring();
+			assertEquals(REFERENCING_FILES, result.getAllFiles().length);
+			int updates= 0;
+			for (TextChange change : result.getAllChanges())
+				updates+= change.getTextEditChangeGroups().length;
+			// def.Target and def.Target.INSTANCE, but not def.TargetFactory
+			assertEquals(2 * REFERENCING_FILES, updates);
+		}
+		if (measure) {
+			commitMeasurements();
+			assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
+		}
+	}
+
+	private void generateFiles(IProject project) throws Exception {
+		ResourcesPlugin.getWorkspace().run(monitor -> {
+			IFolder folder= project.getFolder("config");
+			folder.create(true, true, null);
+			for (int i= 0; i < FILES; i++) {
+				StringBuilder buf= new StringBuilder();
+				if (i % 2 == 0) {
+					buf.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+					buf.append("<beans>\n");
+					for (int j= 0; j < 20; j++)
+						buf.append("    <bean id=\"bean" + j + "\" class=\"impl.sub" + j + ".Impl" + i + "\"/>\n");
+					buf.append("    <bean id=\"factory\" class=\"def.TargetFactory\"/>\n");
+					if (i % 100 == 0) {
+						buf.append("    <bean id=\"target\" class=\"def.Target\">\n");
+						buf.append("        <property name=\"instance\" value=\"def.Target.INSTANCE\"/>\n");
+						buf.append("    </bean>\n");
+					}
+					buf.append("</beans>\n");
+					folder.getFile("beans" + i + ".xml").create(new ByteArrayInputStream(buf.toString().getBytes(StandardCharsets.UTF_8)), true, null);
+				} else {
+					for (int j= 0; j < 20; j++)
+						buf.append("impl.sub" + j + ".Impl" + i + ".label=Implementation " + j + " of def\n");
+					folder.getFile("messages" + i + ".properties").create(new ByteArrayInputStream(buf.toString().getBytes(StandardCharsets.ISO_8859_1)), true, null);
+				}
+			}
+		}, null);
+	}
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.refactoring.reorg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.FixMethodOrder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import org.eclipse.test.performance.Dimension;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragment;
+
+import org.eclipse.jdt.internal.corext.refactoring.rename.RippleMethodFinder2;
+import org.eclipse.jdt.internal.corext.util.TypeHierarchyCache;
+
+import org.eclipse.jdt.ui.tests.refactoring.infra.RefactoringPerformanceTestCaseCommon;
+import org.eclipse.jdt.ui.tests.refactoring.rules.RefactoringPerformanceTestSetup;
+
+/**
+ * Measures the ripple method computation for a method of an interface with many implementors.
+ * An unrelated interface declaring the same method forces the computation to look at the type
+ * hierarchies of both interfaces.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class RippleMethodFinderPerfTests extends RefactoringPerformanceTestCaseCommon {
+
+	private static final int IMPLEMENTORS= 2000;
+
+	@Rule
+	public RefactoringPerformanceTestSetup rpts= new RefactoringPerformanceTestSetup();
+
+	private TestProject fTestProject;
+	private IMethod fMethod;
+
+	@Before
+	public void setUp() throws Exception {
+		fTestProject= new TestProject();
+		fMethod= generateSources(IMPLEMENTORS).findPrimaryType().getMethod("foo", new String[0]);
+		TypeHierarchyCache.clear();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		TypeHierarchyCache.clear();
+		fTestProject.delete();
+	}
+
+	@Test
+	public void testACold() throws Exception {
+		computeRippleMethods(false, 3, true);
+	}
+
+	@Test
+	public void testB_Uncached() throws Exception {
+		computeRippleMethods(true, 10, true);
+	}
+
+	@Test
+	public void testC_Cached() throws Exception {
+		tagAsSummary("Ripple methods - " + IMPLEMENTORS + " implementors, cached hierarchies", Dimension.ELAPSED_PROCESS);
+		computeRippleMethods(true, 10, false);
+		assertTrue(TypeHierarchyCache.getHitRate() > 0.5);
+	}
+
+	private void computeRippleMethods(boolean measure, int sampleCount, boolean clearCache) throws Exception {
+		joinBackgroudActivities();
+		for (int i= 0; i < sampleCount; i++) {
+			if (clearCache)
+				TypeHierarchyCache.clear();
+			if (measure)
+				startMeasuring();
+			IMethod[] ripples= RippleMethodFinder2.getRelatedMethods(fMethod, new NullProgressMonitor(), null);
+			if (measure)
+				stopMeasuring();
+			// I.foo() and its implementations
+			assertEquals(IMPLEMENTORS + 1, ripples.length);
+		}
+		if (measure) {
+			commitMeasurements();
+			assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
+		}
+	}
+
+	private ICompilationUnit generateSources(int implementors) throws Exception {
+		IPackageFragment definition= fTestProject.getSourceFolder().createPackageFragment("def", false, null);
+		ICompilationUnit result= definition.createCompilationUnit("I.java", "package def;\npublic interface I {\n    void foo();\n}\n", false, null);
+		definition.createCompilationUnit("J.java", "package def;\npublic interface J {\n    void foo();\n}\n", false, null);
+
+		IPackageFragment implementations= fTestProject.getSourceFolder().createPackageFragment("impl", false, null);
+		for (int i= 0; i < implementors; i++) {
+			StringBuilder buf= new StringBuilder();
+			buf.append("package impl;\n");
+			buf.append("public class Impl" + i + " implements def.I {\n");
+			buf.append("    public void foo() {\n");
+			buf.append("    }\n");
+			buf.append("}\n");
+			implementations.createCompilationUnit("Impl" + i + ".java", buf.toString(), false, null);
+		}
+		for (int i= 0; i < implementors / 100; i++) {
+			StringBuilder buf= new StringBuilder();
+			buf.append("package impl;\n");
+			buf.append("public class Other" + i + " implements def.J {\n");
+			buf.append("    public void foo() {\n");
+			buf.append("    }\n");
+			buf.append("}\n");
+			implementations.createCompilationUnit("Other" + i + ".java", buf.toString(), false, null);
+		}
+		return result;
+	}
+}
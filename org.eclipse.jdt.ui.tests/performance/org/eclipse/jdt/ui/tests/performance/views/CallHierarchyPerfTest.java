@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance.views;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+
+import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchy;
+import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchyExpander;
+import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchyVisitor;
+import org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper;
+
+import org.eclipse.jdt.ui.PreferenceConstants;
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCaseCommon;
+
+/**
+ * Measures the wall time to expand a whole caller hierarchy node by node on one thread and level by
+ * level with concurrent searches.
+ */
+public class CallHierarchyPerfTest extends JdtPerformanceTestCaseCommon {
+
+	/** The number of levels of callers below the root */
+	private static final int LEVELS= 5;
+
+	/** The number of methods per level */
+	private static final int WIDTH= 20;
+
+	/** The number of methods of the next level calling a method */
+	private static final int CALLERS= 4;
+
+	/** The number of wrappers in the expanded hierarchy: 1 + 4 + 16 + ... + 4^5 */
+	private static final int NODES= 1365;
+
+	private static final int RUNS= 10;
+
+	private static final String PREF_USE_CALLER_INDEX= "PREF_USE_CALLER_INDEX";
+
+	private IJavaProject fProject;
+
+	private IType fRootType;
+
+	@Before
+	public void setUp() throws Exception {
+		fProject= JavaProjectHelper.createJavaProject("CallHierarchyPerf", "bin");
+		assertNotNull("rt not found", JavaProjectHelper.addRTJar(fProject));
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fProject, "src");
+		IPackageFragment pack= root.createPackageFragment("callers", true, null);
+		for (int level= 0; level <= LEVELS; level++) {
+			pack.createCompilationUnit("Level" + level + ".java", getSource(level), true, null);
+		}
+		fRootType= fProject.findType("callers.Level0");
+		// measure the searches, not the answers of the persistent caller index
+		getPreferenceStore().setValue(PREF_USE_CALLER_INDEX, Boolean.FALSE.toString());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		getPreferenceStore().setToDefault(PREF_USE_CALLER_INDEX);
+		JavaProjectHelper.delete(fProject);
+	}
+
+	private static IPreferenceStore getPreferenceStore() {
+		return PreferenceConstants.getPreferenceStore();
+	}
+
+	/**
+	 * Each method of a level calls {@value #CALLERS} methods of the previous level.
+	 *
+	 * @param level the level
+	 * @return the source of the class of the level
+	 */
+	private static String getSource(int level) {
+		StringBuilder buf= new StringBuilder();
+		buf.append("package callers;\n");
+		buf.append("public class Level").append(level).append(" {\n");
+		for (int i= 0; i < WIDTH; i++) {
+			buf.append("    public void m").append(i).append("() {\n");
+			if (level > 0) {
+				for (int j= 0; j < CALLERS; j++) {
+					buf.append("        new Level").append(level - 1).append("().m").append((i + j) % WIDTH).append("();\n");
+				}
+			}
+			buf.append("    }\n");
+		}
+		buf.append("}\n");
+		return buf.toString();
+	}
+
+	private MethodWrapper createRoot() {
+		MethodWrapper[] roots= CallHierarchy.getDefault().getCallerRoots(new IMember[] { fRootType.getMethod("m0", new String[0]) });
+		assertEquals(1, roots.length);
+		return roots[0];
+	}
+
+	@Test
+	public void testSerialExpansion() throws Exception {
+		for (int i= 0; i < RUNS; i++) {
+			joinBackgroudActivities();
+			MethodWrapper root= createRoot();
+			int[] nodes= new int[1];
+			startMeasuring();
+			root.accept(new CallHierarchyVisitor() {
+				@Override
+				public boolean visit(MethodWrapper methodWrapper) {
+					nodes[0]++;
+					return methodWrapper.getLevel() - root.getLevel() < LEVELS;
+				}
+			}, new NullProgressMonitor());
+			stopMeasuring();
+			assertEquals(NODES, nodes[0]);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	@Test
+	public void testParallelExpansion() throws Exception {
+		for (int i= 0; i < RUNS; i++) {
+			joinBackgroudActivities();
+			MethodWrapper root= createRoot();
+			startMeasuring();
+			int nodes= new CallHierarchyExpander(CallHierarchyExpander.getDefaultParallelism(), LEVELS).expand(root, new NullProgressMonitor());
+			stopMeasuring();
+			assertEquals(NODES, nodes);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
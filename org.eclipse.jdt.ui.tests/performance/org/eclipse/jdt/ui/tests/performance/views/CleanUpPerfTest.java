@@ -306,6 +306,46 @@ public class CleanUpPerfTest extends JdtPerformanceTestCaseCommon {
 		doCleanUp(cleanUpRefactoring);
 	}
 
+	@Test
+	public void testCodeStyleCleanUpOneWorker() throws Exception {
+		doCodeStyleCleanUp(1);
+	}
+
+	@Test
+	public void testCodeStyleCleanUpTwoWorkers() throws Exception {
+		doCodeStyleCleanUp(2);
+	}
+
+	@Test
+	public void testCodeStyleCleanUpFourWorkers() throws Exception {
+		doCodeStyleCleanUp(4);
+	}
+
+	@Test
+	public void testCodeStyleCleanUpAllProcessors() throws Exception {
+		doCodeStyleCleanUp(0);
+	}
+
+	private void doCodeStyleCleanUp(int workerCount) throws Exception {
+		CleanUpRefactoring cleanUpRefactoring= new CleanUpRefactoring();
+		cleanUpRefactoring.setWorkerCount(workerCount);
+		addAllCUs(cleanUpRefactoring, MyTestSetup.fJProject1.getChildren());
+
+		Map<String, String> node= getNullSettings();
+
+		node.put(CleanUpConstants.MEMBER_ACCESSES_NON_STATIC_FIELD_USE_THIS, CleanUpOptions.TRUE);
+		node.put(CleanUpConstants.MEMBER_ACCESSES_NON_STATIC_FIELD_USE_THIS_ALWAYS, CleanUpOptions.TRUE);
+		node.put(CleanUpConstants.CONTROL_STATEMENTS_USE_BLOCKS, CleanUpOptions.TRUE);
+		node.put(CleanUpConstants.CONTROL_STATEMENTS_USE_BLOCKS_ALWAYS, CleanUpOptions.TRUE);
+
+		storeSettings(node);
+
+		cleanUpRefactoring.addCleanUp(new CodeStyleCleanUp());
+		cleanUpRefactoring.addCleanUp(new ControlStatementsCleanUp());
+
+		doCleanUp(cleanUpRefactoring);
+	}
+
 	@Test
 	public void testControlStatementsCleanUp() throws Exception {
 		CleanUpRefactoring cleanUpRefactoring= new CleanUpRefactoring();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,15 +26,23 @@ import org.eclipse.test.performance.Dimension;
 import org.eclipse.test.performance.Performance;
 
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Text;
 
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.ui.dialogs.ISelectionStatusValidator;
 import org.eclipse.ui.dialogs.SelectionDialog;
 
+import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchPattern;
+
+import org.eclipse.jdt.internal.corext.util.TypeNameCache;
 
 import org.eclipse.jdt.ui.IJavaElementSearchConstants;
 import org.eclipse.jdt.ui.JavaUI;
@@ -166,8 +174,114 @@ public class OpenTypePerfTest extends JdtPerformanceTestCaseCommon {
 		}
 	}
 
+	@Test
+	public void testGWarmKeystrokes10() throws Exception {
+		//warm, type patterns into the open dialog, none of them narrows the previous one
+		joinBackgroudActivities();
+		TypeNameCache.getInstance().warmUp();
+		Job.getJobManager().join(TypeNameCache.FAMILY, null);
+		try {
+			measureKeystrokes("Sh", new String[] { "Te", "Bu", "Ev", "Co", "Di", "La", "Gr", "Im", "Po", "Wi" });
+		} finally {
+			commitMeasurements();
+			assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
+		}
+	}
+
+	@Test
+	public void testHWarmCamelCaseKeystrokes10() throws Exception {
+		//warm, type camel case patterns into the open dialog
+		joinBackgroudActivities();
+		TypeNameCache.getInstance().warmUp();
+		Job.getJobManager().join(TypeNameCache.FAMILY, null);
+		try {
+			measureKeystrokes("SWT", new String[] { "NPE", "IAE", "SE", "ML", "GD", "KE", "ME", "SL", "TI", "CCE" });
+		} finally {
+			commitMeasurements();
+			assertPerformanceInRelativeBand(Dimension.ELAPSED_PROCESS, -100, +10);
+		}
+	}
+
 	//---
 
+	/**
+	 * Opens the dialog with the initial pattern and measures the time from setting each of the
+	 * patterns until the first matching type is selected.
+	 *
+	 * @param initialPattern the pattern to open the dialog with, not measured
+	 * @param patterns the patterns to type
+	 * @throws Exception if something goes wrong
+	 */
+	private void measureKeystrokes(String initialPattern, String[] patterns) throws Exception {
+		fShell= JavaPlugin.getActiveWorkbenchShell();
+		final String[] selected= new String[1];
+
+		fOpenTypeDialog= JavaUI.createTypeDialog(
+				fShell,
+				JavaPlugin.getActiveWorkbenchWindow(),
+				SearchEngine.createWorkspaceScope(),
+				IJavaElementSearchConstants.CONSIDER_ALL_TYPES,
+				false,
+				initialPattern,
+				new TypeSelectionExtension() {
+					@Override
+					public ISelectionStatusValidator getSelectionValidator() {
+						return selection -> {
+							if (selection.length > 0 && selection[0] instanceof IType)
+								selected[0]= ((IType) selection[0]).getElementName();
+							return Status.OK_STATUS;
+						};
+					}
+				});
+
+		try {
+			fOpenTypeDialog.setBlockOnOpen(false);
+			fOpenTypeDialog.open();
+			Text patternText= findText(fOpenTypeDialog.getShell());
+			waitForSelection(selected, initialPattern);
+			for (String pattern : patterns) {
+				selected[0]= null;
+				startMeasuring();
+				patternText.setText(pattern);
+				waitForSelection(selected, pattern);
+				stopMeasuring();
+			}
+		} finally {
+			fOpenTypeDialog.close();
+			fOpenTypeDialog= null;
+		}
+	}
+
+	private void waitForSelection(final String[] selected, final String pattern) {
+		boolean found= new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return selected[0] != null && matches(selected[0], pattern);
+			}
+		}.waitForCondition(fShell.getDisplay(), 60 * 1000, 10 * 1000);
+		if (!found)
+			fail("took too long: " + pattern);
+	}
+
+	private static boolean matches(String name, String pattern) {
+		if (name.regionMatches(true, 0, pattern, 0, pattern.length()))
+			return true;
+		return SearchPattern.camelCaseMatch(pattern, name);
+	}
+
+	private static Text findText(Control control) {
+		if (control instanceof Text)
+			return (Text) control;
+		if (control instanceof Composite) {
+			for (Control child : ((Composite) control).getChildren()) {
+				Text text= findText(child);
+				if (text != null)
+					return text;
+			}
+		}
+		return null;
+	}
+
 	private void measureOpenType(String pattern) throws Exception {
 		measureOpenType(pattern, false);
 	}
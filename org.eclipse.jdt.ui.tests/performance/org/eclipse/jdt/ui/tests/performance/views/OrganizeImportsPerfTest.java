@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -38,6 +38,7 @@ import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.manipulation.OrganizeImportsBatchOperation;
 import org.eclipse.jdt.core.manipulation.OrganizeImportsOperation;
 import org.eclipse.jdt.core.manipulation.SharedASTProviderCore;
 
@@ -107,6 +108,50 @@ public class OrganizeImportsPerfTest extends JdtPerformanceTestCaseCommon {
 		Performance.getDefault().assertPerformance(fPerformanceMeter);
 	}
 
+	@Test
+	public void testOrganizeImportMultiFile() throws Exception {
+		// all files one by one, including the creation of the ASTs
+		measureMultiFile(Performance.getDefault().getNullPerformanceMeter(), 3, false);
+		measureMultiFile(fPerformanceMeter, 10, false);
+
+		commitMeasurements();
+		Performance.getDefault().assertPerformance(fPerformanceMeter);
+	}
+
+	@Test
+	public void testOrganizeImportBatch() throws Exception {
+		// all files in one batch sharing the type searches
+		measureMultiFile(Performance.getDefault().getNullPerformanceMeter(), 3, true);
+		measureMultiFile(fPerformanceMeter, 10, true);
+
+		commitMeasurements();
+		Performance.getDefault().assertPerformance(fPerformanceMeter);
+	}
+
+	private ICompilationUnit[] getAllCUs() throws JavaModelException {
+		List<IJavaElement> cusList= new ArrayList<>();
+		addAllCUs(MyTestSetup.fJProject1.getChildren(), cusList);
+		return cusList.toArray(new ICompilationUnit[cusList.size()]);
+	}
+
+	private void measureMultiFile(PerformanceMeter performanceMeter, int runs, boolean batch) throws Exception {
+		for (int j= 0; j < runs; j++) {
+			ICompilationUnit[] cus= getAllCUs();
+
+			joinBackgroudActivities();
+
+			performanceMeter.start();
+			if (batch) {
+				new OrganizeImportsBatchOperation(cus, true, true, true, null).run(new NullProgressMonitor());
+			} else {
+				for (ICompilationUnit cu : cus) {
+					new OrganizeImportsOperation(cu, null, true, true, true, null).run(new NullProgressMonitor());
+				}
+			}
+			performanceMeter.stop();
+		}
+	}
+
 	private void measure(PerformanceMeter performanceMeter, int runs) throws Exception {
 		for (int j= 0; j < runs; j++) {
 			List<IJavaElement> cusList= new ArrayList<>();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,8 +14,10 @@
 
 package org.eclipse.jdt.ui.tests.performance.views;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.util.zip.ZipFile;
 
@@ -37,6 +39,8 @@ import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.ResourcesPlugin;
 
 import org.eclipse.jface.viewers.StructuredSelection;
+import org.eclipse.swt.widgets.TreeItem;
+
 import org.eclipse.jface.viewers.TreeViewer;
 
 import org.eclipse.ui.IWorkbenchPage;
@@ -44,11 +48,13 @@ import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PlatformUI;
 
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCaseCommon;
 
+import org.eclipse.jdt.internal.ui.packageview.PackageExplorerContentProvider;
 import org.eclipse.jdt.internal.ui.packageview.PackageExplorerPart;
 
 @FixMethodOrder(MethodSorters.NAME_ASCENDING)
@@ -78,6 +84,9 @@ public class PackageExplorerPerfTest extends JdtPerformanceTestCaseCommon {
 		}
 	}
 
+	/** The number of compilation units in the large package */
+	private static final int LARGE_PACKAGE_SIZE= 5000;
+
 	@Rule
 	public MyTestSetup stup= new MyTestSetup();
 
@@ -149,6 +158,58 @@ public class PackageExplorerPerfTest extends JdtPerformanceTestCaseCommon {
 		finishMeasurements();
 	}
 
+	@Test
+	public void testEExpandLargePackage() throws Exception {
+		measureExpandLargePackage(PackageExplorerContentProvider.DEFERRED_CHILDREN_THRESHOLD);
+	}
+
+	@Test
+	public void testFExpandLargePackageAtOnce() throws Exception {
+		measureExpandLargePackage(0);
+	}
+
+	/**
+	 * Measures how long expanding a package with {@value #LARGE_PACKAGE_SIZE} compilation units
+	 * blocks the UI thread.
+	 *
+	 * @param threshold the number of Java children from which on the children are fetched in the background
+	 * @throws Exception if the package cannot be created
+	 */
+	private void measureExpandLargePackage(int threshold) throws Exception {
+		IPackageFragment pack= createLargePackage();
+		PackageExplorerPart view= getView();
+		view.selectAndReveal(pack);
+		PackageExplorerContentProvider contentProvider= (PackageExplorerContentProvider) getViewer().getContentProvider();
+		contentProvider.setDeferredChildrenThreshold(threshold);
+		try {
+			joinBackgroudActivities();
+			startMeasuring();
+			getViewer().expandToLevel(pack, 1);
+			stopMeasuring();
+			joinBackgroudActivities();
+			TreeItem item= (TreeItem) getViewer().testFindItem(pack);
+			assertNotNull(item);
+			assertEquals(LARGE_PACKAGE_SIZE, item.getItemCount());
+		} finally {
+			contentProvider.setDeferredChildrenThreshold(PackageExplorerContentProvider.DEFERRED_CHILDREN_THRESHOLD);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private IPackageFragment createLargePackage() throws CoreException {
+		IPackageFragmentRoot root= MyTestSetup.fJProject1.getPackageFragmentRoot(MyTestSetup.fJProject1.getProject().getFolder(MyTestSetup.SRC_CONTAINER));
+		IPackageFragment pack= root.createPackageFragment("large", true, null);
+		IFolder folder= (IFolder) pack.getResource();
+		ResourcesPlugin.getWorkspace().run((IWorkspaceRunnable) monitor -> {
+			for (int i= 0; i < LARGE_PACKAGE_SIZE; i++) {
+				String source= "package large;\npublic class Type" + i + " {\n}\n";
+				folder.getFile("Type" + i + ".java").create(new ByteArrayInputStream(source.getBytes()), true, null);
+			}
+		}, null);
+		return pack;
+	}
+
 	private void touchAllFilesOnDisk(IFolder folder) throws CoreException {
 		final long now= System.currentTimeMillis();
 		folder.accept(resource -> {
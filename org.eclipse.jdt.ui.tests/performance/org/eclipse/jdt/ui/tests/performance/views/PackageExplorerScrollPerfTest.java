@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance.views;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.jdt.testplugin.JavaTestPlugin;
+
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.swt.widgets.TreeItem;
+
+import org.eclipse.jface.viewers.TreeViewer;
+
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.PlatformUI;
+
+import org.eclipse.jdt.core.IJavaProject;
+
+import org.eclipse.jdt.ui.JavaUI;
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCaseCommon;
+
+import org.eclipse.jdt.internal.ui.packageview.PackageExplorerPart;
+import org.eclipse.jdt.internal.ui.viewsupport.JavaElementLabelCache;
+
+/**
+ * Measures scrolling through the fully expanded JUnit sources in the Package Explorer while the
+ * labels of all items are updated, with and without the labels cached by
+ * {@link JavaElementLabelCache}.
+ */
+public class PackageExplorerScrollPerfTest extends JdtPerformanceTestCaseCommon {
+
+	private static final boolean DEBUG= false;
+
+	private static final int RUNS= 10;
+
+	private IJavaProject fProject;
+
+	private TreeViewer fViewer;
+
+	@Before
+	public void setUp() throws Exception {
+		fProject= JavaProjectHelper.createJavaProject("ScrollPerf", "bin");
+		assertNotNull("rt not found", JavaProjectHelper.addRTJar13(fProject));
+		File junitSrcArchive= JavaTestPlugin.getDefault().getFileInPlugin(JavaProjectHelper.JUNIT_SRC_381);
+		JavaProjectHelper.addSourceContainerWithImport(fProject, "src", junitSrcArchive, JavaProjectHelper.JUNIT_SRC_ENCODING);
+
+		IWorkbenchPage page= PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
+		PackageExplorerPart view= (PackageExplorerPart) page.showView(JavaUI.ID_PACKAGES);
+		fViewer= view.getTreeViewer();
+		fViewer.expandToLevel(fProject.findPackageFragmentRoot(fProject.getPath().append("src")), TreeViewer.ALL_LEVELS);
+		joinBackgroudActivities();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		JavaProjectHelper.delete(fProject);
+	}
+
+	@Test
+	public void testScrollUncached() throws Exception {
+		measureScrolling(false);
+	}
+
+	@Test
+	public void testScrollCached() throws Exception {
+		measureScrolling(true);
+	}
+
+	private void measureScrolling(boolean cached) throws Exception {
+		JavaElementLabelCache cache= JavaElementLabelCache.getDefault();
+		cache.resetStatistics();
+		for (int i= 0; i < RUNS; i++) {
+			joinBackgroudActivities();
+			if (!cached)
+				cache.clear();
+			startMeasuring();
+			fViewer.refresh(fProject, true);
+			scrollThrough(fViewer.getTree());
+			stopMeasuring();
+		}
+		commitMeasurements();
+		if (DEBUG)
+			System.out.println(getClass().getSimpleName() + (cached ? " cached: " : " uncached: ") + cache);
+		if (cached)
+			assertTrue(cache.toString(), cache.getHitRate() > 0.5);
+		assertPerformance();
+	}
+
+	private static void scrollThrough(Tree tree) {
+		List<TreeItem> items= new ArrayList<>();
+		collectExpandedItems(tree.getItems(), items);
+		Display display= tree.getDisplay();
+		for (TreeItem item : items) {
+			tree.setTopItem(item);
+			while (display.readAndDispatch()) {
+				// process the paint events
+			}
+		}
+	}
+
+	private static void collectExpandedItems(TreeItem[] items, List<TreeItem> result) {
+		for (TreeItem item : items) {
+			result.add(item);
+			if (item.getExpanded())
+				collectExpandedItems(item.getItems(), result);
+		}
+	}
+}
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance.views;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.eclipse.jdt.internal.junit.model.ITestRunListener2;
+import org.eclipse.jdt.internal.junit.model.RemoteTestRunnerClient;
+import org.eclipse.jdt.internal.junit.runner.BinaryMessageWriter;
+import org.eclipse.jdt.internal.junit.runner.MessageIds;
+import org.eclipse.jdt.internal.junit.runner.MessageSender;
+
+import org.eclipse.jdt.launching.SocketUtil;
+
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCaseCommon;
+
+/**
+ * Measures the throughput of the text and the binary protocol between the RemoteTestRunner and
+ * the RemoteTestRunnerClient for a large test run with failures, in events per second.
+ */
+public class RemoteTestRunnerProtocolPerfTest extends JdtPerformanceTestCaseCommon {
+
+	private static final boolean DEBUG= false;
+
+	private static final int TESTS= 60000;
+
+	private static final int FAILURE_INTERVAL= 100;
+
+	private static final int RUNS= 5;
+
+	private static final String TRACE;
+	static {
+		StringBuilder buf= new StringBuilder();
+		buf.append("org.junit.ComparisonFailure: expected:<[foo]> but was:<[bar]>\n");
+		for (int i= 0; i < 40; i++) {
+			buf.append("\tat org.example.Frame").append(i).append(".method(Frame").append(i).append(".java:").append(i + 10).append(")\n");
+		}
+		TRACE= buf.toString();
+	}
+
+	private static class CountingListener implements ITestRunListener2 {
+
+		private final AtomicInteger fEvents= new AtomicInteger();
+
+		private final CountDownLatch fRunEnded= new CountDownLatch(1);
+
+		@Override
+		public void testRunStarted(int testCount) {
+			fEvents.incrementAndGet();
+		}
+
+		@Override
+		public void testRunEnded(long elapsedTime) {
+			fEvents.incrementAndGet();
+			fRunEnded.countDown();
+		}
+
+		@Override
+		public void testRunStopped(long elapsedTime) {
+			fRunEnded.countDown();
+		}
+
+		@Override
+		public void testStarted(String testId, String testName) {
+			fEvents.incrementAndGet();
+		}
+
+		@Override
+		public void testEnded(String testId, String testName) {
+			fEvents.incrementAndGet();
+		}
+
+		@Override
+		public void testRunTerminated() {
+			fRunEnded.countDown();
+		}
+
+		@Override
+		public void testTreeEntry(String description) {
+			fEvents.incrementAndGet();
+		}
+
+		@Override
+		public void testFailed(int status, String testId, String testName, String trace, String expected, String actual) {
+			fEvents.incrementAndGet();
+		}
+
+		@Override
+		public void testReran(String testId, String testClass, String testName, int status, String trace, String expected, String actual) {
+			fEvents.incrementAndGet();
+		}
+	}
+
+	private static class TextMessageSender implements MessageSender {
+
+		private final PrintWriter fWriter;
+
+		TextMessageSender(OutputStream out) {
+			fWriter= new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), false);
+		}
+
+		@Override
+		public void sendMessage(String msg) {
+			fWriter.println(msg);
+		}
+
+		@Override
+		public void flush() {
+			fWriter.flush();
+		}
+	}
+
+	@Test
+	public void testTextProtocol() throws Exception {
+		measure(false);
+	}
+
+	@Test
+	public void testBinaryProtocol() throws Exception {
+		measure(true);
+	}
+
+	private void measure(boolean binary) throws Exception {
+		for (int i= 0; i < RUNS; i++) {
+			int port= SocketUtil.findFreePort();
+			CountingListener listener= new CountingListener();
+			RemoteTestRunnerClient client= new RemoteTestRunnerClient();
+			client.startListening(new ITestRunListener2[] { listener }, port);
+
+			try (Socket socket= connect(port)) {
+				long start= System.nanoTime();
+				startMeasuring();
+				MessageSender sender= binary ? new BinaryMessageWriter(socket.getOutputStream()) : new TextMessageSender(socket.getOutputStream());
+				sendTestRun(sender);
+				assertTrue(listener.fRunEnded.await(5, TimeUnit.MINUTES));
+				stopMeasuring();
+				long elapsed= System.nanoTime() - start;
+
+				int events= listener.fEvents.get();
+				assertEquals(2 + 3 * TESTS + TESTS / FAILURE_INTERVAL, events);
+				if (DEBUG)
+					System.out.println((binary ? "binary" : "text") + " protocol: " + events * 1000_000_000L / elapsed + " events/sec");
+
+				if (sender instanceof BinaryMessageWriter)
+					((BinaryMessageWriter) sender).close();
+			} finally {
+				client.stopWaiting();
+			}
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static Socket connect(int port) throws Exception {
+		IOException exception= null;
+		for (int i= 0; i < 50; i++) {
+			try {
+				return new Socket("localhost", port);
+			} catch (IOException e) {
+				exception= e;
+				Thread.sleep(100);
+			}
+		}
+		throw exception;
+	}
+
+	/**
+	 * Sends the messages in the same order as the RemoteTestRunner.
+	 *
+	 * @param sender the message sender
+	 */
+	private static void sendTestRun(MessageSender sender) {
+		sender.sendMessage(MessageIds.TEST_RUN_START + TESTS + " v2");
+		for (int i= 0; i < TESTS; i++) {
+			sender.sendMessage(MessageIds.TEST_TREE + getTest(i) + ",false,1,false,-1," + getName(i) + ",,");
+		}
+		for (int i= 0; i < TESTS; i++) {
+			String test= getTest(i);
+			sender.sendMessage(MessageIds.TEST_START + test);
+			sender.flush();
+			if (i % FAILURE_INTERVAL == 0) {
+				sender.sendMessage(MessageIds.TEST_FAILED + test);
+				sender.sendMessage(MessageIds.EXPECTED_START);
+				sender.sendMessage("foo");
+				sender.sendMessage(MessageIds.EXPECTED_END);
+				sender.sendMessage(MessageIds.ACTUAL_START);
+				sender.sendMessage("bar");
+				sender.sendMessage(MessageIds.ACTUAL_END);
+				sender.sendMessage(MessageIds.TRACE_START);
+				sender.sendMessage(TRACE);
+				sender.sendMessage(MessageIds.TRACE_END);
+				sender.flush();
+			}
+			sender.sendMessage(MessageIds.TEST_END + test);
+			sender.flush();
+		}
+		sender.sendMessage(MessageIds.TEST_RUN_END + 1000);
+		sender.flush();
+	}
+
+	private static String getTest(int i) {
+		return (i + 1) + "," + getName(i);
+	}
+
+	private static String getName(int i) {
+		return "testMethod" + i + "(org.example.Test" + i / 100 + ")";
+	}
+}
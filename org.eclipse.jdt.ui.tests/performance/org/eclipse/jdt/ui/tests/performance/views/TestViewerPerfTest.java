@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance.views;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.jdt.testplugin.util.DisplayHelper;
+
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.PlatformUI;
+
+import org.eclipse.debug.core.ILaunchManager;
+import org.eclipse.debug.core.Launch;
+
+import org.eclipse.jdt.core.IJavaProject;
+
+import org.eclipse.jdt.internal.junit.JUnitCorePlugin;
+import org.eclipse.jdt.internal.junit.model.TestRunSession;
+import org.eclipse.jdt.internal.junit.runner.MessageIds;
+import org.eclipse.jdt.internal.junit.ui.TestRunnerViewPart;
+
+import org.eclipse.jdt.launching.SocketUtil;
+
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCaseCommon;
+
+/**
+ * Replays a large recorded test run with failures into the JUnit view and measures the time until
+ * the run has ended and the view has been updated.
+ */
+public class TestViewerPerfTest extends JdtPerformanceTestCaseCommon {
+
+	private static final int SUITES= 1000;
+
+	private static final int TESTS_PER_SUITE= 100;
+
+	private static final int TESTS= SUITES * TESTS_PER_SUITE;
+
+	private static final int FAILURE_INTERVAL= 100;
+
+	private static final int RUNS= 5;
+
+	private IJavaProject fProject;
+
+	@Before
+	public void setUp() throws Exception {
+		fProject= JavaProjectHelper.createJavaProject("TestViewerPerf", "bin");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		JavaProjectHelper.delete(fProject);
+	}
+
+	@Test
+	public void testLargeRun() throws Exception {
+		IWorkbenchPage page= PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
+		TestRunnerViewPart view= (TestRunnerViewPart) page.showView(TestRunnerViewPart.NAME);
+		Display display= view.getSite().getShell().getDisplay();
+
+		for (int i= 0; i < RUNS; i++) {
+			joinBackgroudActivities();
+			int port= SocketUtil.findFreePort();
+			TestRunSession session= new TestRunSession(new Launch(null, ILaunchManager.RUN_MODE, null), fProject, port);
+			JUnitCorePlugin.getModel().addTestRunSession(session);
+			try (Socket socket= connect(port)) {
+				startMeasuring();
+				// the view updates the UI synchronously on some events, hence the run is not sent from the UI thread
+				Thread sender= new Thread(() -> sendTestRun(socket), "TestViewerPerfTest sender");
+				sender.start();
+				boolean ended= new DisplayHelper() {
+					@Override
+					protected boolean condition() {
+						return ! sender.isAlive() && ! session.isRunning() && session.getStartedCount() == TESTS;
+					}
+				}.waitForCondition(display, 5 * 60 * 1000);
+				DisplayHelper.driveEventQueue(display);
+				stopMeasuring();
+
+				assertTrue(ended);
+				assertEquals(TESTS / FAILURE_INTERVAL, session.getFailureCount());
+			} finally {
+				JUnitCorePlugin.getModel().removeTestRunSession(session);
+			}
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static Socket connect(int port) throws Exception {
+		IOException exception= null;
+		for (int i= 0; i < 50; i++) {
+			try {
+				return new Socket("localhost", port);
+			} catch (IOException e) {
+				exception= e;
+				Thread.sleep(100);
+			}
+		}
+		throw exception;
+	}
+
+	/**
+	 * Sends the messages of a run in the same order as the RemoteTestRunner.
+	 *
+	 * @param socket the socket to the test run session
+	 */
+	private static void sendTestRun(Socket socket) {
+		try {
+			PrintWriter writer= new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)), false);
+			writer.println(MessageIds.TEST_RUN_START + TESTS + " v2");
+			for (int suite= 0; suite < SUITES; suite++) {
+				writer.println(MessageIds.TEST_TREE + getSuiteId(suite) + ",org.example.Test" + suite + ",true," + TESTS_PER_SUITE + ",false,-1,org.example.Test" + suite + ",,");
+				for (int i= suite * TESTS_PER_SUITE; i < (suite + 1) * TESTS_PER_SUITE; i++) {
+					writer.println(MessageIds.TEST_TREE + getTest(i) + ",false,1,false,-1," + getName(i) + ",,");
+				}
+			}
+			for (int i= 0; i < TESTS; i++) {
+				String test= getTest(i);
+				writer.println(MessageIds.TEST_START + test);
+				if (i % FAILURE_INTERVAL == 0) {
+					writer.println(MessageIds.TEST_FAILED + test);
+					writer.println(MessageIds.TRACE_START);
+					writer.println("java.lang.AssertionError: failure " + i);
+					writer.println("\tat org.example.Test" + i / TESTS_PER_SUITE + ".testMethod" + i + "(Test" + i / TESTS_PER_SUITE + ".java:10)");
+					writer.println(MessageIds.TRACE_END);
+				}
+				writer.println(MessageIds.TEST_END + test);
+				writer.flush();
+			}
+			writer.println(MessageIds.TEST_RUN_END + 1000);
+			writer.flush();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static String getSuiteId(int suite) {
+		return String.valueOf(TESTS + suite + 1);
+	}
+
+	private static String getTest(int i) {
+		return (i + 1) + "," + getName(i);
+	}
+
+	private static String getName(int i) {
+		return "testMethod" + i + "(org.example.Test" + i / TESTS_PER_SUITE + ")";
+	}
+}
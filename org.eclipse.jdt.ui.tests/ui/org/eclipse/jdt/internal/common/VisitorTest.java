@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.common;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
@@ -617,6 +619,52 @@ public class VisitorTest {
 		hv.build(result2);
 	}
 
+	/**
+	 * Several HelperVisitors share one traversal, a predicate returning false only hides the
+	 * subtree from the HelperVisitor that returned it.
+	 */
+	@Test
+	public void fusedTest() {
+		Set<ASTNode> nodesprocessed = null;
+		List<ASTNode> println = new ArrayList<>();
+		List<ASTNode> outerOnly = new ArrayList<>();
+		List<ASTNode> ended = new ArrayList<>();
+		HelperVisitor<ReferenceHolder<String,NodeFound>,String,NodeFound> hv = new HelperVisitor<>(nodesprocessed, new ReferenceHolder<>());
+		hv.addMethodInvocation("println", (node, holder) -> {
+			println.add(node);
+			return true;
+		});
+		HelperVisitor<ReferenceHolder<String,NodeFound>,String,NodeFound> hv2 = new HelperVisitor<>(nodesprocessed, new ReferenceHolder<>());
+		hv2.addWhileStatement((node, holder) -> {
+			outerOnly.add(node);
+			return false;
+		});
+		hv2.addWhileStatement((node, holder) -> {
+			ended.add(node);
+		});
+		hv2.addMethodInvocation((node, holder) -> {
+			outerOnly.add(node);
+			return true;
+		});
+
+		FusedHelperVisitor fused = new FusedHelperVisitor();
+		fused.register(hv).register(hv2).build(result2);
+
+		assertEquals(3, println.size());
+		// Collections.reverse, strings.iterator, the outer while statement and the last println
+		assertEquals(4, outerOnly.size());
+		assertEquals(1, ended.size());
+
+		List<ASTNode> separate = new ArrayList<>();
+		HelperVisitor<ReferenceHolder<String,NodeFound>,String,NodeFound> hv3 = new HelperVisitor<>(nodesprocessed, new ReferenceHolder<>());
+		hv3.addMethodInvocation("println", (node, holder) -> {
+			separate.add(node);
+			return true;
+		});
+		hv3.build(result2);
+		assertEquals(separate, println);
+	}
+
 	Collection<String> getUsedVariableNames(ASTNode node) {
 		CompilationUnit root= (CompilationUnit) node.getRoot();
 		Collection<String> res= (new ScopeAnalyzer(root)).getUsedVariableNames(node.getStartPosition(), node.getLength());
@@ -117,6 +117,11 @@ public class AbstractTestRunSessionSerializationTests {
 			// due to lingering TestRunnerViewPart$TestSessionListeners
 			serializationResult.fTestRunSession.swapOut();
 			assertEqualSessions(serializationResult.fTestRunSession, imported);
+
+			// the session has been swapped in from the binary swap file
+			ByteArrayOutputStream out= new ByteArrayOutputStream();
+			JUnitModel.exportTestRunSession(serializationResult.fTestRunSession, out);
+			assertEqualXML(expectedXML, out.toString("UTF-8"));
 		} finally {
 			if (resultFile.exists())
 				try {
@@ -37,6 +37,8 @@ TestRunFilteredParameterizedRunnerTest4.class,
 
 TestRunSessionSerializationTests3.class,
 TestRunSessionSerializationTests4.class,
+TestRunSessionSwapFileTest.class,
+TestElementIdsTest.class,
 
 JUnit3TestFinderTest.class,
 JUnit4TestFinderTest.class,
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.internal.junit.model.TestElement;
+import org.eclipse.jdt.internal.junit.model.TestRunSession;
+
+public class TestElementIdsTest {
+
+	private TestRunSession fSession;
+
+	@Before
+	public void setUp() {
+		fSession= new TestRunSession("TestElementIdsTest", null);
+	}
+
+	private TestElement createTest(String id) {
+		return fSession.createTestElement(fSession.getTestRoot(), id, "test" + id + "(pack.ATest)", false, 1, false, "test" + id, null, null);
+	}
+
+	@Test
+	public void testNegativeIds() {
+		TestElement minusTwo= createTest("-2");
+		TestElement two= createTest("2");
+		TestElement minusNineDigits= createTest("-999999999");
+
+		assertSame(minusTwo, fSession.getTestElement("-2"));
+		assertSame(two, fSession.getTestElement("2"));
+		assertSame(minusNineDigits, fSession.getTestElement("-999999999"));
+		assertNull(fSession.getTestElement("-3"));
+	}
+
+	@Test
+	public void testNonCanonicalIds() {
+		TestElement zero= createTest("0");
+		TestElement minusZero= createTest("-0");
+		TestElement minusZeroTwo= createTest("-02");
+		TestElement minus= createTest("-");
+		TestElement tooLong= createTest("-1234567890");
+
+		assertSame(zero, fSession.getTestElement("0"));
+		assertSame(minusZero, fSession.getTestElement("-0"));
+		assertSame(minusZeroTwo, fSession.getTestElement("-02"));
+		assertSame(minus, fSession.getTestElement("-"));
+		assertSame(tooLong, fSession.getTestElement("-1234567890"));
+		assertNull(fSession.getTestElement("-2"));
+		assertNull(fSession.getTestElement("02"));
+	}
+}
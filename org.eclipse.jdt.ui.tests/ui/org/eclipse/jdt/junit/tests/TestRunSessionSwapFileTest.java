@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.junit.model.ITestElement;
+
+import org.eclipse.jdt.internal.junit.model.TestElement;
+import org.eclipse.jdt.internal.junit.model.TestElement.Status;
+import org.eclipse.jdt.internal.junit.model.TestRunSession;
+import org.eclipse.jdt.internal.junit.model.TestSuiteElement;
+
+public class TestRunSessionSwapFileTest {
+
+	private TestRunSession fSession;
+
+	@Before
+	public void setUp() {
+		fSession= new TestRunSession("SwapFileTest", null);
+	}
+
+	@After
+	public void tearDown() {
+		fSession.removeSwapFile();
+	}
+
+	private TestSuiteElement createSuite() {
+		TestSuiteElement suite= (TestSuiteElement) fSession.createTestElement(fSession.getTestRoot(), "1", "pack.ATest", true, 0, false, "ATest", null, null);
+		TestElement test1= fSession.createTestElement(suite, "2", "testA(pack.ATest)", false, 1, false, "testA", null, null);
+		TestElement test2= fSession.createTestElement(suite, "3", "testB(pack.ATest)", false, 1, false, "testB", null, null);
+		fSession.registerTestFailureStatus(test1, Status.FAILURE, "trace", null, null);
+		fSession.registerTestEnded(test1, true);
+		fSession.registerTestEnded(test2, true);
+		return suite;
+	}
+
+	private TestSuiteElement swapOutAndIn() {
+		fSession.swapOut();
+		return (TestSuiteElement) fSession.getTestRoot().getChildren()[0];
+	}
+
+	private static void assertSameStatus(TestSuiteElement expected, TestSuiteElement actual) {
+		assertEquals(expected.getStatus(), actual.getStatus());
+		assertEquals(expected.getSuiteStatus(), actual.getSuiteStatus());
+		ITestElement[] expectedChildren= expected.getChildren();
+		ITestElement[] actualChildren= actual.getChildren();
+		assertEquals(expectedChildren.length, actualChildren.length);
+		for (int i= 0; i < expectedChildren.length; i++) {
+			assertEquals(((TestElement) expectedChildren[i]).getStatus(), ((TestElement) actualChildren[i]).getStatus());
+		}
+	}
+
+	@Test
+	public void testSuiteStatusAfterSwapIn() {
+		TestSuiteElement suite= createSuite();
+		assertEquals(Status.FAILURE, suite.getStatus());
+
+		TestSuiteElement swappedIn= swapOutAndIn();
+		assertSameStatus(suite, swappedIn);
+	}
+
+	@Test
+	public void testRerunAfterSwapIn() {
+		TestSuiteElement suite= createSuite();
+		TestSuiteElement swappedIn= swapOutAndIn();
+
+		// rerunning the passed test must not lose the failure of the other test
+		TestElement test2= (TestElement) swappedIn.getChildren()[1];
+		fSession.registerTestFailureStatus(test2, Status.OK, null, null, null);
+		assertEquals(Status.FAILURE, swappedIn.getStatus());
+		assertSameStatus(suite, swappedIn);
+	}
+
+	@Test
+	public void testRerunInvalidatesSwapFile() {
+		createSuite();
+		TestSuiteElement swappedIn= swapOutAndIn();
+
+		TestElement test1= (TestElement) swappedIn.getChildren()[0];
+		fSession.registerTestFailureStatus(test1, Status.OK, null, null, null);
+		assertEquals(Status.OK, swappedIn.getStatus());
+
+		TestSuiteElement swappedInAgain= swapOutAndIn();
+		assertSameStatus(swappedIn, swappedInAgain);
+	}
+}
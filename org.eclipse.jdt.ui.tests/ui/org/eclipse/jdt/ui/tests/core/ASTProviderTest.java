@@ -15,6 +15,9 @@ package org.eclipse.jdt.ui.tests.core;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.After;
 import org.junit.Before;
@@ -47,6 +50,8 @@ import org.eclipse.jdt.core.refactoring.CompilationUnitChange;
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jdt.ui.tests.core.rules.ProjectTestSetup;
 
+import org.eclipse.jdt.internal.core.manipulation.RecentASTCache;
+
 
 /**
  * Tests the AST provider.
@@ -141,6 +146,73 @@ public class ASTProviderTest extends CoreTests {
 		cu.getBuffer().save(null, true);
 	}
 
+	@Test
+	public void testRecentAST() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuilder buf= new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class E1 {\n");
+		buf.append("}\n");
+		ICompilationUnit cu1= pack1.createCompilationUnit("E1.java", buf.toString(), false, null);
+
+		buf= new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class E2 {\n");
+		buf.append("}\n");
+		ICompilationUnit cu2= pack1.createCompilationUnit("E2.java", buf.toString(), false, null);
+
+		RecentASTCache cache= RecentASTCache.getDefault();
+		cache.resetCounters();
+
+		JavaUI.openInEditor(cu1);
+		CompilationUnit ast1= SharedASTProviderCore.getAST(cu1, SharedASTProviderCore.WAIT_YES, null);
+		assertNotNull(ast1);
+
+		JavaUI.openInEditor(cu2);
+		assertSame(ast1, SharedASTProviderCore.getAST(cu1, SharedASTProviderCore.WAIT_NO, null));
+		assertEquals(1, cache.getHitCount());
+
+		// the cached AST must not be returned after the content changed
+		cu1.getBuffer().append("// comment\n");
+		CompilationUnit ast2= SharedASTProviderCore.getAST(cu1, SharedASTProviderCore.WAIT_YES, null);
+		assertNotSame(ast1, ast2);
+		assertTrue(cache.getMissCount() > 0);
+	}
+
+	@Test
+	public void testRecentASTAfterDependencyChange() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuilder buf= new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class Base {\n");
+		buf.append("}\n");
+		ICompilationUnit base= pack1.createCompilationUnit("Base.java", buf.toString(), false, null);
+
+		buf= new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class E1 extends Base {\n");
+		buf.append("}\n");
+		ICompilationUnit cu1= pack1.createCompilationUnit("E1.java", buf.toString(), false, null);
+
+		buf= new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class E2 {\n");
+		buf.append("}\n");
+		ICompilationUnit cu2= pack1.createCompilationUnit("E2.java", buf.toString(), false, null);
+
+		JavaUI.openInEditor(cu1);
+		CompilationUnit ast1= SharedASTProviderCore.getAST(cu1, SharedASTProviderCore.WAIT_YES, null);
+		assertNotNull(ast1);
+
+		JavaUI.openInEditor(cu2);
+		assertSame(ast1, SharedASTProviderCore.getAST(cu1, SharedASTProviderCore.WAIT_NO, null));
+
+		// the bindings of the cached AST are stale after the supertype changed
+		base.getType("Base").createMethod("public void foo() {}\n", null, true, null);
+		CompilationUnit ast2= SharedASTProviderCore.getAST(cu1, SharedASTProviderCore.WAIT_YES, null);
+		assertNotSame(ast1, ast2);
+	}
+
 	private static String getNormalizeNumber(int number) {
 		if (number < 10) {
 			return "000" + number;
@@ -30,12 +30,16 @@ import org.junit.Test;
 
 import org.eclipse.core.runtime.NullProgressMonitor;
 
+import org.eclipse.core.resources.IProject;
+
+import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IInitializer;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
 
 import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchy;
+import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchyExpander;
 import org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper;
 
 import org.eclipse.jdt.ui.tests.callhierarchy.CallHierarchyTestHelper;
@@ -113,6 +117,113 @@ public class CallHierarchyTest {
         helper.assertCalls(expectedMethods, cachedCalls);
     }
 
+	@Test
+	public void callersAfterChange() throws Exception {
+        helper.createSimpleClasses();
+
+        IMethod method= helper.getMethod1();
+
+        Collection<IMember> expectedMethods= new ArrayList<>();
+        expectedMethods.add(helper.getMethod2());
+        expectedMethods.add(helper.getMethod3());
+        helper.assertCalls(expectedMethods, getSingleCallerRoot(method).getCalls(new NullProgressMonitor()));
+
+        // the added method is a structural change, the callers of a new root are searched again
+        IMethod method5= helper.getType2().createMethod("public void method5() { method1(); }\n", null, true, null);
+        helper.getMethod2().delete(true, null);
+
+        expectedMethods= new ArrayList<>();
+        expectedMethods.add(helper.getMethod3());
+        expectedMethods.add(method5);
+        helper.assertCalls(expectedMethods, getSingleCallerRoot(method).getCalls(new NullProgressMonitor()));
+    }
+
+	@Test
+	public void callersAfterAddingOverload() throws Exception {
+        helper.createSimpleClasses();
+
+        IMethod method5= helper.getType1().createMethod("public void method5(Object o) { }\n", null, true, null);
+        ICompilationUnit cu= helper.getPackage2().createCompilationUnit("C.java",
+                "package pack2;\npublic class C {\n public void caller(pack1.A a) { a.method5(\"\"); }\n}\n", true, null);
+        IMethod caller= cu.getType("C").getMethod("caller", new String[] { "Qpack1.A;" });
+
+        Collection<IMember> expectedMethods= new ArrayList<>();
+        expectedMethods.add(caller);
+        helper.assertCalls(expectedMethods, getSingleCallerRoot(method5).getCalls(new NullProgressMonitor()));
+
+        // the call in the unchanged unit C now invokes the overload
+        IMethod overload= helper.getType1().createMethod("public void method5(String s) { }\n", null, true, null);
+
+        helper.assertCalls(new ArrayList<>(), getSingleCallerRoot(method5).getCalls(new NullProgressMonitor()));
+        helper.assertCalls(expectedMethods, getSingleCallerRoot(overload).getCalls(new NullProgressMonitor()));
+    }
+
+	@Test
+	public void callersAfterChangingSupertype() throws Exception {
+        helper.createSimpleClasses();
+
+        ICompilationUnit d= helper.getPackage2().createCompilationUnit("D.java",
+                "package pack2;\npublic class D extends pack1.A {\n}\n", true, null);
+        ICompilationUnit cu= helper.getPackage2().createCompilationUnit("C.java",
+                "package pack2;\npublic class C extends D {\n public void caller() { method1(); }\n}\n", true, null);
+        IMethod caller= cu.getType("C").getMethod("caller", EMPTY);
+
+        Collection<IMember> expectedMethods= new ArrayList<>();
+        expectedMethods.add(helper.getMethod2());
+        expectedMethods.add(helper.getMethod3());
+        expectedMethods.add(caller);
+        helper.assertCalls(expectedMethods, getSingleCallerRoot(helper.getMethod1()).getCalls(new NullProgressMonitor()));
+
+        // the call in the unchanged unit C now invokes D.method1()
+        d.becomeWorkingCopy(null);
+        try {
+            d.getBuffer().setContents("package pack2;\npublic class D {\n public void method1() { }\n}\n");
+            d.commitWorkingCopy(true, null);
+        } finally {
+            d.discardWorkingCopy();
+        }
+
+        expectedMethods.remove(caller);
+        helper.assertCalls(expectedMethods, getSingleCallerRoot(helper.getMethod1()).getCalls(new NullProgressMonitor()));
+    }
+
+	@Test
+	public void callersAfterClosingProject() throws Exception {
+        helper.createSimpleClasses();
+
+        Collection<IMember> expectedMethods= new ArrayList<>();
+        expectedMethods.add(helper.getMethod2());
+        expectedMethods.add(helper.getMethod3());
+        helper.assertCalls(expectedMethods, getSingleCallerRoot(helper.getMethod1()).getCalls(new NullProgressMonitor()));
+
+        IProject project2= helper.getJavaProject2().getProject();
+        project2.close(null);
+        try {
+            expectedMethods.remove(helper.getMethod3());
+            helper.assertCalls(expectedMethods, getSingleCallerRoot(helper.getMethod1()).getCalls(new NullProgressMonitor()));
+        } finally {
+            project2.open(null);
+        }
+    }
+
+	@Test
+	public void expandCallers() throws Exception {
+        helper.createSimpleClasses();
+
+        // method1 <- (method2 <- method3 <- method4), (method3 <- method4)
+        MethodWrapper root= getSingleCallerRoot(helper.getMethod1());
+        assertEquals(6, new CallHierarchyExpander(4, 10).expand(root, new NullProgressMonitor()));
+        for (MethodWrapper call : root.getCalls(new NullProgressMonitor())) {
+            assertTrue(call.hasCachedCalls());
+        }
+
+        assertEquals(5, new CallHierarchyExpander(4, 2).expand(getSingleCallerRoot(helper.getMethod1()), null));
+        assertEquals(3, new CallHierarchyExpander(1, 1).expand(getSingleCallerRoot(helper.getMethod1()), null));
+
+        // recursiveMethod1 <- recursiveMethod2 <- recursiveMethod1, which is not expanded
+        assertEquals(3, new CallHierarchyExpander(4, 10).expand(getSingleCallerRoot(helper.getRecursiveMethod1()), null));
+    }
+
 	@Test
 	public void callees() throws Exception {
         helper.createSimpleClasses();
@@ -19,7 +19,10 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Hashtable;
+import java.util.List;
 
 import org.junit.After;
 import org.junit.Before;
@@ -35,17 +38,23 @@ import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 
 import org.eclipse.core.resources.ProjectScope;
 
+import org.eclipse.text.edits.TextEdit;
+
 import org.eclipse.jface.preference.IPreferenceStore;
 
+import org.eclipse.jface.text.Document;
+
 import org.eclipse.jdt.core.IClasspathAttribute;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IImportDeclaration;
+import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.Signature;
 import org.eclipse.jdt.core.formatter.DefaultCodeFormatterConstants;
+import org.eclipse.jdt.core.manipulation.OrganizeImportsBatchOperation;
 import org.eclipse.jdt.core.manipulation.OrganizeImportsOperation;
 import org.eclipse.jdt.core.manipulation.OrganizeImportsOperation.IChooseImportQuery;
 import org.eclipse.jdt.core.search.TypeNameMatch;
@@ -3621,6 +3630,43 @@ public class ImportOrganizeTest extends CoreTests {
 		assertEqualString(cu1.getSource(), buf1.toString());
 	}
 
+	@Test
+	public void testBatchSameAsSingle() throws Exception {
+		File junitSrcArchive= JavaTestPlugin.getDefault().getFileInPlugin(JavaProjectHelper.JUNIT_SRC_381);
+		assertNotNull("junit src not found", junitSrcArchive);
+		assertTrue("junit src not found", junitSrcArchive.exists());
+
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainerWithImport(fJProject1, "src", junitSrcArchive, JavaProjectHelper.JUNIT_SRC_ENCODING);
+		setOrganizeImportSettings(new String[0], 99, 99, fJProject1);
+
+		List<ICompilationUnit> cus= new ArrayList<>();
+		for (IJavaElement pack : root.getChildren()) {
+			cus.addAll(Arrays.asList(((IPackageFragment) pack).getCompilationUnits()));
+		}
+		ICompilationUnit[] units= cus.toArray(new ICompilationUnit[cus.size()]);
+		assertTrue(units.length > 10);
+
+		OrganizeImportsBatchOperation batch= new OrganizeImportsBatchOperation(units, false, false, true, null);
+		batch.setParallelism(4);
+		TextEdit[] batchEdits= batch.createTextEdits(null);
+		OrganizeImportsOperation[] batchOperations= batch.getOperations();
+
+		for (int i= 0; i < units.length; i++) {
+			OrganizeImportsOperation op= new OrganizeImportsOperation(units[i], null, false, false, true, null);
+			TextEdit edit= op.createTextEdit(null);
+			assertEqualString(applyEdit(units[i], batchEdits[i]), applyEdit(units[i], edit));
+			assertEquals(units[i].getElementName(), op.getNumberOfImportsAdded(), batchOperations[i].getNumberOfImportsAdded());
+			assertEquals(units[i].getElementName(), op.getNumberOfImportsRemoved(), batchOperations[i].getNumberOfImportsRemoved());
+		}
+	}
+
+	private static String applyEdit(ICompilationUnit cu, TextEdit edit) throws Exception {
+		Document document= new Document(cu.getSource());
+		if (edit != null)
+			edit.apply(document);
+		return document.get();
+	}
+
 	protected OrganizeImportsOperation createOperation(ICompilationUnit cu, String[] order, int threshold, boolean ignoreLowerCaseNames, boolean save, boolean allowSyntaxErrors, IChooseImportQuery chooseImportQuery) {
 		setOrganizeImportSettings(order, threshold, threshold, cu.getJavaProject());
 		return new OrganizeImportsOperation(cu, null, ignoreLowerCaseNames, save, allowSyntaxErrors, chooseImportQuery);
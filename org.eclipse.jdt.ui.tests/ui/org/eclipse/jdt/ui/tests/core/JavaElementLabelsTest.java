@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -670,4 +670,37 @@ public class JavaElementLabelsTest extends CoreTests {
 		lab= JavaElementLabels.getTextLabel(foo2, JavaElementLabels.ALL_DEFAULT | JavaElementLabels.ALL_FULLY_QUALIFIED | JavaElementLabels.M_PARAMETER_ANNOTATIONS);
 		assertEqualString(lab, "org.test.Annotations.foo2(@Ann(value=\"\", cl=Annotations.class, ints={1, 2, -19}, ch='\\u0000', sh=32767, r=@Retention(value=RetentionPolicy.SOURCE)) String)");
 	}
+
+	@Test
+	public void testCachedLabelsAfterChange() throws Exception {
+		IPackageFragmentRoot sourceFolder= JavaProjectHelper.addSourceContainer(fJProject1, "src");
+		IPackageFragment pack1= sourceFolder.createPackageFragment("org.test", false, null);
+		String content= "package org.test;\npublic class Cached {\n    public int foo(String s) { return 0; }\n}\n";
+		ICompilationUnit cu= pack1.createCompilationUnit("Cached.java", content, false, null);
+
+		IMethod foo= cu.getType("Cached").getMethod("foo", new String[] { "QString;" });
+		long flags= JavaElementLabels.ALL_DEFAULT | JavaElementLabels.M_APP_RETURNTYPE;
+		assertExpectedLabel(foo, "foo(String) : int", flags);
+		assertExpectedLabel(foo, "foo(String) : int", flags);
+
+		// the returned styled labels are copies of the cached ones
+		JavaElementLabels.getStyledElementLabel(foo, flags).append(" (modified)");
+		assertEqualString(JavaElementLabels.getStyledElementLabel(foo, flags).getString(), "foo(String) : int");
+
+		cu.getBuffer().setContents("package org.test;\npublic class Cached {\n    public long foo(String s) { return 0; }\n}\n");
+		cu.save(null, true);
+		assertExpectedLabel(foo, "foo(String) : long", flags);
+		assertEqualString(JavaElementLabels.getStyledElementLabel(foo, flags).getString(), "foo(String) : long");
+
+		IPreferenceStore store= PreferenceConstants.getPreferenceStore();
+		store.setValue(PreferenceConstants.APPEARANCE_COMPRESS_PACKAGE_NAMES, true);
+		store.setValue(PreferenceConstants.APPEARANCE_PKG_NAME_PATTERN_FOR_PKG_VIEW, "1~.");
+		try {
+			assertExpectedLabel(pack1, "o~.test", JavaElementLabels.P_COMPRESSED);
+		} finally {
+			store.setToDefault(PreferenceConstants.APPEARANCE_PKG_NAME_PATTERN_FOR_PKG_VIEW);
+			store.setValue(PreferenceConstants.APPEARANCE_COMPRESS_PACKAGE_NAMES, false);
+		}
+		assertExpectedLabel(pack1, "org.test", JavaElementLabels.P_COMPRESSED);
+	}
 }
@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.jdt.testplugin.util.DisplayHelper;
+
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IMarkerDelta;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceDelta;
+
+import org.eclipse.jface.viewers.ILabelProviderListener;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
+import org.eclipse.jdt.ui.JavaElementImageDescriptor;
+import org.eclipse.jdt.ui.ProblemsLabelDecorator;
+import org.eclipse.jdt.ui.ProblemsLabelDecorator.ProblemsLabelChangedEvent;
+
+import org.eclipse.jdt.internal.ui.util.CoreUtility;
+import org.eclipse.jdt.internal.ui.viewsupport.IProblemChangedListener;
+import org.eclipse.jdt.internal.ui.viewsupport.ProblemMarkerManager;
+
+/**
+ * Tests the notifications and the cached severities of the {@link ProblemMarkerManager} and the
+ * error ticks of the {@link ProblemsLabelDecorator}.
+ */
+public class ProblemMarkerManagerTest {
+
+	private static final class TestDecorator extends ProblemsLabelDecorator {
+
+		@Override
+		public int computeAdornmentFlags(Object obj) {
+			return super.computeAdornmentFlags(obj);
+		}
+	}
+
+	private static final class BuildEvent implements IResourceChangeEvent {
+
+		private final int fType;
+
+		BuildEvent(int type) {
+			fType= type;
+		}
+
+		@Override
+		public IMarkerDelta[] findMarkerDeltas(String type, boolean includeSubtypes) {
+			return new IMarkerDelta[0];
+		}
+
+		@Override
+		public int getBuildKind() {
+			return 0;
+		}
+
+		@Override
+		public IResourceDelta getDelta() {
+			return null;
+		}
+
+		@Override
+		public IResource getResource() {
+			return null;
+		}
+
+		@Override
+		public Object getSource() {
+			return this;
+		}
+
+		@Override
+		public int getType() {
+			return fType;
+		}
+	}
+
+	private IJavaProject fJProject;
+
+	private IPackageFragment fPackage;
+
+	private ICompilationUnit fUnit;
+
+	private boolean fAutoBuilding;
+
+	private final Set<IResource> fChanged= ConcurrentHashMap.newKeySet();
+
+	private final IProblemChangedListener fListener= (changedResources, isMarkerChange) -> {
+		if (isMarkerChange)
+			fChanged.addAll(Arrays.asList(changedResources));
+	};
+
+	@Before
+	public void setUp() throws Exception {
+		// only the markers created by the tests
+		fAutoBuilding= CoreUtility.setAutoBuilding(false);
+		fJProject= JavaProjectHelper.createJavaProject("TestProject", "bin");
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fJProject, "src");
+		fPackage= root.createPackageFragment("pack", true, null);
+		fUnit= fPackage.createCompilationUnit("A.java", "package pack;\npublic class A {\n}\n", true, null);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		JavaProjectHelper.delete(fJProject);
+		CoreUtility.setAutoBuilding(fAutoBuilding);
+	}
+
+	private IMarker createProblem(int severity) throws CoreException {
+		IMarker marker= fUnit.getResource().createMarker(IMarker.PROBLEM);
+		marker.setAttribute(IMarker.SEVERITY, severity);
+		return marker;
+	}
+
+	private void waitForChanges(IResource... resources) {
+		boolean notified= new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return fChanged.containsAll(Arrays.asList(resources));
+			}
+		}.waitForCondition(Display.getCurrent(), 10 * 1000, 50);
+		assertTrue("Missing notification, got " + fChanged, notified);
+	}
+
+	@Test
+	public void testMarkerAddedAndRemoved() throws Exception {
+		ProblemMarkerManager manager= new ProblemMarkerManager();
+		manager.addListener(fListener);
+		try {
+			IResource file= fUnit.getResource();
+			IResource project= fJProject.getProject();
+			assertEquals(-1, manager.findMaxProblemSeverity(project));
+
+			IMarker marker= createProblem(IMarker.SEVERITY_ERROR);
+			waitForChanges(file, fPackage.getResource(), project);
+			assertEquals(IMarker.SEVERITY_ERROR, manager.findMaxProblemSeverity(file));
+			assertEquals(IMarker.SEVERITY_ERROR, manager.findMaxProblemSeverity(project));
+
+			fChanged.clear();
+			marker.delete();
+			waitForChanges(file, fPackage.getResource(), project);
+			assertEquals(-1, manager.findMaxProblemSeverity(file));
+			assertEquals(-1, manager.findMaxProblemSeverity(project));
+		} finally {
+			manager.removeListener(fListener);
+		}
+	}
+
+	@Test
+	public void testSeverityChangedDuringBuild() throws Exception {
+		ProblemMarkerManager manager= new ProblemMarkerManager();
+		manager.addListener(fListener);
+		try {
+			IResource file= fUnit.getResource();
+			IResource project= fJProject.getProject();
+			IMarker marker= createProblem(IMarker.SEVERITY_ERROR);
+			waitForChanges(file, project);
+			assertEquals(IMarker.SEVERITY_ERROR, manager.findMaxProblemSeverity(project));
+
+			fChanged.clear();
+			manager.resourceChanged(new BuildEvent(IResourceChangeEvent.PRE_BUILD));
+			marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
+			// the cache is updated right away, the listeners after the build
+			assertEquals(IMarker.SEVERITY_WARNING, manager.findMaxProblemSeverity(project));
+			DisplayHelper.sleep(Display.getCurrent(), 500);
+			assertTrue("Notified during the build: " + fChanged, fChanged.isEmpty());
+
+			manager.resourceChanged(new BuildEvent(IResourceChangeEvent.POST_BUILD));
+			waitForChanges(file, fPackage.getResource(), project);
+			assertEquals(IMarker.SEVERITY_WARNING, manager.findMaxProblemSeverity(file));
+		} finally {
+			manager.removeListener(fListener);
+		}
+	}
+
+	@Test
+	public void testDecoratorRefreshesParents() throws Exception {
+		TestDecorator decorator= new TestDecorator();
+		Set<Object> refreshed= ConcurrentHashMap.newKeySet();
+		ILabelProviderListener listener= event -> {
+			if (event instanceof ProblemsLabelChangedEvent && ((ProblemsLabelChangedEvent) event).isMarkerChange())
+				refreshed.addAll(Arrays.asList(event.getElements()));
+		};
+		decorator.addListener(listener);
+		try {
+			assertEquals(0, decorator.computeAdornmentFlags(fUnit));
+			assertEquals(0, decorator.computeAdornmentFlags(fPackage));
+
+			IMarker marker= createProblem(IMarker.SEVERITY_ERROR);
+			IResource[] expected= { fUnit.getResource(), fPackage.getResource(), fPackage.getParent().getResource(), fJProject.getProject() };
+			boolean notified= new DisplayHelper() {
+				@Override
+				protected boolean condition() {
+					return refreshed.containsAll(Arrays.asList(expected));
+				}
+			}.waitForCondition(Display.getCurrent(), 10 * 1000, 50);
+			assertTrue("Parents not refreshed, got " + refreshed, notified);
+			assertEquals(JavaElementImageDescriptor.ERROR, decorator.computeAdornmentFlags(fUnit));
+			assertEquals(JavaElementImageDescriptor.ERROR, decorator.computeAdornmentFlags(fPackage));
+
+			marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
+			assertEquals(JavaElementImageDescriptor.WARNING, decorator.computeAdornmentFlags(fUnit));
+			assertEquals(JavaElementImageDescriptor.WARNING, decorator.computeAdornmentFlags(fPackage));
+
+			marker.delete();
+			assertEquals(0, decorator.computeAdornmentFlags(fUnit));
+			assertEquals(0, decorator.computeAdornmentFlags(fPackage));
+		} finally {
+			decorator.removeListener(listener);
+			decorator.dispose();
+		}
+	}
+}
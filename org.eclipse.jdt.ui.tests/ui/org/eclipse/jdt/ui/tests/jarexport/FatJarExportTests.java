@@ -81,6 +81,7 @@ import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaCore;
 
 import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
+import org.eclipse.jdt.internal.jarpackager.PipelinedJarOutputStream;
 
 import org.eclipse.jdt.launching.IJavaLaunchConfigurationConstants;
 import org.eclipse.jdt.launching.IVMInstall;
@@ -869,6 +870,31 @@ public class FatJarExportTests {
 		}
 	}
 
+	@Test
+	public void exportInternalLib_Pipelined() throws Exception {
+		File lib= JavaTestPlugin.getDefault().getFileInPlugin(JavaProjectHelper.MYLIB_STDOUT);
+		IPackageFragmentRoot root= JavaProjectHelper.addLibraryWithImport(fProject, Path.fromOSString(lib.getPath()), null, null);
+
+		String workers= System.getProperty(PipelinedJarOutputStream.WORKERS_PROPERTY);
+		System.setProperty(PipelinedJarOutputStream.WORKERS_PROPERTY, "4"); //$NON-NLS-1$
+		try {
+			// library entries are copied raw
+			createAndRunFatJar(fProject, getName(), true, new ExtractLibraryHandler());
+
+			// library entries are inflated and stored
+			createAndRunFatJar(fProject, getName() + "_Uncompressed", false, new ExtractLibraryHandler()); //$NON-NLS-1$
+
+			// Jar-in-Jar loader
+			createAndRunFatJar(fProject, getName() + "_JiJ", true, new PackageLibraryHandler()); //$NON-NLS-1$
+		} finally {
+			if (workers != null)
+				System.setProperty(PipelinedJarOutputStream.WORKERS_PROPERTY, workers);
+			else
+				System.clearProperty(PipelinedJarOutputStream.WORKERS_PROPERTY);
+			JavaProjectHelper.removeFromClasspath(fProject, root.getPath());
+		}
+	}
+
 	@Test
 	public void exportExternalLib() throws Exception {
 		File lib= JavaTestPlugin.getDefault().getFileInPlugin(JavaProjectHelper.MYLIB_STDOUT);
@@ -4128,6 +4128,53 @@ public class CleanUpTest1d8 extends CleanUpTestCase {
 				new HashSet<>(Arrays.asList(FixMessages.Java50Fix_ConvertToEnhancedForLoop_description)));
 	}
 
+	@Test
+	public void testWhileAndStandardComparison() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		String sample= "" //
+				+ "package test1;\n" //
+				+ "import java.util.*;\n" //
+				+ "public class Test {\n" //
+				+ "    void m(List<String> strings) {\n" //
+				+ "        Iterator it = strings.iterator();\n" //
+				+ "        while (it.hasNext()) {\n" //
+				+ "            String s = (String) it.next();\n" //
+				+ "            if (s.compareTo(\"a\") == -1) {\n" //
+				+ "                System.out.println(s);\n" //
+				+ "            }\n" //
+				+ "        }\n" //
+				+ "        if (strings.get(0).compareTo(\"b\") != 1) {\n" //
+				+ "            System.out.println();\n" //
+				+ "        }\n" //
+				+ "    }\n" //
+				+ "}\n";
+		ICompilationUnit cu1= pack1.createCompilationUnit("Test.java", sample, false, null);
+
+		// both clean ups find their operations in the same traversal of the AST
+		enable(CleanUpConstants.CONTROL_STATEMENTS_CONVERT_FOR_LOOP_TO_ENHANCED);
+		enable(CleanUpConstants.STANDARD_COMPARISON);
+
+		sample= "" //
+				+ "package test1;\n" //
+				+ "import java.util.*;\n" //
+				+ "public class Test {\n" //
+				+ "    void m(List<String> strings) {\n" //
+				+ "        for (String s : strings) {\n" //
+				+ "            if (s.compareTo(\"a\") < 0) {\n" //
+				+ "                System.out.println(s);\n" //
+				+ "            }\n" //
+				+ "        }\n" //
+				+ "        if (strings.get(0).compareTo(\"b\") <= 0) {\n" //
+				+ "            System.out.println();\n" //
+				+ "        }\n" //
+				+ "    }\n" //
+				+ "}\n";
+		String expected1= sample;
+
+		assertRefactoringResultAsExpected(new ICompilationUnit[] { cu1 }, new String[] { expected1 },
+				new HashSet<>(Arrays.asList(FixMessages.Java50Fix_ConvertToEnhancedForLoop_description, MultiFixMessages.StandardComparisonCleanUp_description)));
+	}
+
 	@Test
 	public void testWhileNested() throws Exception {
 		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
@@ -14,11 +14,21 @@
 package org.eclipse.jdt.internal.corext.fix;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.eclipse.swt.widgets.Display;
 
@@ -27,6 +37,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.ProgressMonitorWrapper;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
@@ -69,6 +80,7 @@ import org.eclipse.jdt.core.dom.ASTRequestor;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.refactoring.CompilationUnitChange;
 
+import org.eclipse.jdt.internal.common.FusedHelperVisitor;
 import org.eclipse.jdt.internal.core.manipulation.util.BasicElementLabels;
 import org.eclipse.jdt.internal.corext.dom.ASTBatchParser;
 import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
@@ -88,6 +100,8 @@ import org.eclipse.jdt.ui.text.java.IProblemLocation;
 
 import org.eclipse.jdt.internal.ui.IJavaStatusConstants;
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.fix.AbstractCleanUp;
+import org.eclipse.jdt.internal.ui.fix.AbstractCleanUpCoreWrapper;
 import org.eclipse.jdt.internal.ui.fix.IMultiFix.MultiFixContext;
 import org.eclipse.jdt.internal.ui.fix.MapCleanUpOptions;
 import org.eclipse.jdt.internal.ui.refactoring.IScheduledRefactoring;
@@ -208,12 +222,18 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		private int fFlushCount;
 		private final int fSize;
 		private final int fIndex;
+		private final int fWorker;
 
 		private CleanUpRefactoringProgressMonitor(IProgressMonitor monitor, int ticks, int size, int index) {
+			this(monitor, ticks, size, index, 0);
+		}
+
+		private CleanUpRefactoringProgressMonitor(IProgressMonitor monitor, int ticks, int size, int index, int worker) {
 			super(monitor, ticks);
 			fFlushCount= 0;
 			fSize= size;
 			fIndex= index;
+			fWorker= worker;
 		}
 
 		@Override
@@ -238,12 +258,72 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 			return fIndex + fFlushCount;
 		}
 
+		public int getFlushCount() {
+			return fFlushCount;
+		}
+
 		public String getSubTaskMessage(ICompilationUnit source) {
 			String typeName= BasicElementLabels.getFileName(source);
+			if (fWorker > 0)
+				return Messages.format(FixMessages.CleanUpRefactoring_ProcessingCompilationUnit_worker_message, new Object[] {Integer.valueOf(fWorker), Integer.valueOf(getIndex()), Integer.valueOf(fSize), typeName});
+
 			return Messages.format(FixMessages.CleanUpRefactoring_ProcessingCompilationUnit_message, new Object[] {Integer.valueOf(getIndex()), Integer.valueOf(fSize), typeName});
 		}
 	}
 
+	/**
+	 * Serializes the access of concurrent workers to a shared progress monitor. It is canceled
+	 * when the wrapped monitor is canceled or when one of the workers failed.
+	 */
+	private final static class SynchronizedProgressMonitor extends ProgressMonitorWrapper {
+
+		private volatile boolean fCanceled;
+
+		private SynchronizedProgressMonitor(IProgressMonitor monitor) {
+			super(monitor);
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return fCanceled || super.isCanceled();
+		}
+
+		@Override
+		public void setCanceled(boolean canceled) {
+			fCanceled= canceled;
+		}
+
+		@Override
+		public synchronized void beginTask(String name, int totalWork) {
+			super.beginTask(name, totalWork);
+		}
+
+		@Override
+		public synchronized void done() {
+			super.done();
+		}
+
+		@Override
+		public synchronized void internalWorked(double work) {
+			super.internalWorked(work);
+		}
+
+		@Override
+		public synchronized void setTaskName(String name) {
+			super.setTaskName(name);
+		}
+
+		@Override
+		public synchronized void subTask(String name) {
+			super.subTask(name);
+		}
+
+		@Override
+		public synchronized void worked(int work) {
+			super.worked(work);
+		}
+	}
+
 	private static class CleanUpASTRequestor extends ASTRequestor {
 
 		private final List<ParseListElement> fUndoneElements;
@@ -329,9 +409,13 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		private final Hashtable<ICompilationUnit, ICompilationUnit> fWorkingCopies; // map from primary to working copy
 		private final Map<String, String> fCleanUpOptions;
 		private final int fSize;
+		private final int fWorkerCount;
 		private int fIndex;
 
-		public CleanUpFixpointIterator(CleanUpTarget[] targets, ICleanUp[] cleanUps) {
+		/** Number of the last worker thread created for this iterator */
+		private final AtomicInteger fThreadCount= new AtomicInteger();
+
+		public CleanUpFixpointIterator(CleanUpTarget[] targets, ICleanUp[] cleanUps, int workerCount) {
 			fSolutions= new Hashtable<>(targets.length);
 			fWorkingCopies= new Hashtable<>();
 
@@ -348,6 +432,7 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 			}
 
 			fSize= targets.length;
+			fWorkerCount= canCreateFixesConcurrently(cleanUps) ? workerCount : 1;
 			fIndex= 1;
 		}
 
@@ -379,24 +464,20 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 					}
 				}
 
+				List<ParseListElement> undoneElements= new ArrayList<>();
+				int workerCount= Math.min(fWorkerCount, parseList.size());
+				if (workerCount > 1) {
+					ICompilationUnit[] units= parseList.toArray(new ICompilationUnit[parseList.size()]);
+					undoneElements.addAll(calculateSolutionsConcurrently(units, workerCount, monitor));
+					parseList.clear();
+				}
+
 				CleanUpRefactoringProgressMonitor cuMonitor= new CleanUpRefactoringProgressMonitor(monitor, parseList.size() + sourceList.size(), fSize, fIndex);
 				CleanUpASTRequestor requestor= new CleanUpASTRequestor(fParseList, fSolutions, cuMonitor);
 				if (parseList.size() > 0) {
-					ASTBatchParser parser= new ASTBatchParser() {
-						@Override
-						protected ASTParser createParser(IJavaProject project) {
-							ASTParser result= createCleanUpASTParser();
-							result.setProject(project);
-
-							Map<String, String> options= RefactoringASTParser.getCompilerOptions(project);
-							options.putAll(fCleanUpOptions);
-							result.setCompilerOptions(options);
-							return result;
-						}
-					};
 					try {
 						ICompilationUnit[] units= parseList.toArray(new ICompilationUnit[parseList.size()]);
-						parser.createASTs(units, new String[0], requestor, cuMonitor);
+						createBatchParser().createASTs(units, new String[0], requestor, cuMonitor);
 					} catch (FixCalculationException e) {
 						throw e.getException();
 					}
@@ -411,12 +492,117 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 						throw new OperationCanceledException();
 				}
 
-				fParseList= requestor.getUndoneElements();
+				undoneElements.addAll(requestor.getUndoneElements());
+				fParseList= undoneElements;
 				fIndex= cuMonitor.getIndex();
 			} finally {
 			}
 		}
 
+		/**
+		 * Partitions the given compilation units into <code>workerCount</code> chunks and creates
+		 * the ASTs and fixes of each chunk on its own worker thread. The solutions are collected
+		 * in the shared solution table, the changes are assembled later by {@link #getResult()}.
+		 *
+		 * @param units the compilation units to create ASTs for, in the same project
+		 * @param workerCount the number of workers, at least 2
+		 * @param monitor the progress monitor
+		 * @return the elements which have clean ups left to be applied on a fresh AST
+		 * @throws CoreException if a fix could not be calculated
+		 */
+		private List<ParseListElement> calculateSolutionsConcurrently(ICompilationUnit[] units, int workerCount, IProgressMonitor monitor) throws CoreException {
+			SynchronizedProgressMonitor workersMonitor= new SynchronizedProgressMonitor(new SubProgressMonitor(monitor, units.length));
+			workersMonitor.beginTask("", units.length); //$NON-NLS-1$
+
+			CleanUpRefactoringProgressMonitor[] workerMonitors= new CleanUpRefactoringProgressMonitor[workerCount];
+			CleanUpASTRequestor[] requestors= new CleanUpASTRequestor[workerCount];
+			List<Future<?>> futures= new ArrayList<>(workerCount);
+			ExecutorService executor= Executors.newFixedThreadPool(workerCount, createThreadFactory());
+			boolean done= false;
+			try {
+				int chunkSize= (units.length + workerCount - 1) / workerCount;
+				for (int i= 0; i < workerCount; i++) {
+					int start= i * chunkSize;
+					int end= Math.min(start + chunkSize, units.length);
+					if (start >= end)
+						break;
+
+					ICompilationUnit[] chunk= new ICompilationUnit[end - start];
+					System.arraycopy(units, start, chunk, 0, chunk.length);
+
+					CleanUpRefactoringProgressMonitor workerMonitor= new CleanUpRefactoringProgressMonitor(workersMonitor, chunk.length, fSize, fIndex + start, i + 1);
+					CleanUpASTRequestor requestor= new CleanUpASTRequestor(fParseList, fSolutions, workerMonitor);
+					workerMonitors[i]= workerMonitor;
+					requestors[i]= requestor;
+					futures.add(executor.submit(() -> createBatchParser().createASTs(chunk, new String[0], requestor, workerMonitor)));
+				}
+
+				for (Future<?> future : futures) {
+					try {
+						future.get();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new OperationCanceledException();
+					} catch (ExecutionException e) {
+						Throwable cause= e.getCause();
+						if (cause instanceof FixCalculationException)
+							throw ((FixCalculationException)cause).getException();
+						if (cause instanceof RuntimeException)
+							throw (RuntimeException)cause;
+						if (cause instanceof Error)
+							throw (Error)cause;
+						throw new CoreException(new Status(IStatus.ERROR, JavaPlugin.getPluginId(), IJavaStatusConstants.INTERNAL_ERROR, cause.getMessage(), cause));
+					}
+				}
+				done= true;
+			} finally {
+				if (!done) {
+					// stop the other workers, they poll the canceled monitor
+					workersMonitor.setCanceled(true);
+				}
+				executor.shutdown();
+				try {
+					// the workers must not use the working copies any more when they are disposed
+					while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+						// wait until the workers noticed the cancellation
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				workersMonitor.done();
+			}
+
+			List<ParseListElement> result= new ArrayList<>();
+			for (int i= 0; i < futures.size(); i++) {
+				result.addAll(requestors[i].getUndoneElements());
+				fIndex+= workerMonitors[i].getFlushCount();
+			}
+			return result;
+		}
+
+		private ThreadFactory createThreadFactory() {
+			return runnable -> {
+				Thread thread= new Thread(runnable, "Clean Up Worker " + fThreadCount.incrementAndGet()); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			};
+		}
+
+		private ASTBatchParser createBatchParser() {
+			return new ASTBatchParser() {
+				@Override
+				protected ASTParser createParser(IJavaProject project) {
+					ASTParser result= createCleanUpASTParser();
+					result.setProject(project);
+
+					Map<String, String> options= RefactoringASTParser.getCompilerOptions(project);
+					options.putAll(fCleanUpOptions);
+					result.setCompilerOptions(options);
+					return result;
+				}
+			};
+		}
+
 		public void dispose() {
 			for (ICompilationUnit cu : fWorkingCopies.values()) {
 				try {
@@ -508,6 +694,7 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 	private final String fName;
 
 	private boolean fUseOptionsFromProfile;
+	private int fWorkerCount;
 
 	public CleanUpRefactoring() {
 		this(FixMessages.CleanUpRefactoring_Refactoring_name);
@@ -518,12 +705,31 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		fCleanUps= new ArrayList<>();
 		fProjects= new Hashtable<>();
 		fUseOptionsFromProfile= false;
+		fWorkerCount= JavaPlugin.getDefault().getPreferenceStore().getInt(CleanUpConstants.CLEANUP_PARALLEL_WORKERS);
 	}
 
 	public void setUseOptionsFromProfile(boolean enabled) {
 		fUseOptionsFromProfile= enabled;
 	}
 
+	/**
+	 * Sets the number of workers used to compute the fixes of each project.
+	 *
+	 * @param workerCount the number of workers, <code>0</code> to use one worker per available
+	 *            processor, <code>1</code> to compute all fixes on the calling thread
+	 * @see CleanUpConstants#CLEANUP_PARALLEL_WORKERS
+	 */
+	public void setWorkerCount(int workerCount) {
+		fWorkerCount= workerCount;
+	}
+
+	public int getWorkerCount() {
+		if (fWorkerCount <= 0)
+			return Runtime.getRuntime().availableProcessors();
+
+		return fWorkerCount;
+	}
+
 	public void addCompilationUnit(ICompilationUnit unit) {
 		addCleanUpTarget(new CleanUpTarget(unit));
 	}
@@ -672,7 +878,7 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 	}
 
 	private Change[] cleanUpProject(IJavaProject project, CleanUpTarget[] targets, ICleanUp[] cleanUps, IProgressMonitor monitor) throws CoreException {
-		CleanUpFixpointIterator iter= new CleanUpFixpointIterator(targets, cleanUps);
+		CleanUpFixpointIterator iter= new CleanUpFixpointIterator(targets, cleanUps, getWorkerCount());
 
 		SubProgressMonitor subMonitor= new SubProgressMonitor(monitor, 2 * targets.length * cleanUps.length);
 		subMonitor.beginTask("", targets.length); //$NON-NLS-1$
@@ -758,6 +964,7 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		if (cleanUps.length == 0)
 			return null;
 
+		Map<ICleanUp, Supplier<ICleanUpFix>> fusedFixes= createFusedFixes(context, cleanUps);
 		CleanUpChange solution= null;
 		int i= 0;
 		do {
@@ -765,11 +972,11 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 			ICleanUpFix fix;
 			if (slowCleanUps != null) {
 				long timeBefore= System.currentTimeMillis();
-				fix= cleanUp.createFix(context);
+				fix= createFix(cleanUp, context, fusedFixes);
 				if (System.currentTimeMillis() - timeBefore > SLOW_CLEAN_UP_THRESHOLD)
 					slowCleanUps.add(cleanUp);
 			} else {
-				fix= cleanUp.createFix(context);
+				fix= createFix(cleanUp, context, fusedFixes);
 			}
 			if (fix != null) {
 				CompilationUnitChange current= fix.createChange(null);
@@ -803,6 +1010,59 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		return solution;
 	}
 
+	/**
+	 * Finds the operations of all clean ups which will be run on the AST of the context and which
+	 * find them with HelperVisitors, in one traversal of the AST.
+	 *
+	 * @param context the context
+	 * @param cleanUps the clean ups, in the order they are run
+	 * @return the fixes by clean up, only for the clean ups registered in the traversal
+	 * @throws CoreException if a clean up cannot be applied
+	 * @see AbstractCleanUpCoreWrapper#registerVisitors(CleanUpContext, FusedHelperVisitor)
+	 */
+	private static Map<ICleanUp, Supplier<ICleanUpFix>> createFusedFixes(CleanUpContext context, ICleanUp[] cleanUps) throws CoreException {
+		CompilationUnit ast= context.getAST();
+		if (ast == null)
+			return Collections.emptyMap();
+
+		Map<ICleanUp, Supplier<ICleanUpFix>> result= new HashMap<>();
+		FusedHelperVisitor fusedVisitor= new FusedHelperVisitor();
+		// the same clean ups as calculateChange runs before a fresh AST is required
+		for (int i= 0; i < cleanUps.length && (i == 0 || !cleanUps[i].getRequirements().requiresFreshAST()); i++) {
+			if (cleanUps[i] instanceof AbstractCleanUpCoreWrapper) {
+				Supplier<ICleanUpFix> fix= ((AbstractCleanUpCoreWrapper<?>) cleanUps[i]).registerVisitors(context, fusedVisitor);
+				if (fix != null)
+					result.put(cleanUps[i], fix);
+			}
+		}
+		fusedVisitor.build(ast);
+		return result;
+	}
+
+	private static ICleanUpFix createFix(ICleanUp cleanUp, CleanUpContext context, Map<ICleanUp, Supplier<ICleanUpFix>> fusedFixes) throws CoreException {
+		Supplier<ICleanUpFix> fusedFix= fusedFixes.get(cleanUp);
+		if (fusedFix != null)
+			return fusedFix.get();
+		return cleanUp.createFix(context);
+	}
+
+	/**
+	 * Tells whether the fixes of all given clean ups can be created concurrently for different
+	 * compilation units. Clean ups are not required to be thread safe, only those declaring it
+	 * are run by more than one worker.
+	 *
+	 * @param cleanUps the clean ups
+	 * @return <code>true</code> if all clean ups can create fixes concurrently
+	 * @see AbstractCleanUp#canCreateFixesConcurrently()
+	 */
+	private static boolean canCreateFixesConcurrently(ICleanUp[] cleanUps) {
+		for (ICleanUp cleanUp : cleanUps) {
+			if (!(cleanUp instanceof AbstractCleanUp) || !((AbstractCleanUp)cleanUp).canCreateFixesConcurrently())
+				return false;
+		}
+		return true;
+	}
+
 	private static void copyChangeGroups(CompilationUnitChange target, CompilationUnitChange source) {
 		for (TextEditBasedChangeGroup changeGroup : source.getChangeGroups()) {
 			TextEditGroup textEditGroup= changeGroup.getTextEditGroup();
@@ -13,7 +13,11 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.corext.fix;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 
 import org.eclipse.text.edits.MultiTextEdit;
 import org.eclipse.text.edits.TextEdit;
@@ -22,8 +26,10 @@ import org.eclipse.ltk.core.refactoring.RefactoringStatus;
 
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.manipulation.OrganizeImportsBatchOperation;
 import org.eclipse.jdt.core.manipulation.OrganizeImportsOperation;
 import org.eclipse.jdt.core.manipulation.OrganizeImportsOperation.IChooseImportQuery;
+import org.eclipse.jdt.core.manipulation.OrganizeImportsOperation.TypeNameResolver;
 import org.eclipse.jdt.core.search.TypeNameMatch;
 
 import org.eclipse.jdt.internal.corext.codemanipulation.CodeGenerationSettings;
@@ -37,6 +43,22 @@ import org.eclipse.jdt.internal.core.manipulation.util.BasicElementLabels;
 public class ImportsFix extends TextEditFix {
 
 	public static ICleanUpFix createCleanUp(final CompilationUnit cu, CodeGenerationSettings settings, boolean organizeImports, RefactoringStatus status) throws CoreException {
+		return createCleanUp(cu, settings, organizeImports, null, status);
+	}
+
+	/**
+	 * Creates the fix organizing the imports of a compilation unit.
+	 *
+	 * @param cu the AST of the compilation unit
+	 * @param settings the code generation settings
+	 * @param organizeImports whether to organize the imports
+	 * @param typeNameResolver the resolver shared with the fixes of other compilation units, or
+	 *            <code>null</code> to search the unresolved types of this unit only
+	 * @param status the status to add problems to
+	 * @return the fix or <code>null</code> if there is nothing to do
+	 * @throws CoreException if the imports cannot be organized
+	 */
+	public static ICleanUpFix createCleanUp(final CompilationUnit cu, CodeGenerationSettings settings, boolean organizeImports, TypeNameResolver typeNameResolver, RefactoringStatus status) throws CoreException {
 		if (!organizeImports)
 			return null;
 
@@ -48,6 +70,7 @@ public class ImportsFix extends TextEditFix {
 
 		final ICompilationUnit unit= (ICompilationUnit)cu.getJavaElement();
 		OrganizeImportsOperation op= new OrganizeImportsOperation(unit, cu, settings.importIgnoreLowercase, false, false, query);
+		op.setTypeNameResolver(typeNameResolver);
 		final TextEdit edit= op.createTextEdit(null);
 		if (hasAmbiguity[0]) {
 			status.addInfo(Messages.format(ActionMessages.OrganizeImportsAction_multi_error_unresolvable, getLocationString(cu)));
@@ -64,8 +87,49 @@ public class ImportsFix extends TextEditFix {
 		return new ImportsFix(edit, unit, FixMessages.ImportsFix_OrganizeImports_Description);
     }
 
+	/**
+	 * Creates the fixes organizing the imports of many compilation units with one
+	 * {@link OrganizeImportsBatchOperation}.
+	 *
+	 * @param units the compilation units
+	 * @param settings the code generation settings
+	 * @param status the status to add problems to
+	 * @param monitor the progress monitor
+	 * @return the fixes in the order of the units, <code>null</code> entries if there is nothing to
+	 *         do
+	 * @throws CoreException if the imports cannot be organized
+	 */
+	public static ICleanUpFix[] createCleanUps(ICompilationUnit[] units, CodeGenerationSettings settings, RefactoringStatus status, IProgressMonitor monitor) throws CoreException {
+		Set<ICompilationUnit> ambiguous= ConcurrentHashMap.newKeySet();
+		OrganizeImportsBatchOperation op= OrganizeImportsBatchOperation.createWithQueries(units, settings.importIgnoreLowercase, false, false, unit -> (openChoices, ranges) -> {
+			ambiguous.add(unit);
+			return new TypeNameMatch[0];
+		});
+		TextEdit[] edits= op.createTextEdits(monitor);
+		OrganizeImportsOperation[] operations= op.getOperations();
+
+		ICleanUpFix[] fixes= new ICleanUpFix[units.length];
+		for (int i= 0; i < units.length; i++) {
+			if (ambiguous.contains(units[i])) {
+				status.addInfo(Messages.format(ActionMessages.OrganizeImportsAction_multi_error_unresolvable, getLocationString(units[i])));
+			}
+			if (operations[i].getParseError() != null) {
+				status.addInfo(Messages.format(ActionMessages.OrganizeImportsAction_multi_error_parse, getLocationString(units[i])));
+				continue;
+			}
+			TextEdit edit= edits[i];
+			if (edit != null && !(edit instanceof MultiTextEdit && edit.getChildrenSize() == 0))
+				fixes[i]= new ImportsFix(edit, units[i], FixMessages.ImportsFix_OrganizeImports_Description);
+		}
+		return fixes;
+	}
+
 	private static String getLocationString(final CompilationUnit cu) {
-		return BasicElementLabels.getPathLabel(cu.getJavaElement().getPath(), false);
+		return getLocationString((ICompilationUnit) cu.getJavaElement());
+	}
+
+	private static String getLocationString(ICompilationUnit unit) {
+		return BasicElementLabels.getPathLabel(unit.getPath(), false);
 	}
 
 	public ImportsFix(TextEdit edit, ICompilationUnit unit, String description) {
@@ -0,0 +1,578 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.WorkingCopyOwner;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.TypeNameMatch;
+import org.eclipse.jdt.core.search.TypeNameMatchRequestor;
+
+import org.eclipse.jdt.internal.corext.CorextMessages;
+
+/**
+ * A snapshot of the names of all types in the workspace, used by the open type dialogs to match
+ * the filter patterns in memory instead of querying the search engine for every pattern.
+ * <p>
+ * The snapshot is built by a background job the first time it is requested and is kept up to
+ * date afterwards: changed compilation units are re-read from the Java model and override their
+ * entries of the snapshot, changes of class paths, archives and packages rebuild the snapshot in
+ * the background. While no snapshot is available the clients fall back to the search engine.
+ * </p>
+ * <p>
+ * The entries are sorted by their lower case simple names, so patterns with a literal prefix only
+ * look at the range of names starting with it. For camel case patterns every entry also keeps the
+ * upper case letters of its name, which rejects most names without running the camel case matcher.
+ * </p>
+ *
+ * @since 3.27
+ */
+public final class TypeNameCache {
+
+	private static final class Entry implements Comparable<Entry> {
+
+		final TypeNameMatch fMatch;
+
+		/** The simple name in lower case */
+		final String fName;
+
+		/** The upper case letters of the simple name, without the first character */
+		final String fCamelCaseParts;
+
+		/** The primary compilation unit declaring the type, <code>null</code> for binary types */
+		final ICompilationUnit fUnit;
+
+		Entry(TypeNameMatch match) {
+			String name= match.getSimpleTypeName();
+			fMatch= match;
+			fName= toLowerCase(name);
+			fCamelCaseParts= getCamelCaseParts(name);
+			ICompilationUnit unit= match.getType().getCompilationUnit();
+			fUnit= unit == null ? null : unit.getPrimary();
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			return fName.compareTo(other.fName);
+		}
+	}
+
+	private static final class Snapshot {
+
+		/** The types of the workspace when the snapshot has been built, sorted by name */
+		final Entry[] fEntries;
+
+		/** The current types of the compilation units that changed since then */
+		final Map<ICompilationUnit, Entry[]> fChangedUnits;
+
+		Snapshot(Entry[] entries, Map<ICompilationUnit, Entry[]> changedUnits) {
+			fEntries= entries;
+			fChangedUnits= changedUnits;
+		}
+
+		Snapshot withChangedUnits(Map<ICompilationUnit, Entry[]> changedUnits) {
+			Map<ICompilationUnit, Entry[]> merged= new HashMap<>(fChangedUnits);
+			merged.putAll(changedUnits);
+			return new Snapshot(fEntries, merged);
+		}
+
+		/**
+		 * Returns the index of the first entry whose name is not smaller than the given prefix.
+		 *
+		 * @param prefix the lower case prefix
+		 * @return the index of the first candidate
+		 */
+		int getStart(String prefix) {
+			int low= 0;
+			int high= fEntries.length;
+			while (low < high) {
+				int mid= (low + high) >>> 1;
+				if (fEntries[mid].fName.compareTo(prefix) < 0)
+					low= mid + 1;
+				else
+					high= mid;
+			}
+			return low;
+		}
+	}
+
+	private class BuildJob extends Job {
+
+		BuildJob() {
+			super(CorextMessages.TypeNameCache_build_job);
+			setSystem(true);
+			setPriority(Job.DECORATE);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			try {
+				build(monitor);
+			} catch (OperationCanceledException e) {
+				return Status.CANCEL_STATUS;
+			} catch (CoreException e) {
+				return e.getStatus();
+			}
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return FAMILY.equals(family);
+		}
+	}
+
+	private class UpdateJob extends Job {
+
+		UpdateJob() {
+			super(CorextMessages.TypeNameCache_update_job);
+			setSystem(true);
+			setPriority(Job.DECORATE);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			getSnapshot();
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public boolean belongsTo(Object family) {
+			return FAMILY.equals(family);
+		}
+	}
+
+	private class DeltaListener implements IElementChangedListener {
+
+		@Override
+		public void elementChanged(ElementChangedEvent event) {
+			processDelta(event.getDelta());
+		}
+
+		private void processDelta(IJavaElementDelta delta) {
+			IJavaElement element= delta.getElement();
+			int flags= delta.getFlags();
+			boolean isChanged= delta.getKind() == IJavaElementDelta.CHANGED;
+			switch (element.getElementType()) {
+				case IJavaElement.JAVA_MODEL:
+					processChildrenDelta(delta);
+					break;
+				case IJavaElement.JAVA_PROJECT:
+					if (!isChanged || (flags & (IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED
+							| IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED)) != 0) {
+						invalidate();
+					} else {
+						processChildrenDelta(delta);
+					}
+					break;
+				case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+					if (!isChanged || (flags & (IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH
+							| IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED)) != 0) {
+						invalidate();
+					} else {
+						processChildrenDelta(delta);
+					}
+					break;
+				case IJavaElement.PACKAGE_FRAGMENT:
+					// added and removed packages don't report their compilation units
+					if (!isChanged) {
+						invalidate();
+					} else {
+						processChildrenDelta(delta);
+					}
+					break;
+				case IJavaElement.CLASS_FILE:
+					invalidate();
+					break;
+				case IJavaElement.COMPILATION_UNIT:
+					ICompilationUnit unit= (ICompilationUnit) element;
+					// the search engine only knows about primary working copies
+					if (JavaModelUtil.isPrimary(unit) && isTypeChange(delta))
+						unitChanged(unit.getPrimary());
+					break;
+				default:
+					break;
+			}
+		}
+
+		private void processChildrenDelta(IJavaElementDelta delta) {
+			for (IJavaElementDelta child : delta.getAffectedChildren()) {
+				processDelta(child);
+			}
+		}
+
+		private boolean isTypeChange(IJavaElementDelta delta) {
+			if (delta.getKind() != IJavaElementDelta.CHANGED)
+				return true;
+			int flags= delta.getFlags();
+			if ((flags & (IJavaElementDelta.F_PRIMARY_WORKING_COPY | IJavaElementDelta.F_PRIMARY_RESOURCE)) != 0)
+				return true;
+			if ((flags & IJavaElementDelta.F_CONTENT) != 0 && (flags & IJavaElementDelta.F_FINE_GRAINED) == 0)
+				return true;
+			return hasTypeChange(delta);
+		}
+
+		private boolean hasTypeChange(IJavaElementDelta delta) {
+			for (IJavaElementDelta child : delta.getAffectedChildren()) {
+				if (child.getElement().getElementType() != IJavaElement.TYPE)
+					continue;
+				if (child.getKind() != IJavaElementDelta.CHANGED || (child.getFlags() & IJavaElementDelta.F_MODIFIERS) != 0)
+					return true;
+				if (hasTypeChange(child))
+					return true;
+			}
+			return false;
+		}
+	}
+
+	/** The family of the jobs building and updating the snapshot */
+	public static final String FAMILY= TypeNameCache.class.getName();
+
+	/** The number of changed compilation units above which the snapshot is rebuilt */
+	private static final int MAX_CHANGED_UNITS= 1000;
+
+	private static final long REBUILD_DELAY= 1000;
+
+	private static final long UPDATE_DELAY= 500;
+
+	private static final Entry[] NO_ENTRIES= new Entry[0];
+
+	private static TypeNameCache fgInstance;
+
+	private final IElementChangedListener fDeltaListener;
+
+	private final BuildJob fBuildJob;
+
+	private final UpdateJob fUpdateJob;
+
+	/** Serializes the updates of the snapshot with the changed compilation units */
+	private final Object fUpdateLock= new Object();
+
+	/** The current snapshot, <code>null</code> while it is being (re-)built */
+	private volatile Snapshot fSnapshot;
+
+	/** The primary compilation units whose types changed since the last update, guarded by <code>this</code> */
+	private final Set<ICompilationUnit> fPendingUnits= new LinkedHashSet<>();
+
+	/** Incremented whenever the snapshot becomes invalid, guarded by <code>this</code> */
+	private int fGeneration;
+
+	/** Whether the snapshot has been requested, guarded by <code>this</code> */
+	private boolean fActive;
+
+	public static synchronized TypeNameCache getInstance() {
+		if (fgInstance == null)
+			fgInstance= new TypeNameCache();
+		return fgInstance;
+	}
+
+	public static synchronized void shutdown() {
+		if (fgInstance == null)
+			return;
+		fgInstance.doShutdown();
+		fgInstance= null;
+	}
+
+	private TypeNameCache() {
+		fBuildJob= new BuildJob();
+		fUpdateJob= new UpdateJob();
+		fDeltaListener= new DeltaListener();
+		JavaCore.addElementChangedListener(fDeltaListener, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+	}
+
+	private void doShutdown() {
+		JavaCore.removeElementChangedListener(fDeltaListener);
+		fBuildJob.cancel();
+		fUpdateJob.cancel();
+		synchronized (this) {
+			fActive= false;
+			fGeneration++;
+			fSnapshot= null;
+			fPendingUnits.clear();
+		}
+	}
+
+	/**
+	 * Starts building the snapshot in the background unless it is available already. From then on
+	 * the snapshot is kept up to date.
+	 */
+	public synchronized void warmUp() {
+		fActive= true;
+		if (fSnapshot == null && fBuildJob.getState() == Job.NONE)
+			fBuildJob.schedule();
+	}
+
+	/**
+	 * Reports the types matching the given filter to the requestor. The types are reported in the
+	 * order of their simple names ignoring case. Types excluded by the type filter preferences are
+	 * reported as well.
+	 *
+	 * @param filter the filter for the name, package, kind, scope and the filter extension
+	 * @param requestor the requestor
+	 * @param monitor the progress monitor, or <code>null</code>
+	 * @return <code>true</code> if the types have been reported, <code>false</code> if no snapshot
+	 *         is available and the search engine has to be used instead
+	 * @throws OperationCanceledException if the monitor has been canceled
+	 */
+	public boolean searchTypes(TypeInfoFilter filter, TypeNameMatchRequestor requestor, IProgressMonitor monitor) throws OperationCanceledException {
+		warmUp();
+		Snapshot snapshot= getSnapshot();
+		if (snapshot == null)
+			return false;
+		if (monitor == null)
+			monitor= new NullProgressMonitor();
+
+		String prefix= filter.getText().isEmpty() ? "" : getLiteralPrefix(filter.getNamePattern(), filter.getSearchFlags()); //$NON-NLS-1$
+		String camelCaseParts= filter.isCamelCasePattern() ? getCamelCaseParts(filter.getNamePattern()) : null;
+		String lowerCasePattern= camelCaseParts != null ? toLowerCase(filter.getNamePattern()) : null;
+		Map<ICompilationUnit, Entry[]> changedUnits= snapshot.fChangedUnits;
+		Entry[] entries= snapshot.fEntries;
+		for (int i= snapshot.getStart(prefix); i < entries.length; i++) {
+			Entry entry= entries[i];
+			if (!entry.fName.startsWith(prefix))
+				break;
+			if ((i & 0x3ff) == 0 && monitor.isCanceled())
+				throw new OperationCanceledException();
+			if (entry.fUnit != null && !changedUnits.isEmpty() && changedUnits.containsKey(entry.fUnit))
+				continue;
+			if (camelCaseParts != null && !isCamelCaseCandidate(entry, camelCaseParts, lowerCasePattern))
+				continue;
+			if (filter.matchesHistoryElement(entry.fMatch))
+				requestor.acceptTypeNameMatch(entry.fMatch);
+		}
+		for (Entry[] unitEntries : changedUnits.values()) {
+			for (Entry entry : unitEntries) {
+				if (entry.fName.startsWith(prefix) && filter.matchesHistoryElement(entry.fMatch))
+					requestor.acceptTypeNameMatch(entry.fMatch);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the current snapshot after applying the pending changes of compilation units.
+	 *
+	 * @return the snapshot, or <code>null</code> if no snapshot is available
+	 */
+	private Snapshot getSnapshot() {
+		synchronized (fUpdateLock) {
+			ICompilationUnit[] units;
+			int generation;
+			synchronized (this) {
+				if (fSnapshot == null || fPendingUnits.isEmpty())
+					return fSnapshot;
+				units= fPendingUnits.toArray(new ICompilationUnit[fPendingUnits.size()]);
+				fPendingUnits.clear();
+				generation= fGeneration;
+			}
+			// read the units without holding the lock, the delta listener must not wait for the Java model
+			Map<ICompilationUnit, Entry[]> changedUnits= new HashMap<>();
+			for (ICompilationUnit unit : units) {
+				changedUnits.put(unit, getEntries(unit));
+			}
+			synchronized (this) {
+				if (generation != fGeneration || fSnapshot == null)
+					return null;
+				Snapshot snapshot= fSnapshot.withChangedUnits(changedUnits);
+				if (snapshot.fChangedUnits.size() > MAX_CHANGED_UNITS) {
+					// cheaper to rebuild than to keep skipping the outdated entries
+					invalidate();
+					return null;
+				}
+				fSnapshot= snapshot;
+				return snapshot;
+			}
+		}
+	}
+
+	private void build(IProgressMonitor monitor) throws CoreException {
+		int generation;
+		synchronized (this) {
+			if (!fActive || fSnapshot != null)
+				return;
+			generation= fGeneration;
+		}
+		List<Entry> entries= new ArrayList<>();
+		// consider primary working copies like the open type dialog does
+		new SearchEngine((WorkingCopyOwner) null).searchAllTypeNames(
+				null,
+				SearchPattern.R_PREFIX_MATCH,
+				null,
+				SearchPattern.R_PREFIX_MATCH,
+				IJavaSearchConstants.TYPE,
+				SearchEngine.createWorkspaceScope(),
+				new TypeNameMatchRequestor() {
+					@Override
+					public void acceptTypeNameMatch(TypeNameMatch match) {
+						entries.add(new Entry(match));
+					}
+				},
+				IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH,
+				monitor);
+		Entry[] sorted= entries.toArray(new Entry[entries.size()]);
+		Arrays.sort(sorted);
+		synchronized (this) {
+			if (generation == fGeneration) {
+				// units changed while searching are still pending and will override their entries
+				fSnapshot= new Snapshot(sorted, Collections.emptyMap());
+			}
+		}
+	}
+
+	private synchronized void invalidate() {
+		fGeneration++;
+		fSnapshot= null;
+		fPendingUnits.clear();
+		if (fActive) {
+			fBuildJob.cancel();
+			fBuildJob.schedule(REBUILD_DELAY);
+		}
+	}
+
+	private synchronized void unitChanged(ICompilationUnit unit) {
+		if (!fActive)
+			return;
+		fPendingUnits.add(unit);
+		if (fPendingUnits.size() > MAX_CHANGED_UNITS) {
+			invalidate();
+		} else if (fSnapshot != null) {
+			fUpdateJob.schedule(UPDATE_DELAY);
+		}
+	}
+
+	private static Entry[] getEntries(ICompilationUnit unit) {
+		if (!unit.exists())
+			return NO_ENTRIES;
+		List<Entry> entries= new ArrayList<>();
+		try {
+			addEntries(unit.getTypes(), entries);
+		} catch (JavaModelException e) {
+			// the unit has been deleted in the meantime
+			return NO_ENTRIES;
+		}
+		return entries.toArray(new Entry[entries.size()]);
+	}
+
+	private static void addEntries(IType[] types, List<Entry> entries) throws JavaModelException {
+		for (IType type : types) {
+			entries.add(new Entry(SearchEngine.createTypeNameMatch(type, type.getFlags())));
+			addEntries(type.getTypes(), entries);
+		}
+	}
+
+	/**
+	 * Returns the lower case literal prefix all names matching the pattern start with.
+	 *
+	 * @param pattern the name pattern
+	 * @param matchKind the match kind of the pattern
+	 * @return the prefix, may be empty
+	 */
+	private static String getLiteralPrefix(String pattern, int matchKind) {
+		switch (matchKind) {
+			case SearchPattern.R_EXACT_MATCH:
+			case SearchPattern.R_PREFIX_MATCH:
+				return toLowerCase(pattern);
+			case SearchPattern.R_PATTERN_MATCH:
+				int end= 0;
+				while (end < pattern.length() && pattern.charAt(end) != '*' && pattern.charAt(end) != '?')
+					end++;
+				return toLowerCase(pattern.substring(0, end));
+			case SearchPattern.R_CAMELCASE_MATCH:
+			case SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH:
+				// camel case patterns match the first character, prefix matches ignore its case
+				return toLowerCase(pattern.substring(0, Math.min(1, pattern.length())));
+			default:
+				return ""; //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Checks whether the entry can match a camel case pattern: every upper case letter of the
+	 * pattern must occur in the name in the same order, unless the name starts with the pattern.
+	 *
+	 * @param entry the entry to check
+	 * @param camelCaseParts the upper case letters of the pattern, without the first character
+	 * @param lowerCasePattern the pattern in lower case
+	 * @return <code>false</code> if the entry cannot match the pattern
+	 */
+	private static boolean isCamelCaseCandidate(Entry entry, String camelCaseParts, String lowerCasePattern) {
+		String parts= entry.fCamelCaseParts;
+		int j= 0;
+		for (int i= 0; i < camelCaseParts.length(); i++) {
+			char ch= camelCaseParts.charAt(i);
+			while (j < parts.length() && parts.charAt(j) != ch)
+				j++;
+			if (j == parts.length())
+				return entry.fName.startsWith(lowerCasePattern);
+			j++;
+		}
+		return true;
+	}
+
+	private static String getCamelCaseParts(String name) {
+		StringBuilder buf= null;
+		for (int i= 1; i < name.length(); i++) {
+			char ch= name.charAt(i);
+			if (Character.isUpperCase(ch)) {
+				if (buf == null)
+					buf= new StringBuilder();
+				buf.append(ch);
+			}
+		}
+		return buf == null ? "" : buf.toString(); //$NON-NLS-1$
+	}
+
+	/*
+	 * Lower cases character by character like String#regionMatches(true, ...) does, independent of the locale.
+	 */
+	private static String toLowerCase(String s) {
+		char[] chars= null;
+		for (int i= 0; i < s.length(); i++) {
+			char ch= s.charAt(i);
+			char lower= Character.toLowerCase(Character.toUpperCase(ch));
+			if (lower != ch) {
+				if (chars == null)
+					chars= s.toCharArray();
+				chars[i]= lower;
+			}
+		}
+		return chars == null ? s : new String(chars);
+	}
+}
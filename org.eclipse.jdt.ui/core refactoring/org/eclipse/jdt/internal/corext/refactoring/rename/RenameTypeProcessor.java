@@ -122,6 +122,7 @@ import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 import org.eclipse.jdt.internal.corext.util.JdtFlags;
 import org.eclipse.jdt.internal.corext.util.Messages;
 import org.eclipse.jdt.internal.corext.util.SearchUtils;
+import org.eclipse.jdt.internal.corext.util.WorkerPool;
 
 import org.eclipse.jdt.ui.JavaElementLabels;
 import org.eclipse.jdt.ui.refactoring.IRefactoringProcessorIds;
@@ -137,6 +138,15 @@ public class RenameTypeProcessor extends JavaRenameProcessor implements ITextUpd
 	private static final String ATTRIBUTE_SIMILAR_DECLARATIONS= "similarDeclarations"; //$NON-NLS-1$
 	private static final String ATTRIBUTE_MATCHING_STRATEGY= "matchStrategy"; //$NON-NLS-1$
 
+	/**
+	 * The default number of workers creating the reference updates, taken from the
+	 * <code>jdt.renameTypeWorkers</code> system property. <code>1</code> creates all updates on
+	 * the calling thread, <code>0</code> uses one worker per available processor.
+	 */
+	public static final int DEFAULT_REFERENCE_UPDATE_WORKERS= Integer.getInteger("jdt.renameTypeWorkers", 1).intValue(); //$NON-NLS-1$
+
+	private static final String REFERENCE_UPDATE_THREAD_NAME= "Rename Type Reference Updates"; //$NON-NLS-1$
+
 	private static final GroupCategorySet CATEGORY_TYPE_RENAME= new GroupCategorySet(new GroupCategory("org.eclipse.jdt.internal.corext.refactoring.rename.renameType.type", RefactoringCoreMessages.RenameTypeProcessor_changeCategory_type, RefactoringCoreMessages.RenameTypeProcessor_changeCategory_type_description)); //$NON-NLS-1$
 	private static final GroupCategorySet CATEGORY_METHOD_RENAME= new GroupCategorySet(new GroupCategory("org.eclipse.jdt.internal.corext.refactoring.rename.renameType.method", RefactoringCoreMessages.RenameTypeProcessor_changeCategory_method, RefactoringCoreMessages.RenameTypeProcessor_changeCategory_method_description)); //$NON-NLS-1$
 	private static final GroupCategorySet CATEGORY_FIELD_RENAME= new GroupCategorySet(new GroupCategory("org.eclipse.jdt.internal.corext.refactoring.rename.renameType.field", RefactoringCoreMessages.RenameTypeProcessor_changeCategory_fields, RefactoringCoreMessages.RenameTypeProcessor_changeCategory_fields_description)); //$NON-NLS-1$
@@ -148,6 +158,7 @@ public class RenameTypeProcessor extends JavaRenameProcessor implements ITextUpd
 	private QualifiedNameSearchResult fQualifiedNameSearchResult;
 
 	private boolean fUpdateReferences;
+	private int fReferenceUpdateWorkers= DEFAULT_REFERENCE_UPDATE_WORKERS;
 
 	private boolean fUpdateTextualMatches;
 
@@ -363,6 +374,25 @@ public class RenameTypeProcessor extends JavaRenameProcessor implements ITextUpd
 		return fUpdateReferences;
 	}
 
+	/**
+	 * Sets the number of workers creating the reference updates. The resulting changes do not
+	 * depend on the number of workers.
+	 *
+	 * @param workerCount the number of workers, <code>0</code> to use one worker per available
+	 *            processor, <code>1</code> to create all updates on the calling thread
+	 * @see #DEFAULT_REFERENCE_UPDATE_WORKERS
+	 */
+	public void setReferenceUpdateWorkerCount(int workerCount) {
+		fReferenceUpdateWorkers= workerCount;
+	}
+
+	public int getReferenceUpdateWorkerCount() {
+		if (fReferenceUpdateWorkers <= 0)
+			return WorkerPool.getDefaultParallelism(Integer.MAX_VALUE);
+
+		return fReferenceUpdateWorkers;
+	}
+
 	//---- IQualifiedNameUpdating ----------------------------------
 
 	@Override
@@ -1194,23 +1224,71 @@ public class RenameTypeProcessor extends JavaRenameProcessor implements ITextUpd
 		}
 	}
 
-	private void addReferenceUpdates(TextChangeManager manager, IProgressMonitor pm) {
-		pm.beginTask("", fReferences.length); //$NON-NLS-1$
+	/**
+	 * Adds the updates of the references to the renamed type.
+	 * <p>
+	 * The search results are grouped per compilation unit, in the order of the references. The
+	 * updates of each compilation unit are created by a worker, into the change the manager
+	 * already holds for the unit or into a new change. A change is only touched by one worker. The
+	 * new changes are then added to the manager on the calling thread, in the order of the
+	 * compilation units. The resulting changes, edits and groups do not depend on the number of
+	 * workers.
+	 * </p>
+	 *
+	 * @param manager the text change manager
+	 * @param pm the progress monitor, one tick per compilation unit
+	 * @throws CoreException if the updates could not be created
+	 * @see #setReferenceUpdateWorkerCount(int)
+	 */
+	private void addReferenceUpdates(TextChangeManager manager, IProgressMonitor pm) throws CoreException {
+		// a compilation unit can occur in several groups
+		Map<ICompilationUnit, List<SearchMatch>> matchesPerUnit= new LinkedHashMap<>();
 		for (SearchResultGroup reference : fReferences) {
 			ICompilationUnit cu= reference.getCompilationUnit();
-			if (cu == null)
-				continue;
+			SearchMatch[] matches= reference.getSearchResults();
+			if (cu != null && matches.length > 0)
+				matchesPerUnit.computeIfAbsent(cu, key -> new ArrayList<>()).addAll(Arrays.asList(matches));
+		}
 
-			String name= RefactoringCoreMessages.RenameTypeRefactoring_update_reference;
+		pm.beginTask("", matchesPerUnit.size()); //$NON-NLS-1$
+		try (WorkerPool pool= new WorkerPool(REFERENCE_UPDATE_THREAD_NAME, getReferenceUpdateWorkerCount(), pm)) {
+			List<WorkerPool.Task<TextChange>> tasks= new ArrayList<>(matchesPerUnit.size());
+			for (Entry<ICompilationUnit, List<SearchMatch>> entry : matchesPerUnit.entrySet()) {
+				ICompilationUnit cu= entry.getKey();
+				// the manager is only accessed on the calling thread
+				TextChange change= manager.containsChangesIn(cu) ? manager.get(cu) : null;
+				tasks.add(monitor -> createReferenceUpdates(manager, cu, change, entry.getValue()));
+			}
 
-			for (SearchMatch match : reference.getSearchResults()) {
-				ReplaceEdit replaceEdit= new ReplaceEdit(match.getOffset(), match.getLength(), getNewElementName());
-				TextChangeCompatibility.addTextEdit(manager.get(cu), name, replaceEdit, CATEGORY_TYPE_RENAME);
+			List<TextChange> changes= pool.runAll(tasks, pm);
+			int index= 0;
+			for (ICompilationUnit cu : matchesPerUnit.keySet()) {
+				manager.manage(cu, changes.get(index++));
 			}
-			pm.worked(1);
+		} finally {
+			pm.done();
 		}
 	}
 
+	/**
+	 * Creates the updates of the references in a compilation unit.
+	 *
+	 * @param manager the text change manager, only used to create a new change
+	 * @param cu the compilation unit
+	 * @param change the change of the unit, or <code>null</code> to create a new one
+	 * @param matches the references in the compilation unit
+	 * @return the change with the updates
+	 */
+	private TextChange createReferenceUpdates(TextChangeManager manager, ICompilationUnit cu, TextChange change, List<SearchMatch> matches) {
+		TextChange result= change != null ? change : manager.create(cu);
+		String name= RefactoringCoreMessages.RenameTypeRefactoring_update_reference;
+		for (SearchMatch match : matches) {
+			ReplaceEdit replaceEdit= new ReplaceEdit(match.getOffset(), match.getLength(), getNewElementName());
+			TextChangeCompatibility.addTextEdit(result, name, replaceEdit, CATEGORY_TYPE_RENAME);
+		}
+		return result;
+	}
+
 	private void computeQualifiedNameMatches(IProgressMonitor pm) {
 		IPackageFragment fragment= fType.getPackageFragment();
 		if (fQualifiedNameSearchResult == null)
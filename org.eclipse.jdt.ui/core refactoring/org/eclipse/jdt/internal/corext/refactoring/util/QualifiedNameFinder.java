@@ -24,6 +24,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.SubProgressMonitor;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -48,10 +49,17 @@ import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.internal.corext.refactoring.RefactoringCoreMessages;
 import org.eclipse.jdt.internal.corext.refactoring.changes.TextChangeCompatibility;
 
+import org.eclipse.jdt.internal.ui.JavaPlugin;
 import org.eclipse.jdt.internal.ui.util.PatternConstructor;
 
 public class QualifiedNameFinder {
 
+	/**
+	 * Whether the files to search are taken from the {@link QualifiedNameIndex}. Setting the
+	 * <code>jdt.disableQualifiedNameIndex</code> system property searches all files instead.
+	 */
+	private static final boolean USE_INDEX= !Boolean.getBoolean("jdt.disableQualifiedNameIndex"); //$NON-NLS-1$
+
 	private static final GroupCategorySet QUALIFIED_NAMES= new GroupCategorySet(
 		new GroupCategory("org.eclipse.jdt.internal.corext.qualifiedNames", //$NON-NLS-1$
 			RefactoringCoreMessages.QualifiedNameFinder_qualifiedNames_name,
@@ -126,6 +134,23 @@ public class QualifiedNameFinder {
 	}
 
 	public static void process(QualifiedNameSearchResult result, String pattern, String newValue, String filePatterns, IProject root, IProgressMonitor monitor) {
+		process(result, pattern, newValue, filePatterns, root, USE_INDEX ? QualifiedNameIndex.getInstance() : null, monitor);
+	}
+
+	/**
+	 * Adds the updates of the qualified name <code>pattern</code> in the files matching
+	 * <code>filePatterns</code> to the result.
+	 *
+	 * @param result the result to add the updates to
+	 * @param pattern the qualified name to search
+	 * @param newValue the new qualified name
+	 * @param filePatterns the comma separated file name patterns
+	 * @param root the project to search, together with all projects referencing it
+	 * @param index the index providing the files that can contain <code>pattern</code>, or
+	 *            <code>null</code> to search all files matching <code>filePatterns</code>
+	 * @param monitor the progress monitor, can be <code>null</code>
+	 */
+	public static void process(QualifiedNameSearchResult result, String pattern, String newValue, String filePatterns, IProject root, QualifiedNameIndex index, IProgressMonitor monitor) {
 		Assert.isNotNull(pattern);
 		Assert.isNotNull(newValue);
 		Assert.isNotNull(root);
@@ -143,18 +168,35 @@ public class QualifiedNameFinder {
 		ResultCollector collector= new ResultCollector(result, newValue);
 		TextSearchEngine engine= TextSearchEngine.create();
 		Pattern searchPattern= PatternConstructor.createPattern(pattern, true, false);
+		IResource[] roots= getRoots(root);
+		Pattern filePattern= getFilePattern(filePatterns);
+
+		if (index != null && QualifiedNameIndex.canQuery(pattern)) {
+			monitor.beginTask("", 10); //$NON-NLS-1$
+			try {
+				TextSearchScope scope;
+				try {
+					IFile[] candidates= index.getCandidates(pattern, roots, filePattern, new SubProgressMonitor(monitor, 7));
+					scope= TextSearchScope.newSearchScope(candidates, filePattern, false);
+				} catch (CoreException e) {
+					JavaPlugin.log(e);
+					scope= TextSearchScope.newSearchScope(roots, filePattern, false);
+				}
+				engine.search(scope, collector, searchPattern, new SubProgressMonitor(monitor, 3));
+			} finally {
+				monitor.done();
+			}
+			return;
+		}
 
-		engine.search(createScope(filePatterns, root), collector, searchPattern, monitor);
+		engine.search(TextSearchScope.newSearchScope(roots, filePattern, false), collector, searchPattern, monitor);
 	}
 
-	private static TextSearchScope createScope(String filePatterns, IProject root) {
+	private static IResource[] getRoots(IProject root) {
 		HashSet<IProject> res= new HashSet<>();
 		res.add(root);
 		addReferencingProjects(root, res);
-		IResource[] resArr= res.toArray(new IResource[res.size()]);
-		Pattern filePattern= getFilePattern(filePatterns);
-
-		return TextSearchScope.newSearchScope(resArr, filePattern, false);
+		return res.toArray(new IResource[res.size()]);
 	}
 
 	private static Pattern getFilePattern(String filePatterns) {
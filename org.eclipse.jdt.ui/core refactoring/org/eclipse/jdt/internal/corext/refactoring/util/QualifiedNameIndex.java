@@ -0,0 +1,357 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.refactoring.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.ITextFileBuffer;
+import org.eclipse.core.filebuffers.ITextFileBufferManager;
+import org.eclipse.core.filebuffers.LocationKind;
+
+import org.eclipse.jdt.internal.ui.IJavaStatusConstants;
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * An index of the dotted names in the text files of the workspace, used by
+ * {@link QualifiedNameFinder} to search only the files that can contain a qualified name.
+ * <p>
+ * A token is a maximal run of Java identifier characters and dots that contains at least one dot,
+ * e.g. <code>org.example.Foo</code> in <code>class="org.example.Foo"</code>. A file is a
+ * candidate for a qualified name if one of its tokens is the name or starts with the name followed
+ * by a dot. These are exactly the files in which {@link QualifiedNameFinder} can accept a match.
+ * Names without a dot are not indexed, see {@link #canQuery(String)}.
+ * </p>
+ * <p>
+ * Files are tokenized when a query first needs them. A resource change listener drops changed,
+ * moved and deleted files, which are tokenized again by the next query that needs them. Files with
+ * unsaved changes in a text file buffer are always candidates.
+ * </p>
+ */
+public final class QualifiedNameIndex {
+
+	private static final class FileEntry {
+
+		final long fModificationStamp;
+
+		final String[] fTokens;
+
+		FileEntry(long modificationStamp, String[] tokens) {
+			fModificationStamp= modificationStamp;
+			fTokens= tokens;
+		}
+	}
+
+	private final class DeltaListener implements IResourceChangeListener, IResourceDeltaVisitor {
+
+		private static final int FILE_CHANGE_FLAGS= IResourceDelta.CONTENT | IResourceDelta.REPLACED | IResourceDelta.ENCODING | IResourceDelta.MOVED_TO;
+
+		@Override
+		public void resourceChanged(IResourceChangeEvent event) {
+			IResourceDelta delta= event.getDelta();
+			if (delta == null)
+				return;
+			synchronized (QualifiedNameIndex.this) {
+				if (fFiles.isEmpty())
+					return;
+			}
+			try {
+				delta.accept(this);
+			} catch (CoreException e) {
+				JavaPlugin.log(e);
+			}
+		}
+
+		@Override
+		public boolean visit(IResourceDelta delta) {
+			IResource resource= delta.getResource();
+			switch (resource.getType()) {
+				case IResource.PROJECT:
+					if (delta.getKind() == IResourceDelta.REMOVED || (delta.getFlags() & IResourceDelta.OPEN) != 0) {
+						removeProject((IProject) resource);
+						return false;
+					}
+					return true;
+				case IResource.FILE:
+					if (delta.getKind() == IResourceDelta.REMOVED || (delta.getFlags() & FILE_CHANGE_FLAGS) != 0)
+						removeFile((IFile) resource);
+					return false;
+				default:
+					return true;
+			}
+		}
+	}
+
+	private static final String[] NO_TOKENS= new String[0];
+
+	private static QualifiedNameIndex fgInstance;
+
+	private final DeltaListener fDeltaListener;
+
+	/** The tokenized files, guarded by <code>this</code> */
+	private final Map<IFile, FileEntry> fFiles= new HashMap<>();
+
+	/** The files containing each token, sorted by token, guarded by <code>this</code> */
+	private final TreeMap<String, Set<IFile>> fTokens= new TreeMap<>();
+
+	public static synchronized QualifiedNameIndex getInstance() {
+		if (fgInstance == null)
+			fgInstance= new QualifiedNameIndex();
+		return fgInstance;
+	}
+
+	public static synchronized void shutdown() {
+		if (fgInstance == null)
+			return;
+		fgInstance.doShutdown();
+		fgInstance= null;
+	}
+
+	private QualifiedNameIndex() {
+		fDeltaListener= new DeltaListener();
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(fDeltaListener, IResourceChangeEvent.POST_CHANGE);
+	}
+
+	private void doShutdown() {
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(fDeltaListener);
+		clear();
+	}
+
+	/**
+	 * Tells whether the index can find the candidates for the given name.
+	 *
+	 * @param qualifiedName the name to search
+	 * @return <code>true</code> if the name consists of Java identifier characters and dots and
+	 *         contains a dot
+	 */
+	public static boolean canQuery(String qualifiedName) {
+		if (qualifiedName.isEmpty() || qualifiedName.charAt(0) == '.' || qualifiedName.indexOf('.') == -1)
+			return false;
+		for (int i= 0; i < qualifiedName.length(); i++) {
+			if (!isTokenPart(qualifiedName.charAt(i)))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the files below the given roots whose names match the file name pattern and which
+	 * may contain the given name. Files that have not been tokenized yet or that changed since
+	 * they have been tokenized are read first.
+	 *
+	 * @param qualifiedName the name to search, see {@link #canQuery(String)}
+	 * @param roots the resources to search
+	 * @param fileNamePattern the pattern the file names must match
+	 * @param monitor the progress monitor
+	 * @return the candidate files, in the order in which they have been found below the roots
+	 * @throws CoreException if the roots could not be traversed
+	 * @throws OperationCanceledException if the monitor has been canceled
+	 */
+	public IFile[] getCandidates(String qualifiedName, IResource[] roots, Pattern fileNamePattern, IProgressMonitor monitor) throws CoreException {
+		List<IFile> files= collectFiles(roots, fileNamePattern);
+
+		List<IFile> stale= new ArrayList<>();
+		synchronized (this) {
+			for (IFile file : files) {
+				FileEntry entry= fFiles.get(file);
+				if (entry == null || entry.fModificationStamp != file.getModificationStamp())
+					stale.add(file);
+			}
+		}
+
+		ITextFileBufferManager manager= FileBuffers.getTextFileBufferManager();
+		Set<IFile> candidates= new HashSet<>();
+		monitor.beginTask("", stale.size()); //$NON-NLS-1$
+		try {
+			for (IFile file : stale) {
+				if (monitor.isCanceled())
+					throw new OperationCanceledException();
+
+				long stamp= file.getModificationStamp();
+				String[] tokens= tokenize(file, manager);
+				if (tokens == null)
+					candidates.add(file); // could not be read, leave it to the search engine
+				else
+					putFile(file, new FileEntry(stamp, tokens));
+				monitor.worked(1);
+			}
+		} finally {
+			monitor.done();
+		}
+
+		synchronized (this) {
+			String prefix= qualifiedName + '.';
+			for (Map.Entry<String, Set<IFile>> entry : fTokens.tailMap(qualifiedName, true).entrySet()) {
+				String token= entry.getKey();
+				if (token.equals(qualifiedName) || token.startsWith(prefix))
+					candidates.addAll(entry.getValue());
+				else if (!token.startsWith(qualifiedName))
+					break;
+			}
+		}
+
+		Set<IFile> result= new LinkedHashSet<>();
+		for (IFile file : files) {
+			if (candidates.contains(file)) {
+				result.add(file);
+			} else {
+				ITextFileBuffer buffer= manager.getTextFileBuffer(file.getFullPath(), LocationKind.IFILE);
+				if (buffer != null && buffer.isDirty())
+					result.add(file);
+			}
+		}
+		return result.toArray(new IFile[result.size()]);
+	}
+
+	/**
+	 * Returns the number of tokenized files.
+	 *
+	 * @return the number of tokenized files
+	 */
+	public synchronized int getFileCount() {
+		return fFiles.size();
+	}
+
+	/**
+	 * Returns the number of distinct tokens in all tokenized files.
+	 *
+	 * @return the number of distinct tokens
+	 */
+	public synchronized int getTokenCount() {
+		return fTokens.size();
+	}
+
+	/**
+	 * Removes all files from the index.
+	 */
+	public synchronized void clear() {
+		fFiles.clear();
+		fTokens.clear();
+	}
+
+	private static List<IFile> collectFiles(IResource[] roots, Pattern fileNamePattern) throws CoreException {
+		List<IFile> files= new ArrayList<>();
+		for (IResource root : roots) {
+			if (!root.isAccessible())
+				continue;
+			root.accept((IResourceProxy proxy) -> {
+				if (proxy.isDerived())
+					return false;
+				if (proxy.getType() == IResource.FILE) {
+					if (fileNamePattern.matcher(proxy.getName()).matches())
+						files.add((IFile) proxy.requestResource());
+					return false;
+				}
+				return true;
+			}, IResource.NONE);
+		}
+		return files;
+	}
+
+	/**
+	 * Reads the dotted tokens of the given file.
+	 *
+	 * @param file the file to read
+	 * @param manager the text file buffer manager
+	 * @return the distinct tokens, or <code>null</code> if the file could not be read
+	 */
+	private static String[] tokenize(IFile file, ITextFileBufferManager manager) {
+		// only text files are searched, see QualifiedNameFinder.ResultCollector#acceptFile(IFile)
+		if (!manager.isTextFileLocation(file.getFullPath(), false))
+			return NO_TOKENS;
+
+		Set<String> tokens= new HashSet<>();
+		StringBuilder token= new StringBuilder();
+		boolean dotted= false;
+		try (BufferedReader reader= new BufferedReader(new InputStreamReader(file.getContents(true), file.getCharset()))) {
+			int ch= reader.read();
+			if (ch == '\uFEFF') // byte order mark
+				ch= reader.read();
+			for (; ch != -1; ch= reader.read()) {
+				char c= (char) ch;
+				if (isTokenPart(c)) {
+					token.append(c);
+					dotted|= c == '.';
+				} else if (token.length() > 0) {
+					if (dotted)
+						tokens.add(token.toString());
+					token.setLength(0);
+					dotted= false;
+				}
+			}
+			if (dotted)
+				tokens.add(token.toString());
+		} catch (CoreException | IOException e) {
+			JavaPlugin.log(new Status(IStatus.WARNING, JavaPlugin.getPluginId(), IJavaStatusConstants.INTERNAL_ERROR, e.getMessage(), e));
+			return null;
+		}
+		return tokens.toArray(new String[tokens.size()]);
+	}
+
+	private static boolean isTokenPart(char c) {
+		return c == '.' || Character.isJavaIdentifierPart(c);
+	}
+
+	private synchronized void putFile(IFile file, FileEntry entry) {
+		removeFile(file);
+		fFiles.put(file, entry);
+		for (String token : entry.fTokens)
+			fTokens.computeIfAbsent(token, key -> new HashSet<>()).add(file);
+	}
+
+	private synchronized void removeFile(IFile file) {
+		FileEntry entry= fFiles.remove(file);
+		if (entry == null)
+			return;
+		for (String token : entry.fTokens) {
+			Set<IFile> files= fTokens.get(token);
+			if (files != null && files.remove(file) && files.isEmpty())
+				fTokens.remove(token);
+		}
+	}
+
+	private synchronized void removeProject(IProject project) {
+		for (IFile file : new ArrayList<>(fFiles.keySet())) {
+			if (project.equals(file.getProject()))
+				removeFile(file);
+		}
+	}
+}
@@ -75,6 +75,7 @@ import org.eclipse.jdt.internal.corext.util.OpenTypeHistory;
 import org.eclipse.jdt.internal.corext.util.TypeFilter;
 import org.eclipse.jdt.internal.corext.util.TypeInfoFilter;
 import org.eclipse.jdt.internal.corext.util.TypeInfoRequestorAdapter;
+import org.eclipse.jdt.internal.corext.util.TypeNameCache;
 
 import org.eclipse.jdt.launching.IVMInstall;
 import org.eclipse.jdt.launching.IVMInstallType;
@@ -138,6 +139,9 @@ public class TypeInfoViewer {
 	protected static class TypeInfoComparator implements Comparator {
 		private TypeInfoLabelProvider fLabelProvider;
 		private TypeInfoFilter fFilter;
+		// the container names and element type categories by package fragment root
+		private Map fContainerNames= new HashMap();
+		private Map fElementTypeCategories= new HashMap();
 		public TypeInfoComparator(TypeInfoLabelProvider labelProvider, TypeInfoFilter filter) {
 			fLabelProvider= labelProvider;
 			fFilter= filter;
@@ -193,8 +197,16 @@ public class TypeInfoViewer {
 			return compareName(leftString, rightString);
 		}
 		private int compareContainerName(TypeNameMatch leftType, TypeNameMatch rightType) {
-			return fLabelProvider.getContainerName(leftType).compareTo(
-				fLabelProvider.getContainerName(rightType));
+			return getContainerName(leftType).compareTo(getContainerName(rightType));
+		}
+		private String getContainerName(TypeNameMatch type) {
+			IPackageFragmentRoot root= type.getPackageFragmentRoot();
+			String result= (String)fContainerNames.get(root);
+			if (result == null) {
+				result= fLabelProvider.getContainerName(type);
+				fContainerNames.put(root, result);
+			}
+			return result;
 		}
 		private int getCamelCaseCategory(TypeNameMatch type) {
 			if (fFilter == null)
@@ -204,8 +216,17 @@ public class TypeInfoViewer {
 			return fFilter.matchesRawNamePattern(type) ? 0 : 1;
 		}
 		private int getElementTypeCategory(TypeNameMatch type) {
+			IPackageFragmentRoot root= type.getPackageFragmentRoot();
+			Integer result= (Integer)fElementTypeCategories.get(root);
+			if (result == null) {
+				result= Integer.valueOf(computeElementTypeCategory(root));
+				fElementTypeCategories.put(root, result);
+			}
+			return result.intValue();
+		}
+		private int computeElementTypeCategory(IPackageFragmentRoot root) {
 			try {
-				if (type.getPackageFragmentRoot().getKind() == IPackageFragmentRoot.K_SOURCE)
+				if (root.getKind() == IPackageFragmentRoot.K_SOURCE)
 					return 0;
 			} catch (JavaModelException e) {
 				// TODO Auto-generated catch block
@@ -667,16 +688,19 @@ public class TypeInfoViewer {
 			SearchEngine engine= new SearchEngine((WorkingCopyOwner)null);
 			String packPattern= fFilter.getPackagePattern();
 			monitor.setTaskName(JavaUIMessages.TypeInfoViewer_searchJob_taskName);
-			engine.searchAllTypeNames(
-				packPattern == null ? null : packPattern.toCharArray(),
-				fFilter.getPackageFlags(),
-				fFilter.getNamePattern().toCharArray(),
-				fFilter.getSearchFlags(),
-				fElementKind,
-				fScope,
-				fReqestor,
-				IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH,
-				monitor);
+			// match the pattern against the cached type names when they are available
+			if (!TypeNameCache.getInstance().searchTypes(fFilter, fReqestor, monitor)) {
+				engine.searchAllTypeNames(
+					packPattern == null ? null : packPattern.toCharArray(),
+					fFilter.getPackageFlags(),
+					fFilter.getNamePattern().toCharArray(),
+					fFilter.getSearchFlags(),
+					fElementKind,
+					fScope,
+					fReqestor,
+					IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH,
+					monitor);
+			}
 			if (DEBUG)
 				System.out.println("Time needed until search has finished: " + (System.currentTimeMillis() - start)); //$NON-NLS-1$
 			TypeNameMatch[] result= fReqestor.getResult();
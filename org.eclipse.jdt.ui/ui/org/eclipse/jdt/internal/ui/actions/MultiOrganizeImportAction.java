@@ -56,7 +56,7 @@ public class MultiOrganizeImportAction extends CleanUpAction {
 	protected ICleanUp[] getCleanUps(ICompilationUnit[] units) {
 		Map<String, String> settings= new Hashtable<>();
 		settings.put(CleanUpConstants.ORGANIZE_IMPORTS, CleanUpOptions.TRUE);
-		ImportsCleanUp importsCleanUp= new ImportsCleanUp(settings);
+		ImportsCleanUp importsCleanUp= new ImportsCleanUp(settings, true);
 
 		return new ICleanUp[] {
 			importsCleanUp
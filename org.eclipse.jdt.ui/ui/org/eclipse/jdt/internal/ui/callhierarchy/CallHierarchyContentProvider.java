@@ -105,6 +105,9 @@ public class CallHierarchyContentProvider implements ITreeContentProvider {
 		} else if (parentElement instanceof RealCallers) {
 			MethodWrapper parentWrapper= ((RealCallers)parentElement).getParent();
 			RealCallers element= ((RealCallers)parentElement);
+			if (element.hasCachedCalls()) {
+				return element.getCalls(null);
+			}
 			if (fManager != null) {
 				Object[] children= fManager.getChildren(new DeferredMethodWrapper(this, element));
 				if (children != null)
@@ -157,6 +160,9 @@ public class CallHierarchyContentProvider implements ITreeContentProvider {
 
 					}
 				}
+				if (methodWrapper.hasCachedCalls()) {
+					return methodWrapper.getCalls(null);
+				}
 				if (fManager != null) {
 					Object[] children= fManager.getChildren(new DeferredMethodWrapper(this, methodWrapper));
 					if (children != null)
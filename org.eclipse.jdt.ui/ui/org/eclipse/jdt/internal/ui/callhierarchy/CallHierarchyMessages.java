@@ -162,6 +162,10 @@ public final class CallHierarchyMessages extends NLS {
 	public static String ExpandWithConstructorsAction_expandWithConstructors_text;
 	public static String ExpandWithConstructorsAction_expandWithConstructors_description;
 	public static String ExpandWithConstructorsAction_expandWithConstructors_tooltip;
+	public static String ExpandCallHierarchyAction_text;
+	public static String ExpandCallHierarchyAction_description;
+	public static String ExpandCallHierarchyAction_tooltip;
+	public static String ExpandCallHierarchyAction_job_name;
 	public static String ExpandWithConstructorsDialog_title;
 	public static String PinCallHierarchyViewAction_label;
 	public static String PinCallHierarchyViewAction_tooltip;
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.callhierarchy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.viewers.AbstractTreeViewer;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
+
+import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchyExpander;
+import org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper;
+
+/**
+ * The action to expand the whole call hierarchy below the selected members.
+ * <p>
+ * The calls are searched level by level and concurrently in a background job, the tree is expanded
+ * once all calls are known.
+ * </p>
+ *
+ * @since 3.27
+ */
+class ExpandCallHierarchyAction extends Action {
+
+	/**
+	 * The call hierarchy view part.
+	 */
+	private final CallHierarchyViewPart fPart;
+
+	/**
+	 * The call hierarchy viewer.
+	 */
+	private final CallHierarchyViewer fCallHierarchyViewer;
+
+	/**
+	 * Creates the action for expanding the call hierarchy.
+	 *
+	 * @param callHierarchyViewPart the call hierarchy view part
+	 * @param callHierarchyViewer the call hierarchy viewer
+	 */
+	public ExpandCallHierarchyAction(CallHierarchyViewPart callHierarchyViewPart, CallHierarchyViewer callHierarchyViewer) {
+		super(CallHierarchyMessages.ExpandCallHierarchyAction_text);
+		fPart= callHierarchyViewPart;
+		fCallHierarchyViewer= callHierarchyViewer;
+		setDescription(CallHierarchyMessages.ExpandCallHierarchyAction_description);
+		setToolTipText(CallHierarchyMessages.ExpandCallHierarchyAction_tooltip);
+	}
+
+	/*
+	 * @see Action#run
+	 */
+	@Override
+	public void run() {
+		final List<MethodWrapper> roots= getSelectedMethodWrappers();
+		if (roots.isEmpty())
+			return;
+
+		final int maxCallDepth= CallHierarchyUI.getDefault().getMaxCallDepth();
+		Job job= new Job(CallHierarchyMessages.ExpandCallHierarchyAction_job_name) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				SubMonitor progress= SubMonitor.convert(monitor, roots.size());
+				try {
+					for (MethodWrapper root : roots) {
+						CallHierarchyExpander expander= new CallHierarchyExpander(CallHierarchyExpander.getDefaultParallelism(), maxCallDepth - root.getLevel() + 1);
+						expander.expand(root, progress.split(1));
+					}
+				} catch (OperationCanceledException e) {
+					return Status.CANCEL_STATUS;
+				}
+				fCallHierarchyViewer.getControl().getDisplay().asyncExec(() -> expandTree(roots));
+				return Status.OK_STATUS;
+			}
+		};
+		job.setUser(true);
+		job.schedule();
+	}
+
+	private void expandTree(List<MethodWrapper> roots) {
+		if (fCallHierarchyViewer.getControl().isDisposed())
+			return;
+		for (MethodWrapper root : roots) {
+			// all calls are cached now, the content provider answers them without deferring
+			fCallHierarchyViewer.expandToLevel(root, AbstractTreeViewer.ALL_LEVELS);
+		}
+	}
+
+	private List<MethodWrapper> getSelectedMethodWrappers() {
+		List<MethodWrapper> result= new ArrayList<>();
+		ISelection selection= fPart.getSelection();
+		if (selection instanceof IStructuredSelection) {
+			for (Object element : (IStructuredSelection) selection) {
+				if (element instanceof MethodWrapper)
+					result.add((MethodWrapper) element);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Checks whether this action can be added for the selected element in the call hierarchy.
+	 *
+	 * @return <code> true</code> if the action can be added, <code>false</code> otherwise
+	 */
+	public boolean canActionBeAdded() {
+		return !getSelectedMethodWrappers().isEmpty();
+	}
+}
@@ -23,6 +23,7 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.TextStyle;
@@ -96,6 +97,7 @@ import org.eclipse.jdt.internal.corext.util.Strings;
 import org.eclipse.jdt.internal.corext.util.TypeFilter;
 import org.eclipse.jdt.internal.corext.util.TypeInfoFilter;
 import org.eclipse.jdt.internal.corext.util.TypeInfoRequestorAdapter;
+import org.eclipse.jdt.internal.corext.util.TypeNameCache;
 
 import org.eclipse.jdt.launching.IVMInstall;
 import org.eclipse.jdt.launching.IVMInstallType;
@@ -486,6 +488,9 @@ public class FilteredTypesSelectionDialog extends FilteredItemsSelectionDialog i
 		typeSearchFilter.setMatchEverythingMode(true);
 
 		try {
+			// match the pattern against the cached type names when they are available
+			if (TypeNameCache.getInstance().searchTypes(typeSearchFilter.getTypeInfoFilter(), requestor, progressMonitor))
+				return;
 			engine.searchAllTypeNames(packPattern == null ? null : packPattern.toCharArray(),
 					typeSearchFilter.getPackageFlags(),
 					typePattern.toCharArray(),
@@ -593,6 +598,8 @@ public class FilteredTypesSelectionDialog extends FilteredItemsSelectionDialog i
 	 */
 	@Override
 	public void reloadCache(boolean checkDuplicates, IProgressMonitor monitor) {
+		// build the type name snapshot while the history is shown, later dialogs find it ready
+		TypeNameCache.getInstance().warmUp();
 		IProgressMonitor remainingMonitor;
 		SubMonitor subMonitor= SubMonitor.convert(monitor, JavaUIMessages.TypeSelectionDialog_progress_consistency, 10);
 		if (ConsistencyRunnable.needsExecution()) {
@@ -947,6 +954,10 @@ public class FilteredTypesSelectionDialog extends FilteredItemsSelectionDialog i
 			return fTypeInfoFilter.getElementKind();
 		}
 
+		public TypeInfoFilter getTypeInfoFilter() {
+			return fTypeInfoFilter;
+		}
+
 		public IJavaSearchScope getSearchScope() {
 			return fTypeInfoFilter.getSearchScope();
 		}
@@ -1101,6 +1112,12 @@ public class FilteredTypesSelectionDialog extends FilteredItemsSelectionDialog i
 
 		private final String[] fVMNames;
 
+		/** The container names by package fragment root, sorting compares the same roots over and over */
+		private final Map<IPackageFragmentRoot, String> fContainerNames= new ConcurrentHashMap<>();
+
+		/** The element type categories by package fragment root */
+		private final Map<IPackageFragmentRoot, Integer> fElementTypeCategories= new ConcurrentHashMap<>();
+
 		/**
 		 * Creates new instance of TypeItemsComparator
 		 */
@@ -1209,7 +1226,10 @@ public class FilteredTypesSelectionDialog extends FilteredItemsSelectionDialog i
 		}
 
 		private String getContainerName(TypeNameMatch type) {
-			IPackageFragmentRoot root= type.getPackageFragmentRoot();
+			return fContainerNames.computeIfAbsent(type.getPackageFragmentRoot(), this::computeContainerName);
+		}
+
+		private String computeContainerName(IPackageFragmentRoot root) {
 			if (root.isExternal()) {
 				String name= root.getPath().toOSString();
 				for (int i= 0; i < fInstallLocations.length; i++) {
@@ -1227,13 +1247,17 @@ public class FilteredTypesSelectionDialog extends FilteredItemsSelectionDialog i
 		}
 
 		private int getElementTypeCategory(TypeNameMatch type) {
+			return fElementTypeCategories.computeIfAbsent(type.getPackageFragmentRoot(), this::computeElementTypeCategory).intValue();
+		}
+
+		private Integer computeElementTypeCategory(IPackageFragmentRoot root) {
 			try {
-				if (type.getPackageFragmentRoot().getKind() == IPackageFragmentRoot.K_SOURCE)
-					return 0;
+				if (root.getKind() == IPackageFragmentRoot.K_SOURCE)
+					return Integer.valueOf(0);
 			} catch (JavaModelException e) {
 				JavaPlugin.log(e);
 			}
-			return 1;
+			return Integer.valueOf(1);
 		}
 	}
 
@@ -114,6 +114,16 @@ public abstract class AbstractCleanUp implements ICleanUp {
 		return new RefactoringStatus();
 	}
 
+	/**
+	 * Tells whether {@link #createFix(CleanUpContext)} can be called concurrently for different
+	 * compilation units. Clean ups keeping state across calls must not return <code>true</code>.
+	 *
+	 * @return <code>true</code> if fixes can be created concurrently, <code>false</code> by default
+	 */
+	public boolean canCreateFixesConcurrently() {
+		return false;
+	}
+
 	/**
 	 * @param key the name of the option
 	 * @return <code>true</code> if option with <code>key</code> is enabled
@@ -14,6 +14,7 @@
 package org.eclipse.jdt.internal.ui.fix;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -29,6 +30,8 @@ import org.eclipse.jdt.ui.cleanup.CleanUpOptions;
 import org.eclipse.jdt.ui.cleanup.CleanUpRequirements;
 import org.eclipse.jdt.ui.cleanup.ICleanUpFix;
 
+import org.eclipse.jdt.internal.common.FusedHelperVisitor;
+
 /**
  * Base class for cleanups that forward their implementation to to a cleanup class
  * in the jdt.core.manipulation project.
@@ -54,6 +57,30 @@ public class AbstractCleanUpCoreWrapper<T extends AbstractCleanUpCore> extends A
 		return fix != null ? new CleanUpFixWrapper(fix) : null;
 	}
 
+	/**
+	 * Registers the visitors of the wrapped clean up, if it supports to be run in a traversal shared
+	 * with other clean ups. The returned fix must only be requested after the fused visitor has been
+	 * built on the AST of the context.
+	 *
+	 * @param context the context
+	 * @param fusedVisitor the visitor traversing the AST for all registered clean ups
+	 * @return the fix, or <code>null</code> if the wrapped clean up does not share traversals or
+	 *         does not apply to the context
+	 * @throws CoreException if the clean up cannot be applied
+	 * @see IFusedCleanUpCore
+	 */
+	public Supplier<ICleanUpFix> registerVisitors(CleanUpContext context, FusedHelperVisitor fusedVisitor) throws CoreException {
+		if (!(cleanUpCore instanceof IFusedCleanUpCore))
+			return null;
+		Supplier<ICleanUpFixCore> fix= ((IFusedCleanUpCore) cleanUpCore).registerVisitors(context, fusedVisitor);
+		if (fix == null)
+			return null;
+		return () -> {
+			ICleanUpFixCore fixCore= fix.get();
+			return fixCore != null ? new CleanUpFixWrapper(fixCore) : null;
+		};
+	}
+
 	@Override
 	public RefactoringStatus checkPostConditions(IProgressMonitor monitor) throws CoreException {
 		return cleanUpCore.checkPostConditions(monitor);
@@ -43,6 +43,11 @@ public class ControlStatementsCleanUp extends AbstractCleanUp {
 		return new CleanUpRequirements(requireAST(), false, false, null);
 	}
 
+	@Override
+	public boolean canCreateFixesConcurrently() {
+		return true;
+	}
+
 	private boolean requireAST() {
 		boolean useBlocks= isEnabled(CleanUpConstants.CONTROL_STATEMENTS_USE_BLOCKS);
 
@@ -43,6 +43,11 @@ public class ExpressionsCleanUp extends AbstractCleanUp {
 		return new CleanUpRequirements(requireAST(), false, false, null);
 	}
 
+	@Override
+	public boolean canCreateFixesConcurrently() {
+		return true;
+	}
+
 	private boolean requireAST() {
 		boolean usePrentheses= isEnabled(CleanUpConstants.EXPRESSIONS_USE_PARENTHESES);
 		if (!usePrentheses)
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.fix;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import org.eclipse.core.runtime.CoreException;
@@ -23,6 +24,8 @@ import org.eclipse.ltk.core.refactoring.RefactoringStatus;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.manipulation.OrganizeImportsBatchOperation;
+import org.eclipse.jdt.core.manipulation.OrganizeImportsOperation.TypeNameResolver;
 
 import org.eclipse.jdt.internal.corext.codemanipulation.CodeGenerationSettings;
 import org.eclipse.jdt.internal.corext.fix.CleanUpConstants;
@@ -38,29 +41,52 @@ public class ImportsCleanUp extends AbstractCleanUp {
 
 	private CodeGenerationSettings fCodeGeneratorSettings;
 	private RefactoringStatus fStatus;
+	// shared by the fixes of all compilation units, every unresolved type name is searched once
+	private TypeNameResolver fTypeNameResolver;
+	private final boolean fOrganizeInBatch;
+	// the fixes by compilation unit when organizing in batch
+	private Map<ICompilationUnit, ICleanUpFix> fBatchFixes;
 
 	public ImportsCleanUp(Map<String, String> options) {
+		this(options, false);
+    }
+
+	/**
+	 * Creates a clean up which can organize the imports of all compilation units of a project with
+	 * one {@link OrganizeImportsBatchOperation} before the units are parsed. This is only possible
+	 * if no other clean up changes the units before.
+	 *
+	 * @param options the options
+	 * @param organizeInBatch <code>true</code> if the imports of all units are organized in
+	 *            {@link #checkPreConditions(IJavaProject, ICompilationUnit[], IProgressMonitor)}
+	 */
+	public ImportsCleanUp(Map<String, String> options, boolean organizeInBatch) {
 		super(options);
+		fOrganizeInBatch= organizeInBatch;
     }
 
 	public ImportsCleanUp() {
 		super();
+		fOrganizeInBatch= false;
     }
 
 	@Override
 	public CleanUpRequirements getRequirements() {
-		boolean isOrganizeImports= isEnabled(CleanUpConstants.ORGANIZE_IMPORTS);
+		boolean isOrganizeImports= isEnabled(CleanUpConstants.ORGANIZE_IMPORTS) && fBatchFixes == null;
 		return new CleanUpRequirements(isOrganizeImports, isOrganizeImports, false, null);
 	}
 
     @Override
 	public ICleanUpFix createFix(CleanUpContext context) throws CoreException {
+    	if (fBatchFixes != null)
+    		return fBatchFixes.get(context.getCompilationUnit());
+
     	CompilationUnit compilationUnit= context.getAST();
     	if (compilationUnit == null)
     		return null;
 
 		return ImportsFix.createCleanUp(compilationUnit, fCodeGeneratorSettings,
-				isEnabled(CleanUpConstants.ORGANIZE_IMPORTS), fStatus);
+				isEnabled(CleanUpConstants.ORGANIZE_IMPORTS), fTypeNameResolver, fStatus);
 	}
 
     @Override
@@ -69,6 +95,16 @@ public class ImportsCleanUp extends AbstractCleanUp {
 		if (isEnabled(CleanUpConstants.ORGANIZE_IMPORTS)) {
     		fCodeGeneratorSettings= JavaPreferencesSettings.getCodeGenerationSettings(project);
     		fStatus= new RefactoringStatus();
+    		if (fOrganizeInBatch) {
+    			ICleanUpFix[] fixes= ImportsFix.createCleanUps(compilationUnits, fCodeGeneratorSettings, fStatus, monitor);
+    			fBatchFixes= new HashMap<>();
+    			for (int i= 0; i < compilationUnits.length; i++) {
+    				if (fixes[i] != null)
+    					fBatchFixes.put(compilationUnits[i], fixes[i]);
+    			}
+    		} else if (fTypeNameResolver == null) {
+    			fTypeNameResolver= new TypeNameResolver();
+    		}
 		}
 
 		return super.checkPreConditions(project, compilationUnits, monitor);
@@ -77,6 +113,8 @@ public class ImportsCleanUp extends AbstractCleanUp {
     @Override
 	public RefactoringStatus checkPostConditions(IProgressMonitor monitor) throws CoreException {
     	fCodeGeneratorSettings= null;
+    	fTypeNameResolver= null;
+    	fBatchFixes= null;
     	try {
 	    	if (fStatus == null || fStatus.isOK()) {
 	    		return super.checkPostConditions(monitor);
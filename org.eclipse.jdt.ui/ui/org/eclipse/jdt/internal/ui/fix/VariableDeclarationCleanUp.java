@@ -26,4 +26,9 @@ public class VariableDeclarationCleanUp extends AbstractCleanUpCoreWrapper<Varia
 	public VariableDeclarationCleanUp() {
 		this(Collections.EMPTY_MAP);
 	}
+
+	@Override
+	public boolean canCreateFixesConcurrently() {
+		return true;
+	}
 }
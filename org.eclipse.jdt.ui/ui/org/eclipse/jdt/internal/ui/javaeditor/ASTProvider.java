@@ -25,6 +25,7 @@ import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.manipulation.CoreASTProvider;
 
+import org.eclipse.jdt.internal.core.manipulation.RecentASTCache;
 import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
 
 import org.eclipse.jdt.ui.JavaUI;
@@ -222,8 +223,9 @@ public final class ASTProvider implements IASTSharedValues {
 
 		synchronized (this) {
 			fActiveEditor= editor;
+			// restores the AST of a recently active element, if still valid
 			INSTANCE.setActiveJavaElement(javaElement);
-			INSTANCE.cache(null, javaElement);
+			INSTANCE.waitLockNotifyAll();
 		}
 
 		if (JavaPlugin.DEBUG_AST_PROVIDER)
@@ -268,6 +270,7 @@ public final class ASTProvider implements IASTSharedValues {
 		fActivationListener= null;
 
 		INSTANCE.disposeAST();
+		RecentASTCache.getDefault().clear();
 		INSTANCE.waitLockNotifyAll();
 
 	}
@@ -25,7 +25,9 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.ITextInputListener;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.TextPresentation;
@@ -36,12 +38,16 @@ import org.eclipse.ui.IWorkbenchPartSite;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Block;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.ConstructorInvocation;
 import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.Initializer;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.Modifier;
 import org.eclipse.jdt.core.dom.Modifier.ModifierKeyword;
+import org.eclipse.jdt.core.dom.NodeFinder;
 import org.eclipse.jdt.core.dom.RecordDeclaration;
 import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.SimpleType;
@@ -299,9 +305,114 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		}
 	}
 
+	/**
+	 * A document range in the coordinates of the current document.
+	 *
+	 * @since 3.27
+	 */
+	private static final class ChangedRange {
+
+		private int fOffset;
+		private int fEnd;
+
+		private ChangedRange(int offset, int end) {
+			fOffset= offset;
+			fEnd= end;
+		}
+
+		/**
+		 * Shifts this range over the given document change and extends it to cover the changed text.
+		 *
+		 * @param event the document event
+		 */
+		private void update(DocumentEvent event) {
+			int eventOffset= event.getOffset();
+			int oldEnd= eventOffset + event.getLength();
+			int newEnd= eventOffset + (event.getText() == null ? 0 : event.getText().length());
+			if (fEnd >= oldEnd)
+				fEnd+= newEnd - oldEnd;
+			else if (fEnd > eventOffset)
+				fEnd= newEnd;
+			fEnd= Math.max(fEnd, newEnd);
+			fOffset= Math.min(fOffset, eventOffset);
+		}
+
+		private void include(ChangedRange range) {
+			fOffset= Math.min(fOffset, range.fOffset);
+			fEnd= Math.max(fEnd, range.fEnd);
+		}
+	}
+
+	/**
+	 * Tracks the document changes since the last reconcile.
+	 *
+	 * @since 3.27
+	 */
+	private class ChangeTracker implements IDocumentListener, ITextInputListener {
+
+		@Override
+		public void documentAboutToBeChanged(DocumentEvent event) {
+			// Do nothing
+		}
+
+		@Override
+		public void documentChanged(DocumentEvent event) {
+			addChange(event);
+		}
+
+		@Override
+		public void inputDocumentAboutToBeChanged(IDocument oldInput, IDocument newInput) {
+			if (oldInput != null)
+				oldInput.removeDocumentListener(this);
+		}
+
+		@Override
+		public void inputDocumentChanged(IDocument oldInput, IDocument newInput) {
+			if (newInput != null)
+				newInput.addDocumentListener(this);
+			markAllChanged();
+		}
+	}
+
 	/** Position collector */
 	private PositionCollector fCollector= new PositionCollector();
 
+	/**
+	 * Document change tracker
+	 * @since 3.27
+	 */
+	private final ChangeTracker fChangeTracker= new ChangeTracker();
+	/**
+	 * Lock for the changed ranges.
+	 * @since 3.27
+	 */
+	private final Object fChangeLock= new Object();
+	/**
+	 * <code>true</code> if the whole AST has to be reconciled.
+	 * @since 3.27
+	 */
+	private boolean fAllChanged= true;
+	/**
+	 * The range changed since the last reconcile, or <code>null</code> if none.
+	 * @since 3.27
+	 */
+	private ChangedRange fChangedRange;
+	/**
+	 * <code>true</code> if a reconcile of the whole AST has not been presented yet.
+	 * @since 3.27
+	 */
+	private boolean fAllPending;
+	/**
+	 * The reconciled range which has not been presented yet, or <code>null</code> if none.
+	 * @since 3.27
+	 */
+	private ChangedRange fPendingRange;
+	/**
+	 * Stamp of the last reconcile which took the changed range.
+	 * @since 3.27
+	 */
+	private int fPendingStamp;
+
 	/** The Java editor this semantic highlighting reconciler is installed on */
 	private JavaEditor fEditor;
 	/** The source viewer this semantic highlighting reconciler is installed on */
@@ -382,11 +493,31 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 			if (ast == null || fJobPresenter.isCanceled())
 				return;
 
-			ASTNode[] subtrees= getAffectedSubtrees(ast);
-			if (subtrees.length == 0)
+			int stamp;
+			ChangedRange changedRange;
+			synchronized (fChangeLock) {
+				if (forced)
+					fAllChanged= true;
+				// without a tracked change the whole AST is reconciled, like before
+				changedRange= fAllChanged ? null : fChangedRange;
+				if (changedRange == null)
+					fAllPending= true;
+				else if (fPendingRange == null)
+					fPendingRange= new ChangedRange(changedRange.fOffset, changedRange.fEnd);
+				else
+					fPendingRange.include(changedRange);
+				fAllChanged= false;
+				fChangedRange= null;
+				stamp= ++fPendingStamp;
+			}
+
+			ASTNode[] subtrees= getAffectedSubtrees(ast, changedRange);
+			if (subtrees.length == 0) {
+				presented(stamp);
 				return;
+			}
 
-			startReconcilingPositions();
+			startReconcilingPositions(subtrees);
 
 			if (!fJobPresenter.isCanceled()) {
 				fJobDeprecatedMemberHighlighting= null;
@@ -405,7 +536,9 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 				textPresentation= fJobPresenter.createPresentation(fAddedPositions, fRemovedPositions);
 
 			if (!fJobPresenter.isCanceled())
-				updatePresentation(textPresentation, fAddedPositions, fRemovedPositions);
+				updatePresentation(textPresentation, fAddedPositions, fRemovedPositions, stamp);
+			else
+				notPresented(stamp);
 
 			stopReconcilingPositions();
 		} finally {
@@ -420,19 +553,58 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	}
 
 	/**
-	 * @param node Root node
+	 * Returns the subtrees that may be affected by the given document changes.
+	 * <p>
+	 * Changes strictly inside the body of a method or initializer cannot affect the highlighting
+	 * outside of that body, in that case only the outermost such body is returned. Any other change,
+	 * e.g. to a signature, a field or an import, can have distant effects and the whole AST is
+	 * returned.
+	 * </p>
+	 *
+	 * @param ast the compilation unit AST
+	 * @param changedRange the range changed since the last reconcile, or <code>null</code> if the
+	 *            whole AST has to be reconciled
 	 * @return Array of subtrees that may be affected by past document changes
 	 */
-	private ASTNode[] getAffectedSubtrees(ASTNode node) {
-		// TODO: only return nodes which are affected by document changes - would require an 'anchor' concept for taking distant effects into account
-		return new ASTNode[] { node };
+	private ASTNode[] getAffectedSubtrees(CompilationUnit ast, ChangedRange changedRange) {
+		if (changedRange == null || changedRange.fEnd > ast.getStartPosition() + ast.getLength())
+			return new ASTNode[] { ast };
+
+		ASTNode body= null;
+		ASTNode node= NodeFinder.perform(ast, changedRange.fOffset, changedRange.fEnd - changedRange.fOffset);
+		while (node != null) {
+			if (node instanceof Block && (node.getParent() instanceof MethodDeclaration || node.getParent() instanceof Initializer)
+					&& node.getStartPosition() < changedRange.fOffset && changedRange.fEnd < node.getStartPosition() + node.getLength() - 1)
+				body= node;
+			node= node.getParent();
+		}
+
+		if (body == null)
+			return new ASTNode[] { ast };
+		return new ASTNode[] { body };
 	}
 
 	/**
 	 * Start reconciling positions.
+	 *
+	 * @param subtrees the AST subtrees, positions outside of them are retained
 	 */
-	private void startReconcilingPositions() {
-		fJobPresenter.addAllPositions(fRemovedPositions);
+	private void startReconcilingPositions(ASTNode[] subtrees) {
+		if (subtrees.length == 1 && subtrees[0] instanceof CompilationUnit) {
+			fJobPresenter.addAllPositions(fRemovedPositions);
+		} else {
+			// positions outside of the subtrees have been shifted by the position updater
+			List<Position> positions= new ArrayList<>();
+			fJobPresenter.addAllPositions(positions);
+			for (Position position : positions) {
+				for (ASTNode subtree : subtrees) {
+					if (((HighlightedPosition) position).isContained(subtree.getStartPosition(), subtree.getLength())) {
+						fRemovedPositions.add(position);
+						break;
+					}
+				}
+			}
+		}
 		fNOfRemovedPositions= fRemovedPositions.size();
 	}
 
@@ -442,10 +614,6 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 * @param subtrees the AST subtrees
 	 */
 	private void reconcilePositions(ASTNode[] subtrees) {
-		// FIXME: remove positions not covered by subtrees
-
-
-
 		for (ASTNode subtree : subtrees)
 			subtree.accept(fCollector);
 		List<Position> oldPositions= fRemovedPositions;
@@ -463,11 +631,14 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 * @param textPresentation the text presentation
 	 * @param addedPositions the added positions
 	 * @param removedPositions the removed positions
+	 * @param stamp the stamp of the reconcile
 	 */
-	private void updatePresentation(TextPresentation textPresentation, List<Position> addedPositions, List<Position> removedPositions) {
+	private void updatePresentation(TextPresentation textPresentation, List<Position> addedPositions, List<Position> removedPositions, int stamp) {
 		Runnable runnable= fJobPresenter.createUpdateRunnable(textPresentation, addedPositions, removedPositions);
-		if (runnable == null)
+		if (runnable == null) {
+			presented(stamp);
 			return;
+		}
 
 		JavaEditor editor= fEditor;
 		if (editor == null)
@@ -485,7 +656,89 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		if (display == null || display.isDisposed())
 			return;
 
-		display.asyncExec(runnable);
+		display.asyncExec(() -> {
+			runnable.run();
+			presented(stamp);
+		});
+	}
+
+	/**
+	 * Adds the given document change to the changed range.
+	 *
+	 * @param event the document event
+	 * @since 3.27
+	 */
+	private void addChange(DocumentEvent event) {
+		synchronized (fChangeLock) {
+			if (fChangedRange == null) {
+				int offset= event.getOffset();
+				fChangedRange= new ChangedRange(offset, offset + (event.getText() == null ? 0 : event.getText().length()));
+			} else {
+				fChangedRange.update(event);
+			}
+
+			// the presenter drops pending updates on document changes
+			if (fPendingRange != null) {
+				fPendingRange.update(event);
+				fChangedRange.include(fPendingRange);
+				fPendingRange= null;
+			}
+			if (fAllPending) {
+				fAllChanged= true;
+				fAllPending= false;
+			}
+		}
+	}
+
+	/**
+	 * Marks the whole AST to be reconciled.
+	 *
+	 * @since 3.27
+	 */
+	private void markAllChanged() {
+		synchronized (fChangeLock) {
+			fAllChanged= true;
+		}
+	}
+
+	/**
+	 * Clears the pending ranges after the reconcile with the given stamp has been presented.
+	 *
+	 * @param stamp the stamp of the reconcile
+	 * @since 3.27
+	 */
+	private void presented(int stamp) {
+		synchronized (fChangeLock) {
+			if (stamp == fPendingStamp) {
+				fPendingRange= null;
+				fAllPending= false;
+			}
+		}
+	}
+
+	/**
+	 * Restores the pending ranges as changed ranges after the reconcile with the given stamp has
+	 * been canceled.
+	 *
+	 * @param stamp the stamp of the reconcile
+	 * @since 3.27
+	 */
+	private void notPresented(int stamp) {
+		synchronized (fChangeLock) {
+			if (stamp != fPendingStamp)
+				return;
+			if (fPendingRange != null) {
+				if (fChangedRange == null)
+					fChangedRange= fPendingRange;
+				else
+					fChangedRange.include(fPendingRange);
+				fPendingRange= null;
+			}
+			if (fAllPending) {
+				fAllChanged= true;
+				fAllPending= false;
+			}
+		}
 	}
 
 	/**
@@ -513,6 +766,12 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		fEditor= editor;
 		fSourceViewer= sourceViewer;
 
+		markAllChanged();
+		fSourceViewer.addTextInputListener(fChangeTracker);
+		IDocument document= fSourceViewer.getDocument();
+		if (document != null)
+			document.addDocumentListener(fChangeTracker);
+
 		if (fEditor instanceof CompilationUnitEditor) {
 			((CompilationUnitEditor)fEditor).addReconcileListener(this);
 		} else if (fEditor == null) {
@@ -536,6 +795,13 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 			fEditor= null;
 		}
 
+		if (fSourceViewer != null) {
+			fSourceViewer.removeTextInputListener(fChangeTracker);
+			IDocument document= fSourceViewer.getDocument();
+			if (document != null)
+				document.removeDocumentListener(fChangeTracker);
+		}
+
 		fSourceViewer= null;
 		fSemanticHighlightings= null;
 		fHighlightings= null;
@@ -614,6 +880,7 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 * @since 3.2
 	 */
 	public void refresh() {
+		markAllChanged();
 		scheduleJob();
 	}
 }
@@ -67,14 +67,40 @@ public class JavaReferenceCodeMining extends AbstractJavaElementLineHeaderCodeMi
 
 	private final boolean showReferencesAtLeastOne;
 
+	private final JavaReferenceCounter.Batch batch;
+
 	private Consumer<MouseEvent> action;
 
 	public JavaReferenceCodeMining(IJavaElement element, JavaEditor editor, IDocument document,
 			ICodeMiningProvider provider, boolean showReferencesAtLeastOne)
 			throws JavaModelException, BadLocationException {
+		this(element, editor, document, provider, showReferencesAtLeastOne, null);
+	}
+
+	/**
+	 * Creates a reference code mining whose references are counted together with the other
+	 * members of the batch.
+	 *
+	 * @param element the member
+	 * @param editor the Java editor
+	 * @param document the document
+	 * @param provider the code mining provider
+	 * @param showReferencesAtLeastOne whether to hide the mining when there are no references
+	 * @param batch the batch, or <code>null</code> to search the references of the member alone
+	 * @throws JavaModelException when java error
+	 * @throws BadLocationException when the member is not in the document
+	 * @since 3.27
+	 */
+	JavaReferenceCodeMining(IJavaElement element, JavaEditor editor, IDocument document,
+			ICodeMiningProvider provider, boolean showReferencesAtLeastOne, JavaReferenceCounter.Batch batch)
+			throws JavaModelException, BadLocationException {
 		super(element, document, provider, null);
 		this.editor= editor;
 		this.showReferencesAtLeastOne= showReferencesAtLeastOne;
+		this.batch= batch;
+		if (batch != null) {
+			batch.add(element);
+		}
 	}
 
 	@SuppressWarnings("boxing")
@@ -84,7 +110,7 @@ public class JavaReferenceCodeMining extends AbstractJavaElementLineHeaderCodeMi
 			try {
 				monitor.isCanceled();
 				IJavaElement element= super.getElement();
-				long refCount= countReferences(element, monitor);
+				long refCount= batch != null ? batch.countReferences(element, monitor) : countReferences(element, monitor);
 				monitor.isCanceled();
 				action= refCount > 0 ? e -> {
 					if (refCount == 1 && ((e.stateMask & SWT.CTRL) == SWT.CTRL || (e.stateMask & SWT.COMMAND) == SWT.COMMAND)) {
@@ -133,7 +159,7 @@ public class JavaReferenceCodeMining extends AbstractJavaElementLineHeaderCodeMi
 	 * @throws JavaModelException throws when java error.
 	 * @throws CoreException throws when java error.
 	 */
-	private static long countReferences(IJavaElement element, IProgressMonitor monitor)
+	static long countReferences(IJavaElement element, IProgressMonitor monitor)
 			throws JavaModelException, CoreException {
 		if (element == null) {
 			return 0;
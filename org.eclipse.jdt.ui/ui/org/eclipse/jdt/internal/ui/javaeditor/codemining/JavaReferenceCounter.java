@@ -0,0 +1,432 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.javaeditor.codemining;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.search.ui.NewSearchUI;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.FieldReferenceMatch;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.MethodReferenceMatch;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
+import org.eclipse.jdt.core.search.TypeReferenceMatch;
+
+import org.eclipse.jdt.internal.corext.util.SearchResultDeltas;
+
+import org.eclipse.jdt.internal.ui.search.JavaSearchScopeFactory;
+
+/**
+ * Counts the references to the members of an editor with one search for all members.
+ * <p>
+ * The members are searched with an OR pattern. A match is attributed to the only member of its
+ * kind, or else to the member selected at the match in the type root of the match's enclosing
+ * element. Constructors are not counted here but searched one by one.
+ * </p>
+ * <p>
+ * The counts are cached per referencing compilation unit. When the counts of a member are
+ * requested again, only the units whose bodies changed since its last search and the units with
+ * unsaved changes are searched again. Structural changes clear the cache, see
+ * {@link SearchResultDeltas}.
+ * </p>
+ *
+ * @since 3.27
+ */
+public final class JavaReferenceCounter implements IElementChangedListener {
+
+	/**
+	 * The reference minings of one editor update. The references of all members are counted when
+	 * the first mining is resolved.
+	 */
+	static final class Batch {
+
+		private final List<IJavaElement> fElements= new ArrayList<>();
+
+		private Map<IJavaElement, Long> fCounts;
+
+		synchronized void add(IJavaElement element) {
+			fElements.add(element);
+		}
+
+		/**
+		 * Returns the number of references to an element of this batch.
+		 *
+		 * @param element the element
+		 * @param monitor the progress monitor
+		 * @return the number of references
+		 * @throws CoreException if the search fails
+		 */
+		long countReferences(IJavaElement element, IProgressMonitor monitor) throws CoreException {
+			Map<IJavaElement, Long> counts;
+			synchronized (this) {
+				if (fCounts == null)
+					fCounts= getDefault().countReferences(fElements.toArray(new IJavaElement[fElements.size()]), monitor);
+				counts= fCounts;
+			}
+			Long count= counts.get(element);
+			if (count != null)
+				return count.longValue();
+			return JavaReferenceCodeMining.countReferences(element, monitor);
+		}
+	}
+
+	private static final class Entry {
+
+		/** The generation when the references have been searched */
+		final long fGeneration;
+
+		/** The handles of the units which had unsaved changes at that time */
+		final Set<String> fVolatileUnits;
+
+		/** The number of references by handle of the referencing unit */
+		final Map<String, Integer> fCounts;
+
+		Entry(long generation, Set<String> volatileUnits, Map<String, Integer> counts) {
+			fGeneration= generation;
+			fVolatileUnits= volatileUnits;
+			fCounts= counts;
+		}
+
+		long getCount() {
+			long count= 0;
+			for (Integer unitCount : fCounts.values())
+				count+= unitCount.intValue();
+			return count;
+		}
+	}
+
+	/** The maximum number of cached members */
+	private static final int MAX_ENTRIES= 5000;
+
+	private static final char TYPE= 'T';
+
+	private static final char METHOD= 'M';
+
+	private static final char FIELD= 'F';
+
+	private static JavaReferenceCounter fgInstance;
+
+	/** The entries by member handle, in access order */
+	private final Map<String, Entry> fEntries= new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+		private static final long serialVersionUID= 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/** The generation of the last change by the handle of the primary compilation unit */
+	private final Map<String, Long> fChangedUnits= new HashMap<>();
+
+	/** Incremented for each change */
+	private long fGeneration;
+
+	/** The generation of the last clear, searches started before must not be stored */
+	private long fClearedGeneration;
+
+	/** The value of {@link NewSearchUI#arePotentialMatchesIgnored()} for the cached counts */
+	private boolean fPotentialMatchesIgnored;
+
+	private JavaReferenceCounter() {
+	}
+
+	/**
+	 * Returns the shared reference counter.
+	 *
+	 * @return the reference counter
+	 */
+	public static synchronized JavaReferenceCounter getDefault() {
+		if (fgInstance == null) {
+			fgInstance= new JavaReferenceCounter();
+			JavaCore.addElementChangedListener(fgInstance, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+		}
+		return fgInstance;
+	}
+
+	/**
+	 * Stops listening to changes of the Java model. Called when the plug-in is stopped.
+	 */
+	public static synchronized void shutdown() {
+		if (fgInstance != null) {
+			JavaCore.removeElementChangedListener(fgInstance);
+			fgInstance= null;
+		}
+	}
+
+	/**
+	 * Counts the references to the given elements in the workspace.
+	 *
+	 * @param elements the elements
+	 * @param monitor the progress monitor
+	 * @return the number of references by element, without the elements that have to be searched
+	 *         one by one
+	 * @throws CoreException if the search fails
+	 */
+	public Map<IJavaElement, Long> countReferences(IJavaElement[] elements, IProgressMonitor monitor) throws CoreException {
+		List<IJavaElement> fullSearch= new ArrayList<>();
+		Map<IJavaElement, Entry> partialSearch= new HashMap<>();
+		Set<String> changedUnits= new HashSet<>();
+		boolean ignoreInaccurate= NewSearchUI.arePotentialMatchesIgnored();
+		long generation;
+		synchronized (this) {
+			if (ignoreInaccurate != fPotentialMatchesIgnored) {
+				clear();
+				fPotentialMatchesIgnored= ignoreInaccurate;
+			}
+			generation= fGeneration;
+			for (IJavaElement element : getBatchableElements(elements)) {
+				Entry entry= fEntries.get(element.getHandleIdentifier());
+				if (entry == null) {
+					fullSearch.add(element);
+				} else {
+					partialSearch.put(element, entry);
+					for (Map.Entry<String, Long> changedUnit : fChangedUnits.entrySet()) {
+						if (changedUnit.getValue().longValue() > entry.fGeneration)
+							changedUnits.add(changedUnit.getKey());
+					}
+					changedUnits.addAll(entry.fVolatileUnits);
+				}
+			}
+		}
+
+		Set<String> unsavedUnits= new HashSet<>();
+		for (ICompilationUnit workingCopy : JavaCore.getWorkingCopies(null)) {
+			if (workingCopy.hasUnsavedChanges())
+				unsavedUnits.add(workingCopy.getPrimary().getHandleIdentifier());
+		}
+		changedUnits.addAll(unsavedUnits);
+
+		Map<IJavaElement, Map<String, Integer>> found= new HashMap<>();
+		Set<IJavaElement> unresolved= new HashSet<>();
+		if (!fullSearch.isEmpty())
+			search(fullSearch, JavaSearchScopeFactory.getInstance().createWorkspaceScope(false), ignoreInaccurate, found, unresolved, monitor);
+		if (!partialSearch.isEmpty()) {
+			List<IJavaElement> units= new ArrayList<>(changedUnits.size());
+			for (String handle : changedUnits) {
+				IJavaElement unit= JavaCore.create(handle);
+				if (unit != null && unit.exists())
+					units.add(unit);
+			}
+			if (!units.isEmpty())
+				search(partialSearch.keySet(), SearchEngine.createJavaSearchScope(units.toArray(new IJavaElement[units.size()])), ignoreInaccurate, found, unresolved, monitor);
+		}
+
+		Map<IJavaElement, Entry> newEntries= new HashMap<>();
+		for (IJavaElement element : fullSearch) {
+			Map<String, Integer> counts= found.get(element);
+			newEntries.put(element, new Entry(generation, unsavedUnits, counts != null ? counts : new HashMap<>(0)));
+		}
+		for (Map.Entry<IJavaElement, Entry> partial : partialSearch.entrySet()) {
+			Map<String, Integer> counts= new HashMap<>(partial.getValue().fCounts);
+			counts.keySet().removeAll(changedUnits);
+			Map<String, Integer> changedCounts= found.get(partial.getKey());
+			if (changedCounts != null)
+				counts.putAll(changedCounts);
+			newEntries.put(partial.getKey(), new Entry(generation, unsavedUnits, counts));
+		}
+
+		Map<IJavaElement, Long> result= new HashMap<>();
+		synchronized (this) {
+			for (Map.Entry<IJavaElement, Entry> newEntry : newEntries.entrySet()) {
+				IJavaElement element= newEntry.getKey();
+				String key= element.getHandleIdentifier();
+				if (unresolved.contains(element)) {
+					fEntries.remove(key);
+					continue;
+				}
+				Entry current= fEntries.get(key);
+				if (generation >= fClearedGeneration && (current == null || current.fGeneration <= generation))
+					fEntries.put(key, newEntry.getValue());
+				result.put(element, Long.valueOf(newEntry.getValue().getCount()));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the elements whose references can be searched together.
+	 *
+	 * @param elements the elements
+	 * @return the elements that can be searched together
+	 */
+	private static List<IJavaElement> getBatchableElements(IJavaElement[] elements) {
+		Set<IJavaElement> batchable= new LinkedHashSet<>();
+		for (IJavaElement element : elements) {
+			if (isBatchable(element))
+				batchable.add(element);
+		}
+		return new ArrayList<>(batchable);
+	}
+
+	private static boolean isBatchable(IJavaElement element) {
+		if (!(element instanceof IMember) || !(((IMember) element).getTypeRoot() instanceof ICompilationUnit))
+			return false;
+		try {
+			return !(element instanceof IMethod) || !((IMethod) element).isConstructor();
+		} catch (JavaModelException e) {
+			return false;
+		}
+	}
+
+	private static char getKind(IJavaElement element) {
+		switch (element.getElementType()) {
+			case IJavaElement.TYPE:
+				return TYPE;
+			case IJavaElement.METHOD:
+				return METHOD;
+			default:
+				return FIELD;
+		}
+	}
+
+	private static char getKind(SearchMatch match) {
+		if (match instanceof TypeReferenceMatch)
+			return TYPE;
+		if (match instanceof MethodReferenceMatch)
+			return METHOD;
+		if (match instanceof FieldReferenceMatch)
+			return FIELD;
+		return 0;
+	}
+
+	/**
+	 * Searches the references to the given elements and counts them by element and referencing unit.
+	 *
+	 * @param elements the elements
+	 * @param scope the search scope
+	 * @param ignoreInaccurate <code>true</code> if potential matches are not counted
+	 * @param found the counts by element and handle of the referencing unit
+	 * @param unresolved the elements some references could not be attributed to
+	 * @param monitor the progress monitor
+	 * @throws CoreException if the search fails
+	 */
+	private static void search(Collection<IJavaElement> elements, IJavaSearchScope scope, boolean ignoreInaccurate, Map<IJavaElement, Map<String, Integer>> found, Set<IJavaElement> unresolved, IProgressMonitor monitor) throws CoreException {
+		Map<Character, List<IJavaElement>> byKind= new HashMap<>();
+		SearchPattern pattern= null;
+		for (IJavaElement element : elements) {
+			SearchPattern elementPattern= SearchPattern.createPattern(element, IJavaSearchConstants.REFERENCES);
+			if (elementPattern == null)
+				continue;
+			byKind.computeIfAbsent(Character.valueOf(getKind(element)), k -> new ArrayList<>()).add(element);
+			pattern= pattern == null ? elementPattern : SearchPattern.createOrPattern(pattern, elementPattern);
+		}
+		if (pattern == null)
+			return;
+
+		new SearchEngine().search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, scope, new SearchRequestor() {
+
+			@Override
+			public void acceptSearchMatch(SearchMatch match) throws CoreException {
+				if (match.getAccuracy() == SearchMatch.A_INACCURATE && ignoreInaccurate) {
+					return;
+				}
+				Object o= match.getElement();
+				if (!(o instanceof IJavaElement)) {
+					return;
+				}
+				IJavaElement e= (IJavaElement) o;
+				ITypeRoot unit= (ITypeRoot) e.getAncestor(IJavaElement.COMPILATION_UNIT);
+				if (unit == null) {
+					unit= (ITypeRoot) e.getAncestor(IJavaElement.CLASS_FILE);
+					if (unit == null) {
+						return;
+					}
+				}
+				List<IJavaElement> candidates= byKind.get(Character.valueOf(getKind(match)));
+				if (candidates == null) {
+					return;
+				}
+				IJavaElement referenced= getReferencedElement(match, unit, candidates);
+				if (referenced == null) {
+					// e.g. a class file without source, search the candidates one by one
+					unresolved.addAll(candidates);
+					return;
+				}
+				String unitHandle= unit instanceof ICompilationUnit ? ((ICompilationUnit) unit).getPrimary().getHandleIdentifier() : unit.getHandleIdentifier();
+				found.computeIfAbsent(referenced, k -> new HashMap<>()).merge(unitHandle, Integer.valueOf(1), Integer::sum);
+			}
+		}, monitor);
+	}
+
+	/**
+	 * Returns the element referenced by a match: the only candidate, or else the candidate which
+	 * is selected at the match in the type root of the match's enclosing element.
+	 *
+	 * @param match the match
+	 * @param unit the type root of the match's enclosing element
+	 * @param candidates the searched elements of the kind of the match
+	 * @return the referenced element, or <code>null</code> if it cannot be determined
+	 * @throws JavaModelException if the element cannot be selected
+	 */
+	private static IJavaElement getReferencedElement(SearchMatch match, ITypeRoot unit, List<IJavaElement> candidates) throws JavaModelException {
+		if (candidates.size() == 1) {
+			return candidates.get(0);
+		}
+		// the range of qualified or parameterized references does not select the referenced element
+		for (int length : new int[] { match.getLength(), 0 }) {
+			for (IJavaElement selected : unit.codeSelect(match.getOffset(), length)) {
+				if (candidates.contains(selected)) {
+					return selected;
+				}
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		Set<String> changedUnits= new HashSet<>();
+		boolean local= SearchResultDeltas.collectChangedUnits(event.getDelta(), changedUnits);
+		synchronized (this) {
+			if (!local) {
+				clear();
+				return;
+			}
+			for (String unit : changedUnits)
+				fChangedUnits.put(unit, Long.valueOf(++fGeneration));
+		}
+	}
+
+	private void clear() {
+		fEntries.clear();
+		fChangedUnits.clear();
+		fClearedGeneration= ++fGeneration;
+	}
+}
@@ -49,7 +49,7 @@ public class PackageCache {
 
 	/**
 	 * Caches the children of a package in a package root. The cache for a package root is built on the
-	 * first query.
+	 * first query. Thread safe, the children of large packages are fetched in the background.
 	 */
 	static class PerRootCache {
 
@@ -57,17 +57,23 @@ public class PackageCache {
 
 		boolean hasSingleChild(IPackageFragment packageFragment) throws JavaModelException {
 			PackageCache packagesOfRoot= getPackageCache(packageFragment);
-			return packagesOfRoot.hasSingleChild(packageFragment);
+			synchronized (packagesOfRoot) {
+				return packagesOfRoot.hasSingleChild(packageFragment);
+			}
 		}
 
 		IPackageFragment getSingleChild(IPackageFragment packageFragment) throws JavaModelException {
 			PackageCache packagesOfRoot= getPackageCache(packageFragment);
-			return packagesOfRoot.getSingleChild(packageFragment);
+			synchronized (packagesOfRoot) {
+				return packagesOfRoot.getSingleChild(packageFragment);
+			}
 		}
 
 		List<IPackageFragment> getDirectChildren(IPackageFragment packageFragment) throws JavaModelException {
 			PackageCache packagesOfRoot= getPackageCache(packageFragment);
-			return packagesOfRoot.getDirectChildren(packageFragment);
+			synchronized (packagesOfRoot) {
+				return packagesOfRoot.getDirectChildren(packageFragment);
+			}
 		}
 
 		private PackageCache getPackageCache(IPackageFragment packageFragment) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,8 +16,10 @@ package org.eclipse.jdt.internal.ui.packageview;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
@@ -28,19 +30,26 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
 
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
 
+import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.jface.viewers.IBasicPropertyConstants;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerComparator;
 
 import org.eclipse.ui.IWorkingSet;
+import org.eclipse.ui.progress.DeferredTreeContentManager;
+import org.eclipse.ui.progress.IDeferredWorkbenchAdapter;
+import org.eclipse.ui.progress.IElementCollector;
+import org.eclipse.ui.progress.PendingUpdateAdapter;
 import org.eclipse.ui.progress.UIJob;
 
 import org.eclipse.jdt.core.ElementChangedEvent;
@@ -83,6 +92,94 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	protected static final int GRANT_PARENT= 1 << 1;
 	protected static final int PROJECT= 1 << 2;
 
+	/**
+	 * The number of Java children from which on the children of a package, package fragment root
+	 * or container are fetched and added to the viewer in the background, see
+	 * {@link #setDeferredChildrenThreshold(int)}.
+	 */
+	public static final int DEFERRED_CHILDREN_THRESHOLD= 1000;
+
+	/** The number of deferred children added to the viewer at once */
+	private static final int PAGE_SIZE= 500;
+
+	/**
+	 * Fetches the children of a parent in the background, sorts them in the display thread and adds
+	 * them to the viewer page by page. The viewer shows a pending node until all pages have been
+	 * added.
+	 */
+	private final class DeferredChildren implements IDeferredWorkbenchAdapter, ISchedulingRule {
+
+		@Override
+		public void fetchDeferredChildren(Object parent, IElementCollector collector, IProgressMonitor monitor) {
+			ViewerComparator comparator;
+			synchronized (fDeferredParents) {
+				if (!fDeferredParents.remove(parent)) {
+					collector.done();
+					return;
+				}
+				comparator= fDeferredComparator;
+			}
+			Object[] children= getAllChildren(parent);
+			if (comparator != null && !monitor.isCanceled()) {
+				// sorted pages are appended to the end of the tree, the comparator may ask the
+				// label provider of the viewer and is only called in the display thread
+				Control ctrl= fViewer.getControl();
+				if (ctrl == null || ctrl.isDisposed()) {
+					collector.done();
+					return;
+				}
+				ctrl.getDisplay().syncExec(() -> {
+					if (!ctrl.isDisposed())
+						comparator.sort(fViewer, children);
+				});
+			}
+			for (int i= 0; i < children.length && !monitor.isCanceled(); i+= PAGE_SIZE) {
+				collector.add(Arrays.copyOfRange(children, i, Math.min(i + PAGE_SIZE, children.length)), monitor);
+			}
+			collector.done();
+		}
+
+		@Override
+		public boolean isContainer() {
+			return true;
+		}
+
+		@Override
+		public ISchedulingRule getRule(Object object) {
+			return this;
+		}
+
+		@Override
+		public boolean contains(ISchedulingRule rule) {
+			return rule == this;
+		}
+
+		@Override
+		public boolean isConflicting(ISchedulingRule rule) {
+			return rule == this;
+		}
+
+		@Override
+		public Object[] getChildren(Object o) {
+			return NO_CHILDREN;
+		}
+
+		@Override
+		public ImageDescriptor getImageDescriptor(Object object) {
+			return null;
+		}
+
+		@Override
+		public String getLabel(Object o) {
+			return null;
+		}
+
+		@Override
+		public Object getParent(Object o) {
+			return null;
+		}
+	}
+
 	private TreeViewer fViewer;
 	private Object fInput;
 	private boolean fIsFlatLayout;
@@ -93,6 +190,18 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 
 	private UIJob fUpdateJob;
 
+	private int fDeferredChildrenThreshold;
+
+	/** Greater than zero while the children are requested synchronously */
+	private int fSynchronousRequests;
+
+	private DeferredTreeContentManager fDeferredManager;
+
+	/** The parents whose children are to be fetched in the background */
+	private final Set<Object> fDeferredParents= new HashSet<>();
+
+	private ViewerComparator fDeferredComparator;
+
 	/**
 	 * We use a cache to know whether a package has a single child for the hierarchical representation.
 	 * This avoids looping over all packages for each call to
@@ -290,8 +399,114 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	}
 
 
+	/**
+	 * Sets the number of Java children from which on the children of a package, package fragment
+	 * root or container are fetched and sorted in the background and added to the viewer in pages.
+	 * The viewer shows a pending node until all children have been added. The children of a parent
+	 * which already shows children in the viewer are always returned at once, so that a refresh
+	 * keeps the expansion and the selection.
+	 *
+	 * @param threshold the minimal number of Java children, or <code>0</code> to always return all
+	 *            children at once
+	 * @see #DEFERRED_CHILDREN_THRESHOLD
+	 */
+	public void setDeferredChildrenThreshold(int threshold) {
+		fDeferredChildrenThreshold= threshold;
+	}
+
+	/**
+	 * Runs the given runnable with all children returned at once, e.g. to reveal an element in a
+	 * large package. Must be called in the display thread.
+	 *
+	 * @param runnable the runnable
+	 */
+	public void runWithAllChildren(Runnable runnable) {
+		fSynchronousRequests++;
+		try {
+			runnable.run();
+		} finally {
+			fSynchronousRequests--;
+		}
+	}
+
+	@Override
+	public boolean hasChildren(Object element) {
+		fSynchronousRequests++;
+		try {
+			return super.hasChildren(element);
+		} finally {
+			fSynchronousRequests--;
+		}
+	}
+
 	@Override
 	public Object[] getChildren(Object parentElement) {
+		if (fDeferredChildrenThreshold > 0 && fSynchronousRequests == 0 && isDeferrable(parentElement)) {
+			Object[] pending= deferChildren(parentElement);
+			if (pending != null)
+				return pending;
+		}
+		return getAllChildren(parentElement);
+	}
+
+	private boolean isDeferrable(Object parentElement) {
+		try {
+			if (parentElement instanceof IPackageFragment)
+				return ((IPackageFragment) parentElement).getChildren().length >= fDeferredChildrenThreshold;
+			if (parentElement instanceof IPackageFragmentRoot)
+				return ((IPackageFragmentRoot) parentElement).getChildren().length >= fDeferredChildrenThreshold;
+			if (parentElement instanceof PackageFragmentRootContainer)
+				return ((PackageFragmentRootContainer) parentElement).getChildren().length >= fDeferredChildrenThreshold;
+		} catch (JavaModelException e) {
+			// the children are fetched right away and report the problem
+		}
+		return false;
+	}
+
+	/**
+	 * Tells whether the viewer already shows children of the given parent. These children are
+	 * replaced by the children returned at once, a pending node would collapse the parent.
+	 *
+	 * @param parentElement the parent
+	 * @return <code>true</code> if a tree item of the parent has other children than the dummy
+	 *         node or a pending node
+	 */
+	private boolean isPopulated(Object parentElement) {
+		Widget item= fViewer.testFindItem(parentElement);
+		if (item instanceof TreeItem) {
+			for (TreeItem child : ((TreeItem) item).getItems()) {
+				Object data= child.getData();
+				if (data != null && !(data instanceof PendingUpdateAdapter))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	private Object[] deferChildren(Object parentElement) {
+		if (fViewer == null || fViewer.getControl().isDisposed() || fViewer.getControl().getDisplay().getThread() != Thread.currentThread())
+			return null;
+		if (fDeferredManager == null) {
+			final DeferredChildren adapter= new DeferredChildren();
+			fDeferredManager= new DeferredTreeContentManager(fViewer) {
+				@Override
+				protected IDeferredWorkbenchAdapter getAdapter(Object element) {
+					synchronized (fDeferredParents) {
+						return fDeferredParents.contains(element) ? adapter : null;
+					}
+				}
+			};
+		}
+		if (isPopulated(parentElement))
+			return null;
+		synchronized (fDeferredParents) {
+			fDeferredParents.add(parentElement);
+			fDeferredComparator= fViewer.getComparator();
+		}
+		return fDeferredManager.getChildren(parentElement);
+	}
+
+	private Object[] getAllChildren(Object parentElement) {
 		try {
 			if (parentElement instanceof IJavaModel)
 				return concatenate(getJavaProjects((IJavaModel)parentElement), getNonJavaProjects((IJavaModel)parentElement));
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -594,6 +594,7 @@ public class PackageExplorerPart extends ViewPart
 		fContentProvider= createContentProvider();
 		fContentProvider.setIsFlatLayout(fIsCurrentLayoutFlat);
 		fContentProvider.setShowLibrariesNode(fShowLibrariesNode);
+		fContentProvider.setDeferredChildrenThreshold(PackageExplorerContentProvider.DEFERRED_CHILDREN_THRESHOLD);
 		fViewer.setContentProvider(fContentProvider);
 
 		fViewer.setComparer(createElementComparer());
@@ -831,7 +832,7 @@ public class PackageExplorerPart extends ViewPart
 			return;
 
 		fContentProvider.runPendingUpdates();
-		fViewer.setSelection(convertSelection(selection), true);
+		fContentProvider.runWithAllChildren(() -> fViewer.setSelection(convertSelection(selection), true));
 	}
 
 	public ISelection convertSelection(ISelection s) {
@@ -1044,6 +1045,12 @@ public class PackageExplorerPart extends ViewPart
 	}
 
 	boolean showInput(Object input) {
+		boolean[] shown= new boolean[1];
+		fContentProvider.runWithAllChildren(() -> shown[0]= internalShowInput(input));
+		return shown[0];
+	}
+
+	private boolean internalShowInput(Object input) {
 		Object element= null;
 
 		if (input instanceof IFile && isOnClassPath((IFile)input)) {
@@ -44,6 +44,7 @@ import org.eclipse.ui.editors.text.EditorsUI;
 import org.eclipse.jdt.ui.PreferenceConstants;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.text.spelling.engine.CompactSpellDictionary;
 import org.eclipse.jdt.internal.ui.text.spelling.engine.DefaultSpellChecker;
 import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellCheckEngine;
 import org.eclipse.jdt.internal.ui.text.spelling.engine.ISpellChecker;
@@ -62,6 +63,14 @@ public class SpellCheckEngine implements ISpellCheckEngine, IPropertyChangeListe
 	/** The dictionary location */
 	public static final String DICTIONARY_LOCATION= "dictionaries/"; //$NON-NLS-1$
 
+	/**
+	 * Tells whether the platform dictionaries are loaded into hash maps instead of sharing a
+	 * memory mapped {@link CompactSpellDictionary compact index}.
+	 *
+	 * @since 3.27
+	 */
+	private static final boolean USE_HASH_MAP_DICTIONARIES= Boolean.getBoolean("org.eclipse.jdt.ui.spelling.hashMapDictionaries"); //$NON-NLS-1$
+
 	/** The singleton engine instance */
 	private static ISpellCheckEngine fgEngine= null;
 
@@ -281,7 +290,10 @@ public class SpellCheckEngine implements ISpellCheckEngine, IPropertyChangeListe
 				for (final Iterator<Locale> iterator= getLocalesWithInstalledDictionaries(location).iterator(); iterator.hasNext();) {
 
 					locale= iterator.next();
-					fLocaleDictionaries.put(locale, new LocaleSensitiveSpellDictionary(locale, location));
+					if (USE_HASH_MAP_DICTIONARIES)
+						fLocaleDictionaries.put(locale, new LocaleSensitiveSpellDictionary(locale, location));
+					else
+						fLocaleDictionaries.put(locale, new CompactSpellDictionary(new URL(location, locale.toString() + ".dictionary"))); //$NON-NLS-1$
 				}
 			}
 
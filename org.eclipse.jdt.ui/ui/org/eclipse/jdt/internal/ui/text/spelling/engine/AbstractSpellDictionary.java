@@ -30,6 +30,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -353,14 +354,41 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 		}
 
 		final String hash= fHashProvider.getHash(word);
-		final char[] mutators= fHashProvider.getMutators();
-
-		final ArrayList<String> neighborhood= new ArrayList<>((word.length() + 1) * (mutators.length + 2));
+		final ArrayList<String> neighborhood= new ArrayList<>((word.length() + 1) * (fHashProvider.getMutators().length + 2));
 		neighborhood.add(hash);
 
 		final Set<RankedWordProposal> candidates= getCandidates(word, sentence, neighborhood);
 		neighborhood.clear();
 
+		addNeighborhood(fHashProvider, word, neighborhood);
+
+		neighborhood.remove(hash);
+		final Set<RankedWordProposal> matches= getCandidates(word, sentence, neighborhood);
+
+		if (matches.isEmpty() && candidates.isEmpty())
+			getCandidates(word, sentence, candidates);
+
+		candidates.addAll(matches);
+
+		return candidates;
+	}
+
+	/**
+	 * Adds the phonetic hashes of the words which differ from the specified word by one swapped,
+	 * inserted, replaced or deleted character.
+	 *
+	 * @param hashProvider
+	 *                   The phonetic hash provider
+	 * @param word
+	 *                   The word to compute the neighborhood for
+	 * @param neighborhood
+	 *                   The list to add the hashes to
+	 * @since 3.27
+	 */
+	static void addNeighborhood(final IPhoneticHashProvider hashProvider, final String word, final List<String> neighborhood) {
+
+		final char[] mutators= hashProvider.getMutators();
+
 		char previous= 0;
 		char next= 0;
 
@@ -373,7 +401,7 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 			characters[index]= previous;
 			characters[index + 1]= next;
 
-			neighborhood.add(fHashProvider.getHash(new String(characters)));
+			neighborhood.add(hashProvider.getHash(new String(characters)));
 
 			characters[index]= next;
 			characters[index + 1]= previous;
@@ -389,7 +417,7 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 			for (char mutator : mutators) {
 
 				characters[offset]= mutator;
-				neighborhood.add(fHashProvider.getHash(new String(characters)));
+				neighborhood.add(hashProvider.getHash(new String(characters)));
 			}
 
 			if (offset == 0)
@@ -408,7 +436,7 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 			for (char mutator2 : mutators) {
 
 				characters[index]= mutator2;
-				neighborhood.add(fHashProvider.getHash(new String(characters)));
+				neighborhood.add(hashProvider.getHash(new String(characters)));
 			}
 			characters[index]= mutated;
 		}
@@ -423,7 +451,7 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 
 		while (true) {
 
-			neighborhood.add(fHashProvider.getHash(new String(characters)));
+			neighborhood.add(hashProvider.getHash(new String(characters)));
 			if (offset == 0)
 				break;
 
@@ -433,16 +461,6 @@ public abstract class AbstractSpellDictionary implements ISpellDictionary {
 			deleted[offset - 1]= previous;
 			--offset;
 		}
-
-		neighborhood.remove(hash);
-		final Set<RankedWordProposal> matches= getCandidates(word, sentence, neighborhood);
-
-		if (matches.isEmpty() && candidates.isEmpty())
-			getCandidates(word, sentence, candidates);
-
-		candidates.addAll(matches);
-
-		return candidates;
 	}
 
 	/**
@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.spelling.engine;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.jdt.ui.PreferenceConstants;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+
+/**
+ * Platform wide read-only dictionary backed by a {@link CompactWordIndex}.
+ * <p>
+ * The index of a word list is built once, cached in the state location of the plug-in and
+ * memory mapped from there. All dictionaries of the same word list share one index, unloading a
+ * dictionary only drops its reference to the index.
+ * </p>
+ *
+ * @since 3.27
+ */
+public class CompactSpellDictionary implements ISpellDictionary {
+
+	/** The maximum number of candidates per phonetic hash, see https://bugs.eclipse.org/bugs/show_bug.cgi?id=195357 */
+	private static final int CANDIDATE_LIMIT= 500;
+
+	/** The distance threshold */
+	private static final int DISTANCE_THRESHOLD= 160;
+
+	/** The cache directory in the state location */
+	private static final String CACHE_DIRECTORY= "spelling"; //$NON-NLS-1$
+
+	/** The shared indexes by URL and encoding */
+	private static final Map<String, CompactWordIndex> fgIndexes= new HashMap<>();
+
+	/** The phonetic distance algorithm */
+	private final IPhoneticDistanceAlgorithm fDistanceAlgorithm= new DefaultPhoneticDistanceAlgorithm();
+
+	/** The phonetic hash provider */
+	private final IPhoneticHashProvider fHashProvider= new DefaultPhoneticHashProvider();
+
+	/** The location of the word list */
+	private final URL fLocation;
+
+	/** The index, or <code>null</code> if not loaded */
+	private volatile CompactWordIndex fIndex;
+
+	/** Must the dictionary be loaded? */
+	private boolean fMustLoad= true;
+
+	/** Tells whether to strip non-letters at word boundaries. */
+	private boolean fIsStrippingNonLetters= true;
+
+	/**
+	 * Creates a new compact spell dictionary.
+	 *
+	 * @param url the URL of the word list for this dictionary
+	 */
+	public CompactSpellDictionary(final URL url) {
+		fLocation= url;
+	}
+
+	/**
+	 * Returns the shared index of a word list.
+	 *
+	 * @param url the URL of the word list
+	 * @param encoding the encoding of the word list
+	 * @param hashProvider the phonetic hash provider
+	 * @return the index, or <code>null</code> if the word list could not be read
+	 */
+	private static synchronized CompactWordIndex getSharedIndex(final URL url, final String encoding, final IPhoneticHashProvider hashProvider) {
+		final String key= url.toExternalForm() + '\n' + encoding;
+		CompactWordIndex index= fgIndexes.get(key);
+		if (index != null)
+			return index;
+
+		File cacheDirectory= null;
+		final JavaPlugin plugin= JavaPlugin.getDefault();
+		if (plugin != null)
+			cacheDirectory= plugin.getStateLocation().append(CACHE_DIRECTORY).toFile();
+
+		try {
+			index= CompactWordIndex.load(url, encoding, hashProvider, cacheDirectory);
+		} catch (FileNotFoundException exception) {
+			final String urlString= url.toString();
+			final String lowercaseUrlString= urlString.toLowerCase();
+			if (urlString.equals(lowercaseUrlString)) {
+				JavaPlugin.log(exception);
+				return null;
+			}
+			try {
+				return getSharedIndex(new URL(lowercaseUrlString), encoding, hashProvider);
+			} catch (MalformedURLException e) {
+				JavaPlugin.log(e);
+				return null;
+			}
+		} catch (IOException exception) {
+			JavaPlugin.log(exception);
+			return null;
+		}
+		fgIndexes.put(key, index);
+		return index;
+	}
+
+	/**
+	 * Returns the index of this dictionary, loads it if necessary.
+	 *
+	 * @return the index, or <code>null</code> if the word list could not be read
+	 */
+	private CompactWordIndex getIndex() {
+		CompactWordIndex index= fIndex;
+		if (index == null) {
+			synchronized (this) {
+				if (fMustLoad) {
+					fMustLoad= false;
+					fIndex= getSharedIndex(fLocation, getEncoding(), fHashProvider);
+				}
+				index= fIndex;
+			}
+		}
+		return index;
+	}
+
+	@Override
+	public boolean isCorrect(String word) {
+		word= stripNonLetters(word);
+		final CompactWordIndex index= getIndex();
+		if (index == null)
+			return false;
+		return index.contains(word) || index.contains(word.toLowerCase());
+	}
+
+	@Override
+	public Set<RankedWordProposal> getProposals(final String word, final boolean sentence) {
+		final CompactWordIndex index= getIndex();
+
+		final String hash= fHashProvider.getHash(word);
+		final ArrayList<String> neighborhood= new ArrayList<>((word.length() + 1) * (fHashProvider.getMutators().length + 2));
+		AbstractSpellDictionary.addNeighborhood(fHashProvider, word, neighborhood);
+		neighborhood.remove(hash);
+
+		final Set<RankedWordProposal> candidates= new HashSet<>();
+		if (index == null)
+			return candidates;
+
+		addCandidates(index, word, sentence, hash, candidates);
+		final Set<RankedWordProposal> matches= new HashSet<>();
+		for (String neighbor : neighborhood)
+			addCandidates(index, word, sentence, neighbor, matches);
+
+		if (matches.isEmpty() && candidates.isEmpty())
+			addClosestCandidates(index, word, sentence, candidates);
+
+		candidates.addAll(matches);
+		return candidates;
+	}
+
+	/**
+	 * Adds the words with the specified phonetic hash and a bounded distance to the word.
+	 *
+	 * @param index the index
+	 * @param word the word to find the nearest matches for
+	 * @param sentence <code>true</code> iff the proposals start a new sentence
+	 * @param hash the phonetic hash of the candidates
+	 * @param result the set to add the ranked words to
+	 */
+	private void addCandidates(final CompactWordIndex index, final String word, final boolean sentence, final String hash, final Set<RankedWordProposal> result) {
+		final String[] candidates= index.getWords(hash, CANDIDATE_LIMIT);
+		if (candidates == null)
+			return;
+
+		for (String candidate : candidates) {
+			final int distance= fDistanceAlgorithm.getDistance(word, candidate);
+			if (distance < DISTANCE_THRESHOLD)
+				result.add(new RankedWordProposal(toProposal(candidate, sentence), -distance));
+		}
+	}
+
+	/**
+	 * Adds the words with the same phonetic hash and the smallest distance to the word.
+	 *
+	 * @param index the index
+	 * @param word the word to find the nearest matches for
+	 * @param sentence <code>true</code> iff the proposals start a new sentence
+	 * @param result the set to add the ranked words to
+	 */
+	private void addClosestCandidates(final CompactWordIndex index, final String word, final boolean sentence, final Set<RankedWordProposal> result) {
+		final String[] candidates= index.getWords(fHashProvider.getHash(word), Integer.MAX_VALUE);
+		if (candidates == null)
+			return;
+
+		int minimum= Integer.MAX_VALUE;
+		final List<RankedWordProposal> matches= new ArrayList<>(candidates.length);
+		for (String candidate : candidates) {
+			final int distance= fDistanceAlgorithm.getDistance(word, candidate);
+			if (distance <= minimum) {
+				if (distance < minimum)
+					matches.clear();
+				matches.add(new RankedWordProposal(toProposal(candidate, sentence), -distance));
+				minimum= distance;
+			}
+		}
+		result.addAll(matches);
+	}
+
+	private static String toProposal(final String candidate, final boolean sentence) {
+		if (sentence && !candidate.isEmpty())
+			return Character.toUpperCase(candidate.charAt(0)) + candidate.substring(1);
+		return candidate;
+	}
+
+	@Override
+	public void setStripNonLetters(boolean state) {
+		fIsStrippingNonLetters= state;
+	}
+
+	/**
+	 * Strips non-letter characters from the given word.
+	 * <p>
+	 * This will only happen if the corresponding preference is enabled.
+	 * </p>
+	 *
+	 * @param word the word to strip
+	 * @return the stripped word
+	 */
+	protected String stripNonLetters(String word) {
+		if (!fIsStrippingNonLetters)
+			return word;
+
+		int i= 0;
+		int j= word.length() - 1;
+		while (i <= j && !Character.isLetter(word.charAt(i)))
+			i++;
+		if (i > j)
+			return ""; //$NON-NLS-1$
+
+		while (j > i && !Character.isLetter(word.charAt(j)))
+			j--;
+
+		return word.substring(i, j+1);
+	}
+
+	@Override
+	public boolean isLoaded() {
+		return fIndex != null;
+	}
+
+	@Override
+	public synchronized void unload() {
+		fIndex= null;
+		fMustLoad= true;
+	}
+
+	@Override
+	public boolean acceptsWords() {
+		return false;
+	}
+
+	@Override
+	public void addWord(final String word) {
+		// Do nothing
+	}
+
+	/**
+	 * Returns the encoding of this dictionary.
+	 *
+	 * @return the encoding of this dictionary
+	 */
+	protected String getEncoding() {
+		String encoding= JavaPlugin.getDefault().getPreferenceStore().getString(PreferenceConstants.SPELLING_USER_DICTIONARY_ENCODING);
+		if (encoding == null || encoding.length() == 0)
+			encoding= ResourcesPlugin.getEncoding();
+		return encoding;
+	}
+}
@@ -0,0 +1,472 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.spelling.engine;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+
+/**
+ * Immutable index of a word list, stored in one byte buffer which is memory mapped from a cache
+ * file.
+ * <p>
+ * The words are sorted by their UTF-8 bytes and front coded in blocks of {@link #BLOCK_SIZE}
+ * words, i.e. each word only stores the bytes which differ from its predecessor. A sorted table
+ * of the phonetic hashes maps each hash to the ids of its words.
+ * </p>
+ * <p>
+ * The layout of the buffer is:
+ * </p>
+ * <pre>
+ * int magic, int version, int stampLength, byte[stampLength] stamp
+ * int wordCount, int hashCount, int hashBytesLength, int wordBytesLength
+ * int[blockCount] blockOffsets
+ * int[hashCount + 1] hashOffsets
+ * int[hashCount + 1] bucketStarts
+ * int[wordCount] wordIds
+ * byte[hashBytesLength] hashBytes
+ * byte[wordBytesLength] wordBytes
+ * </pre>
+ * <p>
+ * Instances are thread safe.
+ * </p>
+ *
+ * @since 3.27
+ */
+public final class CompactWordIndex {
+
+	/**
+	 * Cursor which decodes the words of a block.
+	 */
+	private final class WordCursor {
+
+		private int fPosition;
+
+		private byte[] fWord= new byte[32];
+
+		private int fLength;
+
+		void seek(int block) {
+			fPosition= fWordBytes + fBuffer.getInt(fBlockOffsets + 4 * block);
+			fLength= 0;
+		}
+
+		void seekWord(int id) {
+			seek(id / BLOCK_SIZE);
+			for (int i= id % BLOCK_SIZE; i >= 0; i--)
+				next();
+		}
+
+		void next() {
+			int prefix= readVarInt();
+			int length= prefix + readVarInt();
+			if (length > fWord.length)
+				fWord= Arrays.copyOf(fWord, Math.max(length, 2 * fWord.length));
+			for (int i= prefix; i < length; i++)
+				fWord[i]= fBuffer.get(fPosition++);
+			fLength= length;
+		}
+
+		private int readVarInt() {
+			int value= 0;
+			for (int shift= 0;; shift+= 7) {
+				byte b= fBuffer.get(fPosition++);
+				value|= (b & 0x7F) << shift;
+				if (b >= 0)
+					return value;
+			}
+		}
+
+		int compareTo(byte[] word) {
+			return Arrays.compareUnsigned(fWord, 0, fLength, word, 0, word.length);
+		}
+
+		String getWord() {
+			return new String(fWord, 0, fLength, StandardCharsets.UTF_8);
+		}
+	}
+
+	private static final int MAGIC= 0x4A445744;
+
+	private static final int VERSION= 1;
+
+	/** The number of words per front coded block */
+	private static final int BLOCK_SIZE= 16;
+
+	/** The name of the cache files */
+	private static final String CACHE_FILE_NAME= "%08x.dictionary"; //$NON-NLS-1$
+
+	private final ByteBuffer fBuffer;
+
+	private final int fWordCount;
+
+	private final int fHashCount;
+
+	private final int fBlockOffsets;
+
+	private final int fHashOffsets;
+
+	private final int fBucketStarts;
+
+	private final int fWordIds;
+
+	private final int fHashBytes;
+
+	private final int fWordBytes;
+
+	private CompactWordIndex(ByteBuffer buffer) throws IOException {
+		fBuffer= buffer;
+		try {
+			int position= 12 + buffer.getInt(8);
+			fWordCount= buffer.getInt(position);
+			fHashCount= buffer.getInt(position + 4);
+			int hashBytesLength= buffer.getInt(position + 8);
+			int wordBytesLength= buffer.getInt(position + 12);
+			int blockCount= (fWordCount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+			fBlockOffsets= position + 16;
+			fHashOffsets= fBlockOffsets + 4 * blockCount;
+			fBucketStarts= fHashOffsets + 4 * (fHashCount + 1);
+			fWordIds= fBucketStarts + 4 * (fHashCount + 1);
+			fHashBytes= fWordIds + 4 * fWordCount;
+			fWordBytes= fHashBytes + hashBytesLength;
+			if (fWordBytes + wordBytesLength != buffer.limit())
+				throw new IOException("Corrupt word index"); //$NON-NLS-1$
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Corrupt word index", e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Returns the index of a word list. The index is mapped from a cache file if it is up to date,
+	 * otherwise it is built from the word list and written to the cache file.
+	 *
+	 * @param url the URL of the word list
+	 * @param encoding the encoding of the word list
+	 * @param hashProvider the phonetic hash provider
+	 * @param cacheDirectory the directory of the cache files, or <code>null</code> to build the
+	 *            index in memory
+	 * @return the index
+	 * @throws IOException if the word list cannot be read
+	 */
+	public static CompactWordIndex load(URL url, String encoding, IPhoneticHashProvider hashProvider, File cacheDirectory) throws IOException {
+		URLConnection connection= url.openConnection();
+		try (InputStream stream= connection.getInputStream()) {
+			String stamp= url.toExternalForm() + '\n' + encoding + '\n' + hashProvider.getClass().getName() + '\n'
+					+ connection.getContentLengthLong() + '\n' + connection.getLastModified();
+
+			File cacheFile= null;
+			if (cacheDirectory != null) {
+				cacheFile= new File(cacheDirectory, String.format(CACHE_FILE_NAME, Integer.valueOf((url.toExternalForm() + encoding).hashCode())));
+				CompactWordIndex index= map(cacheFile, stamp);
+				if (index != null)
+					return index;
+			}
+
+			byte[] bytes= build(stamp, readWords(stream, encoding), hashProvider);
+			if (cacheFile != null) {
+				try {
+					write(cacheFile, bytes);
+					CompactWordIndex index= map(cacheFile, stamp);
+					if (index != null)
+						return index;
+				} catch (IOException e) {
+					JavaPlugin.log(e);
+				}
+			}
+			return new CompactWordIndex(ByteBuffer.wrap(bytes));
+		}
+	}
+
+	/**
+	 * Returns the number of words in this index.
+	 *
+	 * @return the number of words
+	 */
+	public int getWordCount() {
+		return fWordCount;
+	}
+
+	/**
+	 * Returns the size of this index in bytes.
+	 *
+	 * @return the size in bytes
+	 */
+	public int getSize() {
+		return fBuffer.limit();
+	}
+
+	/**
+	 * Tells whether the index contains a word.
+	 *
+	 * @param word the word
+	 * @return <code>true</code> iff the word is contained in this index
+	 */
+	public boolean contains(String word) {
+		byte[] bytes= word.getBytes(StandardCharsets.UTF_8);
+		WordCursor cursor= new WordCursor();
+
+		// find the last block which starts with a word not greater than the word
+		int low= 0;
+		int high= (fWordCount + BLOCK_SIZE - 1) / BLOCK_SIZE - 1;
+		while (low <= high) {
+			int middle= (low + high) >>> 1;
+			cursor.seek(middle);
+			cursor.next();
+			int result= cursor.compareTo(bytes);
+			if (result == 0)
+				return true;
+			if (result < 0)
+				low= middle + 1;
+			else
+				high= middle - 1;
+		}
+		if (high < 0)
+			return false;
+
+		cursor.seek(high);
+		cursor.next();
+		int end= Math.min(fWordCount, (high + 1) * BLOCK_SIZE);
+		for (int id= high * BLOCK_SIZE + 1; id < end; id++) {
+			cursor.next();
+			int result= cursor.compareTo(bytes);
+			if (result >= 0)
+				return result == 0;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the words with the specified phonetic hash.
+	 *
+	 * @param hash the phonetic hash
+	 * @param limit the maximum number of words to return
+	 * @return the words, or <code>null</code> if there is no word with this hash
+	 */
+	public String[] getWords(String hash, int limit) {
+		int index= findHash(hash.getBytes(StandardCharsets.UTF_8));
+		if (index < 0)
+			return null;
+
+		int start= fBuffer.getInt(fBucketStarts + 4 * index);
+		int count= Math.min(limit, fBuffer.getInt(fBucketStarts + 4 * (index + 1)) - start);
+		String[] words= new String[count];
+		WordCursor cursor= new WordCursor();
+		for (int i= 0; i < count; i++) {
+			cursor.seekWord(fBuffer.getInt(fWordIds + 4 * (start + i)));
+			words[i]= cursor.getWord();
+		}
+		return words;
+	}
+
+	private int findHash(byte[] hash) {
+		int low= 0;
+		int high= fHashCount - 1;
+		while (low <= high) {
+			int middle= (low + high) >>> 1;
+			int result= compareHash(middle, hash);
+			if (result == 0)
+				return middle;
+			if (result < 0)
+				low= middle + 1;
+			else
+				high= middle - 1;
+		}
+		return -1;
+	}
+
+	private int compareHash(int index, byte[] hash) {
+		int start= fHashBytes + fBuffer.getInt(fHashOffsets + 4 * index);
+		int length= fHashBytes + fBuffer.getInt(fHashOffsets + 4 * (index + 1)) - start;
+		int common= Math.min(length, hash.length);
+		for (int i= 0; i < common; i++) {
+			int result= Byte.toUnsignedInt(fBuffer.get(start + i)) - Byte.toUnsignedInt(hash[i]);
+			if (result != 0)
+				return result;
+		}
+		return length - hash.length;
+	}
+
+	/**
+	 * Maps a cache file.
+	 *
+	 * @param file the cache file
+	 * @param stamp the stamp of the word list
+	 * @return the index, or <code>null</code> if the file does not exist, is corrupt or belongs to
+	 *         another version of the word list
+	 */
+	private static CompactWordIndex map(File file, String stamp) {
+		if (!file.isFile())
+			return null;
+
+		try (FileChannel channel= FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer= channel.map(MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+				return null;
+			byte[] bytes= new byte[buffer.getInt()];
+			buffer.get(bytes);
+			if (!stamp.equals(new String(bytes, StandardCharsets.UTF_8)))
+				return null;
+			return new CompactWordIndex(buffer);
+		} catch (IOException | BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+			return null;
+		}
+	}
+
+	private static void write(File file, byte[] bytes) throws IOException {
+		File directory= file.getParentFile();
+		if (!directory.isDirectory() && !directory.mkdirs())
+			throw new IOException("Cannot create " + directory); //$NON-NLS-1$
+
+		Path temporary= Files.createTempFile(directory.toPath(), null, null);
+		try {
+			Files.write(temporary, bytes);
+			try {
+				Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	private static List<String> readWords(InputStream stream, String encoding) throws IOException {
+		CharsetDecoder decoder= Charset.forName(encoding).newDecoder();
+		decoder.onMalformedInput(CodingErrorAction.REPLACE);
+		decoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+		List<String> words= new ArrayList<>(32 * 1024);
+		BufferedReader reader= new BufferedReader(new InputStreamReader(stream, decoder));
+		String word;
+		while ((word= reader.readLine()) != null)
+			words.add(word);
+		return words;
+	}
+
+	private static byte[] build(String stamp, List<String> wordList, IPhoneticHashProvider hashProvider) throws IOException {
+		byte[][] words= new byte[wordList.size()][];
+		for (int i= 0; i < words.length; i++)
+			words[i]= wordList.get(i).getBytes(StandardCharsets.UTF_8);
+		Arrays.sort(words, Arrays::compareUnsigned);
+
+		int wordCount= 0;
+		for (int i= 0; i < words.length; i++) {
+			if (wordCount == 0 || !Arrays.equals(words[wordCount - 1], words[i]))
+				words[wordCount++]= words[i];
+		}
+
+		ByteArrayOutputStream wordBytes= new ByteArrayOutputStream(words.length * 8);
+		int[] blockOffsets= new int[(wordCount + BLOCK_SIZE - 1) / BLOCK_SIZE];
+		for (int id= 0; id < wordCount; id++) {
+			byte[] word= words[id];
+			int prefix= 0;
+			if (id % BLOCK_SIZE == 0) {
+				blockOffsets[id / BLOCK_SIZE]= wordBytes.size();
+			} else {
+				byte[] previous= words[id - 1];
+				int common= Math.min(previous.length, word.length);
+				while (prefix < common && previous[prefix] == word[prefix])
+					prefix++;
+			}
+			writeVarInt(wordBytes, prefix);
+			writeVarInt(wordBytes, word.length - prefix);
+			wordBytes.write(word, prefix, word.length - prefix);
+		}
+
+		byte[][] hashes= new byte[wordCount][];
+		Integer[] ids= new Integer[wordCount];
+		for (int id= 0; id < wordCount; id++) {
+			hashes[id]= hashProvider.getHash(new String(words[id], StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+			ids[id]= Integer.valueOf(id);
+		}
+		Arrays.sort(ids, (id1, id2) -> {
+			int result= Arrays.compareUnsigned(hashes[id1.intValue()], hashes[id2.intValue()]);
+			return result != 0 ? result : id1.compareTo(id2);
+		});
+
+		ByteArrayOutputStream hashBytes= new ByteArrayOutputStream();
+		int[] hashOffsets= new int[wordCount + 1];
+		int[] bucketStarts= new int[wordCount + 1];
+		int hashCount= 0;
+		for (int i= 0; i < wordCount; i++) {
+			byte[] hash= hashes[ids[i].intValue()];
+			if (i == 0 || !Arrays.equals(hashes[ids[i - 1].intValue()], hash)) {
+				hashOffsets[hashCount]= hashBytes.size();
+				bucketStarts[hashCount]= i;
+				hashCount++;
+				hashBytes.write(hash, 0, hash.length);
+			}
+		}
+		hashOffsets[hashCount]= hashBytes.size();
+		bucketStarts[hashCount]= wordCount;
+
+		byte[] stampBytes= stamp.getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream bytes= new ByteArrayOutputStream(wordBytes.size() + hashBytes.size() + 16 * wordCount);
+		DataOutputStream out= new DataOutputStream(bytes);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(stampBytes.length);
+		out.write(stampBytes);
+		out.writeInt(wordCount);
+		out.writeInt(hashCount);
+		out.writeInt(hashBytes.size());
+		out.writeInt(wordBytes.size());
+		for (int offset : blockOffsets)
+			out.writeInt(offset);
+		for (int i= 0; i <= hashCount; i++)
+			out.writeInt(hashOffsets[i]);
+		for (int i= 0; i <= hashCount; i++)
+			out.writeInt(bucketStarts[i]);
+		for (Integer id : ids)
+			out.writeInt(id.intValue());
+		hashBytes.writeTo(out);
+		wordBytes.writeTo(out);
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static void writeVarInt(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value>>>= 7;
+		}
+		out.write(value);
+	}
+}
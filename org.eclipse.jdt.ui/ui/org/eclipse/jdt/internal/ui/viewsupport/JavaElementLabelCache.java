@@ -0,0 +1,373 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.viewsupport;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+import org.eclipse.jface.viewers.StyledString;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IField;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+
+import org.eclipse.jdt.internal.corext.util.Strings;
+
+import org.eclipse.jdt.ui.PreferenceConstants;
+
+/**
+ * Caches the labels of Java elements computed by {@link JavaElementLabelComposer}.
+ * <p>
+ * The labels are cached by element, rendering flags and kind of label, the least recently used
+ * labels are evicted. A label depends on its element and the ancestors of the element, so the
+ * labels of an element and of all its descendants are removed when the element is added, removed
+ * or changed by a Java element delta. The labels are indexed by their compilation unit or class
+ * file, so that a reconciled unit only removes its own labels. All labels are removed when a preference of the Java UI
+ * changes, as the package name compression and abbreviation are configured there.
+ * </p>
+ * <p>
+ * A label is only added if the cache has not been invalidated while it was computed. Elements
+ * resolved from a binding key are not cached, their labels depend on the key.
+ * </p>
+ *
+ * @since 3.27
+ */
+public final class JavaElementLabelCache implements IElementChangedListener, IPropertyChangeListener {
+
+	private static final class Key {
+
+		final IJavaElement fElement;
+
+		final long fFlags;
+
+		final boolean fStyled;
+
+		Key(IJavaElement element, long flags, boolean styled) {
+			fElement= element;
+			fFlags= flags;
+			fStyled= styled;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other= (Key) obj;
+			return fFlags == other.fFlags && fStyled == other.fStyled && fElement.equals(other.fElement);
+		}
+
+		@Override
+		public int hashCode() {
+			return fElement.hashCode() ^ Long.hashCode(fFlags) ^ (fStyled ? 1 : 0);
+		}
+	}
+
+	/** The maximum number of cached labels */
+	private static final int MAX_ENTRIES= 10000;
+
+	private static JavaElementLabelCache fgInstance;
+
+	/** The labels, a <code>String</code> or a <code>StyledString</code> by key, in access order */
+	private final Map<Key, Object> fLabels= new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+		private static final long serialVersionUID= 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+			if (size() <= MAX_ENTRIES)
+				return false;
+			removeFromIndex(eldest.getKey());
+			return true;
+		}
+	};
+
+	/**
+	 * The keys of {@link #fLabels} by the compilation unit or class file of their element, or by
+	 * the element itself if it is not inside one
+	 */
+	private final Map<IJavaElement, Set<Key>> fKeysByUnit= new HashMap<>();
+
+	/** Incremented for each invalidation */
+	private long fGeneration;
+
+	private long fHits;
+
+	private long fMisses;
+
+	private JavaElementLabelCache() {
+	}
+
+	/**
+	 * Returns the shared label cache.
+	 *
+	 * @return the label cache
+	 */
+	public static synchronized JavaElementLabelCache getDefault() {
+		if (fgInstance == null) {
+			fgInstance= new JavaElementLabelCache();
+			JavaCore.addElementChangedListener(fgInstance, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+			PreferenceConstants.getPreferenceStore().addPropertyChangeListener(fgInstance);
+		}
+		return fgInstance;
+	}
+
+	/**
+	 * Stops listening to changes of the Java model and the preferences. Called when the plug-in is
+	 * stopped.
+	 */
+	public static synchronized void shutdown() {
+		if (fgInstance != null) {
+			JavaCore.removeElementChangedListener(fgInstance);
+			IPreferenceStore store= PreferenceConstants.getPreferenceStore();
+			if (store != null)
+				store.removePropertyChangeListener(fgInstance);
+			fgInstance= null;
+		}
+	}
+
+	/**
+	 * Returns the label of an element.
+	 *
+	 * @param element the element to render
+	 * @param flags the rendering flags as defined by {@link org.eclipse.jdt.ui.JavaElementLabels}
+	 * @return the BiDi-processed label of the element
+	 */
+	public String getElementLabel(IJavaElement element, long flags) {
+		if (!isCacheable(element))
+			return computeElementLabel(element, flags);
+		Key key= new Key(element, flags, false);
+		long generation;
+		synchronized (this) {
+			String label= (String) fLabels.get(key);
+			if (label != null) {
+				fHits++;
+				return label;
+			}
+			fMisses++;
+			generation= fGeneration;
+		}
+		String label= computeElementLabel(element, flags);
+		put(key, label, generation);
+		return label;
+	}
+
+	/**
+	 * Returns the styled label of an element. The caller may modify the returned string.
+	 *
+	 * @param element the element to render
+	 * @param flags the rendering flags as defined by {@link org.eclipse.jdt.ui.JavaElementLabels}
+	 * @return the BiDi-processed styled label of the element
+	 */
+	public StyledString getStyledElementLabel(IJavaElement element, long flags) {
+		if (!isCacheable(element))
+			return computeStyledElementLabel(element, flags);
+		Key key= new Key(element, flags, true);
+		long generation;
+		synchronized (this) {
+			StyledString label= (StyledString) fLabels.get(key);
+			if (label != null) {
+				fHits++;
+				return new StyledString().append(label);
+			}
+			fMisses++;
+			generation= fGeneration;
+		}
+		StyledString label= computeStyledElementLabel(element, flags);
+		put(key, new StyledString().append(label), generation);
+		return label;
+	}
+
+	private static String computeElementLabel(IJavaElement element, long flags) {
+		StringBuffer result= new StringBuffer();
+		new JavaElementLabelComposer(result).appendElementLabel(element, flags);
+		return org.eclipse.jdt.internal.core.manipulation.util.Strings.markJavaElementLabelLTR(result.toString());
+	}
+
+	private static StyledString computeStyledElementLabel(IJavaElement element, long flags) {
+		StyledString result= new StyledString();
+		new JavaElementLabelComposer(result).appendElementLabel(element, flags);
+		return Strings.markJavaElementLabelLTR(result);
+	}
+
+	private static boolean isCacheable(IJavaElement element) {
+		switch (element.getElementType()) {
+			case IJavaElement.TYPE:
+				return !((IType) element).isResolved();
+			case IJavaElement.METHOD:
+				return !((IMethod) element).isResolved();
+			case IJavaElement.FIELD:
+				return !((IField) element).isResolved();
+			default:
+				return true;
+		}
+	}
+
+	private synchronized void put(Key key, Object label, long generation) {
+		if (generation == fGeneration && fLabels.put(key, label) == null)
+			fKeysByUnit.computeIfAbsent(getUnit(key.fElement), unit -> new HashSet<>()).add(key);
+	}
+
+	private void removeFromIndex(Key key) {
+		IJavaElement unit= getUnit(key.fElement);
+		Set<Key> keys= fKeysByUnit.get(unit);
+		if (keys != null && keys.remove(key) && keys.isEmpty())
+			fKeysByUnit.remove(unit);
+	}
+
+	/**
+	 * Returns the element by which the labels of an element are indexed.
+	 *
+	 * @param element the element
+	 * @return the compilation unit or class file of the element, or the element itself
+	 */
+	private static IJavaElement getUnit(IJavaElement element) {
+		IJavaElement unit= element.getAncestor(IJavaElement.COMPILATION_UNIT);
+		if (unit == null)
+			unit= element.getAncestor(IJavaElement.CLASS_FILE);
+		return unit != null ? unit : element;
+	}
+
+	/**
+	 * Removes all labels.
+	 */
+	public synchronized void clear() {
+		fGeneration++;
+		fLabels.clear();
+		fKeysByUnit.clear();
+	}
+
+	/**
+	 * Returns the number of labels found in the cache.
+	 *
+	 * @return the number of hits
+	 */
+	public synchronized long getHitCount() {
+		return fHits;
+	}
+
+	/**
+	 * Returns the number of labels which had to be computed.
+	 *
+	 * @return the number of misses
+	 */
+	public synchronized long getMissCount() {
+		return fMisses;
+	}
+
+	/**
+	 * Returns the ratio of the labels found in the cache to all requested labels.
+	 *
+	 * @return the hit rate between 0 and 1
+	 */
+	public synchronized double getHitRate() {
+		long requests= fHits + fMisses;
+		return requests == 0 ? 0 : (double) fHits / requests;
+	}
+
+	/**
+	 * Resets the hit and miss counts.
+	 */
+	public synchronized void resetStatistics() {
+		fHits= 0;
+		fMisses= 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "JavaElementLabelCache [labels=" + fLabels.size() + ", hits=" + fHits + ", misses=" + fMisses //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ ", hitRate=" + getHitRate() + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Override
+	public void propertyChange(PropertyChangeEvent event) {
+		clear();
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		Set<IJavaElement> changed= new HashSet<>();
+		collectChangedElements(event.getDelta(), changed);
+		if (changed.isEmpty())
+			return;
+		synchronized (this) {
+			fGeneration++;
+			if (fLabels.isEmpty())
+				return;
+			Set<IJavaElement> containers= new HashSet<>();
+			for (IJavaElement element : changed) {
+				IJavaElement unit= getUnit(element);
+				if (unit == element && !isTypeRoot(element)) {
+					// a package, root or project, its units are found below
+					containers.add(element);
+				}
+				removeUnit(unit);
+			}
+			if (containers.isEmpty())
+				return;
+			for (Iterator<Map.Entry<IJavaElement, Set<Key>>> iter= fKeysByUnit.entrySet().iterator(); iter.hasNext();) {
+				Map.Entry<IJavaElement, Set<Key>> entry= iter.next();
+				if (isAffected(entry.getKey(), containers)) {
+					fLabels.keySet().removeAll(entry.getValue());
+					iter.remove();
+				}
+			}
+		}
+	}
+
+	private void removeUnit(IJavaElement unit) {
+		Set<Key> keys= fKeysByUnit.remove(unit);
+		if (keys != null)
+			fLabels.keySet().removeAll(keys);
+	}
+
+	private static boolean isTypeRoot(IJavaElement element) {
+		int type= element.getElementType();
+		return type == IJavaElement.COMPILATION_UNIT || type == IJavaElement.CLASS_FILE;
+	}
+
+	/**
+	 * Collects the elements whose labels and the labels of whose descendants may have changed.
+	 * Deltas which only report changed children are traversed.
+	 *
+	 * @param delta the delta
+	 * @param changed the changed elements
+	 */
+	private static void collectChangedElements(IJavaElementDelta delta, Set<IJavaElement> changed) {
+		if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & ~IJavaElementDelta.F_CHILDREN) != 0) {
+			changed.add(delta.getElement());
+			return;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren())
+			collectChangedElements(child, changed);
+	}
+
+	private static boolean isAffected(IJavaElement element, Set<IJavaElement> changed) {
+		for (IJavaElement e= element; e != null; e= e.getParent()) {
+			if (changed.contains(e))
+				return true;
+		}
+		return false;
+	}
+}
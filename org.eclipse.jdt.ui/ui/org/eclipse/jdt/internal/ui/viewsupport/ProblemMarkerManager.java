@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,12 +17,16 @@ package org.eclipse.jdt.internal.ui.viewsupport;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.ListenerList;
 
+import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IMarkerDelta;
 import org.eclipse.core.resources.IProject;
@@ -48,6 +52,12 @@ import org.eclipse.jdt.internal.ui.javaeditor.CompilationUnitAnnotationModelEven
  * Listens to resource deltas and filters for marker changes of type IMarker.PROBLEM
  * Viewers showing error ticks should register as listener to
  * this type.
+ * <p>
+ * The changes reported while the workspace is built are collected and sent to the listeners
+ * in one notification after the build. While listeners are registered, the maximum problem
+ * severity of each resource and its members is cached, the severities of a changed resource and
+ * its parents are removed from the cache.
+ * </p>
  */
 public class ProblemMarkerManager implements IResourceChangeListener, IAnnotationModelListener , IAnnotationModelListenerExtension {
 
@@ -58,8 +68,11 @@ public class ProblemMarkerManager implements IResourceChangeListener, IAnnotatio
 
 		private HashSet<IResource> fChangedElements;
 
-		public ProjectErrorVisitor(HashSet<IResource> changedElements) {
+		private HashSet<IPath> fChangedContainers;
+
+		public ProjectErrorVisitor(HashSet<IResource> changedElements, HashSet<IPath> changedContainers) {
 			fChangedElements= changedElements;
+			fChangedContainers= changedContainers;
 		}
 
 		@Override
@@ -67,6 +80,10 @@ public class ProblemMarkerManager implements IResourceChangeListener, IAnnotatio
 			IResource res= delta.getResource();
 			if (res instanceof IProject && delta.getKind() == IResourceDelta.CHANGED) {
 				IProject project= (IProject) res;
+				if ((delta.getFlags() & IResourceDelta.OPEN) != 0) {
+					// the cached severities of all members are obsolete
+					fChangedContainers.add(project.getFullPath());
+				}
 				if (!project.isAccessible()) {
 					// only track open Java projects
 					return false;
@@ -78,6 +95,9 @@ public class ProblemMarkerManager implements IResourceChangeListener, IAnnotatio
 
 		private void checkInvalidate(IResourceDelta delta, IResource resource) {
 			int kind= delta.getKind();
+			if ((kind == IResourceDelta.REMOVED || kind == IResourceDelta.ADDED) && resource instanceof IContainer) {
+				fChangedContainers.add(resource.getFullPath());
+			}
 			if (kind == IResourceDelta.REMOVED || kind == IResourceDelta.ADDED || (kind == IResourceDelta.CHANGED && isErrorDelta(delta))) {
 				// invalidate the resource and all parents
 				while (resource.getType() != IResource.ROOT && fChangedElements.add(resource)) {
@@ -111,6 +131,18 @@ public class ProblemMarkerManager implements IResourceChangeListener, IAnnotatio
 
 	private final Throttler throttledUpdates= new Throttler(PlatformUI.getWorkbench().getDisplay(), Duration.ofMillis(250), this::runPendingUpdates);
 
+	/** The maximum problem severity of the resources and their members, <code>-1</code> for none */
+	private final Map<IResource, Integer> fSeverities= new ConcurrentHashMap<>();
+
+	/** Incremented for each change of the cached severities */
+	private final AtomicLong fGeneration= new AtomicLong();
+
+	/** Whether the workspace is being built */
+	private volatile boolean fBuilding;
+
+	/** Whether the resource changes are tracked */
+	private volatile boolean fListening;
+
 	public ProblemMarkerManager() {
 	}
 
@@ -119,21 +151,100 @@ public class ProblemMarkerManager implements IResourceChangeListener, IAnnotatio
 	 */
 	@Override
 	public void resourceChanged(IResourceChangeEvent event) {
+		switch (event.getType()) {
+			case IResourceChangeEvent.PRE_BUILD:
+				fBuilding= true;
+				return;
+			case IResourceChangeEvent.POST_BUILD:
+				fBuilding= false;
+				// the changes of the build are reported by the next POST_CHANGE event
+				if (!fResourcesWithMarkerChanges.isEmpty()) {
+					fireChanges();
+				}
+				return;
+			default:
+				break;
+		}
+
 		HashSet<IResource> changedElements= new HashSet<>();
+		HashSet<IPath> changedContainers= new HashSet<>();
 
 		try {
 			IResourceDelta delta= event.getDelta();
 			if (delta != null)
-				delta.accept(new ProjectErrorVisitor(changedElements));
+				delta.accept(new ProjectErrorVisitor(changedElements, changedContainers));
 		} catch (CoreException e) {
 			JavaPlugin.log(e.getStatus());
 		}
 
-		if (fResourcesWithMarkerChanges.addAll(changedElements)) {
+		invalidateSeverities(changedElements, changedContainers);
+
+		if (fResourcesWithMarkerChanges.addAll(changedElements) && !fBuilding) {
 			fireChanges();
 		}
 	}
 
+	private void invalidateSeverities(Set<IResource> changedElements, Set<IPath> changedContainers) {
+		if (changedElements.isEmpty() && changedContainers.isEmpty()) {
+			return;
+		}
+		synchronized (fSeverities) {
+			fGeneration.incrementAndGet();
+			if (fSeverities.isEmpty()) {
+				return;
+			}
+			fSeverities.keySet().removeAll(changedElements);
+			if (!changedContainers.isEmpty()) {
+				fSeverities.keySet().removeIf(resource -> {
+					for (IPath path= resource.getFullPath(); !path.isEmpty(); path= path.removeLastSegments(1)) {
+						if (changedContainers.contains(path))
+							return true;
+					}
+					return false;
+				});
+			}
+		}
+	}
+
+	/**
+	 * Returns the maximum severity of the problem markers on the given resource and its members.
+	 * The severities are cached while listeners are registered.
+	 *
+	 * @param resource the resource
+	 * @return the maximum severity of the problem markers, or <code>-1</code> if there are none
+	 * @throws CoreException if the markers cannot be read
+	 * @see IResource#findMaxProblemSeverity(String, boolean, int)
+	 */
+	public int findMaxProblemSeverity(IResource resource) throws CoreException {
+		if (!fListening || !resource.isAccessible()) {
+			return resource.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_INFINITE);
+		}
+		return computeMaxProblemSeverity(resource, fGeneration.get());
+	}
+
+	private int computeMaxProblemSeverity(IResource resource, long generation) throws CoreException {
+		Integer cached= fSeverities.get(resource);
+		if (cached != null) {
+			return cached.intValue();
+		}
+		int severity= resource.findMaxProblemSeverity(IMarker.PROBLEM, true, IResource.DEPTH_ZERO);
+		if (resource instanceof IContainer && resource.isAccessible()) {
+			IResource[] members= ((IContainer) resource).members(IContainer.INCLUDE_TEAM_PRIVATE_MEMBERS | IContainer.INCLUDE_HIDDEN);
+			for (int i= 0; i < members.length && severity != IMarker.SEVERITY_ERROR; i++) {
+				if (members[i].isAccessible()) {
+					severity= Math.max(severity, computeMaxProblemSeverity(members[i], generation));
+				}
+			}
+		}
+		synchronized (fSeverities) {
+			// don't cache severities read before a change
+			if (fGeneration.get() == generation) {
+				fSeverities.put(resource, Integer.valueOf(severity));
+			}
+		}
+		return severity;
+	}
+
 	@Override
 	public void modelChanged(IAnnotationModel model) {
 		// no action
@@ -159,8 +270,9 @@ public class ProblemMarkerManager implements IResourceChangeListener, IAnnotatio
 	 */
 	public void addListener(IProblemChangedListener listener) {
 		if (fListeners.isEmpty()) {
-			JavaPlugin.getWorkspace().addResourceChangeListener(this);
+			JavaPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE | IResourceChangeEvent.PRE_BUILD | IResourceChangeEvent.POST_BUILD);
 			JavaPlugin.getDefault().getCompilationUnitDocumentProvider().addGlobalAnnotationModelListener(this);
+			fListening= true;
 		}
 		fListeners.add(listener);
 	}
@@ -174,6 +286,12 @@ public class ProblemMarkerManager implements IResourceChangeListener, IAnnotatio
 		if (fListeners.isEmpty()) {
 			JavaPlugin.getWorkspace().removeResourceChangeListener(this);
 			JavaPlugin.getDefault().getCompilationUnitDocumentProvider().removeGlobalAnnotationModelListener(this);
+			fListening= false;
+			fBuilding= false;
+			synchronized (fSeverities) {
+				fGeneration.incrementAndGet();
+				fSeverities.clear();
+			}
 		}
 	}
 
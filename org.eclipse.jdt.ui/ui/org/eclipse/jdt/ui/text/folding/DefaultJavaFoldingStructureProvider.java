@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2011 IBM Corporation and others.
+ * Copyright (c) 2006, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -31,7 +31,9 @@ import org.eclipse.core.runtime.Assert;
 import org.eclipse.jface.preference.IPreferenceStore;
 
 import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.Region;
@@ -80,6 +82,11 @@ import org.eclipse.jdt.internal.ui.text.DocumentCharacterIterator;
 /**
  * Updates the projection model of a class file or compilation unit.
  * <p>
+ * When a compilation unit is reconciled and the document has only been changed inside existing
+ * members, only the folding structure of the members intersecting the changed lines is recomputed.
+ * The folding positions of the other members are kept, they are updated by the document.
+ * </p>
+ * <p>
  * Clients may instantiate or subclass. Subclasses must make sure to always call the superclass'
  * code when overriding methods that are marked with "subclasses may extend".
  * </p>
@@ -365,13 +372,41 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 
 				fUpdatingCount++;
 				try {
-					update(createContext(false));
+					update(createContext(false), getChangedRegion(e, delta));
 				} finally {
 					fUpdatingCount--;
 				}
 			}
 		}
 
+		/**
+		 * Returns the region of the document changed since the last updates if the folding
+		 * structure can be updated incrementally, i.e. if the delta is a fine grained reconcile
+		 * delta without added, removed or reordered elements.
+		 *
+		 * @param e the element changed event
+		 * @param delta the Java element delta for the input element
+		 * @return the changed region, or <code>null</code> if the folding structure has to be
+		 *         recomputed completely
+		 * @since 3.27
+		 */
+		private IRegion getChangedRegion(ElementChangedEvent e, IJavaElementDelta delta) {
+			IRegion changed= fChangedRegionTracker.consume();
+			if (changed == null || e.getType() != ElementChangedEvent.POST_RECONCILE)
+				return null;
+			if ((delta.getFlags() & IJavaElementDelta.F_FINE_GRAINED) == 0 || hasStructuralChange(delta))
+				return null;
+			return changed;
+		}
+
+		private boolean hasStructuralChange(IJavaElementDelta delta) {
+			for (IJavaElementDelta child : delta.getAffectedChildren()) {
+				if (child.getKind() != IJavaElementDelta.CHANGED || (child.getFlags() & IJavaElementDelta.F_REORDER) != 0 || hasStructuralChange(child))
+					return true;
+			}
+			return false;
+		}
+
 		/**
 		 * Ignore the delta if there are errors on the caret line.
 		 * <p>
@@ -656,6 +691,109 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 
 	}
 
+	/**
+	 * Tracks the region of the document changed since the last two updates. The region changed
+	 * before the previous update is kept, as the reconciled Java model of that update may not
+	 * have reflected the latest changes yet.
+	 *
+	 * @since 3.27
+	 */
+	private static final class ChangedRegionTracker implements IDocumentListener {
+		private IDocument fDocument;
+		/* the region changed since the last update, start and end offset, -1 if unchanged */
+		private int fStart= -1;
+		private int fEnd= -1;
+		/* the region changed before the last update */
+		private int fPreviousStart= -1;
+		private int fPreviousEnd= -1;
+
+		synchronized void install(IDocument document) {
+			if (fDocument != document) {
+				uninstall();
+				fDocument= document;
+				if (document != null)
+					document.addDocumentListener(this);
+			}
+			reset();
+		}
+
+		synchronized void uninstall() {
+			if (fDocument != null) {
+				fDocument.removeDocumentListener(this);
+				fDocument= null;
+			}
+			reset();
+		}
+
+		private void reset() {
+			fStart= fEnd= fPreviousStart= fPreviousEnd= -1;
+		}
+
+		/**
+		 * Returns the region changed since the last two updates and starts tracking the changes
+		 * for the next update.
+		 *
+		 * @return the changed region, or <code>null</code> if the document has not been changed
+		 */
+		synchronized IRegion consume() {
+			int start= fStart;
+			int end= fEnd;
+			if (start == -1) {
+				start= fPreviousStart;
+				end= fPreviousEnd;
+			} else if (fPreviousStart != -1) {
+				start= Math.min(start, fPreviousStart);
+				end= Math.max(end, fPreviousEnd);
+			}
+			fPreviousStart= fStart;
+			fPreviousEnd= fEnd;
+			fStart= fEnd= -1;
+			return start == -1 ? null : new Region(start, end - start);
+		}
+
+		@Override
+		public void documentAboutToBeChanged(DocumentEvent event) {
+		}
+
+		@Override
+		public synchronized void documentChanged(DocumentEvent event) {
+			int offset= event.getOffset();
+			int length= event.getLength();
+			int textLength= event.getText() == null ? 0 : event.getText().length();
+			if (fPreviousStart != -1) {
+				fPreviousStart= shift(fPreviousStart, offset, length, textLength, false);
+				fPreviousEnd= shift(fPreviousEnd, offset, length, textLength, true);
+			}
+			if (fStart == -1) {
+				fStart= offset;
+				fEnd= offset + textLength;
+			} else {
+				fStart= Math.min(shift(fStart, offset, length, textLength, false), offset);
+				fEnd= Math.max(shift(fEnd, offset, length, textLength, true), offset + textLength);
+			}
+		}
+
+		/**
+		 * Shifts an offset by the replacement of a range of the document. Offsets inside the
+		 * replaced range are moved to the start or the end of the replacing text.
+		 *
+		 * @param position the offset to shift
+		 * @param offset the offset of the replaced range
+		 * @param length the length of the replaced range
+		 * @param textLength the length of the replacing text
+		 * @param end <code>true</code> to move an offset inside the replaced range to the end of the
+		 *            replacing text, <code>false</code> to move it to the start
+		 * @return the shifted offset
+		 */
+		private static int shift(int position, int offset, int length, int textLength, boolean end) {
+			if (position <= offset)
+				return position;
+			if (position >= offset + length)
+				return position - length + textLength;
+			return end ? offset + textLength : offset;
+		}
+	}
+
 	/**
 	 * Internal projection listener.
 	 */
@@ -727,6 +865,12 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 
 	private volatile int fUpdatingCount= 0;
 
+	/**
+	 * Tracks the changes of the document between updates.
+	 * @since 3.27
+	 */
+	private final ChangedRegionTracker fChangedRegionTracker= new ChangedRegionTracker();
+
 	/**
 	 * Creates a new folding provider. It must be
 	 * {@link #install(ITextEditor, ProjectionViewer) installed} on an editor/viewer pair before it
@@ -831,6 +975,7 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 			JavaCore.removeElementChangedListener(fElementListener);
 			fElementListener= null;
 		}
+		fChangedRegionTracker.uninstall();
 	}
 
 	/*
@@ -840,7 +985,10 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 	public final void initialize() {
 		fUpdatingCount++;
 		try {
-			update(createInitialContext());
+			FoldingStructureComputationContext ctx= createInitialContext();
+			if (ctx != null)
+				fChangedRegionTracker.install(ctx.getDocument());
+			update(ctx, null);
 		} finally {
 			fUpdatingCount--;
 		}
@@ -887,7 +1035,16 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		fCollapseHeaderComments= store.getBoolean(PreferenceConstants.EDITOR_FOLDING_HEADERS);
 	}
 
-	private void update(FoldingStructureComputationContext ctx) {
+	/**
+	 * Updates the projection annotation model with the computed folding structure, in a single
+	 * modification.
+	 *
+	 * @param ctx the computation context, may be <code>null</code>
+	 * @param changedRegion the region of the document changed since the last updates if the
+	 *            structure can be updated incrementally, <code>null</code> to recompute the whole
+	 *            structure
+	 */
+	private void update(FoldingStructureComputationContext ctx, IRegion changedRegion) {
 		if (ctx == null)
 			return;
 
@@ -895,9 +1052,13 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		List<JavaProjectionAnnotation> deletions= new ArrayList<>();
 		List<JavaProjectionAnnotation> updates= new ArrayList<>();
 
-		computeFoldingStructure(ctx);
+		Set<IJavaElement> updatedElements= null;
+		if (changedRegion != null)
+			updatedElements= computeFoldingStructure(ctx, changedRegion);
+		if (updatedElements == null)
+			computeFoldingStructure(ctx);
 		Map<JavaProjectionAnnotation, Position> newStructure= ctx.fMap;
-		Map<IJavaElement, List<Tuple>> oldStructure= computeCurrentStructure(ctx);
+		Map<IJavaElement, List<Tuple>> oldStructure= computeCurrentStructure(ctx, updatedElements);
 
 		Iterator<JavaProjectionAnnotation> e= newStructure.keySet().iterator();
 		while (e.hasNext()) {
@@ -968,6 +1129,70 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		ctx.fScanner.setSource(null);
 	}
 
+	/**
+	 * Computes the folding structure of the elements whose source ranges intersect the lines of
+	 * the changed region. The first type is always included, as it carries the header comment.
+	 *
+	 * @param ctx the computation context
+	 * @param changedRegion the changed region of the document
+	 * @return the elements whose folding structure has been computed, or <code>null</code> if
+	 *         nothing has been computed since the whole structure should be recomputed
+	 * @since 3.27
+	 */
+	private Set<IJavaElement> computeFoldingStructure(FoldingStructureComputationContext ctx, IRegion changedRegion) {
+		if (!(fInput instanceof ICompilationUnit))
+			return null;
+		IDocument document= ctx.getDocument();
+		int start, end;
+		try {
+			start= document.getLineOffset(document.getLineOfOffset(changedRegion.getOffset()));
+			IRegion endLine= document.getLineInformationOfOffset(changedRegion.getOffset() + changedRegion.getLength());
+			end= endLine.getOffset() + endLine.getLength();
+		} catch (BadLocationException x) {
+			// concurrent modification
+			return null;
+		}
+		if (end - start > document.getLength() / 2)
+			return null;
+
+		try {
+			String source= ((ISourceReference) fInput).getSource();
+			if (source == null)
+				return null;
+
+			List<IJavaElement> elements= new ArrayList<>();
+			boolean firstType= true;
+			for (IJavaElement element : ((IParent) fInput).getChildren()) {
+				boolean include= firstType && element instanceof IType;
+				if (include)
+					firstType= false;
+				collectChangedElements(element, start, end, include, elements);
+			}
+
+			ctx.getScanner().setSource(source.toCharArray());
+			for (IJavaElement element : elements)
+				computeFoldingStructure(element, ctx);
+			return new HashSet<>(elements);
+		} catch (JavaModelException x) {
+			return null;
+		}
+	}
+
+	private void collectChangedElements(IJavaElement element, int start, int end, boolean include, List<IJavaElement> result) throws JavaModelException {
+		boolean intersects= true;
+		if (element instanceof ISourceReference) {
+			ISourceRange range= ((ISourceReference) element).getSourceRange();
+			if (SourceRange.isAvailable(range))
+				intersects= range.getOffset() <= end && start <= range.getOffset() + range.getLength();
+		}
+		if (include || intersects)
+			result.add(element);
+		if (intersects && element instanceof IParent) {
+			for (IJavaElement child : ((IParent) element).getChildren())
+				collectChangedElements(child, start, end, false, result);
+		}
+	}
+
 	private void computeFoldingStructure(FoldingStructureComputationContext ctx) {
 		IParent parent= (IParent) fInput;
 		try {
@@ -1009,6 +1234,11 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 	 * <li>header comments (javadoc or multi-line comments appearing before the first type's
 	 * javadoc or before the package or import declarations).</li>
 	 * </ul>
+	 * <p>
+	 * When the folding structure is updated incrementally, this method is only called for the
+	 * first type and the elements intersecting the changed lines, the annotations of the other
+	 * elements are kept.
+	 * </p>
 	 *
 	 * @param element the java element to compute the folding structure for
 	 * @param ctx the computation context
@@ -1391,7 +1621,7 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 		return null;
 	}
 
-	private Map<IJavaElement, List<Tuple>> computeCurrentStructure(FoldingStructureComputationContext ctx) {
+	private Map<IJavaElement, List<Tuple>> computeCurrentStructure(FoldingStructureComputationContext ctx, Set<IJavaElement> elements) {
 		Map<IJavaElement, List<Tuple>> map= new HashMap<>();
 		ProjectionAnnotationModel model= ctx.getModel();
 		Iterator<Annotation> e= model.getAnnotationIterator();
@@ -1399,6 +1629,8 @@ public class DefaultJavaFoldingStructureProvider implements IJavaFoldingStructur
 			Object annotation= e.next();
 			if (annotation instanceof JavaProjectionAnnotation) {
 				JavaProjectionAnnotation java= (JavaProjectionAnnotation) annotation;
+				if (elements != null && !elements.contains(java.getElement()))
+					continue;
 				Position position= model.getPosition(java);
 				Assert.isNotNull(position);
 				List<Tuple> list= map.get(java.getElement());
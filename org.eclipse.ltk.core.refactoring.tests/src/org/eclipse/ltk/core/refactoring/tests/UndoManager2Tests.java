@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.core.refactoring.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.text.edits.DeleteEdit;
+import org.eclipse.text.edits.InsertEdit;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+import org.eclipse.text.edits.UndoEdit;
+
+import org.eclipse.jface.text.Document;
+
+import org.eclipse.ltk.core.refactoring.PerformChangeOperation;
+import org.eclipse.ltk.core.refactoring.RefactoringCore;
+import org.eclipse.ltk.core.refactoring.TextFileChange;
+import org.eclipse.ltk.core.refactoring.tests.util.SimpleTestProject;
+import org.eclipse.ltk.internal.core.refactoring.UndoEditStore;
+import org.eclipse.ltk.internal.core.refactoring.UndoManager2;
+
+public class UndoManager2Tests {
+
+	private static final int FILES= 3;
+
+	private SimpleTestProject fProject;
+	private UndoManager2 fUndoManager;
+
+	@Before
+	public void setUp() throws Exception {
+		fProject= new SimpleTestProject();
+		fUndoManager= (UndoManager2) RefactoringCore.getUndoManager();
+		fUndoManager.flush();
+		fUndoManager.setMemoryBudget(0, 0);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		fUndoManager.flush();
+		fUndoManager.setMemoryBudget(UndoManager2.DEFAULT_MEMORY_BUDGET, UndoManager2.DEFAULT_SPILL_THRESHOLD);
+		fProject.delete();
+	}
+
+	@Test
+	public void testSimultaneousEdits() throws Exception {
+		String original= "one two three four five six seven";
+		Document document= new Document(original);
+		MultiTextEdit edit= new MultiTextEdit();
+		edit.addChild(new InsertEdit(0, "zero "));
+		edit.addChild(new ReplaceEdit(4, 3, "TWO TWO"));
+		edit.addChild(new DeleteEdit(14, 5));
+		edit.addChild(new ReplaceEdit(24, 3, "6"));
+		edit.addChild(new InsertEdit(original.length(), " eight"));
+		UndoEdit undo= edit.apply(document, TextEdit.CREATE_UNDO);
+		String modified= document.get();
+
+		ReplaceEdit[] edits= UndoEditStore.toSimultaneousEdits(undo);
+		MultiTextEdit converted= new MultiTextEdit();
+		for (ReplaceEdit replaceEdit : edits)
+			converted.addChild(replaceEdit);
+		UndoEdit redo= converted.apply(document, TextEdit.CREATE_UNDO);
+		assertEquals(original, document.get());
+		redo.apply(document);
+		assertEquals(modified, document.get());
+	}
+
+	@Test
+	public void testTouchingEdits() throws Exception {
+		Document document= new Document("abcdef");
+		MultiTextEdit edit= new MultiTextEdit();
+		edit.addChild(new ReplaceEdit(1, 2, "x"));
+		edit.addChild(new ReplaceEdit(3, 2, "y"));
+		UndoEdit undo= edit.apply(document, TextEdit.CREATE_UNDO);
+		assertNull(UndoEditStore.toSimultaneousEdits(undo));
+	}
+
+	@Test
+	public void testSpillAndRehydrate() throws Exception {
+		IFile[] files= new IFile[FILES];
+		String[] contents= new String[FILES];
+		for (int i= 0; i < FILES; i++) {
+			StringBuilder buf= new StringBuilder();
+			for (int j= 0; j < 100; j++)
+				buf.append("foo" + j + " = foo.bar(foo);\n");
+			contents[i]= buf.toString();
+			files[i]= fProject.createFile(fProject.getProject(), "file" + i + ".txt", contents[i]);
+		}
+
+		int spills= fUndoManager.getSpillCount();
+		int rehydrations= fUndoManager.getRehydrationCount();
+		for (int i= 0; i < FILES; i++)
+			perform(createRenameChange(files[i], contents[i]));
+		// all but the next entry to undo
+		assertEquals(spills + FILES - 1, fUndoManager.getSpillCount());
+		assertEquals(FILES - 1, fUndoManager.getSpilledEntryCount());
+		assertTrue(fUndoManager.getSpilledSize() > 0);
+		for (int i= 0; i < FILES; i++)
+			assertEquals(contents[i].replace("foo", "renamedFoo"), fProject.getContent(files[i]));
+
+		for (int i= 0; i < FILES; i++)
+			fUndoManager.performUndo(null, new NullProgressMonitor());
+		assertEquals(rehydrations + FILES - 1, fUndoManager.getRehydrationCount());
+		for (int i= 0; i < FILES; i++)
+			assertEquals(contents[i], fProject.getContent(files[i]));
+
+		for (int i= 0; i < FILES; i++)
+			fUndoManager.performRedo(null, new NullProgressMonitor());
+		for (int i= 0; i < FILES; i++)
+			assertEquals(contents[i].replace("foo", "renamedFoo"), fProject.getContent(files[i]));
+
+		fUndoManager.flush();
+		assertEquals(0, fUndoManager.getSpilledEntryCount());
+		assertEquals(0, fUndoManager.getSpilledSize());
+	}
+
+	@Test
+	public void testSpillThreshold() throws Exception {
+		fUndoManager.setMemoryBudget(0, Long.MAX_VALUE);
+		for (int i= 0; i < FILES; i++) {
+			String content= "foo foo foo\n";
+			IFile file= fProject.createFile(fProject.getProject(), "file" + i + ".txt", content);
+			perform(createRenameChange(file, content));
+		}
+		assertEquals(0, fUndoManager.getSpilledEntryCount());
+		assertTrue(fUndoManager.getResidentSize() > 0);
+	}
+
+	private static TextFileChange createRenameChange(IFile file, String content) {
+		TextFileChange change= new TextFileChange("rename in " + file.getName(), file);
+		MultiTextEdit edit= new MultiTextEdit();
+		for (int offset= content.indexOf("foo"); offset != -1; offset= content.indexOf("foo", offset + 3))
+			edit.addChild(new ReplaceEdit(offset, 3, "renamedFoo"));
+		change.setEdit(edit);
+		return change;
+	}
+
+	private void perform(TextFileChange change) throws Exception {
+		change.initializeValidationData(new NullProgressMonitor());
+		PerformChangeOperation operation= new PerformChangeOperation(change);
+		operation.setUndoManager(fUndoManager, change.getName());
+		ResourcesPlugin.getWorkspace().run(operation, new NullProgressMonitor());
+		assertTrue(operation.changeExecuted());
+	}
+}
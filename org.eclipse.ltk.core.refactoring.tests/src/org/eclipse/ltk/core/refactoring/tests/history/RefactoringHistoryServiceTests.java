@@ -31,6 +31,7 @@ import org.junit.Test;
 import org.osgi.service.prefs.BackingStoreException;
 
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 
 import org.eclipse.core.resources.IFolder;
@@ -53,6 +54,7 @@ import org.eclipse.ltk.core.refactoring.tests.util.SimpleTestProject;
 import org.eclipse.ltk.internal.core.refactoring.RefactoringPreferenceConstants;
 import org.eclipse.ltk.internal.core.refactoring.history.RefactoringDescriptorProxyAdapter;
 import org.eclipse.ltk.internal.core.refactoring.history.RefactoringHistoryImplementation;
+import org.eclipse.ltk.internal.core.refactoring.history.RefactoringHistoryManager;
 import org.eclipse.ltk.internal.core.refactoring.history.RefactoringHistoryService;
 
 public class RefactoringHistoryServiceTests {
@@ -581,6 +583,24 @@ public class RefactoringHistoryServiceTests {
 		assertEquals("Refactoring history has wrong size", 0, proxies.length);
 	}
 
+	@Test
+	public void testReadProjectHistory7() throws Exception {
+		final IProject project= fProject.getProject();
+		final RefactoringHistoryService service= RefactoringHistoryService.getInstance();
+		RefactoringDescriptorProxy[] proxies= service.getProjectHistory(project, 0, Long.MAX_VALUE, RefactoringDescriptor.BREAKING_CHANGE, null).getDescriptors();
+		assertEquals("Refactoring history has wrong size", BREAKING_NUMBER, proxies.length);
+		final IPath path= RefactoringHistoryManager.stampToPath(proxies[0].getTimeStamp());
+		int remaining= 0;
+		for (RefactoringDescriptorProxy proxy : service.getProjectHistory(project, null).getDescriptors()) {
+			if (!path.equals(RefactoringHistoryManager.stampToPath(proxy.getTimeStamp())))
+				remaining++;
+		}
+		// change the history behind the back of the history service, like a team provider
+		project.getFolder(RefactoringHistoryService.NAME_HISTORY_FOLDER).getFolder(path).delete(true, null);
+		proxies= service.getProjectHistory(project, null).getDescriptors();
+		assertEquals("Refactoring history has wrong size", remaining, proxies.length);
+	}
+
 	@Test
 	public void testReadRefactoringHistory0() throws Exception {
 		setUpWorkspaceRefactorings();
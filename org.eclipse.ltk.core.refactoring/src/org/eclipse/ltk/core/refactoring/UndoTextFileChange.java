@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.ltk.core.refactoring;
 
+import java.util.concurrent.Callable;
+
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -57,7 +59,8 @@ import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
 public class UndoTextFileChange extends Change {
 
 	private String fName;
-	private UndoEdit fUndo;
+	private TextEdit fUndo;
+	private Callable<TextEdit> fUndoLoader;
 	private IFile fFile;
 	private ContentStamp fContentStampToRestore;
 	private int fSaveMode;
@@ -126,6 +129,44 @@ public class UndoTextFileChange extends Change {
 		return new UndoTextFileChange(getName(), fFile, edit, stampToRestore, fSaveMode);
 	}
 
+	/**
+	 * Note: this is an internal method and should not be called outside of
+	 * the refactoring framework.
+	 * <p>
+	 * Returns the undo edit of this change if it is held in memory.
+	 * </p>
+	 *
+	 * @return the undo edit, or <code>null</code> if it has been released
+	 *
+	 * @since 3.13
+	 *
+	 * @noreference This method is not intended to be referenced by clients.
+	 */
+	public final UndoEdit internalGetUndoEdit() {
+		return fUndo instanceof UndoEdit ? (UndoEdit) fUndo : null;
+	}
+
+	/**
+	 * Note: this is an internal method and should not be called outside of
+	 * the refactoring framework.
+	 * <p>
+	 * Releases the undo edit of this change. The given loader is called when
+	 * the change is performed and must return an edit which has the same
+	 * effect on the document as the released undo edit.
+	 * </p>
+	 *
+	 * @param loader the loader of the released edit
+	 *
+	 * @since 3.13
+	 *
+	 * @noreference This method is not intended to be referenced by clients.
+	 */
+	public final void internalReleaseUndoEdit(Callable<TextEdit> loader) {
+		Assert.isNotNull(loader);
+		fUndo= null;
+		fUndoLoader= loader;
+	}
+
 	@Override
 	public Object getModifiedElement() {
 		return fFile;
@@ -267,13 +308,27 @@ public class UndoTextFileChange extends Change {
 	private UndoEdit doPerformEdits(IDocument document, boolean[] setContentStampSuccess) throws MalformedTreeException, BadLocationException, CoreException {
 		// perform the changes
 		LinkedModeModel.closeAllModels(document);
-		UndoEdit redo= fUndo.apply(document, TextEdit.CREATE_UNDO);
+		UndoEdit redo= getUndo().apply(document, TextEdit.CREATE_UNDO);
 
 		// try to restore the document content stamp
 		setContentStampSuccess[0]= ContentStamps.set(document, fContentStampToRestore);
 		return redo;
 	}
 
+	private TextEdit getUndo() throws CoreException {
+		if (fUndo == null) {
+			try {
+				fUndo= fUndoLoader.call();
+			} catch (CoreException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new CoreException(new Status(IStatus.ERROR, RefactoringCorePlugin.getPluginId(), IStatus.ERROR, e.getMessage(), e));
+			}
+			fUndoLoader= null;
+		}
+		return fUndo;
+	}
+
 	@Override
 	public void dispose() {
 		if (fValidationState != null) {
@@ -0,0 +1,343 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.internal.core.refactoring;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+import org.eclipse.text.edits.UndoEdit;
+
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
+import org.eclipse.ltk.core.refactoring.UndoTextFileChange;
+
+/**
+ * Writes the undo edits of the {@link UndoTextFileChange}s of a change to disk and reads them back
+ * when the changes are performed, see {@link UndoManager2}.
+ * <p>
+ * The edits of an undo edit are performed one after the other, starting with the last one. They
+ * are stored as replace edits relative to the document the undo edit is applied to, so that they
+ * can be performed together in a {@link MultiTextEdit}. Undo edits whose edits are not replace
+ * edits, or overlap or touch each other, cannot be converted and stay in memory.
+ * </p>
+ */
+public final class UndoEditStore {
+
+	/**
+	 * The undo edits of one change written to disk. The file is deleted as soon as all edits have
+	 * been read back or the change is no longer needed.
+	 */
+	final class SpillFile {
+
+		private final File fFile;
+		private final long fLength;
+		private TextEdit[] fEdits;
+		private int fPending;
+
+		SpillFile(File file, int editCount) {
+			fFile= file;
+			fLength= file.length();
+			fPending= editCount;
+		}
+
+		synchronized TextEdit load(int index) throws IOException {
+			if (fEdits == null) {
+				fEdits= read(fFile, fPending);
+				rehydrated();
+			}
+			TextEdit result= fEdits[index];
+			fEdits[index]= null;
+			if (--fPending == 0)
+				delete();
+			return result;
+		}
+
+		synchronized void delete() {
+			if (fFile.delete())
+				deleted(this);
+			fEdits= null;
+		}
+
+		long getLength() {
+			return fLength;
+		}
+	}
+
+	/** The estimated memory of an edit besides its text */
+	private static final int EDIT_OVERHEAD= 64;
+
+	private final File fDirectory;
+
+	private int fNextId;
+	private long fSpilledBytes;
+	private int fSpillFiles;
+	private int fSpillCount;
+	private int fRehydrationCount;
+
+	UndoEditStore(File directory) {
+		fDirectory= directory;
+		deleteFiles();
+	}
+
+	/**
+	 * Estimates the memory held by the undo edits of the text file changes in the given change.
+	 *
+	 * @param change the change
+	 * @return the estimated number of bytes
+	 */
+	static long estimateSize(Change change) {
+		if (change instanceof CompositeChange) {
+			long result= 0;
+			for (Change child : ((CompositeChange) change).getChildren())
+				result+= estimateSize(child);
+			return result;
+		}
+		if (change instanceof UndoTextFileChange) {
+			UndoEdit undo= ((UndoTextFileChange) change).internalGetUndoEdit();
+			if (undo == null)
+				return 0;
+			long result= EDIT_OVERHEAD;
+			for (TextEdit edit : undo.getChildren()) {
+				result+= EDIT_OVERHEAD;
+				if (edit instanceof ReplaceEdit)
+					result+= 2L * ((ReplaceEdit) edit).getText().length();
+			}
+			return result;
+		}
+		return 0;
+	}
+
+	/**
+	 * Writes the undo edits of the text file changes in the given change to disk and releases
+	 * them.
+	 *
+	 * @param change the change
+	 * @return the file holding the edits, or <code>null</code> if no edit could be written
+	 * @throws IOException if the file could not be written. No edit has been released in this case.
+	 */
+	SpillFile spill(Change change) throws IOException {
+		List<UndoTextFileChange> changes= new ArrayList<>();
+		List<ReplaceEdit[]> edits= new ArrayList<>();
+		collectEdits(change, changes, edits);
+		if (changes.isEmpty())
+			return null;
+
+		File file;
+		synchronized (this) {
+			if (!fDirectory.isDirectory() && !fDirectory.mkdirs())
+				throw new IOException("Could not create " + fDirectory); //$NON-NLS-1$
+			file= new File(fDirectory, "undo" + fNextId++ + ".bin"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		try {
+			write(file, edits);
+		} catch (IOException e) {
+			file.delete();
+			throw e;
+		}
+
+		SpillFile result= new SpillFile(file, changes.size());
+		synchronized (this) {
+			fSpilledBytes+= result.getLength();
+			fSpillFiles++;
+			fSpillCount++;
+		}
+		for (int i= 0; i < changes.size(); i++) {
+			int index= i;
+			changes.get(i).internalReleaseUndoEdit(() -> result.load(index));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of bytes in the files on disk.
+	 *
+	 * @return the number of bytes
+	 */
+	public synchronized long getSpilledBytes() {
+		return fSpilledBytes;
+	}
+
+	/**
+	 * Returns the number of files on disk.
+	 *
+	 * @return the number of files
+	 */
+	public synchronized int getSpillFileCount() {
+		return fSpillFiles;
+	}
+
+	/**
+	 * Returns the number of changes whose undo edits have been written to disk.
+	 *
+	 * @return the number of spilled changes
+	 */
+	public synchronized int getSpillCount() {
+		return fSpillCount;
+	}
+
+	/**
+	 * Returns the number of changes whose undo edits have been read back from disk.
+	 *
+	 * @return the number of rehydrated changes
+	 */
+	public synchronized int getRehydrationCount() {
+		return fRehydrationCount;
+	}
+
+	synchronized void deleteFiles() {
+		File[] files= fDirectory.listFiles();
+		if (files != null) {
+			for (File file : files)
+				file.delete();
+		}
+		fSpilledBytes= 0;
+		fSpillFiles= 0;
+	}
+
+	private synchronized void rehydrated() {
+		fRehydrationCount++;
+	}
+
+	private synchronized void deleted(SpillFile file) {
+		fSpilledBytes-= file.getLength();
+		fSpillFiles--;
+	}
+
+	private static void collectEdits(Change change, List<UndoTextFileChange> changes, List<ReplaceEdit[]> edits) {
+		if (change instanceof CompositeChange) {
+			for (Change child : ((CompositeChange) change).getChildren())
+				collectEdits(child, changes, edits);
+		} else if (change instanceof UndoTextFileChange) {
+			UndoTextFileChange textFileChange= (UndoTextFileChange) change;
+			UndoEdit undo= textFileChange.internalGetUndoEdit();
+			if (undo == null)
+				return;
+			ReplaceEdit[] replaceEdits= toSimultaneousEdits(undo);
+			if (replaceEdits != null) {
+				changes.add(textFileChange);
+				edits.add(replaceEdits);
+			}
+		}
+	}
+
+	/**
+	 * Converts the edits of an undo edit into replace edits relative to the document the undo
+	 * edit is applied to.
+	 *
+	 * @param undo the undo edit
+	 * @return the replace edits sorted by offset, or <code>null</code> if the undo edit cannot be
+	 *         converted
+	 */
+	public static ReplaceEdit[] toSimultaneousEdits(UndoEdit undo) {
+		TextEdit[] children= undo.getChildren();
+		// offsets, lengths and texts of the converted edits in the original document, sorted by offset
+		List<int[]> regions= new ArrayList<>(children.length);
+		List<String> texts= new ArrayList<>(children.length);
+		int totalShift= 0;
+		int lastEnd= -1;
+		for (int i= children.length - 1; i >= 0; i--) {
+			if (!(children[i] instanceof ReplaceEdit))
+				return null;
+			ReplaceEdit edit= (ReplaceEdit) children[i];
+			int offset= edit.getOffset();
+			int length= edit.getLength();
+			String text= edit.getText();
+			int index;
+			int shift;
+			if (offset > lastEnd) { // behind all previous edits, the common case
+				index= regions.size();
+				shift= totalShift;
+			} else {
+				index= 0;
+				shift= 0;
+				for (; index < regions.size(); index++) {
+					int[] region= regions.get(index);
+					int start= region[0] + shift;
+					int end= start + texts.get(index).length();
+					if (offset + length < start)
+						break;
+					if (offset <= end)
+						return null; // overlaps or touches a previous edit
+					shift+= texts.get(index).length() - region[1];
+				}
+			}
+			regions.add(index, new int[] { offset - shift, length });
+			texts.add(index, text);
+			int delta= text.length() - length;
+			totalShift+= delta;
+			if (index == regions.size() - 1)
+				lastEnd= offset + text.length();
+			else if (lastEnd != -1)
+				lastEnd+= delta;
+		}
+		ReplaceEdit[] result= new ReplaceEdit[regions.size()];
+		for (int i= 0; i < result.length; i++) {
+			int[] region= regions.get(i);
+			result[i]= new ReplaceEdit(region[0], region[1], texts.get(i));
+		}
+		return result;
+	}
+
+	private static void write(File file, List<ReplaceEdit[]> edits) throws IOException {
+		try (DataOutputStream out= new DataOutputStream(new BufferedOutputStream(new DeflaterOutputStream(new FileOutputStream(file))))) {
+			out.writeInt(edits.size());
+			for (ReplaceEdit[] replaceEdits : edits) {
+				out.writeInt(replaceEdits.length);
+				for (ReplaceEdit edit : replaceEdits) {
+					byte[] text= edit.getText().getBytes(StandardCharsets.UTF_8);
+					out.writeInt(edit.getOffset());
+					out.writeInt(edit.getLength());
+					out.writeInt(text.length);
+					out.write(text);
+				}
+			}
+		}
+	}
+
+	private static TextEdit[] read(File file, int expectedCount) throws IOException {
+		try (DataInputStream in= new DataInputStream(new BufferedInputStream(new InflaterInputStream(new FileInputStream(file))))) {
+			int count= in.readInt();
+			if (count != expectedCount)
+				throw new IOException("Unexpected number of edits in " + file); //$NON-NLS-1$
+			TextEdit[] result= new TextEdit[count];
+			for (int i= 0; i < count; i++) {
+				MultiTextEdit multi= new MultiTextEdit();
+				int editCount= in.readInt();
+				for (int j= 0; j < editCount; j++) {
+					int offset= in.readInt();
+					int length= in.readInt();
+					byte[] text= new byte[in.readInt()];
+					in.readFully(text);
+					multi.addChild(new ReplaceEdit(offset, length, new String(text, StandardCharsets.UTF_8)));
+				}
+				result[i]= multi;
+			}
+			return result;
+		}
+	}
+}
@@ -13,9 +13,15 @@
  *******************************************************************************/
 package org.eclipse.ltk.internal.core.refactoring;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.commands.operations.IOperationHistory;
 import org.eclipse.core.commands.operations.IOperationHistoryListener;
+import org.eclipse.core.commands.operations.IUndoContext;
 import org.eclipse.core.commands.operations.IUndoableOperation;
 import org.eclipse.core.commands.operations.OperationHistoryEvent;
 import org.eclipse.core.commands.operations.OperationHistoryFactory;
@@ -36,8 +42,46 @@ import org.eclipse.ltk.core.refactoring.IUndoManagerListener;
 import org.eclipse.ltk.core.refactoring.IValidationCheckResultQuery;
 import org.eclipse.ltk.core.refactoring.RefactoringStatus;
 
+/**
+ * The undo manager of the refactoring undo context.
+ * <p>
+ * The undo edits of the text file changes on the undo and redo stacks are kept within a memory
+ * budget. If they exceed it, the undo edits of the oldest entries are written to disk, see
+ * {@link UndoEditStore}, and read back when the entries are undone or redone. The next entry to
+ * undo and the next entry to redo always stay in memory, and entries whose undo edits are smaller
+ * than the spill threshold are never written. The budget and the threshold default to the
+ * <code>ltk.undoMemoryBudget</code> and <code>ltk.undoSpillThreshold</code> system properties, in
+ * bytes.
+ * </p>
+ */
 public class UndoManager2 implements IUndoManager {
 
+	/**
+	 * The default memory budget for the undo edits on the undo and redo stacks, in bytes. A
+	 * negative budget disables writing undo edits to disk.
+	 */
+	public static final long DEFAULT_MEMORY_BUDGET= Long.getLong("ltk.undoMemoryBudget", 32L * 1024 * 1024).longValue(); //$NON-NLS-1$
+
+	/**
+	 * The default minimum size of the undo edits of an entry to write them to disk, in bytes.
+	 */
+	public static final long DEFAULT_SPILL_THRESHOLD= Long.getLong("ltk.undoSpillThreshold", 64L * 1024).longValue(); //$NON-NLS-1$
+
+	private class MemoryBudgetListener implements IOperationHistoryListener {
+		@Override
+		public void historyNotification(OperationHistoryEvent event) {
+			switch (event.getEventType()) {
+				case OperationHistoryEvent.OPERATION_ADDED:
+				case OperationHistoryEvent.DONE:
+				case OperationHistoryEvent.UNDONE:
+				case OperationHistoryEvent.REDONE:
+					if (getUnwrappedOperation(event.getOperation()) != null)
+						enforceMemoryBudget();
+					break;
+			}
+		}
+	}
+
 	private class OperationHistoryListener implements IOperationHistoryListener {
 		@Override
 		public void historyNotification(OperationHistoryEvent event) {
@@ -109,6 +153,11 @@ public class UndoManager2 implements IUndoManager {
 
 	private IOperationHistory fOperationHistory;
 	private IOperationHistoryListener fOperationHistoryListener;
+	private IOperationHistoryListener fMemoryBudgetListener;
+
+	private long fMemoryBudget= DEFAULT_MEMORY_BUDGET;
+	private long fSpillThreshold= DEFAULT_SPILL_THRESHOLD;
+	private UndoEditStore fUndoEditStore;
 
 	private boolean fIsOpen;
 	private TriggeredOperations fActiveOperation;
@@ -117,6 +166,8 @@ public class UndoManager2 implements IUndoManager {
 
 	public UndoManager2() {
 		fOperationHistory= OperationHistoryFactory.getOperationHistory();
+		fMemoryBudgetListener= new MemoryBudgetListener();
+		fOperationHistory.addOperationHistoryListener(fMemoryBudgetListener);
 	}
 
 	@Override
@@ -270,7 +321,157 @@ public class UndoManager2 implements IUndoManager {
 
 	@Override
 	public void shutdown() {
-		// nothing to do since we have a shared undo manager anyways.
+		// the undo history is shared, only release what this manager added to it
+		if (fMemoryBudgetListener != null) {
+			fOperationHistory.removeOperationHistoryListener(fMemoryBudgetListener);
+			fMemoryBudgetListener= null;
+		}
+		synchronized (this) {
+			if (fUndoEditStore != null)
+				fUndoEditStore.deleteFiles();
+		}
+	}
+
+	//---- memory budget -------------------------------------------------------
+
+	/**
+	 * Sets the memory budget and writes undo edits to disk if they exceed it.
+	 *
+	 * @param budget the memory budget for the undo edits on the undo and redo stacks, in bytes. A
+	 *            negative budget disables writing undo edits to disk.
+	 * @param spillThreshold the minimum size of the undo edits of an entry to write them to disk,
+	 *            in bytes
+	 */
+	public void setMemoryBudget(long budget, long spillThreshold) {
+		synchronized (this) {
+			fMemoryBudget= budget;
+			fSpillThreshold= spillThreshold;
+		}
+		enforceMemoryBudget();
+	}
+
+	/**
+	 * Returns the memory budget for the undo edits on the undo and redo stacks.
+	 *
+	 * @return the budget in bytes, or a negative value if undo edits are never written to disk
+	 */
+	public synchronized long getMemoryBudget() {
+		return fMemoryBudget;
+	}
+
+	/**
+	 * Returns the estimated memory held by the undo edits on the undo and redo stacks.
+	 *
+	 * @return the estimated number of bytes
+	 */
+	public long getResidentSize() {
+		long result= 0;
+		for (UndoableOperation2ChangeAdapter operation : getHistory())
+			result+= operation.getResidentSize();
+		return result;
+	}
+
+	/**
+	 * Returns the size of the undo edits written to disk.
+	 *
+	 * @return the number of bytes on disk
+	 */
+	public synchronized long getSpilledSize() {
+		return fUndoEditStore != null ? fUndoEditStore.getSpilledBytes() : 0;
+	}
+
+	/**
+	 * Returns the number of entries whose undo edits are on disk.
+	 *
+	 * @return the number of spilled entries
+	 */
+	public synchronized int getSpilledEntryCount() {
+		return fUndoEditStore != null ? fUndoEditStore.getSpillFileCount() : 0;
+	}
+
+	/**
+	 * Returns the number of times the undo edits of an entry have been written to disk.
+	 *
+	 * @return the number of spills
+	 */
+	public synchronized int getSpillCount() {
+		return fUndoEditStore != null ? fUndoEditStore.getSpillCount() : 0;
+	}
+
+	/**
+	 * Returns the number of times the undo edits of an entry have been read back from disk.
+	 *
+	 * @return the number of rehydrations
+	 */
+	public synchronized int getRehydrationCount() {
+		return fUndoEditStore != null ? fUndoEditStore.getRehydrationCount() : 0;
+	}
+
+	private void enforceMemoryBudget() {
+		long budget;
+		long spillThreshold;
+		synchronized (this) {
+			budget= fMemoryBudget;
+			spillThreshold= fSpillThreshold;
+		}
+		if (budget < 0)
+			return;
+
+		List<UndoableOperation2ChangeAdapter> history= getHistory();
+		long residentSize= 0;
+		for (UndoableOperation2ChangeAdapter operation : history)
+			residentSize+= operation.getResidentSize();
+		if (residentSize <= budget)
+			return;
+
+		UndoableOperation2ChangeAdapter nextUndo= getUnwrappedOperation(fOperationHistory.getUndoOperation(RefactoringCorePlugin.getUndoContext()));
+		UndoableOperation2ChangeAdapter nextRedo= getUnwrappedOperation(fOperationHistory.getRedoOperation(RefactoringCorePlugin.getUndoContext()));
+		for (UndoableOperation2ChangeAdapter operation : history) {
+			if (residentSize <= budget)
+				break;
+			if (operation == nextUndo || operation == nextRedo)
+				continue;
+			long size= operation.getResidentSize();
+			if (size < spillThreshold)
+				continue;
+			try {
+				if (operation.spill(getUndoEditStore()))
+					residentSize-= size - operation.getResidentSize();
+			} catch (IOException e) {
+				RefactoringCorePlugin.log(e);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Returns the entries of the undo stack followed by the ones of the redo stack, each starting
+	 * with the entry furthest away from the current state.
+	 *
+	 * @return the entries of the undo and redo stacks
+	 */
+	private List<UndoableOperation2ChangeAdapter> getHistory() {
+		IUndoContext context= RefactoringCorePlugin.getUndoContext();
+		List<UndoableOperation2ChangeAdapter> result= new ArrayList<>();
+		for (IUndoableOperation operation : fOperationHistory.getUndoHistory(context)) {
+			UndoableOperation2ChangeAdapter changeOperation= getUnwrappedOperation(operation);
+			if (changeOperation != null)
+				result.add(changeOperation);
+		}
+		for (IUndoableOperation operation : fOperationHistory.getRedoHistory(context)) {
+			UndoableOperation2ChangeAdapter changeOperation= getUnwrappedOperation(operation);
+			if (changeOperation != null)
+				result.add(changeOperation);
+		}
+		return result;
+	}
+
+	private synchronized UndoEditStore getUndoEditStore() {
+		if (fUndoEditStore == null) {
+			File directory= RefactoringCorePlugin.getDefault().getStateLocation().append(".undo").toFile(); //$NON-NLS-1$
+			fUndoEditStore= new UndoEditStore(directory);
+		}
+		return fUndoEditStore;
 	}
 
 	private void handleException(ExecutionException e) throws CoreException {
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.ltk.internal.core.refactoring;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -54,6 +55,12 @@ public class UndoableOperation2ChangeAdapter implements IUndoableOperation, IAdv
 
 	private ChangeDescriptor fChangeDescriptor;
 
+	/** The estimated memory held by the undo edits of the active change, or -1 if unknown */
+	private long fResidentSize= -1;
+	/** Whether the undo edits of the active change have been written to disk */
+	private boolean fSpilled;
+	private UndoEditStore.SpillFile fSpillFile;
+
 	private List<IUndoContext> fContexts= new ArrayList<>();
 
 	private static class ContextAdapter implements IAdaptable {
@@ -92,6 +99,7 @@ public class UndoableOperation2ChangeAdapter implements IUndoableOperation, IAdv
 		fActiveChange= fUndoChange;
 		fExecuteChange= null;
 		fRedoChange= null;
+		activeChangeChanged();
 	}
 
 	public Change getChange() {
@@ -180,6 +188,7 @@ public class UndoableOperation2ChangeAdapter implements IUndoableOperation, IAdv
 			fUndoChange= result.reverseChange;
 			fActiveChange= fUndoChange;
 			fExecuteChange= null;
+			activeChangeChanged();
 			return Status.OK_STATUS;
 		} catch (CoreException e) {
 			throw new ExecutionException(e.getStatus().getMessage(), e);
@@ -210,6 +219,7 @@ public class UndoableOperation2ChangeAdapter implements IUndoableOperation, IAdv
 			fRedoChange= result.reverseChange;
 			fActiveChange= fRedoChange;
 			fUndoChange= null;
+			activeChangeChanged();
 			return Status.OK_STATUS;
 		} catch (CoreException e) {
 			throw new ExecutionException(e.getStatus().getMessage(), e);
@@ -266,6 +276,7 @@ public class UndoableOperation2ChangeAdapter implements IUndoableOperation, IAdv
 			fUndoChange= result.reverseChange;
 			fActiveChange= fUndoChange;
 			fRedoChange= null;
+			activeChangeChanged();
 			return Status.OK_STATUS;
 		} catch (CoreException e) {
 			throw new ExecutionException(e.getStatus().getMessage(), e);
@@ -308,6 +319,44 @@ public class UndoableOperation2ChangeAdapter implements IUndoableOperation, IAdv
 		// the active change could be cleared.
 		if (fActiveChange != null)
 			fActiveChange.dispose();
+		activeChangeChanged();
+	}
+
+	/**
+	 * Returns the estimated memory held by the undo edits of the active change.
+	 *
+	 * @return the estimated number of bytes
+	 */
+	synchronized long getResidentSize() {
+		if (fResidentSize == -1)
+			fResidentSize= fActiveChange == null ? 0 : UndoEditStore.estimateSize(fActiveChange);
+		return fResidentSize;
+	}
+
+	/**
+	 * Writes the undo edits of the active change to the given store, unless this has already
+	 * been tried for the active change.
+	 *
+	 * @param store the store
+	 * @return <code>true</code> if edits have been written
+	 * @throws IOException if the edits could not be written
+	 */
+	synchronized boolean spill(UndoEditStore store) throws IOException {
+		if (fSpilled || fActiveChange == null)
+			return false;
+		fSpilled= true;
+		fSpillFile= store.spill(fActiveChange);
+		fResidentSize= -1;
+		return fSpillFile != null;
+	}
+
+	private synchronized void activeChangeChanged() {
+		if (fSpillFile != null) {
+			fSpillFile.delete();
+			fSpillFile= null;
+		}
+		fSpilled= false;
+		fResidentSize= -1;
 	}
 
 	private ExecuteResult executeChange(final IValidationCheckResultQuery query, IProgressMonitor pm) throws CoreException {
@@ -392,6 +441,7 @@ public class UndoableOperation2ChangeAdapter implements IUndoableOperation, IAdv
 		}
 		fActiveChange.dispose();
 		fActiveChange= null;
+		activeChangeChanged();
 	}
 
 	@Override
@@ -0,0 +1,477 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.internal.core.refactoring.history;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileInfo;
+import org.eclipse.core.filesystem.IFileStore;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubProgressMonitor;
+
+import org.eclipse.ltk.core.refactoring.IRefactoringCoreStatusCodes;
+import org.eclipse.ltk.core.refactoring.RefactoringCore;
+import org.eclipse.ltk.core.refactoring.RefactoringDescriptor;
+import org.eclipse.ltk.core.refactoring.RefactoringDescriptorProxy;
+import org.eclipse.ltk.internal.core.refactoring.IRefactoringSerializationConstants;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringCoreMessages;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
+
+/**
+ * Index of the refactorings of a history store.
+ * <p>
+ * A history store consists of a folder per week, each containing a
+ * refactoring history file and a history index file. This index keeps the time
+ * stamps, descriptions and flags of all week folders of a store in memory and
+ * in a single binary file in the state location. Refactoring histories of a
+ * time range are then read without opening the index files of all week
+ * folders, and filtered by flags without resolving the refactoring
+ * descriptors.
+ * </p>
+ * <p>
+ * The week folders remain the persistent format of the history, since they
+ * may be shared with other workspaces. A week folder is read again if its
+ * history index file has been changed, which migrates existing histories to
+ * the index on first use.
+ * </p>
+ *
+ * @since 3.13
+ */
+final class RefactoringHistoryIndex {
+
+	/** The refactorings of a week folder */
+	private static final class Week {
+
+		/** The descriptions of the refactorings */
+		private final String[] fDescriptions;
+
+		/** The flags of the refactorings, or {@link RefactoringHistoryIndex#FLAGS_UNKNOWN} */
+		private final int[] fFlags;
+
+		/** The modification time of the history index file */
+		private final long fLastModified;
+
+		/** The length of the history index file */
+		private final long fLength;
+
+		/** The time stamps of the refactorings, in ascending order */
+		private final long[] fStamps;
+
+		private Week(final long lastModified, final long length, final long[] stamps, final String[] descriptions, final int[] flags) {
+			fLastModified= lastModified;
+			fLength= length;
+			fStamps= stamps;
+			fDescriptions= descriptions;
+			fFlags= flags;
+		}
+	}
+
+	/** The flags of refactorings which are not found in the history file */
+	private static final int FLAGS_UNKNOWN= -1;
+
+	/** The magic number of the index file */
+	private static final int MAGIC= 0x52484958;
+
+	/** The name of the folder of the index files in the state location */
+	private static final String NAME_INDEX_FOLDER= ".refactorings.index"; //$NON-NLS-1$
+
+	/** The version of the index file format */
+	private static final int VERSION= 1;
+
+	/**
+	 * Reads the flags of the refactorings in the specified history file.
+	 *
+	 * @param store
+	 *            the history file store
+	 * @param monitor
+	 *            the progress monitor to use
+	 * @return a map from time stamps to flags
+	 * @throws CoreException
+	 *             if an error occurs while reading the history file
+	 */
+	private static Map<Long, Integer> readFlags(final IFileStore store, final IProgressMonitor monitor) throws CoreException {
+		final Map<Long, Integer> flags= new HashMap<>();
+		try (InputStream stream= new BufferedInputStream(store.openInputStream(EFS.NONE, monitor))) {
+			SAXParserFactory.newInstance().newSAXParser().parse(new InputSource(stream), new DefaultHandler() {
+
+				@Override
+				public void startElement(final String uri, final String localName, final String qualifiedName, final Attributes attributes) {
+					if (IRefactoringSerializationConstants.ELEMENT_REFACTORING.equals(qualifiedName)) {
+						try {
+							final long stamp= Long.parseLong(attributes.getValue(IRefactoringSerializationConstants.ATTRIBUTE_STAMP));
+							final String value= attributes.getValue(IRefactoringSerializationConstants.ATTRIBUTE_FLAGS);
+							flags.put(stamp, value != null ? Integer.parseInt(value) : 0);
+						} catch (NumberFormatException exception) {
+							// Just skip
+						}
+					}
+				}
+			});
+		} catch (IOException | ParserConfigurationException | SAXException exception) {
+			throw new CoreException(new Status(IStatus.ERROR, RefactoringCore.ID_PLUGIN, IRefactoringCoreStatusCodes.REFACTORING_HISTORY_IO_ERROR, exception.getLocalizedMessage(), exception));
+		}
+		return flags;
+	}
+
+	private static String readString(final DataInputStream stream) throws IOException {
+		final byte[] bytes= new byte[stream.readInt()];
+		stream.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeString(final DataOutputStream stream, final String string) throws IOException {
+		final byte[] bytes= string.getBytes(StandardCharsets.UTF_8);
+		stream.writeInt(bytes.length);
+		stream.write(bytes);
+	}
+
+	/** Has the index been changed since it has been saved? */
+	private boolean fDirty= false;
+
+	/** The history file store */
+	private final IFileStore fHistoryStore;
+
+	/** Has the index file been loaded? */
+	private boolean fLoaded= false;
+
+	/** The week folders, keyed by their path relative to the history store */
+	private final Map<String, Week> fWeeks= new HashMap<>();
+
+	/**
+	 * Creates a new refactoring history index.
+	 *
+	 * @param store
+	 *            the history file store
+	 */
+	RefactoringHistoryIndex(final IFileStore store) {
+		Assert.isNotNull(store);
+		fHistoryStore= store;
+	}
+
+	/**
+	 * Returns the index file of the history store.
+	 *
+	 * @return the index file, or <code>null</code> if there is no state
+	 *         location
+	 */
+	private File getIndexFile() {
+		final RefactoringCorePlugin plugin= RefactoringCorePlugin.getDefault();
+		if (plugin == null)
+			return null;
+		final String uri= fHistoryStore.toURI().toString();
+		return plugin.getStateLocation().append(NAME_INDEX_FOLDER).append(String.format("%08x.idx", uri.hashCode())).toFile(); //$NON-NLS-1$
+	}
+
+	/**
+	 * Marks the specified week folder as changed.
+	 *
+	 * @param path
+	 *            the path of the week folder
+	 */
+	synchronized void invalidate(final IPath path) {
+		if (fWeeks.remove(path.toPortableString()) != null)
+			fDirty= true;
+	}
+
+	/**
+	 * Is the week folder with the specified path outside of the time range?
+	 *
+	 * @param segments
+	 *            the path segments of the week folder or one of its parents
+	 * @param first
+	 *            the path segments of the week folder of the start time stamp
+	 * @param last
+	 *            the path segments of the week folder of the end time stamp
+	 * @return <code>true</code> if the week folder does not contain
+	 *         refactorings of the time range, <code>false</code> if it may
+	 *         contain some
+	 */
+	private static boolean isOutside(final String[] segments, final String[] first, final String[] last) {
+		if (segments.length == 0)
+			return false;
+		try {
+			final int year= Integer.parseInt(segments[0]);
+			if (year < Integer.parseInt(first[0]) || year > Integer.parseInt(last[0]))
+				return true;
+			if (segments.length == 1)
+				return false;
+			// the week of the year does not determine the year and month of the folder
+			final int month= Integer.parseInt(segments[1]);
+			return year == Integer.parseInt(first[0]) && month < Integer.parseInt(first[1]) || year == Integer.parseInt(last[0]) && month > Integer.parseInt(last[1]);
+		} catch (NumberFormatException exception) {
+			// Not created by the history manager
+			return false;
+		}
+	}
+
+	/**
+	 * Loads the index file, if it exists and belongs to the history store.
+	 */
+	private void load() {
+		fLoaded= true;
+		final File file= getIndexFile();
+		if (file == null || !file.isFile())
+			return;
+		try (DataInputStream stream= new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (stream.readInt() != MAGIC || stream.readInt() != VERSION || !fHistoryStore.toURI().toString().equals(readString(stream)))
+				return;
+			final int count= stream.readInt();
+			for (int index= 0; index < count; index++) {
+				final String path= readString(stream);
+				final long lastModified= stream.readLong();
+				final long length= stream.readLong();
+				final int size= stream.readInt();
+				final long[] stamps= new long[size];
+				final String[] descriptions= new String[size];
+				final int[] flags= new int[size];
+				for (int offset= 0; offset < size; offset++) {
+					stamps[offset]= stream.readLong();
+					descriptions[offset]= readString(stream);
+					flags[offset]= stream.readInt();
+				}
+				fWeeks.put(path, new Week(lastModified, length, stamps, descriptions, flags));
+			}
+		} catch (IOException exception) {
+			// Rebuild the index from the week folders
+			fWeeks.clear();
+		}
+	}
+
+	/**
+	 * Reads the refactorings of the specified week folder.
+	 *
+	 * @param folder
+	 *            the week folder
+	 * @param info
+	 *            the file info of the history index file
+	 * @param monitor
+	 *            the progress monitor to use
+	 * @return the refactorings of the week folder
+	 * @throws CoreException
+	 *             if an error occurs while reading the week folder
+	 */
+	private static Week readWeek(final IFileStore folder, final IFileInfo info, final IProgressMonitor monitor) throws CoreException {
+		try {
+			monitor.beginTask(RefactoringCoreMessages.RefactoringHistoryService_retrieving_history, 2);
+			final RefactoringDescriptorProxy[] proxies;
+			try (InputStream stream= folder.getChild(RefactoringHistoryService.NAME_INDEX_FILE).openInputStream(EFS.NONE, new SubProgressMonitor(monitor, 1, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL))) {
+				proxies= RefactoringHistoryManager.readRefactoringDescriptorProxies(stream, null, 0, Long.MAX_VALUE);
+			} catch (IOException exception) {
+				throw new CoreException(new Status(IStatus.ERROR, RefactoringCore.ID_PLUGIN, IRefactoringCoreStatusCodes.REFACTORING_HISTORY_IO_ERROR, exception.getLocalizedMessage(), exception));
+			}
+			RefactoringHistoryManager.sortRefactoringDescriptorsAscending(proxies);
+			final IFileStore history= folder.getChild(RefactoringHistoryService.NAME_HISTORY_FILE);
+			Map<Long, Integer> flags= Collections.emptyMap();
+			if (history.fetchInfo().exists()) {
+				try {
+					flags= readFlags(history, new SubProgressMonitor(monitor, 1, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
+				} catch (CoreException exception) {
+					// The refactorings are filtered by resolving their descriptors
+					RefactoringCorePlugin.log(exception);
+				}
+			}
+			final long[] stamps= new long[proxies.length];
+			final String[] descriptions= new String[proxies.length];
+			final int[] values= new int[proxies.length];
+			for (int index= 0; index < proxies.length; index++) {
+				stamps[index]= proxies[index].getTimeStamp();
+				descriptions[index]= proxies[index].getDescription();
+				final Integer value= flags.get(stamps[index]);
+				values[index]= value != null ? value.intValue() : FLAGS_UNKNOWN;
+			}
+			return new Week(info.getLastModified(), info.getLength(), stamps, descriptions, values);
+		} finally {
+			monitor.done();
+		}
+	}
+
+	/**
+	 * Reads the refactoring descriptor proxies of a time range.
+	 *
+	 * @param project
+	 *            the name of the project, or <code>null</code> for the
+	 *            workspace
+	 * @param start
+	 *            the start time stamp, inclusive
+	 * @param end
+	 *            the end time stamp, inclusive
+	 * @param flags
+	 *            the refactoring descriptor flags which must be present, or
+	 *            {@link RefactoringDescriptor#NONE}
+	 * @param collection
+	 *            the collection of proxies to fill in
+	 * @param unknown
+	 *            the collection of proxies to fill in whose flags are not
+	 *            known
+	 * @param monitor
+	 *            the progress monitor to use
+	 * @throws CoreException
+	 *             if an error occurs
+	 */
+	synchronized void readRefactoringDescriptorProxies(final String project, final long start, final long end, final int flags, final Collection<RefactoringDescriptorProxy> collection, final Collection<RefactoringDescriptorProxy> unknown, final IProgressMonitor monitor) throws CoreException {
+		try {
+			monitor.beginTask(RefactoringCoreMessages.RefactoringHistoryService_retrieving_history, 10);
+			if (!fLoaded)
+				load();
+			update(start, end, new SubProgressMonitor(monitor, 9));
+			for (Week week : fWeeks.values()) {
+				final long[] stamps= week.fStamps;
+				if (stamps.length == 0 || stamps[0] > end || stamps[stamps.length - 1] < start)
+					continue;
+				int index= Arrays.binarySearch(stamps, start);
+				if (index < 0)
+					index= -index - 1;
+				else
+					while (index > 0 && stamps[index - 1] == start)
+						index--;
+				for (; index < stamps.length && stamps[index] <= end; index++) {
+					final int value= week.fFlags[index];
+					if (flags == RefactoringDescriptor.NONE || value != FLAGS_UNKNOWN && (value | flags) == value)
+						collection.add(new DefaultRefactoringDescriptorProxy(week.fDescriptions[index], project, stamps[index]));
+					else if (value == FLAGS_UNKNOWN)
+						unknown.add(new DefaultRefactoringDescriptorProxy(week.fDescriptions[index], project, stamps[index]));
+				}
+			}
+			if (fDirty)
+				save();
+			monitor.worked(1);
+		} finally {
+			monitor.done();
+		}
+	}
+
+	/**
+	 * Saves the index file.
+	 */
+	private void save() {
+		fDirty= false;
+		final File file= getIndexFile();
+		if (file == null)
+			return;
+		file.getParentFile().mkdirs();
+		try (DataOutputStream stream= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			stream.writeInt(MAGIC);
+			stream.writeInt(VERSION);
+			writeString(stream, fHistoryStore.toURI().toString());
+			stream.writeInt(fWeeks.size());
+			for (Map.Entry<String, Week> entry : fWeeks.entrySet()) {
+				final Week week= entry.getValue();
+				writeString(stream, entry.getKey());
+				stream.writeLong(week.fLastModified);
+				stream.writeLong(week.fLength);
+				stream.writeInt(week.fStamps.length);
+				for (int index= 0; index < week.fStamps.length; index++) {
+					stream.writeLong(week.fStamps[index]);
+					writeString(stream, week.fDescriptions[index]);
+					stream.writeInt(week.fFlags[index]);
+				}
+			}
+		} catch (IOException exception) {
+			RefactoringCorePlugin.log(exception);
+			file.delete();
+		}
+	}
+
+	/**
+	 * Updates the week folders of a time range which have been changed.
+	 *
+	 * @param start
+	 *            the start time stamp, inclusive
+	 * @param end
+	 *            the end time stamp, inclusive
+	 * @param monitor
+	 *            the progress monitor to use
+	 * @throws CoreException
+	 *             if an error occurs
+	 */
+	private void update(final long start, final long end, final IProgressMonitor monitor) throws CoreException {
+		final String[] first= RefactoringHistoryManager.stampToPath(start).segments();
+		final String[] last= RefactoringHistoryManager.stampToPath(end).segments();
+		final Set<String> found= new HashSet<>();
+		if (fHistoryStore.fetchInfo().exists())
+			update(fHistoryStore, Path.EMPTY, first, last, found, monitor);
+		for (final Iterator<String> iterator= fWeeks.keySet().iterator(); iterator.hasNext();) {
+			final String path= iterator.next();
+			if (!found.contains(path) && !isOutside(Path.fromPortableString(path).segments(), first, last)) {
+				iterator.remove();
+				fDirty= true;
+			}
+		}
+	}
+
+	private void update(final IFileStore store, final IPath path, final String[] first, final String[] last, final Set<String> found, final IProgressMonitor monitor) throws CoreException {
+		try {
+			final IFileInfo[] infos= store.childInfos(EFS.NONE, null);
+			monitor.beginTask(RefactoringCoreMessages.RefactoringHistoryService_retrieving_history, infos.length);
+			for (IFileInfo info : infos) {
+				if (monitor.isCanceled())
+					throw new OperationCanceledException();
+				final String name= info.getName();
+				if (info.isDirectory()) {
+					final IPath child= path.append(name);
+					if (!isOutside(child.segments(), first, last))
+						update(store.getChild(name), child, first, last, found, new SubProgressMonitor(monitor, 1));
+					else
+						monitor.worked(1);
+				} else if (RefactoringHistoryService.NAME_INDEX_FILE.equalsIgnoreCase(name)) {
+					final String key= path.toPortableString();
+					found.add(key);
+					final Week week= fWeeks.get(key);
+					if (week == null || week.fLastModified != info.getLastModified() || week.fLength != info.getLength()) {
+						fWeeks.put(key, readWeek(store, info, new SubProgressMonitor(monitor, 1)));
+						fDirty= true;
+					} else
+						monitor.worked(1);
+				} else
+					monitor.worked(1);
+			}
+		} finally {
+			monitor.done();
+		}
+	}
+}
@@ -101,6 +101,9 @@ public final class RefactoringHistoryManager {
 	/** The calendar instance */
 	private static final Calendar fgCalendar= Calendar.getInstance(TimeZone.getTimeZone("GMT+00:00")); //$NON-NLS-1$
 
+	/** The history indexes, keyed by their history file stores */
+	private static final Map<IFileStore, RefactoringHistoryIndex> fgIndexes= new HashMap<>();
+
 	/**
 	 * Checks whether the argument map is well-formed.
 	 * <p>
@@ -185,6 +188,19 @@ public final class RefactoringHistoryManager {
 		return arguments;
 	}
 
+	/**
+	 * Returns the index of the specified history store.
+	 *
+	 * @param store
+	 *            the history file store
+	 * @return the history index
+	 */
+	private static RefactoringHistoryIndex getIndex(final IFileStore store) {
+		synchronized (fgIndexes) {
+			return fgIndexes.computeIfAbsent(store, RefactoringHistoryIndex::new);
+		}
+	}
+
 	/**
 	 * Reads refactoring descriptor proxies.
 	 *
@@ -842,6 +858,7 @@ public final class RefactoringHistoryManager {
 						throw createCoreException(exception);
 					}
 				}
+				getIndex(fHistoryStore).invalidate(path);
 			}
 		} finally {
 			monitor.done();
@@ -918,18 +935,57 @@ public final class RefactoringHistoryManager {
 	 * @return the refactoring history
 	 */
 	RefactoringHistory readRefactoringHistory(final long start, final long end, final IProgressMonitor monitor) {
+		return readRefactoringHistory(start, end, RefactoringDescriptor.NONE, monitor);
+	}
+
+	/**
+	 * Reads the refactoring history from disk.
+	 * <p>
+	 * The refactorings are read from the history indexes. Only refactorings
+	 * whose flags are not contained in the indexes are resolved to filter
+	 * them.
+	 * </p>
+	 *
+	 * @param start
+	 *            the start time stamp, inclusive
+	 * @param end
+	 *            the end time stamp, inclusive
+	 * @param flags
+	 *            the refactoring descriptor flags which must be present in
+	 *            order to be returned in the refactoring history object, or
+	 *            {@link RefactoringDescriptor#NONE}
+	 * @param monitor
+	 *            the progress monitor to use
+	 * @return the refactoring history
+	 */
+	RefactoringHistory readRefactoringHistory(final long start, final long end, final int flags, final IProgressMonitor monitor) {
 		try {
-			monitor.beginTask(RefactoringCoreMessages.RefactoringHistoryService_retrieving_history, 200);
+			monitor.beginTask(RefactoringCoreMessages.RefactoringHistoryService_retrieving_history, 300);
 			final Set<RefactoringDescriptorProxy> set= new HashSet<>();
+			final List<RefactoringDescriptorProxy> unknown= new ArrayList<>();
 			try {
 				if (fHistoryStore.fetchInfo(EFS.NONE, new SubProgressMonitor(monitor, 20, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)).exists())
-					readRefactoringDescriptorProxies(fHistoryStore, fProjectName, set, start, end, new SubProgressMonitor(monitor, 80), RefactoringCoreMessages.RefactoringHistoryService_retrieving_history);
+					getIndex(fHistoryStore).readRefactoringDescriptorProxies(fProjectName, start, end, flags, set, unknown, new SubProgressMonitor(monitor, 80));
 				final IFileStore store= EFS.getLocalFileSystem().getStore(RefactoringCorePlugin.getDefault().getStateLocation()).getChild(RefactoringHistoryService.NAME_HISTORY_FOLDER).getChild(RefactoringHistoryService.NAME_WORKSPACE_PROJECT);
 				if (store.fetchInfo(EFS.NONE, new SubProgressMonitor(monitor, 20, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)).exists())
-					readRefactoringDescriptorProxies(store, null, set, start, end, new SubProgressMonitor(monitor, 80), RefactoringCoreMessages.RefactoringHistoryService_retrieving_history);
+					getIndex(store).readRefactoringDescriptorProxies(null, start, end, flags, set, unknown, new SubProgressMonitor(monitor, 80));
 			} catch (CoreException exception) {
 				RefactoringCorePlugin.log(exception);
 			}
+			final IProgressMonitor subMonitor= new SubProgressMonitor(monitor, 100);
+			try {
+				subMonitor.beginTask(RefactoringCoreMessages.RefactoringHistoryService_retrieving_history, unknown.size());
+				for (RefactoringDescriptorProxy proxy : unknown) {
+					final RefactoringDescriptor descriptor= proxy.requestDescriptor(new SubProgressMonitor(subMonitor, 1));
+					if (descriptor != null) {
+						final int filter= descriptor.getFlags();
+						if ((filter | flags) == filter)
+							set.add(proxy);
+					}
+				}
+			} finally {
+				subMonitor.done();
+			}
 			final RefactoringDescriptorProxy[] proxies= new RefactoringDescriptorProxy[set.size()];
 			set.toArray(proxies);
 			return new RefactoringHistoryImplementation(proxies);
@@ -1018,6 +1074,7 @@ public final class RefactoringHistoryManager {
 						}
 					}
 				}
+				getIndex(fHistoryStore).invalidate(path);
 			}
 		} finally {
 			monitor.done();
@@ -130,51 +130,6 @@ public final class RefactoringHistoryService implements IRefactoringHistoryServi
 	/** The no history constant */
 	private static final NullRefactoringHistory NO_HISTORY= new NullRefactoringHistory();
 
-	/**
-	 * Filters the given array of refactoring proxies and returns the result in
-	 * the specified refactoring descriptor proxy set.
-	 * <p>
-	 * Clients wishing to benefit from the resolving of refactoring descriptors
-	 * to determine its flags can set resolve to <code>true</code> if they
-	 * would like to have resolved refactoring descriptor proxies as result.
-	 * </p>
-	 *
-	 * @param proxies
-	 *            the refactoring descriptor proxies
-	 * @param set
-	 *            the result set
-	 * @param resolve
-	 *            <code>true</code> to return the filtered refactoring
-	 *            descriptors as resolved refactoring proxies,
-	 *            <code>false</code> otherwise
-	 * @param flags
-	 *            the refactoring descriptor flags which must be present in
-	 *            order to be returned in the refactoring history object
-	 * @param monitor
-	 *            the progress monitor to use
-	 */
-	private static void filterRefactoringDescriptors(final RefactoringDescriptorProxy[] proxies, final Set<RefactoringDescriptorProxy> set, final boolean resolve, final int flags, final IProgressMonitor monitor) {
-		Assert.isTrue(flags > RefactoringDescriptor.NONE);
-		try {
-			monitor.beginTask(RefactoringCoreMessages.RefactoringHistoryService_retrieving_history, proxies.length);
-			for (RefactoringDescriptorProxy proxy : proxies) {
-				final RefactoringDescriptor descriptor= proxy.requestDescriptor(new SubProgressMonitor(monitor, 1));
-				if (descriptor != null) {
-					final int filter= descriptor.getFlags();
-					if ((filter | flags) == filter) {
-						if (resolve) {
-							set.add(new RefactoringDescriptorProxyAdapter(descriptor));
-						} else {
-							set.add(proxy);
-						}
-					}
-				}
-			}
-		} finally {
-			monitor.done();
-		}
-	}
-
 	/**
 	 * Returns the singleton instance of the refactoring history.
 	 *
@@ -632,13 +587,7 @@ public final class RefactoringHistoryService implements IRefactoringHistoryServi
 				final String name= project.getName();
 				final RefactoringHistoryManager manager= getManager(name);
 				if (manager != null) {
-					RefactoringHistory history= manager.readRefactoringHistory(start, end, new SubProgressMonitor(monitor, 20));
-					if (flags > RefactoringDescriptor.NONE) {
-						final Set<RefactoringDescriptorProxy> set= new HashSet<>();
-						filterRefactoringDescriptors(history.getDescriptors(), set, false, flags, new SubProgressMonitor(monitor, 100));
-						history= new RefactoringHistoryImplementation(set.toArray(new RefactoringDescriptorProxy[set.size()]));
-					}
-					return history;
+					return manager.readRefactoringHistory(start, end, flags, new SubProgressMonitor(monitor, 120));
 				}
 			} finally {
 				monitor.done();
@@ -663,19 +612,10 @@ public final class RefactoringHistoryService implements IRefactoringHistoryServi
 		try {
 			monitor.beginTask(RefactoringCoreMessages.RefactoringHistoryService_retrieving_history, 3 * projects.length);
 			final Set<RefactoringDescriptorProxy> set= new HashSet<>();
-			if (flags > RefactoringDescriptor.NONE) {
-				for (IProject project : projects) {
-					if (project.isAccessible()) {
-						final RefactoringDescriptorProxy[] proxies= getProjectHistory(project, start, end, flags, new SubProgressMonitor(monitor, 1)).getDescriptors();
-						filterRefactoringDescriptors(proxies, set, false, flags, new SubProgressMonitor(monitor, 2));
-					}
-				}
-			} else {
-				for (IProject project : projects) {
-					if (project.isAccessible()) {
-						final RefactoringDescriptorProxy[] proxies= getProjectHistory(project, start, end, RefactoringDescriptor.NONE, new SubProgressMonitor(monitor, 3)).getDescriptors();
-						set.addAll(Arrays.asList(proxies));
-					}
+			for (IProject project : projects) {
+				if (project.isAccessible()) {
+					final RefactoringDescriptorProxy[] proxies= getProjectHistory(project, start, end, flags, new SubProgressMonitor(monitor, 3)).getDescriptors();
+					set.addAll(Arrays.asList(proxies));
 				}
 			}
 			final RefactoringDescriptorProxy[] proxies= new RefactoringDescriptorProxy[set.size()];
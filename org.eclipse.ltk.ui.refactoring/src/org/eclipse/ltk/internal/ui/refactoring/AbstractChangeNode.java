@@ -35,6 +35,7 @@ public abstract class AbstractChangeNode extends PreviewNode {
 
 	private final Change fChange;
 	private PreviewNode[] fChildren;
+	private ChangeSummary fSummary;
 
 	public static PreviewNode createNode(PreviewNode parent, RefactoringPreviewChangeFilter filter, Change change) {
 		if (change instanceof CompositeChange) {
@@ -88,6 +89,41 @@ public abstract class AbstractChangeNode extends PreviewNode {
 
 	abstract PreviewNode[] doCreateChildren();
 
+	@Override
+	boolean hasChildren() {
+		if (fChildren != null)
+			return fChildren.length > 0;
+		return mayHaveChildren();
+	}
+
+	/**
+	 * Tells whether this node may have children, without creating them.
+	 *
+	 * @return <code>false</code> if the node has no children
+	 */
+	boolean mayHaveChildren() {
+		return getChildren().length > 0;
+	}
+
+	/**
+	 * Returns the summary of the change used for sorting and filtering.
+	 *
+	 * @return the summary
+	 */
+	ChangeSummary getSummary() {
+		if (fSummary == null)
+			fSummary= computeSummary();
+		return fSummary;
+	}
+
+	void setSummary(ChangeSummary summary) {
+		fSummary= summary;
+	}
+
+	ChangeSummary computeSummary() {
+		return ChangeSummary.create(fChange, null);
+	}
+
 	@Override
 	public String getText() {
 		return fChange.getName();
@@ -120,24 +156,12 @@ public abstract class AbstractChangeNode extends PreviewNode {
 
 	@Override
 	boolean hasOneGroupCategory(List<GroupCategory> categories) {
-		for (PreviewNode child : getChildren()) {
-			if (child.hasOneGroupCategory(categories)) {
-				return true;
-			}
-		}
-		return false;
+		return getSummary().hasOneGroupCategory(categories);
 	}
 
 	@Override
 	boolean hasDerived() {
-		if (hasDerivedResourceChange(fChange))
-			return true;
-		for (PreviewNode child : getChildren()) {
-			if (child.hasDerived()) {
-				return true;
-			}
-		}
-		return false;
+		return getSummary().hasDerived();
 	}
 
 	int getDefaultChangeActive() {
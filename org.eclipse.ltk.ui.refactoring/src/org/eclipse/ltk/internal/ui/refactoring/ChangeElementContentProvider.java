@@ -52,8 +52,7 @@ class ChangeElementContentProvider  implements ITreeContentProvider {
 	 */
 	@Override
 	public boolean hasChildren(Object element){
-		Object[] children= getChildren(element);
-		return children != null && children.length > 0;
+		return ((PreviewNode)element).hasChildren();
 	}
 
 	/* non Java-doc
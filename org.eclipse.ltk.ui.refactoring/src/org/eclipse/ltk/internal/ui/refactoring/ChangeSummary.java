@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.internal.ui.refactoring;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
+import org.eclipse.ltk.core.refactoring.GroupCategory;
+import org.eclipse.ltk.core.refactoring.GroupCategorySet;
+import org.eclipse.ltk.core.refactoring.TextEditBasedChange;
+import org.eclipse.ltk.core.refactoring.TextEditBasedChangeGroup;
+
+/**
+ * A summary of a change and its children that tells whether they modify a derived resource and
+ * which group categories their change groups belong to.
+ * <p>
+ * Sorting and filtering the preview tree only needs the summaries, which are computed from the
+ * changes. The preview nodes of a subtree are therefore only created when the subtree is
+ * expanded.
+ * </p>
+ */
+final class ChangeSummary {
+
+	private final boolean fDerived;
+	private final GroupCategorySet fGroupCategories;
+	/** The summaries of the children of a composite change, or <code>null</code> */
+	private final Map<Change, ChangeSummary> fChildren;
+
+	private ChangeSummary(boolean derived, GroupCategorySet groupCategories, Map<Change, ChangeSummary> children) {
+		fDerived= derived;
+		fGroupCategories= groupCategories;
+		fChildren= children;
+	}
+
+	/**
+	 * Computes the summary of the given change.
+	 *
+	 * @param change the change
+	 * @param filter the filter for the children of a composite change, or <code>null</code>.
+	 *            Like in {@link CompositeChangeNode}, it is not applied to nested composite
+	 *            changes that are not synthetic.
+	 * @return the summary
+	 */
+	static ChangeSummary create(Change change, RefactoringPreviewChangeFilter filter) {
+		boolean derived= AbstractChangeNode.hasDerivedResourceChange(change);
+		if (change instanceof CompositeChange) {
+			Map<Change, ChangeSummary> children= new IdentityHashMap<>();
+			GroupCategorySet[] groupCategories= { GroupCategorySet.NONE };
+			derived|= addChildren((CompositeChange) change, filter, children, groupCategories);
+			return new ChangeSummary(derived, groupCategories[0], children);
+		} else if (change instanceof TextEditBasedChange) {
+			GroupCategorySet groupCategories= GroupCategorySet.NONE;
+			for (TextEditBasedChangeGroup group : ((TextEditBasedChange) change).getChangeGroups())
+				groupCategories= union(groupCategories, group.getGroupCategorySet());
+			return new ChangeSummary(derived, groupCategories, null);
+		}
+		return new ChangeSummary(derived, GroupCategorySet.NONE, null);
+	}
+
+	private static boolean addChildren(CompositeChange focus, RefactoringPreviewChangeFilter filter, Map<Change, ChangeSummary> children, GroupCategorySet[] groupCategories) {
+		boolean derived= false;
+		for (Change change : focus.getChildren()) {
+			if (filter == null || filter.select(change)) {
+				if (change instanceof CompositeChange && ((CompositeChange) change).isSynthetic()) {
+					derived|= addChildren((CompositeChange) change, filter, children, groupCategories);
+				} else {
+					ChangeSummary child= create(change, null);
+					children.put(change, child);
+					derived|= child.fDerived;
+					groupCategories[0]= union(groupCategories[0], child.fGroupCategories);
+				}
+			}
+		}
+		return derived;
+	}
+
+	private static GroupCategorySet union(GroupCategorySet one, GroupCategorySet two) {
+		// most groups share their categories, don't copy the set for each of them
+		if (one.asList().containsAll(two.asList()))
+			return one;
+		return GroupCategorySet.union(one, two);
+	}
+
+	/**
+	 * Returns the summary of a child of the summarized composite change.
+	 *
+	 * @param child the child change
+	 * @return the summary, or <code>null</code> if the child is not known
+	 */
+	ChangeSummary getChildSummary(Change child) {
+		return fChildren != null ? fChildren.get(child) : null;
+	}
+
+	boolean hasDerived() {
+		return fDerived;
+	}
+
+	boolean hasOneGroupCategory(List<GroupCategory> categories) {
+		return fGroupCategories.containsOneCategory(categories);
+	}
+
+	List<GroupCategory> getGroupCategories() {
+		return fGroupCategories.asList();
+	}
+}
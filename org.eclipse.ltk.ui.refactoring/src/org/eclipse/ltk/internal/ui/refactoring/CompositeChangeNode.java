@@ -44,9 +44,28 @@ public class CompositeChangeNode extends AbstractChangeNode {
 	PreviewNode[] doCreateChildren() {
 		List<PreviewNode> children= new ArrayList<>();
 		getFlattendedChildren(children, this, (CompositeChange)getChange());
+		ChangeSummary summary= getSummary();
+		for (PreviewNode child : children) {
+			if (child instanceof AbstractChangeNode) {
+				AbstractChangeNode changeNode= (AbstractChangeNode) child;
+				ChangeSummary childSummary= summary.getChildSummary(changeNode.getChange());
+				if (childSummary != null)
+					changeNode.setSummary(childSummary);
+			}
+		}
 		return children.toArray(new PreviewNode[children.size()]);
 	}
 
+	@Override
+	boolean mayHaveChildren() {
+		return ((CompositeChange)getChange()).getChildren().length > 0;
+	}
+
+	@Override
+	ChangeSummary computeSummary() {
+		return ChangeSummary.create(getChange(), fFilter);
+	}
+
 	private void getFlattendedChildren(List<PreviewNode> result, CompositeChangeNode parent, CompositeChange focus) {
 		for (Change change : focus.getChildren()) {
 			if (fFilter == null || fFilter.select(change)) {
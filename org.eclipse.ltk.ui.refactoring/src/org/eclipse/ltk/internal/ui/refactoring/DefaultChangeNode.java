@@ -30,4 +30,9 @@ public class DefaultChangeNode extends AbstractChangeNode {
 	PreviewNode[] doCreateChildren() {
 		return EMPTY_CHILDREN;
 	}
+
+	@Override
+	boolean mayHaveChildren() {
+		return false;
+	}
 }
\ No newline at end of file
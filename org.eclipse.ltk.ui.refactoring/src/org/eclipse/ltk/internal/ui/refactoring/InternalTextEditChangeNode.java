@@ -17,7 +17,9 @@ import java.util.List;
 
 import org.eclipse.ltk.core.refactoring.Change;
 import org.eclipse.ltk.core.refactoring.GroupCategory;
+import org.eclipse.ltk.core.refactoring.MultiStateTextFileChange;
 import org.eclipse.ltk.core.refactoring.TextEditBasedChange;
+import org.eclipse.ltk.core.refactoring.TextEditBasedChangeGroup;
 import org.eclipse.ltk.ui.refactoring.TextEditChangeNode;
 import org.eclipse.ltk.ui.refactoring.TextEditChangeNode.ChildNode;
 
@@ -46,6 +48,20 @@ public abstract class InternalTextEditChangeNode extends AbstractChangeNode {
 		return createChildNodes();
 	}
 
+	@Override
+	boolean mayHaveChildren() {
+		// creating the child nodes may require to analyze the modified element, e.g. to find the
+		// language elements containing the changes
+		TextEditBasedChange change= getTextEditBasedChange();
+		if (change instanceof MultiStateTextFileChange)
+			return false;
+		for (TextEditBasedChangeGroup group : change.getChangeGroups()) {
+			if (!group.getTextEditGroup().isEmpty())
+				return true;
+		}
+		return false;
+	}
+
 	protected static TextEditChangeNode internalGetTextEditChangeNode(PreviewNode node) {
 		PreviewNode element= node.getParent();
 		while(!(element instanceof TextEditChangeNode) && element != null) {
@@ -153,6 +153,17 @@ public abstract class PreviewNode {
 	 */
 	abstract PreviewNode[] getChildren();
 
+	/**
+	 * Returns whether the change element has children. Subclasses may
+	 * answer without creating the children.
+	 *
+	 * @return whether the change element has children
+	 */
+	boolean hasChildren() {
+		PreviewNode[] children= getChildren();
+		return children != null && children.length > 0;
+	}
+
 	/**
 	 * Returns <code>true</code> if the change node has
 	 * one of the given group categories. Otherwise,
@@ -74,8 +74,6 @@ import org.eclipse.ltk.core.refactoring.CompositeChange;
 import org.eclipse.ltk.core.refactoring.GroupCategory;
 import org.eclipse.ltk.core.refactoring.NullChange;
 import org.eclipse.ltk.core.refactoring.RefactoringStatus;
-import org.eclipse.ltk.core.refactoring.TextEditBasedChange;
-import org.eclipse.ltk.core.refactoring.TextEditBasedChangeGroup;
 import org.eclipse.ltk.internal.ui.refactoring.util.ViewerPane;
 import org.eclipse.ltk.ui.refactoring.ChangePreviewViewerInput;
 import org.eclipse.ltk.ui.refactoring.IChangePreviewViewer;
@@ -677,22 +675,12 @@ public class PreviewWizardPage extends RefactoringWizardPage implements IPreview
 
 	private Collection<GroupCategory> collectGroupCategories() {
 		Set<GroupCategory> result= new HashSet<>();
-		collectGroupCategories(result, fChange);
+		Object input= fTreeViewer.getInput();
+		if (input instanceof AbstractChangeNode) // the summary is shared with the tree filters
+			result.addAll(((AbstractChangeNode)input).getSummary().getGroupCategories());
 		return result;
 	}
 
-	private void collectGroupCategories(Set<GroupCategory> result, Change change) {
-		if (change instanceof TextEditBasedChange) {
-			for (TextEditBasedChangeGroup group : ((TextEditBasedChange)change).getChangeGroups()) {
-				result.addAll(group.getGroupCategorySet().asList());
-			}
-		} else if (change instanceof CompositeChange) {
-			for (Change child : ((CompositeChange)change).getChildren()) {
-				collectGroupCategories(result, child);
-			}
-		}
-	}
-
 	private void setActiveGroupCategory(GroupCategory category) {
 		if (fActiveGroupCategories == null) {
 			fActiveGroupCategories= new ArrayList<>(1);
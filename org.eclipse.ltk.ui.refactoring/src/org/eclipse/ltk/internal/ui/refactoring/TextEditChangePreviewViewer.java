@@ -16,6 +16,10 @@ package org.eclipse.ltk.internal.ui.refactoring;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Image;
@@ -54,8 +58,43 @@ import org.eclipse.ltk.ui.refactoring.IChangePreviewViewer;
 
 public class TextEditChangePreviewViewer implements IChangePreviewViewer {
 
+	/**
+	 * The maximum number of changes whose preview contents are cached, defaults to the
+	 * <code>ltk.previewCacheSize</code> system property.
+	 */
+	private static final int PREVIEW_CACHE_SIZE= Integer.getInteger("ltk.previewCacheSize", 16).intValue(); //$NON-NLS-1$
+
+	private static final Object ALL_GROUPS= new Object();
+
 	private ComparePreviewer fViewer;
 
+	/** The preview contents of the most recently shown changes */
+	private final Map<TextEditBasedChange, PreviewContents> fPreviewCache= new LinkedHashMap<TextEditBasedChange, PreviewContents>(PREVIEW_CACHE_SIZE, 0.75f, true) {
+
+		private static final long serialVersionUID= 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<TextEditBasedChange, PreviewContents> entry) {
+			return size() > PREVIEW_CACHE_SIZE;
+		}
+	};
+
+	private interface ContentsProvider {
+		String[] getContents() throws CoreException;
+	}
+
+	/**
+	 * The original and the refactored contents shown for the inputs of a change. They are valid
+	 * as long as the enablement of the change groups is the same.
+	 */
+	private static class PreviewContents {
+		final boolean[] fEnablement;
+		final Map<Object, String[]> fContents= new HashMap<>();
+		PreviewContents(boolean[] enablement) {
+			fEnablement= enablement;
+		}
+	}
+
 	private static class TextEditBasedChangeInput extends ChangePreviewViewerInput {
 		TextEditBasedChangeGroup group;
 		int surroundingLines;
@@ -182,6 +221,7 @@ public class TextEditChangePreviewViewer implements IChangePreviewViewer {
 	@Override
 	public void createControl(Composite parent) {
 		fViewer= new ComparePreviewer(parent);
+		fViewer.addDisposeListener(e -> fPreviewCache.clear());
 	}
 
 	@Override
@@ -198,23 +238,30 @@ public class TextEditChangePreviewViewer implements IChangePreviewViewer {
 				if (extended.group != null && extended.surroundingLines >= 0) {
 					TextEditBasedChangeGroup group= extended.group;
 					TextEditBasedChange editChange= group.getTextEditChange();
-					setInput(editChange, editChange.getCurrentContent(group.getRegion(), true, 2, new NullProgressMonitor()),
-						editChange.getPreviewContent(new TextEditBasedChangeGroup[] { group }, group.getRegion(), true, 2, new NullProgressMonitor()),
-						editChange.getTextType());
+					String[] contents= getContents(editChange, group, () -> new String[] {
+						editChange.getCurrentContent(group.getRegion(), true, 2, new NullProgressMonitor()),
+						editChange.getPreviewContent(new TextEditBasedChangeGroup[] { group }, group.getRegion(), true, 2, new NullProgressMonitor()) });
+					setInput(editChange, contents[0], contents[1], editChange.getTextType());
 					return;
 				} else if (extended.groups != null && extended.groups.length > 0 && extended.range != null) {
 					TextEditBasedChange editChange= extended.groups[0].getTextEditChange();
 					TextEditBasedChangeGroup[] groups= extended.groups;
-					setInput(editChange, editChange.getCurrentContent(extended.range, true, 0, new NullProgressMonitor()),
-						editChange.getPreviewContent(groups, extended.range, true, 0, new NullProgressMonitor()),
-						editChange.getTextType());
+					String[] contents= getContents(editChange, Arrays.asList(Arrays.asList(groups), extended.range), () -> new String[] {
+						editChange.getCurrentContent(extended.range, true, 0, new NullProgressMonitor()),
+						editChange.getPreviewContent(groups, extended.range, true, 0, new NullProgressMonitor()) });
+					setInput(editChange, contents[0], contents[1], editChange.getTextType());
 					return;
 				}
 			} else if (change instanceof TextEditBasedChange) {
 				TextEditBasedChange editChange= (TextEditBasedChange)change;
-				setInput(editChange, editChange.getCurrentContent(new NullProgressMonitor()), editChange.getPreviewContent(new NullProgressMonitor()), editChange.getTextType());
+				String[] contents= getContents(editChange, ALL_GROUPS, () -> new String[] {
+					editChange.getCurrentContent(new NullProgressMonitor()),
+					editChange.getPreviewContent(new NullProgressMonitor()) });
+				setInput(editChange, contents[0], contents[1], editChange.getTextType());
 				return;
 			} else {
+				// e.g. the null change set when the preview page is hidden
+				fPreviewCache.clear();
 				fViewer.setInput(null);
 			}
 		} catch (CoreException | AssertionFailedException e) {
@@ -227,6 +274,35 @@ public class TextEditChangePreviewViewer implements IChangePreviewViewer {
 		fViewer.getViewer().refresh();
 	}
 
+	/**
+	 * Returns the cached contents for the given change and key, or computes them. Only the
+	 * contents of the most recently shown changes are kept.
+	 *
+	 * @param change the change
+	 * @param key the key identifying the shown part of the change
+	 * @param provider computes the original and the refactored contents
+	 * @return the original and the refactored contents
+	 * @throws CoreException if the contents cannot be computed
+	 */
+	private String[] getContents(TextEditBasedChange change, Object key, ContentsProvider provider) throws CoreException {
+		TextEditBasedChangeGroup[] groups= change.getChangeGroups();
+		boolean[] enablement= new boolean[groups.length];
+		for (int i= 0; i < groups.length; i++)
+			enablement[i]= groups[i].isEnabled();
+
+		PreviewContents previewContents= fPreviewCache.get(change);
+		if (previewContents == null || !Arrays.equals(previewContents.fEnablement, enablement)) {
+			previewContents= new PreviewContents(enablement);
+			fPreviewCache.put(change, previewContents);
+		}
+		String[] result= previewContents.fContents.get(key);
+		if (result == null) {
+			result= provider.getContents();
+			previewContents.fContents.put(key, result);
+		}
+		return result;
+	}
+
 	private void setInput(TextEditBasedChange change, String left, String right, String type) {
 		Object element= change.getModifiedElement();
 		IResource resource= null;